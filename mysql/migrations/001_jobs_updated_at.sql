@@ -0,0 +1,19 @@
+-- Adds the Jobs.UpdatedAt column and its index to a database created before geoJobSearchSetup.sql
+-- had them. The setup script only runs on an empty data volume, so existing installs need this
+-- once; without the column the Spring change poll fails and only the invalidation endpoint
+-- advances the dataset generation.
+--
+-- Run against the database container, for example:
+--   docker exec -i algorise-mysql mariadb -uroot -p GeoJobSearch < mysql/migrations/001_jobs_updated_at.sql
+--
+-- Existing rows take the time of the migration. The IF NOT EXISTS clauses are MariaDB syntax and
+-- make a second run a no-op.
+
+USE GeoJobSearch;
+
+ALTER TABLE Jobs
+    ADD COLUMN IF NOT EXISTS UpdatedAt TIMESTAMP(6) NOT NULL
+        DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+-- Lets the change poll read MAX(UpdatedAt) from the end of an index
+CREATE INDEX IF NOT EXISTS idx_jobs_updated ON Jobs (UpdatedAt);
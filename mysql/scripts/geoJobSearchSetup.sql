@@ -40,11 +40,22 @@ CREATE TABLE `Jobs` (
     JobType VARCHAR(255) NOT NULL,
     Date DATE,
     JobURL TEXT,
+    UpdatedAt TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
     PRIMARY KEY (JobUID),
     UNIQUE (JobID),
     FOREIGN KEY (CompanyUID) REFERENCES Company(CompanyUID)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Filter and sort columns of the job queries: equality on Location and JobType, salary ranges,
+-- and the salary and date keyset pages, which order by the column and then JobID
+CREATE INDEX idx_jobs_location ON Jobs (Location);
+CREATE INDEX idx_jobs_jobtype ON Jobs (JobType);
+CREATE INDEX idx_jobs_salary ON Jobs (Salary, JobID);
+CREATE INDEX idx_jobs_date ON Jobs (Date, JobID);
+-- Lets the change poll read MAX(UpdatedAt) from the end of an index. Databases created before
+-- UpdatedAt existed get the column and this index from mysql/migrations/001_jobs_updated_at.sql
+CREATE INDEX idx_jobs_updated ON Jobs (UpdatedAt);
+
 
 INSERT INTO Company (CompanyUID, Name, City, Province, Address, Latitude, Longitude) VALUES ('101computerinnovationsinc._calgary_ab', '101 Computer Innovations Inc.', 'Calgary', 'AB', '629 James Mckevitt Rd SW, Calgary, AB T2Y 2E7, Canada', 50.92123, -114.0742814);
 INSERT INTO Company (CompanyUID, Name, City, Province, Address, Latitude, Longitude) VALUES ('304260_markham_on', '304260', 'Markham', 'ON', 'Markham, ON, Canada', 43.8561002, -79.3370188);
@@ -7,11 +7,41 @@ import PropTypes from 'prop-types';
 const SearchBar = ({ onSearch, SetKeyword, Keyword }) => {
 
     const [search, setSearch] = useState('');
+    const [suggestions, setSuggestions] = useState([]);
 
     const handleSearch = ()=>{
         SetKeyword(search);
     };
 
+    // Suggestions while typing are cheap; the full search only runs on submit
+    useEffect(() => {
+
+        if (search.trim().length < 2) {
+            setSuggestions([]);
+            return undefined;
+        }
+
+        const timer = setTimeout(() => {
+            axios.get('/api/jobs/suggest', {params: {
+
+                prefix: search,
+                limit: 8
+
+            }})
+
+            .then(response => {
+                setSuggestions(response.data);
+            })
+
+            .catch(error => {
+                console.error('Error fetching suggestions:', error);
+            });
+        }, 150);
+
+        return () => clearTimeout(timer);
+
+    }, [search]);
+
     useEffect(() => {
 
         axios.get('/api/jobs/search', {params: {
@@ -43,8 +73,17 @@ const SearchBar = ({ onSearch, SetKeyword, Keyword }) => {
                 placeholder="Search jobs..."
                 value={search}
                 onChange={(e) => setSearch(e.target.value)}
+                onKeyDown={(e) => e.key === 'Enter' && handleSearch()}
                 className="search-input"
+                list="search-suggestions"
             />
+            <datalist id="search-suggestions">
+                {suggestions.map(suggestion => (
+                    <option key={suggestion.type + suggestion.text} value={suggestion.text}>
+                        {suggestion.type}
+                    </option>
+                ))}
+            </datalist>
             <button onClick={handleSearch} className="search-button">
                 Search
             </button>
@@ -0,0 +1,115 @@
+package dev.algorise.geojobsearch.benchmark;
+
+import dev.algorise.geojobsearch.model.FacetResult;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.service.FacetService;
+import dev.algorise.geojobsearch.snapshot.BitmapIndex;
+import dev.algorise.geojobsearch.snapshot.FacetCube;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Facet aggregation of {@code /facets}: the single pass over rows already read from the
+ * database, and the same facets answered by bitmap intersection. The grouped counts behind
+ * {@code /locations} and {@code /salary} are compared between the bitmap index and the facet
+ * cube.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class FacetBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  private int size;
+
+  private FacetService facetService;
+
+  private FacetService bitmapFacetService;
+
+  private BitmapIndex bitmapIndex;
+
+  private FacetCube facetCube;
+
+  private final JobFilter locationFilter = JobFilter.of(null, "Full-time", 60000, 150000);
+
+  private final JobFilter salaryFilter = JobFilter.of("Toronto, ON", "Full-time", null, null);
+
+  @Setup
+  public void setUp() {
+    JobRepository jobRepository = InMemoryJobRepository.over(SyntheticJobs.generate(size));
+    KeywordIndex keywordIndex = new KeywordIndex(jobRepository);
+    keywordIndex.rebuild();
+    facetService = new FacetService(jobRepository, keywordIndex, new BitmapIndex(jobRepository));
+    bitmapIndex = new BitmapIndex(jobRepository);
+    bitmapIndex.rebuild();
+    bitmapFacetService = new FacetService(jobRepository, keywordIndex, bitmapIndex);
+    facetCube = new FacetCube(jobRepository);
+    facetCube.rebuild();
+  }
+
+  @Benchmark
+  public FacetResult facetsUnfiltered() {
+    return facetService.getFacets(null, null, null, null, null, 0, 20);
+  }
+
+  @Benchmark
+  public FacetResult facetsFiltered() {
+    return facetService.getFacets("Toronto, ON", "Full-time", 60000, 150000, null, 0, 20);
+  }
+
+  @Benchmark
+  public FacetResult facetsWithSearch() {
+    return facetService.getFacets(null, "Full-time", null, null, "java developer", 0, 20);
+  }
+
+  @Benchmark
+  public FacetResult bitmapFacetsUnfiltered() {
+    return bitmapFacetService.getFacets(null, null, null, null, null, 0, 20);
+  }
+
+  @Benchmark
+  public FacetResult bitmapFacetsFiltered() {
+    return bitmapFacetService.getFacets("Toronto, ON", "Full-time", 60000, 150000, null, 0, 20);
+  }
+
+  @Benchmark
+  public FacetResult bitmapFacetsWithSearch() {
+    return bitmapFacetService.getFacets(null, "Full-time", null, null, "java developer", 0, 20);
+  }
+
+  @Benchmark
+  public List<Object[]> bitmapLocationCounts() {
+    return bitmapIndex.countBy(BitmapIndex.Facet.LOCATION, locationFilter);
+  }
+
+  @Benchmark
+  public List<Object[]> cubeLocationCounts() {
+    return facetCube.countBy(BitmapIndex.Facet.LOCATION, locationFilter);
+  }
+
+  @Benchmark
+  public List<Object[]> bitmapSalaryCounts() {
+    return bitmapIndex.countBySalaryRange(salaryFilter, BitmapIndex.SALARY_BUCKET);
+  }
+
+  @Benchmark
+  public List<Object[]> cubeSalaryCounts() {
+    return facetCube.countBySalaryRange(salaryFilter, BitmapIndex.SALARY_BUCKET);
+  }
+}
@@ -0,0 +1,99 @@
+package dev.algorise.geojobsearch.benchmark;
+
+import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobListing;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.search.RankedSearchIndex;
+import dev.algorise.geojobsearch.search.SuggestIndex;
+import dev.algorise.geojobsearch.service.JobFieldService;
+import dev.algorise.geojobsearch.service.JobService;
+import dev.algorise.geojobsearch.snapshot.BitmapIndex;
+import dev.algorise.geojobsearch.snapshot.FacetCube;
+import dev.algorise.geojobsearch.snapshot.JobSnapshot;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Location, job type and salary filter evaluation: the columnar snapshot loop against the same
+ * predicates over {@code Job} entities, and the full {@code getJobsByFilter} path with the
+ * primary key load answered in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class FilterBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  private int size;
+
+  @Param({"Toronto, ON", "Whitby, ON"})
+  private String location;
+
+  private static final String JOB_TYPE = "Full-time";
+
+  private static final int MIN_SALARY = 60000;
+
+  private List<Job> jobs;
+
+  private JobSnapshot jobSnapshot;
+
+  private JobService jobService;
+
+  private JobFilter filter;
+
+  @Setup
+  public void setUp() {
+    jobs = SyntheticJobs.generate(size);
+    JobRepository jobRepository = InMemoryJobRepository.over(jobs);
+    jobSnapshot = new JobSnapshot(jobRepository);
+    jobSnapshot.rebuild();
+    jobService = new JobService(jobRepository, new KeywordIndex(jobRepository), jobSnapshot,
+        new BitmapIndex(jobRepository), new RankedSearchIndex(jobRepository, 200),
+        new SuggestIndex(jobRepository), new JobFieldService(jobRepository, 1000, 10000),
+        new FacetCube(jobRepository));
+    filter = JobFilter.of(location, JOB_TYPE, MIN_SALARY, null);
+  }
+
+  @Benchmark
+  public long[] snapshotMatch() {
+    return jobSnapshot.matchIds(filter, null);
+  }
+
+  @Benchmark
+  public long[] snapshotMatchBySalary() {
+    return jobSnapshot.matchIds(filter, "salary");
+  }
+
+  @Benchmark
+  public List<Long> entityMatch() {
+    BigDecimal minSalary = BigDecimal.valueOf(MIN_SALARY);
+    return jobs.stream()
+        .filter(job -> location.equals(job.getLocation()) && JOB_TYPE.equals(job.getJobType())
+            && job.getSalary() != null && job.getSalary().compareTo(minSalary) >= 0)
+        .map(Job::getJobID)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<JobListing> getJobsByFilter() {
+    return jobService.getJobsByFilter(location, JOB_TYPE, MIN_SALARY, null);
+  }
+}
@@ -0,0 +1,170 @@
+package dev.algorise.geojobsearch.benchmark;
+
+import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobSummary;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * {@link JobRepository} backed by an in-memory job list, so service benchmarks measure the Java
+ * side of a request without a database. Only the methods the benchmarks call are implemented;
+ * grouped counts are precomputed because in production they are answered by MySQL.
+ */
+final class InMemoryJobRepository {
+
+  private InMemoryJobRepository() {
+  }
+
+  static JobRepository over(List<Job> jobs) {
+    List<Object[]> facetRows = jobs.stream()
+        .map(job -> new Object[] {job.getJobID(), job.getLocation(), job.getJobType(), job.getSalary()})
+        .collect(Collectors.toList());
+    List<Object[]> locationCounts = countBy(jobs, Job::getLocation);
+    List<Object[]> jobTypeCounts = countBy(jobs, Job::getJobType);
+    List<Object[]> salaryCounts = salaryRanges(jobs);
+
+    return (JobRepository) Proxy.newProxyInstance(JobRepository.class.getClassLoader(),
+        new Class<?>[] {JobRepository.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "findAll":
+              return jobs;
+            case "streamJobs":
+              return jobs.stream();
+            case "findFacetRows":
+              return facetRows(facetRows, (JobFilter) args[0]);
+            case "findSummariesByIds":
+              return summaries(jobs, (Collection<?>) args[0]);
+            case "findSearchableTextAfter":
+              return searchableText(jobs, (Long) args[0], (Pageable) args[1]);
+            case "findSnapshotRowsAfter":
+              return batchRows(jobs, (Long) args[0], (Pageable) args[1], InMemoryJobRepository::snapshotRow);
+            case "findBitmapRowsAfter":
+              return batchRows(jobs, (Long) args[0], (Pageable) args[1], InMemoryJobRepository::bitmapRow);
+            case "findSearchableTextByIds":
+              return rowsByIds(jobs, (Collection<?>) args[0], job -> new Object[] {
+                  job.getJobID(), job.getTitle(), job.getDescription(), job.getCompany()});
+            case "findSnapshotRowsByIds":
+              return rowsByIds(jobs, (Collection<?>) args[0], InMemoryJobRepository::snapshotRow);
+            case "findBitmapRowsByIds":
+              return rowsByIds(jobs, (Collection<?>) args[0], InMemoryJobRepository::bitmapRow);
+            case "findAllById":
+              return byIds(jobs, (Iterable<?>) args[0]);
+            case "findTitleCounts":
+              return countBy(jobs, Job::getTitle);
+            case "findCompanyNameCounts":
+              return countBy(jobs, job -> job.getCompanyT().getName());
+            case "findCityCounts":
+              return countBy(jobs, Job::getCity);
+            case "countByLocation":
+              return locationCounts;
+            case "countByJobType":
+              return jobTypeCounts;
+            case "countBySalaryRange":
+              return salaryCounts;
+            case "toString":
+              return "InMemoryJobRepository[" + jobs.size() + "]";
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  private static List<Object[]> facetRows(List<Object[]> rows, JobFilter filter) {
+    // The keyword index matches stand in for the LIKE predicates of the real query
+    BitSet matches = filter.getKeywordMatches();
+    Set<Object> ids = filter.getJobIds() == null ? null : new HashSet<>(filter.getJobIds());
+    if (matches == null && ids == null) {
+      return rows;
+    }
+    return rows.stream()
+        .filter(row -> matches == null || matches.get(((Number) row[0]).intValue()))
+        .filter(row -> ids == null || ids.contains(row[0]))
+        .collect(Collectors.toList());
+  }
+
+  private static List<JobSummary> summaries(List<Job> jobs, Collection<?> ids) {
+    List<JobSummary> result = new ArrayList<>(ids.size());
+    for (Object id : ids) {
+      // JobIDs are 1..size, so the id doubles as a list index
+      Job job = jobs.get(((Long) id).intValue() - 1);
+      result.add(new JobSummary(job.getJobID(), job.getTitle(), job.getCompany(), job.getLocation(),
+          job.getSalary(), job.getJobType(), job.getDate(), job.getJobURL()));
+    }
+    return result;
+  }
+
+  private static List<Object[]> searchableText(List<Job> jobs, Long afterId, Pageable pageable) {
+    int from = afterId.intValue();
+    int to = Math.min(jobs.size(), from + pageable.getPageSize());
+    List<Object[]> rows = new ArrayList<>(Math.max(0, to - from));
+    for (Job job : jobs.subList(Math.min(from, to), to)) {
+      rows.add(new Object[] {job.getJobID(), job.getTitle(), job.getDescription(), job.getCompany()});
+    }
+    return rows;
+  }
+
+  private static List<Object[]> batchRows(List<Job> jobs, Long afterId, Pageable pageable,
+      Function<Job, Object[]> columns) {
+    int from = afterId.intValue();
+    int to = Math.min(jobs.size(), from + pageable.getPageSize());
+    List<Object[]> rows = new ArrayList<>(Math.max(0, to - from));
+    for (Job job : jobs.subList(Math.min(from, to), to)) {
+      rows.add(columns.apply(job));
+    }
+    return rows;
+  }
+
+  private static Object[] snapshotRow(Job job) {
+    return new Object[] {job.getJobID(), job.getLocation(), job.getJobType(), job.getSalary(),
+        job.getDate(), job.getCompanyT().getLatitude(), job.getCompanyT().getLongitude()};
+  }
+
+  private static Object[] bitmapRow(Job job) {
+    return new Object[] {job.getJobID(), job.getLocation(), job.getJobType(), job.getCity(),
+        job.getProvince(), job.getSalary()};
+  }
+
+  private static List<Object[]> rowsByIds(List<Job> jobs, Collection<?> ids,
+      Function<Job, Object[]> columns) {
+    List<Object[]> rows = new ArrayList<>(ids.size());
+    for (Job job : byIds(jobs, ids)) {
+      rows.add(columns.apply(job));
+    }
+    return rows;
+  }
+
+  private static List<Job> byIds(List<Job> jobs, Iterable<?> ids) {
+    List<Job> result = new ArrayList<>();
+    for (Object id : ids) {
+      result.add(jobs.get(((Long) id).intValue() - 1));
+    }
+    return result;
+  }
+
+  private static List<Object[]> countBy(List<Job> jobs, Function<Job, String> attribute) {
+    return jobs.stream().collect(Collectors.groupingBy(attribute, TreeMap::new, Collectors.counting()))
+        .entrySet().stream().map(entry -> new Object[] {entry.getKey(), entry.getValue()})
+        .collect(Collectors.toList());
+  }
+
+  private static List<Object[]> salaryRanges(List<Job> jobs) {
+    Map<Long, Long> buckets = jobs.stream().map(Job::getSalary).filter(salary -> salary != null)
+        .collect(Collectors.groupingBy(salary -> (long) (salary.intValue() / 50000),
+            TreeMap::new, Collectors.counting()));
+    return buckets.entrySet().stream()
+        .map(entry -> new Object[] {entry.getKey() * 50000, entry.getKey() * 50000 + 49999, entry.getValue()})
+        .collect(Collectors.toList());
+  }
+}
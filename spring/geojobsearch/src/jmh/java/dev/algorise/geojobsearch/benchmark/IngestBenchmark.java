@@ -0,0 +1,94 @@
+package dev.algorise.geojobsearch.benchmark;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.snapshot.BitmapIndex;
+import dev.algorise.geojobsearch.snapshot.JobSnapshot;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Keeping the in-memory indexes current after a batch upsert: patching in the changed jobs
+ * against rebuilding from the table. The repository is in memory, so the rebuilds here leave out
+ * the cost of reading every row from MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class IngestBenchmark {
+
+  @Param({"10000", "100000"})
+  private int size;
+
+  @Param({"500"})
+  private int changed;
+
+  private JobSnapshot jobSnapshot;
+
+  private BitmapIndex bitmapIndex;
+
+  private KeywordIndex keywordIndex;
+
+  private DataChangedEvent event;
+
+  @Setup
+  public void setUp() {
+    JobRepository jobRepository = InMemoryJobRepository.over(SyntheticJobs.generate(size));
+    jobSnapshot = new JobSnapshot(jobRepository);
+    jobSnapshot.rebuild();
+    bitmapIndex = new BitmapIndex(jobRepository);
+    bitmapIndex.rebuild();
+    keywordIndex = new KeywordIndex(jobRepository);
+    keywordIndex.rebuild();
+    // Updates spread over the table, as a re-scrape of existing postings produces
+    long[] jobIds = new long[changed];
+    for (int i = 0; i < changed; i++) {
+      jobIds[i] = 1 + (long) i * size / changed;
+    }
+    event = new DataChangedEvent(2, jobIds);
+  }
+
+  @Benchmark
+  public void snapshotRebuild() {
+    jobSnapshot.rebuild();
+  }
+
+  @Benchmark
+  public void snapshotPatch() {
+    jobSnapshot.onDataChanged(event);
+  }
+
+  @Benchmark
+  public void bitmapRebuild() {
+    bitmapIndex.rebuild();
+  }
+
+  @Benchmark
+  public void bitmapPatch() {
+    bitmapIndex.onDataChanged(event);
+  }
+
+  @Benchmark
+  public void keywordRebuild() {
+    keywordIndex.rebuild();
+  }
+
+  @Benchmark
+  public void keywordPatch() {
+    keywordIndex.onDataChanged(event);
+  }
+}
@@ -0,0 +1,115 @@
+package dev.algorise.geojobsearch.benchmark;
+
+import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.Suggestion;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.search.RankedSearchIndex;
+import dev.algorise.geojobsearch.search.SuggestIndex;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * In-memory keyword search: the linear stream filters that used to run over {@code /sort} and
+ * {@code /coordinates} results, kept here as the baseline, against the inverted keyword index,
+ * the BM25 ranked top-k search of {@code /search} and the prefix suggestions of {@code /suggest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SearchBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  private int size;
+
+  @Param({"developer", "senior java remote"})
+  private String search;
+
+  private KeywordIndex keywordIndex;
+
+  private RankedSearchIndex rankedSearchIndex;
+
+  private SuggestIndex suggestIndex;
+
+  private List<Job> jobs;
+
+  private List<Object[]> jobsWithCoordinates;
+
+  private List<String> keywords;
+
+  @Setup
+  public void setUp() {
+    jobs = SyntheticJobs.generate(size);
+    jobsWithCoordinates = jobs.stream()
+        .map(job -> new Object[] {job, job.getCompanyT().getLatitude(), job.getCompanyT().getLongitude()})
+        .collect(Collectors.toList());
+    JobRepository jobRepository = InMemoryJobRepository.over(jobs);
+    keywordIndex = new KeywordIndex(jobRepository);
+    keywordIndex.rebuild();
+    rankedSearchIndex = new RankedSearchIndex(jobRepository, 200);
+    rankedSearchIndex.rebuild();
+    suggestIndex = new SuggestIndex(jobRepository);
+    suggestIndex.rebuild();
+    keywords = Arrays.asList(search.split(" "));
+  }
+
+  @Benchmark
+  public List<Job> updateJobsBySearch() {
+    String[] terms = baselineKeywords(search);
+    return jobs.stream()
+        .filter(job -> containsAny(job, terms))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Object[]> filterJobsBySearch() {
+    String[] terms = baselineKeywords(search);
+    return jobsWithCoordinates.stream()
+        .filter(data -> containsAny((Job) data[0], terms))
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Long> keywordIndexMatchAny() {
+    return KeywordIndex.toIdList(keywordIndex.matchAny(keywords));
+  }
+
+  @Benchmark
+  public long[] rankedSearchTop20() {
+    return rankedSearchIndex.search(search, 20);
+  }
+
+  @Benchmark
+  public List<Suggestion> suggestPrefix() {
+    return suggestIndex.suggest(search.substring(0, 3), 8);
+  }
+
+  // The first four keywords, as the removed JobService filters split them
+  private static String[] baselineKeywords(String search) {
+    return search.toLowerCase(Locale.ROOT).split("\\s+", 4);
+  }
+
+  private static boolean containsAny(Job job, String[] terms) {
+    return Arrays.stream(terms).anyMatch(keyword ->
+        job.getTitle().toLowerCase(Locale.ROOT).contains(keyword)
+            || job.getDescription().toLowerCase(Locale.ROOT).contains(keyword)
+            || job.getCompany().toLowerCase(Locale.ROOT).contains(keyword));
+  }
+}
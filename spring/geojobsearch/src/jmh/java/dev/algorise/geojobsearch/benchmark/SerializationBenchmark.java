@@ -0,0 +1,135 @@
+package dev.algorise.geojobsearch.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.algorise.geojobsearch.api.JobController;
+import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobSummary;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.search.RankedSearchIndex;
+import dev.algorise.geojobsearch.search.SuggestIndex;
+import dev.algorise.geojobsearch.service.FacetService;
+import dev.algorise.geojobsearch.service.JobFieldService;
+import dev.algorise.geojobsearch.service.JobService;
+import dev.algorise.geojobsearch.snapshot.BitmapIndex;
+import dev.algorise.geojobsearch.snapshot.FacetCube;
+import dev.algorise.geojobsearch.snapshot.JobSnapshot;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON serialization of response bodies, with the same Jackson defaults as Spring MVC. Output
+ * goes to a counting stream so the measurement excludes buffer growth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SerializationBenchmark {
+
+  @Param({"10000", "100000", "1000000"})
+  private int size;
+
+  private ObjectMapper objectMapper;
+
+  private JobController jobController;
+
+  private List<Job> jobs;
+
+  private List<JobSummary> summaries;
+
+  private final CountingOutputStream out = new CountingOutputStream();
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    jobs = SyntheticJobs.generate(size);
+    summaries = jobs.stream()
+        .map(job -> new JobSummary(job.getJobID(), job.getTitle(), job.getCompany(), job.getLocation(),
+            job.getSalary(), job.getJobType(), job.getDate(), job.getJobURL()))
+        .collect(Collectors.toList());
+    JobRepository jobRepository = InMemoryJobRepository.over(jobs);
+    KeywordIndex keywordIndex = new KeywordIndex(jobRepository);
+    BitmapIndex bitmapIndex = new BitmapIndex(jobRepository);
+    JobService jobService = new JobService(jobRepository, keywordIndex, new JobSnapshot(jobRepository),
+        bitmapIndex, new RankedSearchIndex(jobRepository, 200),
+        new SuggestIndex(jobRepository), new JobFieldService(jobRepository, 1000, 10000),
+        new FacetCube(jobRepository));
+    jobController = new JobController(jobService, new FacetService(jobRepository, keywordIndex, bitmapIndex),
+        null, null, objectMapper);
+  }
+
+  @Benchmark
+  public long jobList() throws IOException {
+    return write(jobs);
+  }
+
+  @Benchmark
+  public long jobSummaryList() throws IOException {
+    return write(summaries);
+  }
+
+  // The NDJSON variant of GET /api/jobs, written job by job from the repository stream
+  @Benchmark
+  public long jobNdjson() throws IOException {
+    out.count = 0;
+    jobController.streamAllJobs().getBody().writeTo(out);
+    return out.count;
+  }
+
+  // The controller builds a Map.of row per count before serializing
+  @Benchmark
+  public long locationCountRows() throws IOException {
+    return write(jobController.getLocations(null, null, null));
+  }
+
+  @Benchmark
+  public long salaryCountRows() throws IOException {
+    return write(jobController.getSalary(null, null));
+  }
+
+  private long write(Object value) throws IOException {
+    out.count = 0;
+    objectMapper.writeValue(out, value);
+    return out.count;
+  }
+
+  /**
+   * Discards output, keeping only its length.
+   */
+  private static final class CountingOutputStream extends OutputStream {
+    private long count;
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+
+    @Override
+    public void close() {
+      // writeValue closes the target; keep the stream reusable
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package dev.algorise.geojobsearch.benchmark;
+
+import dev.algorise.geojobsearch.model.Company;
+import dev.algorise.geojobsearch.model.Job;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic job listings for benchmarks.
+ *
+ * <p>Shaped after the seed data in {@code mysql/}: a few hundred companies spread over Canadian
+ * cities with a long tail, mostly full-time postings, roughly one in five without a salary, and
+ * dates over the last year. The same size always yields the same jobs.
+ */
+public final class SyntheticJobs {
+
+  private static final long SEED = 20240401L;
+
+  private static final int COMPANY_COUNT = 270;
+
+  private static final String[][] CITIES = {
+      {"Toronto", "ON", "43.653226", "-79.3831843"},
+      {"Vancouver", "BC", "49.2827291", "-123.1207375"},
+      {"Montreal", "QC", "45.5018869", "-73.5673919"},
+      {"Calgary", "AB", "51.0447331", "-114.0718831"},
+      {"Ottawa", "ON", "45.4215296", "-75.6971931"},
+      {"Edmonton", "AB", "53.5461245", "-113.4938229"},
+      {"Markham", "ON", "43.8561002", "-79.3370188"},
+      {"Winnipeg", "MB", "49.895136", "-97.1383744"},
+      {"Halifax", "NS", "44.6487635", "-63.5752387"},
+      {"Burnaby", "BC", "49.2488091", "-122.9805104"},
+      {"Saint John", "NB", "45.2733153", "-66.0633081"},
+      {"Whitby", "ON", "43.8975446", "-78.942929"},
+      {"Remote", "Remote", null, null}};
+
+  private static final String[] JOB_TYPES = {"Full-time", "Part-time", "Contract", "Internship"};
+
+  private static final int[] JOB_TYPE_WEIGHTS = {70, 12, 12, 6};
+
+  private static final String[] LEVELS = {"", "Junior ", "Senior ", "Lead ", "Principal ", "Staff "};
+
+  private static final String[] ROLES = {"Software Engineer", "Java Developer", "Data Analyst",
+      "Marketing Specialist", "Frontend Developer", "DevOps Engineer", "Product Manager",
+      "QA Analyst", "Registered Nurse", "Accountant", "Customer Service Representative",
+      "Warehouse Associate", "Electrician", "Sales Representative", "Machine Learning Engineer"};
+
+  private static final String[] PHRASES = {"Exciting software development opportunity",
+      "Join our dynamic marketing team", "Analyzing and interpreting complex data sets",
+      "Work with Spring Boot, React and MySQL", "Hybrid schedule with remote days",
+      "Competitive benefits and RRSP matching", "Fast paced environment", "Bilingual an asset",
+      "Build REST APIs and data pipelines", "Support customers across Canada",
+      "Kubernetes and AWS experience preferred", "Flexible hours", "Python or Java required",
+      "Collaborate with product and design", "Valid driver licence required"};
+
+  private SyntheticJobs() {
+  }
+
+  /**
+   * Generate jobs with JobIDs 1..size.
+   * @param size - number of jobs
+   * @return the jobs, each linked to a geocoded (or remote) company
+   */
+  public static List<Job> generate(int size) {
+    Random random = new Random(SEED);
+    List<Company> companies = companies(random);
+    String[] descriptions = descriptions(random);
+    LocalDate today = LocalDate.of(2024, 4, 1);
+
+    List<Job> jobs = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      // Zipf-like company popularity: a few large employers post most jobs
+      Company company = companies.get((int) (COMPANY_COUNT * Math.pow(random.nextDouble(), 2.5)));
+      Job job = new Job();
+      job.setJobID((long) i);
+      job.setTitle(LEVELS[random.nextInt(LEVELS.length)] + ROLES[random.nextInt(ROLES.length)]);
+      job.setCompany(company.getName());
+      job.setCompanyT(company);
+      job.setCity(company.getCity());
+      job.setProvince(company.getProvince());
+      job.setLocation(company.getCity() + ", " + company.getProvince());
+      job.setDescription(descriptions[random.nextInt(descriptions.length)]);
+      job.setJobType(weighted(random, JOB_TYPES, JOB_TYPE_WEIGHTS));
+      if (random.nextInt(5) > 0) {
+        long salary = Math.round(Math.exp(11.2 + 0.35 * random.nextGaussian()) / 1000) * 1000;
+        job.setSalary(BigDecimal.valueOf(Math.max(30000, Math.min(250000, salary))));
+      }
+      job.setDate(java.sql.Date.valueOf(today.minusDays(random.nextInt(365))));
+      job.setJobURL("https://jobs.example.com/" + i);
+      jobs.add(job);
+    }
+    return jobs;
+  }
+
+  private static List<Company> companies(Random random) {
+    List<Company> companies = new ArrayList<>(COMPANY_COUNT);
+    for (int i = 0; i < COMPANY_COUNT; i++) {
+      String[] city = CITIES[(int) (CITIES.length * Math.pow(random.nextDouble(), 1.8))];
+      Company company = new Company();
+      company.setName("Company " + i);
+      company.setCity(city[0]);
+      company.setProvince(city[1]);
+      company.setCompanyUID("company" + i + "_" + city[0].toLowerCase() + "_" + city[1].toLowerCase());
+      if (city[2] != null) {
+        company.setLatitude(new BigDecimal(city[2]).add(BigDecimal.valueOf(random.nextGaussian() * 0.05)));
+        company.setLongitude(new BigDecimal(city[3]).add(BigDecimal.valueOf(random.nextGaussian() * 0.05)));
+      }
+      companies.add(company);
+    }
+    return companies;
+  }
+
+  private static String[] descriptions(Random random) {
+    // A pool of multi-sentence descriptions, shared between jobs like real templated postings
+    String[] descriptions = new String[500];
+    for (int i = 0; i < descriptions.length; i++) {
+      StringBuilder text = new StringBuilder();
+      int sentences = 3 + random.nextInt(6);
+      for (int s = 0; s < sentences; s++) {
+        text.append(PHRASES[random.nextInt(PHRASES.length)]).append(". ");
+      }
+      descriptions[i] = text.toString().trim();
+    }
+    return descriptions;
+  }
+
+  private static String weighted(Random random, String[] values, int[] weights) {
+    int roll = random.nextInt(100);
+    for (int i = 0; i < values.length; i++) {
+      roll -= weights[i];
+      if (roll < 0) {
+        return values[i];
+      }
+    }
+    return values[values.length - 1];
+  }
+}
@@ -5,6 +5,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main class for the Geojobsearch application.
@@ -13,6 +14,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EnableJpaRepositories("dev.algorise.geojobsearch.*")
 @EntityScan("dev.algorise.geojobsearch.*")
 @ComponentScan(basePackages = {"dev.algorise.geojobsearch.*"})
+@EnableScheduling
 
 public class GeojobsearchApplication {
   /**
@@ -0,0 +1,66 @@
+package dev.algorise.geojobsearch.api;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import dev.algorise.geojobsearch.cache.DataVersion;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Read cache statistics and the invalidation hook for the ingester.
+ */
+@RestController
+@RequestMapping("/api/jobs/cache")
+public class CacheController {
+  private final CacheManager cacheManager;
+
+  private final DataVersion dataVersion;
+
+  public CacheController(CacheManager cacheManager, DataVersion dataVersion) {
+    this.cacheManager = cacheManager;
+    this.dataVersion = dataVersion;
+  }
+
+  /**
+   * Hit, miss and eviction counts per cache, plus the current dataset generation.
+   */
+  @GetMapping("/stats")
+  public Map<String, Object> getStats() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("generation", dataVersion.current());
+    for (String name : cacheManager.getCacheNames()) {
+      if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+        CacheStats stats = cache.getNativeCache().stats();
+        result.put(name, Map.of(
+            "hits", stats.hitCount(),
+            "misses", stats.missCount(),
+            "hitRate", stats.hitRate(),
+            "evictions", stats.evictionCount(),
+            "evictedRows", stats.evictionWeight(),
+            "entries", cache.getNativeCache().estimatedSize()));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Called by the ingester after it writes jobs: schedules an advance of the dataset generation,
+   * which rebuilds the in-memory indexes and clears the caches in the background. Calls made
+   * before a scheduled advance starts share it. Requires the ingestion token.
+   *
+   * @return the generation at the time of the call; the caches follow once the rebuild is done
+   */
+  @PostMapping("/invalidate")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public long invalidate() {
+    dataVersion.requestAdvance("invalidation requested");
+    return dataVersion.current();
+  }
+}
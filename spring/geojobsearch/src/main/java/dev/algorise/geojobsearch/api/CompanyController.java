@@ -0,0 +1,44 @@
+package dev.algorise.geojobsearch.api;
+
+import dev.algorise.geojobsearch.model.CompanyUpsert;
+import dev.algorise.geojobsearch.model.IngestResult;
+import dev.algorise.geojobsearch.service.CompanyIngestService;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Batch company ingestion for the scraper's geocoding step.
+ */
+@RestController
+@RequestMapping("/api/companies")
+public class CompanyController {
+  private final CompanyIngestService companyIngestService;
+
+  public CompanyController(CompanyIngestService companyIngestService) {
+    this.companyIngestService = companyIngestService;
+  }
+
+  /**
+   * Insert or update a batch of companies by CompanyUID. Missing coordinates keep the stored ones.
+   * Requires the ingestion token.
+   *
+   * @param companies - the companies with their geocoding results
+   * @return the number of companies written and the dataset generation
+   */
+  @PostMapping("/batch")
+  public IngestResult upsertCompanies(@RequestBody List<CompanyUpsert> companies) {
+    return companyIngestService.upsert(companies);
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public String handleBadRequest(IllegalArgumentException e) {
+    return e.getMessage();
+  }
+}
@@ -0,0 +1,44 @@
+package dev.algorise.geojobsearch.api;
+
+import dev.algorise.geojobsearch.model.IngestResult;
+import dev.algorise.geojobsearch.model.JobUpsert;
+import dev.algorise.geojobsearch.service.JobIngestService;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Batch ingestion for the scraper, in place of writing to MySQL directly.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class IngestController {
+  private final JobIngestService jobIngestService;
+
+  public IngestController(JobIngestService jobIngestService) {
+    this.jobIngestService = jobIngestService;
+  }
+
+  /**
+   * Insert or update a batch of jobs by JobUID. The caches and in-memory indexes include them
+   * when the call returns. Requires the ingestion token.
+   *
+   * @param jobs - the scraped jobs
+   * @return the number of jobs written and the new dataset generation
+   */
+  @PostMapping("/batch")
+  public IngestResult upsertJobs(@RequestBody List<JobUpsert> jobs) {
+    return jobIngestService.upsert(jobs);
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public String handleBadRequest(IllegalArgumentException e) {
+    return e.getMessage();
+  }
+}
@@ -1,15 +1,40 @@
 package dev.algorise.geojobsearch.api;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.algorise.geojobsearch.geo.BoundingBox;
+import dev.algorise.geojobsearch.geo.MarkerCluster;
+import dev.algorise.geojobsearch.model.CursorPage;
+import dev.algorise.geojobsearch.model.FacetCounts;
+import dev.algorise.geojobsearch.model.FacetResult;
 import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobListing;
+import dev.algorise.geojobsearch.model.JobMarker;
+import dev.algorise.geojobsearch.model.JobSummary;
+import dev.algorise.geojobsearch.model.SalaryDistribution;
+import dev.algorise.geojobsearch.model.Suggestion;
+import dev.algorise.geojobsearch.service.FacetCountService;
+import dev.algorise.geojobsearch.service.FacetService;
 import dev.algorise.geojobsearch.service.JobService;
+import dev.algorise.geojobsearch.service.MapService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.Optional;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 /**
@@ -18,12 +43,29 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api/jobs")
 public class JobController {
+  private static final int MAX_PAGE_LIMIT = 500;
+
+  private static final double MAX_RADIUS_KM = 1000;
+
   private final JobService jobService;
 
+  private final FacetService facetService;
+
+  private final MapService mapService;
+
+  private final FacetCountService facetCountService;
+
+  private final ObjectMapper objectMapper;
+
 
   @Autowired
-  public JobController(JobService jobService) {
+  public JobController(JobService jobService, FacetService facetService, MapService mapService,
+      FacetCountService facetCountService, ObjectMapper objectMapper) {
     this.jobService = jobService;
+    this.facetService = facetService;
+    this.mapService = mapService;
+    this.facetCountService = facetCountService;
+    this.objectMapper = objectMapper;
   }
 
   /**
@@ -69,6 +111,21 @@ public class JobController {
     return jobService.getSalaryByJobId(id);
   }
 
+  /**
+   * HTTP GET method to retrieve some fields of many jobs in one round trip, for example
+   * /api/jobs/fields?ids=1,2,3&fields=title,url.
+   *
+   * @param ids - JobIDs, comma separated
+   * @param fields - field names, comma separated: title, company, location, city, province,
+   *     description, salary, jobType, date or url
+   * @return the requested fields keyed by JobID; unknown ids are left out
+   */
+  @GetMapping("/fields")
+  public Map<Long, Map<String, Object>> getJobFields(@RequestParam List<Long> ids,
+      @RequestParam List<String> fields) {
+    return jobService.getJobFields(ids, fields);
+  }
+
   @GetMapping("/filter-City")
   public List<Job> filterJobs(@RequestParam(required = false) String city) {
     if (city != null) {
@@ -194,6 +251,44 @@ public class JobController {
                                 "count", obj[2])).collect(Collectors.toList());
     }
 
+    /**
+     * HTTP GET method to retrieve the salary histogram with buckets of any width, for example
+     * /api/jobs/salary?bucketWidth=10000 to zoom in.
+     *
+     * @param location - a location as a String
+     * @param jobType - a job type as a String
+     * @param bucketWidth - width of each salary bucket, at least 1000
+     * @return rows of minSalary, maxSalary and count, jobs without a salary first
+     */
+    @GetMapping(value = "/salary", params = {"bucketWidth", "!percentiles"})
+    public List<Map<String, Object>> getSalaryHistogram(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam int bucketWidth
+    ){
+        return jobService.getSalaryDistribution(location, jobType, bucketWidth, List.of()).buckets();
+    }
+
+    /**
+     * HTTP GET method to retrieve the salary histogram together with salary percentiles, for
+     * example /api/jobs/salary?location=Toronto, ON&bucketWidth=10000&percentiles=50,90.
+     *
+     * @param location - a location as a String
+     * @param jobType - a job type as a String
+     * @param bucketWidth - width of each salary bucket, 50000 when not given
+     * @param percentiles - percentiles between 0 and 100, comma separated
+     * @return the histogram and one salary per percentile
+     */
+    @GetMapping(value = "/salary", params = "percentiles")
+    public SalaryDistribution getSalaryDistribution(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(defaultValue = "50000") int bucketWidth,
+        @RequestParam List<Double> percentiles
+    ){
+        return jobService.getSalaryDistribution(location, jobType, bucketWidth, percentiles);
+    }
+
     @GetMapping("/salary/search")
     public List<Map<String, Object>> getSalary(
         @RequestParam(required = false) String location,
@@ -224,8 +319,45 @@ public class JobController {
     }
 
 
+    /**
+     * Location, job type and salary histograms plus one page of matching jobs, computed from a
+     * single pass over the candidate rows instead of four separate requests.
+     */
+    @GetMapping("/facets")
+    public FacetResult getFacets(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam(required = false) String search,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size
+    ){
+
+        return facetService.getFacets(location, jobType, minSalary, maxSalary, search,
+            Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+    }
+
+
+    /**
+     * Location, job type and salary histograms queried concurrently. The request thread is released
+     * while they run; a facet that times out is null and listed in "unavailable".
+     */
+    @GetMapping("/facets/counts")
+    public CompletableFuture<FacetCounts> getFacetCounts(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam(required = false) String search
+    ){
+
+        return facetCountService.getFacetCounts(location, jobType, minSalary, maxSalary, search);
+    }
+
+
     @GetMapping("/filter")
-    public List<Job> getJobByFilter(
+    public List<JobListing> getJobByFilter(
         @RequestParam(required = false) String location,
         @RequestParam(required = false) String jobType,
         @RequestParam(required = false) Integer minSalary,
@@ -240,7 +372,7 @@ public class JobController {
 
 
     @GetMapping("/filter/search")
-    public List<Job> getJobByFilter(
+    public List<JobListing> getJobByFilter(
         @RequestParam(required = false) String location,
         @RequestParam(required = false) String jobType,
         @RequestParam(required = false) Integer minSalary,
@@ -269,14 +401,24 @@ public class JobController {
 
       
 
-        List<Job> searchList = jobService.updateJobsBySearch(jobService.getAllJobs(), keyword);
+        // Ranked and typo tolerant; a search that still matches nothing returns nothing
+        return jobService.searchJobs(keyword);
 
-        if(!searchList.isEmpty()){
-            return searchList;
-        }else{
-            return jobService.getAllJobs();
-        }
+    }
+
+
+    /**
+     * Search-as-you-type suggestions: titles, company names and cities with a word starting with
+     * the prefix, most jobs first. Answered from memory, so the UI can call it on every keystroke
+     * and run a real search only on submit.
+     */
+    @GetMapping("/suggest")
+    public List<Suggestion> suggest(
+        @RequestParam String prefix,
+        @RequestParam(defaultValue = "8") int limit
+    ){
 
+        return jobService.suggest(prefix, limit);
     }
 
 
@@ -296,7 +438,7 @@ public class JobController {
     }
 
 
-    @GetMapping("/coordinates")
+    @GetMapping(value = "/coordinates", params = {"!limit", "!bbox", "!near"})
     public List<Object[]> getJobCoordinates(
         @RequestParam(required = false) String location,
         @RequestParam(required = false) String jobType,
@@ -310,5 +452,266 @@ public class JobController {
     }
 
 
+    // Keyset paginated variants: selected instead of the list endpoints above when a limit is given
+
+    @GetMapping(params = "limit")
+    public CursorPage<JobSummary> getJobPage(
+        @RequestParam int limit,
+        @RequestParam(required = false) String cursor
+    ){
+
+        return jobService.getJobPage(null, null, null, null, null, false, null, cursor, pageLimit(limit));
+    }
+
+
+    @GetMapping(value = "/filter", params = "limit")
+    public CursorPage<JobSummary> getJobPageByFilter(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam int limit,
+        @RequestParam(required = false) String cursor
+    ){
+
+        return jobService.getJobPage(location, jobType, minSalary, maxSalary, null, false, null, cursor, pageLimit(limit));
+    }
+
+
+    @GetMapping(value = "/filter/search", params = "limit")
+    public CursorPage<JobSummary> getJobPageByFilter(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam(required = false) String search,
+        @RequestParam int limit,
+        @RequestParam(required = false) String cursor
+    ){
+
+        return jobService.getJobPage(location, jobType, minSalary, maxSalary, search, true, null, cursor, pageLimit(limit));
+    }
+
+
+    @GetMapping(value = "/search", params = "limit")
+    public CursorPage<JobSummary> getJobPageBySearch(
+        @RequestParam(required = false) String keyword,
+        @RequestParam int limit,
+        @RequestParam(required = false) String cursor
+    ){
+
+        return jobService.getSearchPage(keyword, cursor, pageLimit(limit));
+    }
+
+
+    @GetMapping(value = "/sort", params = "limit")
+    public CursorPage<JobSummary> getJobPageBySort(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam(required = false) String search,
+        @RequestParam(required = false) String sortBy,
+        @RequestParam int limit,
+        @RequestParam(required = false) String cursor
+    ){
+
+        return jobService.getJobPage(location, jobType, minSalary, maxSalary, search, false, sortBy, cursor, pageLimit(limit));
+    }
+
+
+    @GetMapping(value = "/coordinates", params = {"limit", "!bbox", "!near"})
+    public CursorPage<JobMarker> getJobCoordinatesPage(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam(required = false) String search,
+        @RequestParam int limit,
+        @RequestParam(required = false) String cursor
+    ){
+
+        return jobService.getJobCoordinatesPage(location, jobType, minSalary, maxSalary, search, cursor, pageLimit(limit));
+    }
+
+
+    // Streaming variants: selected instead of the list endpoints above for Accept: application/x-ndjson.
+    // Jobs are written one JSON object per line as they are read, so large results never sit in memory.
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllJobs(){
+
+        return ndjson(write -> jobService.streamJobs(null, null, null, null, null, false, null, write));
+    }
+
+
+    @GetMapping(value = "/filter", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJobsByFilter(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary
+    ){
+
+        return ndjson(write -> jobService.streamJobs(location, jobType, minSalary, maxSalary, null, true, null, write));
+    }
+
+
+    @GetMapping(value = "/filter/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJobsByFilter(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam(required = false) String search
+    ){
+
+        return ndjson(write -> jobService.streamJobs(location, jobType, minSalary, maxSalary, search, true, null, write));
+    }
+
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJobsBySearch(
+        @RequestParam(required = false) String keyword
+    ){
+
+        // Ranked like the list endpoint; a search that matches nothing streams nothing
+        return ndjson(write -> jobService.streamSearchJobs(keyword, write));
+    }
+
+
+    @GetMapping(value = "/sort", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamJobsBySort(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam(required = false) String search,
+        @RequestParam(required = false) String sortBy
+    ){
+
+        // Without a sort order the search alone selects the jobs, as in the list endpoint
+        boolean filtered = sortBy != null;
+        return ndjson(write -> jobService.streamJobs(filtered ? location : null, filtered ? jobType : null,
+            filtered ? minSalary : null, filtered ? maxSalary : null, search, false, sortBy, write));
+    }
+
+
+    /**
+     * Markers for the visible map area only.
+     *
+     * @param bbox - west,south,east,north in decimal degrees
+     */
+    @GetMapping(value = "/coordinates", params = {"bbox", "!limit", "!near"})
+    public List<JobMarker> getJobCoordinatesInBox(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam(required = false) String search,
+        @RequestParam String bbox
+    ){
+
+        return mapService.getMarkersInBox(location, jobType, minSalary, maxSalary, search, BoundingBox.parse(bbox));
+    }
+
+
+    /**
+     * Markers within a radius of a point, nearest first.
+     *
+     * @param near - lat,lng in decimal degrees
+     * @param radiusKm - search radius in kilometres
+     */
+    @GetMapping(value = "/coordinates", params = {"near", "!limit", "!bbox"})
+    public List<JobMarker> getJobCoordinatesNear(
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String jobType,
+        @RequestParam(required = false) Integer minSalary,
+        @RequestParam(required = false) Integer maxSalary,
+        @RequestParam(required = false) String search,
+        @RequestParam String near,
+        @RequestParam(defaultValue = "25") double radiusKm
+    ){
+
+        // Written so that NaN fails the check too
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new IllegalArgumentException("radiusKm must be in (0, " + MAX_RADIUS_KM + "]");
+        }
+        double[] point = BoundingBox.parsePoint(near);
+        return mapService.getMarkersNear(location, jobType, minSalary, maxSalary, search,
+            point[0], point[1], radiusKm);
+    }
+
+
+    /**
+     * The coordinate variants above each exclude the others' parameters, so a request combining
+     * limit, bbox or near lands here instead of on an ambiguous mapping.
+     */
+    @GetMapping("/coordinates")
+    public List<JobMarker> rejectCombinedCoordinateParams(){
+
+        throw new IllegalArgumentException("Use only one of limit, bbox and near");
+    }
+
+
+    /**
+     * Job clusters for the visible map area at a zoom level; the response size is bounded by the
+     * number of on-screen cells, not by the number of jobs.
+     *
+     * @param zoom - map zoom level
+     * @param bbox - west,south,east,north in decimal degrees
+     */
+    @GetMapping("/coordinates/clusters")
+    public List<MarkerCluster> getJobClusters(
+        @RequestParam int zoom,
+        @RequestParam String bbox
+    ){
+
+        return mapService.getClusters(zoom, BoundingBox.parse(bbox));
+    }
+
+
+    /**
+     * Newline delimited JSON body fed by a job stream; the stream runs when the body is written,
+     * on the async request thread.
+     *
+     * @param producer - passes every job to write to the given consumer
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<Job>> producer) {
+        // Leave flushing to the response buffer instead of sending a chunk per job
+        ObjectWriter jobWriter = objectMapper.writerFor(Job.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = jobWriter.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                producer.accept(job -> {
+                    try {
+                        jobWriter.writeValue(generator, job);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+
+    private static int pageLimit(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_LIMIT);
+    }
+
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleBadRequest(IllegalArgumentException e) {
+        return e.getMessage();
+    }
+
+
 
 }
@@ -0,0 +1,70 @@
+package dev.algorise.geojobsearch.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.core.Ordered;
+
+/**
+ * Published when the Jobs table has changed and derived caches and indexes are stale.
+ *
+ * <p>When the change came through the batch ingestion endpoint its job ids are known, and
+ * indexes that can patch themselves reload only those rows; otherwise {@code jobIds} is null and
+ * everything is rebuilt from the table.
+ *
+ * @param generation the new dataset generation
+ * @param jobIds ids of the inserted or updated jobs, or null when unknown
+ */
+public record DataChangedEvent(long generation, long[] jobIds) {
+
+  /**
+   * Listener order of the indexes rebuilt or patched from the Jobs table.
+   */
+  public static final int REBUILD_ORDER = 0;
+
+  /**
+   * Listener order of the read caches computed from the indexes, cleared once every index has
+   * been rebuilt so nothing read from an old index survives the change.
+   */
+  public static final int CLEAR_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+  private static final int BATCH_SIZE = 5000;
+
+  public DataChangedEvent(long generation) {
+    this(generation, null);
+  }
+
+  /**
+   * Whether only the listed jobs changed, so indexes may be patched instead of rebuilt.
+   */
+  public boolean isIncremental() {
+    return jobIds != null;
+  }
+
+  /**
+   * The changed job ids in ascending order, without duplicates.
+   */
+  public long[] sortedJobIds() {
+    return Arrays.stream(jobIds).sorted().distinct().toArray();
+  }
+
+  /**
+   * Read the current rows of the changed jobs, a bounded IN list at a time.
+   * @param query - reads the rows of a set of ids in JobID order
+   * @return the rows in JobID order; jobs deleted since have none
+   */
+  public List<Object[]> loadRows(Function<Collection<Long>, List<Object[]>> query) {
+    long[] ids = sortedJobIds();
+    List<Object[]> rows = new ArrayList<>(ids.length);
+    for (int from = 0; from < ids.length; from += BATCH_SIZE) {
+      List<Long> batch = new ArrayList<>();
+      for (int i = from; i < Math.min(ids.length, from + BATCH_SIZE); i++) {
+        batch.add(ids[i]);
+      }
+      rows.addAll(query.apply(batch));
+    }
+    return rows;
+  }
+}
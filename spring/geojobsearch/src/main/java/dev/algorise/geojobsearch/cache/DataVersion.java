@@ -0,0 +1,162 @@
+package dev.algorise.geojobsearch.cache;
+
+import dev.algorise.geojobsearch.repository.JobRepository;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dataset generation counter.
+ *
+ * <p>The Python ingester writes straight to MySQL, so the generation advances either when the
+ * ingester calls the invalidation endpoint or when a cheap poll sees the Jobs table signature
+ * (row count, highest JobID and latest UpdatedAt) change. Every advance publishes a
+ * {@link DataChangedEvent}. Writes made through the batch ingestion endpoint advance it with the
+ * ids they touched.
+ *
+ * <p>MySQL sets UpdatedAt on every insert and on every update that changes a row, so the poll
+ * also sees in-place edits and a delete followed by an insert, not only growth. It cannot see
+ * writes that set UpdatedAt themselves, such as a restore from a dump that keeps the row count;
+ * the invalidation endpoint covers those. On a schema without the column the poll fails, logs
+ * and leaves the generation alone; {@code mysql/migrations/001_jobs_updated_at.sql} adds it to a
+ * database created before it existed.
+ */
+@Component
+public class DataVersion {
+
+  private static final Logger LOG = LoggerFactory.getLogger(DataVersion.class);
+
+  private final JobRepository jobRepository;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final AtomicLong generation = new AtomicLong(1);
+
+  private volatile long published = 1;
+
+  private volatile String signature;
+
+  // Runs requested advances off the request thread, one at a time
+  private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "data-version-refresh");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+  public DataVersion(JobRepository jobRepository, ApplicationEventPublisher eventPublisher) {
+    this.jobRepository = jobRepository;
+    this.eventPublisher = eventPublisher;
+  }
+
+  public long current() {
+    return generation.get();
+  }
+
+  /**
+   * The latest generation whose {@link DataChangedEvent} every listener has handled, so caches
+   * and indexes no longer serve anything older. Responses tagged with it are at least that new.
+   */
+  public long published() {
+    return published;
+  }
+
+  /**
+   * Advance the generation and notify caches and indexes.
+   * @param reason - logged for diagnosis
+   * @return the new generation
+   */
+  public long advance(String reason) {
+    return advance(reason, null);
+  }
+
+  /**
+   * Advance the generation after a write whose changed jobs are known.
+   * @param reason - logged for diagnosis
+   * @param jobIds - ids of the inserted or updated jobs, or null to rebuild everything
+   * @return the new generation
+   */
+  public long advance(String reason, long[] jobIds) {
+    // The caller has already written, so the poll must not announce the same change again
+    readSignature();
+    return publish(reason, jobIds);
+  }
+
+  /**
+   * Advance the generation on a background thread. Requests made while an advance is waiting to
+   * start share it, so a burst of invalidations rebuilds the indexes once rather than once each.
+   * @param reason - logged for diagnosis
+   * @return whether this call scheduled an advance, false when it joined one already pending
+   */
+  public boolean requestAdvance(String reason) {
+    if (!refreshPending.compareAndSet(false, true)) {
+      return false;
+    }
+    refresher.execute(() -> {
+      // Cleared before reading, so a request arriving during the rebuild schedules another
+      refreshPending.set(false);
+      try {
+        advance(reason);
+      } catch (RuntimeException e) {
+        LOG.warn("Dataset generation advance failed: {}", e.getMessage());
+      }
+    });
+    return true;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    refresher.shutdownNow();
+  }
+
+  private long publish(String reason, long[] jobIds) {
+    long next = generation.incrementAndGet();
+    LOG.info("Dataset generation {} ({})", next, reason);
+    // Listeners run synchronously, the read caches last, so once this returns the indexes are
+    // rebuilt and the caches cleared behind them
+    eventPublisher.publishEvent(new DataChangedEvent(next, jobIds));
+    synchronized (this) {
+      published = Math.max(published, next);
+    }
+    return next;
+  }
+
+  /**
+   * Poll the Jobs table signature and advance the generation when it has changed.
+   */
+  @Scheduled(fixedDelayString = "${geojobsearch.cache.poll-ms:60000}",
+      initialDelayString = "${geojobsearch.cache.poll-ms:60000}")
+  public void poll() {
+    String previous = signature;
+    String current = readSignature();
+    if (previous != null && current != null && !Objects.equals(previous, current)) {
+      publish("Jobs table changed", null);
+    }
+  }
+
+  /**
+   * Read and remember the Jobs table signature.
+   * @return the signature, or null when the database could not be read
+   */
+  private synchronized String readSignature() {
+    try {
+      List<Object[]> rows = jobRepository.findDataSignature();
+      Object[] row = rows.isEmpty() ? new Object[] {0, null, null} : rows.get(0);
+      signature = row[0] + ":" + row[1] + ":" + row[2];
+      return signature;
+    } catch (RuntimeException e) {
+      LOG.warn("Dataset signature poll failed: {}", e.getMessage());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package dev.algorise.geojobsearch.cache;
+
+import dev.algorise.geojobsearch.model.Company;
+import dev.algorise.geojobsearch.model.Job;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import org.hibernate.Cache;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the Hibernate second-level and query caches in step with writes that bypass Hibernate.
+ *
+ * <p>The ingestion endpoints write through JDBC and the Python ingester writes to MySQL directly,
+ * so Hibernate never sees those changes. Jobs changed by a batch upsert are evicted one by one;
+ * any other change to the dataset clears every region. Query results are always dropped, since
+ * any of them may include a changed job.
+ */
+@Component
+public class EntityCacheEvictor {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  public EntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  /**
+   * Evict before any other listener, so indexes rebuilt for the same event read fresh rows.
+   */
+  @EventListener
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  public void onDataChanged(DataChangedEvent event) {
+    Cache cache = cache();
+    if (event.isIncremental()) {
+      for (long jobId : event.sortedJobIds()) {
+        cache.evictEntityData(Job.class, jobId);
+      }
+      cache.evictQueryRegions();
+    } else {
+      cache.evictAllRegions();
+    }
+  }
+
+  /**
+   * Evict companies updated without advancing the dataset generation.
+   * @param companyUids - CompanyUIDs of the updated companies
+   */
+  public void evictCompanies(Collection<String> companyUids) {
+    Cache cache = cache();
+    for (String companyUid : companyUids) {
+      cache.evictEntityData(Company.class, companyUid);
+    }
+    cache.evictQueryRegions();
+  }
+
+  private Cache cache() {
+    return entityManagerFactory.getCache().unwrap(Cache.class);
+  }
+}
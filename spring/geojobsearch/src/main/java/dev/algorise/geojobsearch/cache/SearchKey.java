@@ -0,0 +1,17 @@
+package dev.algorise.geojobsearch.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the search string argument of a method cached with {@code filterKeyGenerator}, so the
+ * key holds it normalized and "Java  Developer " shares an entry with "java developer".
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface SearchKey {
+}
@@ -0,0 +1,120 @@
+package dev.algorise.geojobsearch.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource that lets at most {@code maxConcurrency} callers hold a connection at once.
+ *
+ * <p>With virtual threads every request gets its own thread, so thousands of them can ask the
+ * pool for a connection together. Excess callers wait here on a fair semaphore, parked without
+ * holding a carrier thread and served in arrival order, instead of contending inside the pool
+ * and failing at its connection timeout. A permit is returned when the connection is closed.
+ */
+class BoundedDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+
+  private final int maxConcurrency;
+
+  private final long acquireTimeoutMs;
+
+  BoundedDataSource(DataSource target, int maxConcurrency, long acquireTimeoutMs) {
+    super(target);
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.maxConcurrency = maxConcurrency;
+    this.acquireTimeoutMs = acquireTimeoutMs;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    return guard(() -> super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    return guard(() -> super.getConnection(username, password));
+  }
+
+  /**
+   * Number of callers currently waiting for a permit.
+   */
+  public int getWaitingCount() {
+    return permits.getQueueLength();
+  }
+
+  /**
+   * Number of connections currently handed out through this DataSource.
+   */
+  public int getActiveCount() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException("No database connection available within "
+            + acquireTimeoutMs + " ms; " + permits.getQueueLength() + " callers waiting");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted waiting for a database connection", e);
+    }
+  }
+
+  private Connection guard(ConnectionSupplier supplier) throws SQLException {
+    Connection connection;
+    try {
+      connection = supplier.get();
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "equals":
+              return proxy == args[0];
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "close":
+              try {
+                return invoke(connection, method, args);
+              } finally {
+                // Closing twice is legal JDBC but must only give back one permit
+                if (released.compareAndSet(false, true)) {
+                  permits.release();
+                }
+              }
+            default:
+              return invoke(connection, method, args);
+          }
+        });
+  }
+
+  private static Object invoke(Connection connection, Method method, Object[] args)
+      throws Throwable {
+    try {
+      return method.invoke(connection, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  @FunctionalInterface
+  private interface ConnectionSupplier {
+    Connection get() throws SQLException;
+  }
+}
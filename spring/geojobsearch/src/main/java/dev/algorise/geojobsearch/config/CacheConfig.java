@@ -0,0 +1,118 @@
+package dev.algorise.geojobsearch.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.cache.SearchKey;
+import dev.algorise.geojobsearch.model.FacetResult;
+import dev.algorise.geojobsearch.model.SalaryDistribution;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+
+/**
+ * In-process read cache for facet counts and filtered job lists.
+ *
+ * <p>Caffeine gives W-TinyLFU admission and eviction, a TTL, and a weight bound measured in
+ * cached rows so a few large job lists cannot crowd out many small facet results. Every cache is
+ * cleared when the dataset generation advances, after the indexes it is computed from.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  public static final String FACETS = "jobFacets";
+
+  public static final String FILTERS = "jobFilters";
+
+  private final CaffeineCacheManager cacheManager;
+
+  public CacheConfig(@Value("${geojobsearch.cache.max-rows:200000}") long maxRows,
+      @Value("${geojobsearch.cache.ttl-seconds:600}") long ttlSeconds) {
+    cacheManager = new CaffeineCacheManager(FACETS, FILTERS);
+    cacheManager.setCaffeine(Caffeine.newBuilder()
+        .maximumWeight(maxRows)
+        .weigher((Object key, Object value) -> weigh(value))
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats());
+  }
+
+  @Bean
+  public CacheManager cacheManager() {
+    return cacheManager;
+  }
+
+  /**
+   * Cache key of the method name plus its arguments, with the {@link SearchKey} argument
+   * normalized so that "Java  Developer " and "java developer" share an entry. Other filters are
+   * kept verbatim because they are compared for equality in SQL. The search argument is found by
+   * annotation rather than by name, since parameter names need the {@code -parameters} flag.
+   */
+  @Bean
+  public KeyGenerator filterKeyGenerator() {
+    Map<Method, boolean[]> searchParams = new ConcurrentHashMap<>();
+    return (target, method, params) -> {
+      boolean[] isSearch = searchParams.computeIfAbsent(method, CacheConfig::searchParams);
+      List<Object> parts = new ArrayList<>(params.length + 1);
+      parts.add(method.getName());
+      for (int i = 0; i < params.length; i++) {
+        parts.add(isSearch[i] && params[i] instanceof String search ? normalizeSearch(search) : params[i]);
+      }
+      return new SimpleKey(parts.toArray());
+    };
+  }
+
+  /**
+   * Clear after every index listener has rebuilt, so a request served from an index still being
+   * rebuilt cannot put an old-generation result back into the cache.
+   */
+  @EventListener
+  @Order(DataChangedEvent.CLEAR_ORDER)
+  public void onDataChanged(DataChangedEvent event) {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+  }
+
+  private static boolean[] searchParams(Method method) {
+    Annotation[][] annotations = method.getParameterAnnotations();
+    boolean[] isSearch = new boolean[annotations.length];
+    for (int i = 0; i < annotations.length; i++) {
+      for (Annotation annotation : annotations[i]) {
+        isSearch[i] |= annotation instanceof SearchKey;
+      }
+    }
+    return isSearch;
+  }
+
+  static String normalizeSearch(String search) {
+    return search.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  private static int weigh(Object value) {
+    if (value instanceof Collection<?> rows) {
+      return rows.size() + 1;
+    }
+    if (value instanceof FacetResult facets) {
+      return facets.getLocations().size() + facets.getJobTypes().size()
+          + facets.getSalaries().size() + facets.getJobs().size() + 1;
+    }
+    if (value instanceof SalaryDistribution distribution) {
+      return distribution.buckets().size() + distribution.percentiles().size() + 1;
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,34 @@
+package dev.algorise.geojobsearch.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts a {@link BoundedDataSource} in front of the connection pool when
+ * {@code geojobsearch.datasource.max-concurrency} is set, as it is in the "virtual" profile.
+ * Platform thread deployments are already bounded by the Tomcat thread pool and leave it unset.
+ */
+@Configuration
+@ConditionalOnProperty("geojobsearch.datasource.max-concurrency")
+public class DataSourceConfig {
+
+  @Bean
+  public static BeanPostProcessor boundedDataSourcePostProcessor(
+      @Value("${geojobsearch.datasource.max-concurrency}") int maxConcurrency,
+      @Value("${geojobsearch.datasource.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (maxConcurrency > 0 && bean instanceof DataSource dataSource
+            && !(bean instanceof BoundedDataSource)) {
+          return new BoundedDataSource(dataSource, maxConcurrency, acquireTimeoutMs);
+        }
+        return bean;
+      }
+    };
+  }
+}
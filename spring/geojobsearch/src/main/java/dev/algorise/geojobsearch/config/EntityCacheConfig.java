@@ -0,0 +1,66 @@
+package dev.algorise.geojobsearch.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate second-level and query cache regions, held in Caffeine through JCache.
+ *
+ * <p>Map and list requests load the same few hundred companies and the same popular jobs again
+ * and again; the entity regions serve them from memory, and the query cache keeps the results of
+ * the hot {@code JobRepository} queries. The regions are bounded in entries and expire after the
+ * read cache TTL, since changes made outside the ingestion endpoints only reach them through the
+ * dataset generation or expiry. The update timestamps region holds one entry per table and must
+ * not lose entries, so it is unbounded. Hits and misses per region are published with the other
+ * Hibernate statistics.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+  public static final String COMPANY_REGION = "company";
+
+  public static final String JOB_REGION = "job";
+
+  @Bean
+  public HibernatePropertiesCustomizer entityCacheCustomizer(
+      @Value("${geojobsearch.entity-cache.companies:5000}") long companies,
+      @Value("${geojobsearch.entity-cache.jobs:20000}") long jobs,
+      @Value("${geojobsearch.entity-cache.query-results:1000}") long queryResults,
+      @Value("${geojobsearch.cache.ttl-seconds:600}") long ttlSeconds) {
+    CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+        .getCacheManager();
+    OptionalLong ttl = OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds));
+    createRegion(cacheManager, COMPANY_REGION, OptionalLong.of(companies), ttl);
+    createRegion(cacheManager, JOB_REGION, OptionalLong.of(jobs), ttl);
+    createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+        OptionalLong.of(queryResults), ttl);
+    createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+        OptionalLong.empty(), OptionalLong.empty());
+    return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+  }
+
+  /**
+   * Create a region unless an earlier application context in the same JVM already did.
+   */
+  private static void createRegion(CacheManager cacheManager, String region,
+      OptionalLong maximumSize, OptionalLong expireAfterWrite) {
+    if (cacheManager.getCache(region) != null) {
+      return;
+    }
+    CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+    configuration.setMaximumSize(maximumSize);
+    configuration.setExpireAfterWrite(expireAfterWrite);
+    configuration.setStatisticsEnabled(true);
+    cacheManager.createCache(region, configuration);
+  }
+}
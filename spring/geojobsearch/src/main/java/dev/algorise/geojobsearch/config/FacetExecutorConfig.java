@@ -0,0 +1,30 @@
+package dev.algorise.geojobsearch.config;
+
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated pool for the parallel facet count queries. It is fixed size with a bounded queue so
+ * a burst of filter panel requests cannot open more concurrent aggregations than MySQL can run;
+ * work beyond the queue is rejected and reported as an unavailable facet.
+ */
+@Configuration
+public class FacetExecutorConfig {
+
+  public static final String FACET_EXECUTOR = "facetExecutor";
+
+  @Bean(name = FACET_EXECUTOR)
+  public Executor facetExecutor(@Value("${geojobsearch.facets.threads:6}") int threads,
+      @Value("${geojobsearch.facets.queue-capacity:300}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("facet-");
+    executor.initialize();
+    return executor;
+  }
+}
@@ -0,0 +1,87 @@
+package dev.algorise.geojobsearch.geo;
+
+/**
+ * Latitude/longitude rectangle. Parsed from {@code west,south,east,north}, the order used by
+ * GeoJSON and Leaflet's {@code toBBoxString()}.
+ */
+public record BoundingBox(double south, double west, double north, double east) {
+
+  private static final double KM_PER_DEGREE = 111.32;
+
+  /**
+   * Parse a {@code west,south,east,north} string.
+   * @param bbox - four comma separated decimal degrees
+   * @return the bounding box
+   * @throws IllegalArgumentException when the string is malformed or out of range
+   */
+  public static BoundingBox parse(String bbox) {
+    String[] parts = bbox.split(",");
+    if (parts.length != 4) {
+      throw new IllegalArgumentException("bbox must be west,south,east,north: " + bbox);
+    }
+    BoundingBox box = new BoundingBox(degrees(parts[1], 90, "bbox", bbox),
+        degrees(parts[0], 180, "bbox", bbox), degrees(parts[3], 90, "bbox", bbox),
+        degrees(parts[2], 180, "bbox", bbox));
+    if (box.south > box.north || box.west > box.east) {
+      throw new IllegalArgumentException("bbox out of range: " + bbox);
+    }
+    return box;
+  }
+
+  /**
+   * Parse a {@code lat,lng} string.
+   * @param point - two comma separated decimal degrees
+   * @return the latitude and the longitude
+   * @throws IllegalArgumentException when the string is malformed or out of range
+   */
+  public static double[] parsePoint(String point) {
+    String[] parts = point.split(",");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("near must be lat,lng: " + point);
+    }
+    return new double[] {degrees(parts[0], 90, "near", point), degrees(parts[1], 180, "near", point)};
+  }
+
+  /**
+   * Parse one coordinate; NaN, infinities and values outside [-max, max] are rejected.
+   */
+  private static double degrees(String value, double max, String name, String input) {
+    double degrees;
+    try {
+      degrees = Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(name + " must be decimal degrees: " + input);
+    }
+    if (!(Math.abs(degrees) <= max)) {
+      throw new IllegalArgumentException(name + " out of range: " + input);
+    }
+    return degrees;
+  }
+
+  /**
+   * Smallest box containing the circle of the given radius around a point.
+   */
+  public static BoundingBox around(double lat, double lng, double radiusKm) {
+    double dLat = radiusKm / KM_PER_DEGREE;
+    double cos = Math.cos(Math.toRadians(lat));
+    double dLng = cos < 1e-6 ? 180 : Math.min(180, radiusKm / (KM_PER_DEGREE * cos));
+    return new BoundingBox(Math.max(-90, lat - dLat), Math.max(-180, lng - dLng),
+        Math.min(90, lat + dLat), Math.min(180, lng + dLng));
+  }
+
+  public boolean contains(double lat, double lng) {
+    return lat >= south && lat <= north && lng >= west && lng <= east;
+  }
+
+  /**
+   * Great-circle distance between two points in kilometres.
+   */
+  public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLng = Math.toRadians(lng2 - lng1);
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+    return 2 * 6371.0 * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+}
@@ -0,0 +1,169 @@
+package dev.algorise.geojobsearch.geo;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Precomputed marker clusters for every map zoom level.
+ *
+ * <p>At zoom {@code z} the Web Mercator world is split into {@code 2^z * 4} cells per axis, a
+ * quarter of a 256px tile, so any screen holds a bounded number of clusters regardless of how
+ * many jobs exist. Each cell keeps a job count and job-weighted coordinate sums; adding or
+ * removing jobs adjusts one cell per zoom level instead of recomputing the hierarchy.
+ */
+@Component
+public class ClusterIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ClusterIndex.class);
+
+  public static final int MAX_ZOOM = 18;
+
+  private static final int CELLS_PER_TILE = 4;
+
+  private static final double MAX_MERCATOR_LAT = 85.05112878;
+
+  private final JobRepository jobRepository;
+
+  private volatile List<Map<Long, Cell>> levels;
+
+  public ClusterIndex(JobRepository jobRepository) {
+    this.jobRepository = jobRepository;
+  }
+
+  public boolean isReady() {
+    return levels != null;
+  }
+
+  /**
+   * Clusters with their centroid inside a bounding box.
+   * @param zoom - map zoom level, clamped to [0, {@value #MAX_ZOOM}]
+   * @param box - the visible map area
+   * @return the clusters, empty until the index has been built
+   */
+  public List<MarkerCluster> clusters(int zoom, BoundingBox box) {
+    List<Map<Long, Cell>> current = levels;
+    List<MarkerCluster> result = new ArrayList<>();
+    if (current == null) {
+      return result;
+    }
+    int z = Math.max(0, Math.min(MAX_ZOOM, zoom));
+    Map<Long, Cell> cells = current.get(z);
+    long n = cellsPerAxis(z);
+    long xFrom = cellX(box.west(), n);
+    long xTo = cellX(box.east(), n);
+    long yFrom = cellY(box.north(), n);
+    long yTo = cellY(box.south(), n);
+
+    if ((xTo - xFrom + 1) * (yTo - yFrom + 1) > cells.size()) {
+      for (Cell cell : cells.values()) {
+        addIfInside(cell.snapshot(), box, result);
+      }
+    } else {
+      for (long y = yFrom; y <= yTo; y++) {
+        for (long x = xFrom; x <= xTo; x++) {
+          Cell cell = cells.get(y * n + x);
+          if (cell != null) {
+            addIfInside(cell.snapshot(), box, result);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Apply a change in the number of jobs at a location to every zoom level.
+   * @param lat - latitude of the jobs' company
+   * @param lng - longitude of the jobs' company
+   * @param delta - jobs added (positive) or removed (negative)
+   */
+  public void adjust(double lat, double lng, long delta) {
+    List<Map<Long, Cell>> current = levels;
+    if (current != null) {
+      add(current, lat, lng, delta);
+    }
+  }
+
+  /**
+   * Recompute every level from per-company job counts and swap them in atomically.
+   */
+  @EventListener(DataChangedEvent.class)
+  @Order(DataChangedEvent.REBUILD_ORDER)
+  @Scheduled(fixedDelayString = "${geojobsearch.geo.index-refresh-ms:900000}")
+  public void rebuild() {
+    try {
+      List<Map<Long, Cell>> built = new ArrayList<>(MAX_ZOOM + 1);
+      for (int z = 0; z <= MAX_ZOOM; z++) {
+        built.add(new ConcurrentHashMap<>());
+      }
+      List<Object[]> rows = jobRepository.findCompanyJobCounts();
+      for (Object[] row : rows) {
+        add(built, ((Number) row[0]).doubleValue(), ((Number) row[1]).doubleValue(),
+            ((Number) row[2]).longValue());
+      }
+      levels = built;
+      LOG.info("Cluster index built from {} companies", rows.size());
+    } catch (RuntimeException e) {
+      LOG.warn("Cluster index rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  private static void add(List<Map<Long, Cell>> target, double lat, double lng, long delta) {
+    for (int z = 0; z <= MAX_ZOOM; z++) {
+      long n = cellsPerAxis(z);
+      long key = cellY(lat, n) * n + cellX(lng, n);
+      // Emptied cells stay in place (and are skipped on read) so concurrent adjusts never race a removal
+      target.get(z).computeIfAbsent(key, k -> new Cell()).add(lat, lng, delta);
+    }
+  }
+
+  private static void addIfInside(MarkerCluster cluster, BoundingBox box, List<MarkerCluster> result) {
+    if (cluster != null && box.contains(cluster.latitude(), cluster.longitude())) {
+      result.add(cluster);
+    }
+  }
+
+  private static long cellsPerAxis(int zoom) {
+    return (1L << zoom) * CELLS_PER_TILE;
+  }
+
+  private static long cellX(double lng, long n) {
+    double x = (lng + 180) / 360;
+    return Math.max(0, Math.min(n - 1, (long) Math.floor(x * n)));
+  }
+
+  private static long cellY(double lat, long n) {
+    double rad = Math.toRadians(Math.max(-MAX_MERCATOR_LAT, Math.min(MAX_MERCATOR_LAT, lat)));
+    double y = (1 - Math.log(Math.tan(rad) + 1 / Math.cos(rad)) / Math.PI) / 2;
+    return Math.max(0, Math.min(n - 1, (long) Math.floor(y * n)));
+  }
+
+  /**
+   * Running job count and job-weighted coordinate sums of one cell.
+   */
+  private static final class Cell {
+    private long count;
+    private double latSum;
+    private double lngSum;
+
+    private synchronized void add(double lat, double lng, long delta) {
+      count += delta;
+      latSum += lat * delta;
+      lngSum += lng * delta;
+    }
+
+    private synchronized MarkerCluster snapshot() {
+      return count > 0 ? new MarkerCluster(latSum / count, lngSum / count, count) : null;
+    }
+  }
+}
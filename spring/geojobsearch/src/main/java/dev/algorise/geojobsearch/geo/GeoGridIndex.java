@@ -0,0 +1,168 @@
+package dev.algorise.geojobsearch.geo;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory uniform grid over geocoded companies.
+ *
+ * <p>Each company is bucketed into a {@value #CELL_DEGREES} degree cell, so a viewport or radius
+ * query only visits the cells it overlaps. Jobs carry no coordinates of their own; callers turn
+ * the matching companies into job markers.
+ */
+@Component
+public class GeoGridIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(GeoGridIndex.class);
+
+  static final double CELL_DEGREES = 0.5;
+
+  private static final int LNG_CELLS = (int) Math.ceil(360 / CELL_DEGREES) + 1;
+
+  private final JobRepository jobRepository;
+
+  private volatile Grid grid;
+
+  public GeoGridIndex(JobRepository jobRepository) {
+    this.jobRepository = jobRepository;
+  }
+
+  public boolean isReady() {
+    return grid != null;
+  }
+
+  /**
+   * Companies inside a bounding box.
+   * @param box - the viewport
+   * @return company UIDs, or null when the index has not been built yet
+   */
+  public List<String> companiesIn(BoundingBox box) {
+    Grid current = grid;
+    if (current == null) {
+      return null;
+    }
+    List<String> result = new ArrayList<>();
+    current.visit(box, i -> result.add(current.uids[i]));
+    return result;
+  }
+
+  /**
+   * Companies within a radius of a point, with their distance.
+   * @return company UID to distance in km, or null when the index has not been built yet
+   */
+  public Map<String, Double> companiesWithin(double lat, double lng, double radiusKm) {
+    Grid current = grid;
+    if (current == null) {
+      return null;
+    }
+    Map<String, Double> result = new HashMap<>();
+    current.visit(BoundingBox.around(lat, lng, radiusKm), i -> {
+      double distance = BoundingBox.distanceKm(lat, lng, current.lats[i], current.lngs[i]);
+      if (distance <= radiusKm) {
+        result.put(current.uids[i], distance);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Rebuild the grid from the Company table and swap it in atomically. Batch job ingestion does
+   * not geocode companies, so its changes leave the grid alone.
+   */
+  @EventListener(value = DataChangedEvent.class, condition = "!#root.event.incremental")
+  @Order(DataChangedEvent.REBUILD_ORDER)
+  @Scheduled(fixedDelayString = "${geojobsearch.geo.index-refresh-ms:900000}")
+  public void rebuild() {
+    try {
+      List<Object[]> rows = jobRepository.findCompanyCoordinates();
+      grid = new Grid(rows);
+      LOG.info("Geo index built: {} companies", rows.size());
+    } catch (RuntimeException e) {
+      LOG.warn("Geo index rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  private static long cell(double lat, double lng) {
+    long row = (long) Math.floor((lat + 90) / CELL_DEGREES);
+    long col = (long) Math.floor((lng + 180) / CELL_DEGREES);
+    return row * LNG_CELLS + col;
+  }
+
+  /**
+   * Immutable grid snapshot: parallel coordinate arrays plus the company ordinals of each cell.
+   */
+  private static final class Grid {
+    private final String[] uids;
+    private final double[] lats;
+    private final double[] lngs;
+    private final Map<Long, int[]> cells;
+
+    private Grid(List<Object[]> rows) {
+      int n = rows.size();
+      uids = new String[n];
+      lats = new double[n];
+      lngs = new double[n];
+      Map<Long, int[]> building = new HashMap<>();
+      Map<Long, Integer> sizes = new HashMap<>();
+      for (int i = 0; i < n; i++) {
+        Object[] row = rows.get(i);
+        uids[i] = (String) row[0];
+        lats[i] = ((Number) row[1]).doubleValue();
+        lngs[i] = ((Number) row[2]).doubleValue();
+        long key = cell(lats[i], lngs[i]);
+        int size = sizes.getOrDefault(key, 0);
+        int[] members = building.computeIfAbsent(key, k -> new int[4]);
+        if (size == members.length) {
+          members = Arrays.copyOf(members, size * 2);
+          building.put(key, members);
+        }
+        members[size] = i;
+        sizes.put(key, size + 1);
+      }
+      building.replaceAll((key, members) -> Arrays.copyOf(members, sizes.get(key)));
+      cells = building;
+    }
+
+    private void visit(BoundingBox box, IntConsumer action) {
+      long rowFrom = (long) Math.floor((box.south() + 90) / CELL_DEGREES);
+      long rowTo = (long) Math.floor((box.north() + 90) / CELL_DEGREES);
+      long colFrom = (long) Math.floor((box.west() + 180) / CELL_DEGREES);
+      long colTo = (long) Math.floor((box.east() + 180) / CELL_DEGREES);
+      if ((rowTo - rowFrom + 1) * (colTo - colFrom + 1) > cells.size()) {
+        // Viewport spans more cells than are occupied: walk the occupied cells instead
+        for (int[] members : cells.values()) {
+          visitMembers(members, box, action);
+        }
+        return;
+      }
+      for (long row = rowFrom; row <= rowTo; row++) {
+        for (long col = colFrom; col <= colTo; col++) {
+          int[] members = cells.get(row * LNG_CELLS + col);
+          if (members != null) {
+            visitMembers(members, box, action);
+          }
+        }
+      }
+    }
+
+    private void visitMembers(int[] members, BoundingBox box, IntConsumer action) {
+      for (int i : members) {
+        if (box.contains(lats[i], lngs[i])) {
+          action.accept(i);
+        }
+      }
+    }
+  }
+}
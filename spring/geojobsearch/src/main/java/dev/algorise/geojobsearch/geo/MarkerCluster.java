@@ -0,0 +1,7 @@
+package dev.algorise.geojobsearch.geo;
+
+/**
+ * Jobs aggregated into one map cell at a zoom level: the job-weighted centroid and the job count.
+ */
+public record MarkerCluster(double latitude, double longitude, long count) {
+}
@@ -0,0 +1,128 @@
+package dev.algorise.geojobsearch.http;
+
+import dev.algorise.geojobsearch.cache.DataVersion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Objects;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Strong ETags for the read endpoints, derived from the dataset generation.
+ *
+ * <p>Every job, facet and map response depends only on the dataset, which cannot change without
+ * advancing the generation, so a response is identified by the generation, the URL, and the
+ * negotiated representation: the Accept header (JSON or NDJSON) and whether the body may be
+ * gzipped. The ETag is left in a request attribute for {@link NotModifiedInterceptor}, which
+ * answers a matching If-None-Match with 304 Not Modified before the controller runs.
+ * Successful responses carry the ETag and {@code Cache-Control: no-cache}, which lets browsers
+ * and polling map clients keep the body and revalidate it on every use. Error responses are never
+ * tagged.
+ */
+public class GenerationETagFilter extends OncePerRequestFilter {
+
+  static final String ETAG_ATTRIBUTE = GenerationETagFilter.class.getName() + ".ETAG";
+
+  private final DataVersion dataVersion;
+
+  public GenerationETagFilter(DataVersion dataVersion) {
+    this.dataVersion = dataVersion;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String method = request.getMethod();
+    return !("GET".equals(method) || "HEAD".equals(method))
+        // Cache statistics change without a new generation
+        || request.getRequestURI().startsWith(request.getContextPath() + "/api/jobs/cache/");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String etag = etag(request);
+    request.setAttribute(ETAG_ATTRIBUTE, etag);
+    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+    TaggingResponse tagging = new TaggingResponse(response, etag);
+    filterChain.doFilter(request, tagging);
+    if (!request.isAsyncStarted() && !response.isCommitted()) {
+      tagging.tag();
+    }
+  }
+
+  /**
+   * The quoted ETag of the response to a request at the current generation.
+   */
+  String etag(HttpServletRequest request) {
+    String encoding = GzipResponseFilter.acceptsGzip(request) ? "gzip" : "identity";
+    int accept = Objects.hashCode(request.getHeader(HttpHeaders.ACCEPT));
+    return "\"" + dataVersion.published() + "-" + Integer.toHexString(accept) + "-" + encoding
+        + "\"";
+  }
+
+  /**
+   * Whether an If-None-Match header names the ETag. It uses the weak comparison, as RFC 9110
+   * requires for If-None-Match.
+   */
+  static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.strip();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if ("*".equals(tag) || etag.equals(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Adds the ETag once the body is about to be written, by which time the status is final, and
+   * only to successful responses.
+   */
+  private static final class TaggingResponse extends HttpServletResponseWrapper {
+    private final String etag;
+
+    private TaggingResponse(HttpServletResponse response, String etag) {
+      super(response);
+      this.etag = etag;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      tag();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      tag();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      tag();
+      super.flushBuffer();
+    }
+
+    private void tag() {
+      int status = getStatus();
+      if (status >= 200 && status < 300 && !isCommitted() && getHeader(HttpHeaders.ETAG) == null) {
+        setHeader(HttpHeaders.ETAG, etag);
+      }
+    }
+  }
+}
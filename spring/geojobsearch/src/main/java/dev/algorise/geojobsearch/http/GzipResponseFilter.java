@@ -0,0 +1,305 @@
+package dev.algorise.geojobsearch.http;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Gzips JSON and NDJSON response bodies for clients that accept it.
+ *
+ * <p>Tomcat's own compression skips every response with a strong ETag, because the ETag would
+ * then name two different byte sequences; {@link GenerationETagFilter} puts the encoding in
+ * the ETag instead, so compression happens here. The first {@code minSize} bytes are buffered:
+ * smaller bodies go out as they are, larger ones are compressed. Streaming responses are
+ * flushed with SYNC_FLUSH, so NDJSON rows still reach the client as they are written, and the
+ * gzip trailer is written once the async dispatch has finished. Brotli is not offered, as the
+ * JDK has no encoder for it.
+ */
+public class GzipResponseFilter extends OncePerRequestFilter {
+
+  private static final String RESPONSE_ATTRIBUTE = GzipResponseFilter.class.getName() + ".RESPONSE";
+
+  private final int minSize;
+
+  public GzipResponseFilter(int minSize) {
+    this.minSize = minSize;
+  }
+
+  /**
+   * Whether the Accept-Encoding header of the request allows a gzip body.
+   */
+  public static boolean acceptsGzip(HttpServletRequest request) {
+    String header = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    if (header == null) {
+      return false;
+    }
+    Boolean gzip = null;
+    Boolean any = null;
+    for (String coding : header.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].strip().toLowerCase(Locale.ROOT);
+      boolean accepted = true;
+      for (int i = 1; i < parts.length; i++) {
+        String parameter = parts[i].strip().toLowerCase(Locale.ROOT);
+        if (parameter.startsWith("q=")) {
+          try {
+            accepted = Double.parseDouble(parameter.substring(2)) > 0;
+          } catch (NumberFormatException e) {
+            accepted = false;
+          }
+        }
+      }
+      if ("gzip".equals(name) || "x-gzip".equals(name)) {
+        gzip = accepted;
+      } else if ("*".equals(name)) {
+        any = accepted;
+      }
+    }
+    return gzip != null ? gzip : Boolean.TRUE.equals(any);
+  }
+
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    // The async dispatch that ends a streaming response has to finish its gzip stream
+    return false;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    GzipResponse gzipResponse = (GzipResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+    if (gzipResponse == null && !isAsyncDispatch(request)) {
+      response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+      if (acceptsGzip(request) && !"HEAD".equals(request.getMethod())) {
+        gzipResponse = new GzipResponse(response, minSize);
+        request.setAttribute(RESPONSE_ATTRIBUTE, gzipResponse);
+      }
+    }
+    if (gzipResponse == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    try {
+      filterChain.doFilter(request, gzipResponse);
+    } finally {
+      if (!request.isAsyncStarted()) {
+        gzipResponse.finish();
+      }
+    }
+  }
+
+  private static boolean isCompressible(String contentType) {
+    if (contentType == null) {
+      return false;
+    }
+    String type = contentType.toLowerCase(Locale.ROOT);
+    return type.startsWith("text/") || type.contains("json");
+  }
+
+  /**
+   * Holds back the first bytes of the body until it is known to be worth compressing, then
+   * either gzips or passes through everything written.
+   */
+  static final class GzipResponse extends HttpServletResponseWrapper {
+    private final int minSize;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    // Undecided while null, then the compressed or the plain output stream
+    private OutputStream target;
+    private long contentLength = -1;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private boolean finished;
+
+    GzipResponse(HttpServletResponse response, int minSize) {
+      super(response);
+      this.minSize = minSize;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (writer != null) {
+        throw new IllegalStateException("getWriter() has already been called");
+      }
+      if (outputStream == null) {
+        ServletOutputStream delegate = super.getOutputStream();
+        outputStream = new ServletOutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) throws IOException {
+            GzipResponse.this.write(b, off, len);
+          }
+
+          @Override
+          public void flush() throws IOException {
+            GzipResponse.this.flush();
+          }
+
+          @Override
+          public void close() throws IOException {
+            finish();
+          }
+
+          @Override
+          public boolean isReady() {
+            return delegate.isReady();
+          }
+
+          @Override
+          public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+          }
+        };
+      }
+      return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (writer == null) {
+        writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+      }
+      return writer;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+      setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+      // Only known to be right for a body sent as it is
+      contentLength = length;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+      } else {
+        super.setHeader(name, value);
+      }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+      if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+        setContentLengthLong(Long.parseLong(value));
+      } else {
+        super.addHeader(name, value);
+      }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+      setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+      addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      if (writer != null) {
+        // Ends with a flush of the output stream
+        writer.flush();
+      } else {
+        flush();
+      }
+    }
+
+    @Override
+    public void resetBuffer() {
+      buffer.reset();
+      super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+      buffer.reset();
+      contentLength = -1;
+      super.reset();
+    }
+
+    private synchronized void write(byte[] b, int off, int len) throws IOException {
+      if (target != null) {
+        target.write(b, off, len);
+        return;
+      }
+      buffer.write(b, off, len);
+      if (buffer.size() >= minSize) {
+        decide(isCompressible(getContentType()) && getHeader(HttpHeaders.CONTENT_ENCODING) == null);
+      }
+    }
+
+    /**
+     * Flushes are ignored until the body is known to be compressed or not, so a small body is
+     * never committed before its headers are final.
+     */
+    private synchronized void flush() throws IOException {
+      if (target != null) {
+        target.flush();
+        super.flushBuffer();
+      }
+    }
+
+    private void decide(boolean compress) throws IOException {
+      OutputStream plain = super.getOutputStream();
+      if (compress) {
+        setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        super.setContentLengthLong(-1);
+        target = new GZIPOutputStream(plain, 8192, true);
+      } else {
+        if (contentLength >= 0) {
+          super.setContentLengthLong(contentLength);
+        }
+        target = plain;
+      }
+      buffer.writeTo(target);
+      buffer.reset();
+    }
+
+    /**
+     * Write what is still buffered, uncompressed when it stayed under the minimum size, and end
+     * the gzip stream.
+     */
+    synchronized void finish() throws IOException {
+      if (finished) {
+        return;
+      }
+      finished = true;
+      if (writer != null) {
+        writer.flush();
+      }
+      if (target == null) {
+        if (buffer.size() == 0) {
+          return;
+        }
+        decide(false);
+      }
+      if (target instanceof GZIPOutputStream gzip) {
+        gzip.finish();
+      }
+      target.flush();
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package dev.algorise.geojobsearch.http;
+
+import dev.algorise.geojobsearch.cache.DataVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Conditional GET and compression for the API: generation ETags on the job, facet and map
+ * endpoints under /api/jobs, and gzip on every API response. Both filters run outside the
+ * response size filter, which keeps measuring the bytes the application writes.
+ */
+@Configuration
+public class HttpCacheConfig implements WebMvcConfigurer {
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new NotModifiedInterceptor()).addPathPatterns("/api/jobs", "/api/jobs/**");
+  }
+
+  @Bean
+  public FilterRegistrationBean<GenerationETagFilter> generationETagFilter(DataVersion dataVersion) {
+    FilterRegistrationBean<GenerationETagFilter> registration =
+        new FilterRegistrationBean<>(new GenerationETagFilter(dataVersion));
+    registration.addUrlPatterns("/api/jobs", "/api/jobs/*");
+    registration.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+    return registration;
+  }
+
+  @Bean
+  public FilterRegistrationBean<GzipResponseFilter> gzipResponseFilter(
+      @Value("${geojobsearch.compression.min-size:2048}") int minSize) {
+    FilterRegistrationBean<GzipResponseFilter> registration =
+        new FilterRegistrationBean<>(new GzipResponseFilter(minSize));
+    registration.addUrlPatterns("/api/*");
+    registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+    return registration;
+  }
+}
@@ -0,0 +1,27 @@
+package dev.algorise.geojobsearch.http;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the endpoints that write or rebuild the dataset behind the shared ingestion token.
+ */
+@Configuration
+public class IngestAuthConfig implements WebMvcConfigurer {
+
+  public static final String[] PROTECTED_PATHS = {"/api/jobs/cache/invalidate", "/api/jobs/batch",
+      "/api/companies/batch"};
+
+  private final String token;
+
+  public IngestAuthConfig(@Value("${geojobsearch.ingest.token:}") String token) {
+    this.token = token;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new IngestTokenInterceptor(token)).addPathPatterns(PROTECTED_PATHS);
+  }
+}
@@ -0,0 +1,40 @@
+package dev.algorise.geojobsearch.http;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits requests to the write endpoints only when they carry the shared ingestion token in
+ * {@value #TOKEN_HEADER}. Those endpoints sit under the public /api prefix that the React proxy
+ * and nginx forward, so without a configured token they are refused outright.
+ */
+public class IngestTokenInterceptor implements HandlerInterceptor {
+
+  public static final String TOKEN_HEADER = "X-Ingest-Token";
+
+  private final byte[] token;
+
+  public IngestTokenInterceptor(String token) {
+    this.token = token == null ? new byte[0] : token.strip().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) throws IOException {
+    if (token.length == 0) {
+      response.sendError(HttpServletResponse.SC_FORBIDDEN, "Ingestion is disabled");
+      return false;
+    }
+    String given = request.getHeader(TOKEN_HEADER);
+    // Constant time, so the token cannot be guessed from response times
+    if (given == null || !MessageDigest.isEqual(token, given.getBytes(StandardCharsets.UTF_8))) {
+      response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing or wrong " + TOKEN_HEADER);
+      return false;
+    }
+    return true;
+  }
+}
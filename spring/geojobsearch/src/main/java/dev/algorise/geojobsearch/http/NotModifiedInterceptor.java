@@ -0,0 +1,26 @@
+package dev.algorise.geojobsearch.http;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers a GET whose If-None-Match names the ETag computed by {@link GenerationETagFilter} with
+ * 304 Not Modified, without running the controller or any query. It runs inside Spring MVC
+ * rather than in the filter so that the CORS headers are still added to the 304.
+ */
+public class NotModifiedInterceptor implements HandlerInterceptor {
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    String etag = (String) request.getAttribute(GenerationETagFilter.ETAG_ATTRIBUTE);
+    if (etag == null || !GenerationETagFilter.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+      return true;
+    }
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    return false;
+  }
+}
@@ -0,0 +1,49 @@
+package dev.algorise.geojobsearch.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Application meters on top of the ones Spring Boot Actuator records: rows returned per
+ * repository method and bytes written per API endpoint. Endpoint latency
+ * ({@code http.server.requests}), repository method latency
+ * ({@code spring.data.repository.invocations}) and Hibernate statistics come from Actuator
+ * itself; application.properties sets their percentiles. Everything is scraped from
+ * {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+
+  /**
+   * Adds a {@link RepositoryRowMetrics} interceptor to every Spring Data repository proxy. The
+   * registry is looked up on first use so the post processor does not initialize it early.
+   */
+  @Bean
+  public static BeanPostProcessor repositoryRowMetricsPostProcessor(
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+          factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+              (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new RepositoryRowMetrics(
+                  meterRegistry, repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public FilterRegistrationBean<ResponseSizeFilter> responseSizeFilter(MeterRegistry meterRegistry) {
+    FilterRegistrationBean<ResponseSizeFilter> registration =
+        new FilterRegistrationBean<>(new ResponseSizeFilter(meterRegistry));
+    registration.addUrlPatterns("/api/*");
+    return registration;
+  }
+}
@@ -0,0 +1,80 @@
+package dev.algorise.geojobsearch.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Records how many rows each repository method returns, as the
+ * {@value #ROWS} distribution tagged with the repository and method name. Results that are not
+ * row lists (counts, streams, single values) are not recorded.
+ */
+class RepositoryRowMetrics implements MethodInterceptor {
+
+  static final String ROWS = "geojobsearch.repository.rows";
+
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+
+  private final String repository;
+
+  private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+  RepositoryRowMetrics(ObjectProvider<MeterRegistry> meterRegistry, String repository) {
+    this.meterRegistry = meterRegistry;
+    this.repository = repository;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    Object result = invocation.proceed();
+    int rows = rowCount(result);
+    if (rows >= 0) {
+      DistributionSummary summary = summary(invocation.getMethod());
+      if (summary != null) {
+        summary.record(rows);
+      }
+    }
+    return result;
+  }
+
+  private DistributionSummary summary(Method method) {
+    DistributionSummary summary = summaries.get(method);
+    if (summary == null) {
+      MeterRegistry registry = meterRegistry.getIfAvailable();
+      if (registry == null) {
+        return null;
+      }
+      summary = summaries.computeIfAbsent(method, key -> DistributionSummary.builder(ROWS)
+          .description("Rows returned by a repository method")
+          .baseUnit("rows")
+          .tag("repository", repository)
+          .tag("method", key.getName())
+          .register(registry));
+    }
+    return summary;
+  }
+
+  /**
+   * The number of rows in a repository result, or -1 when it is not a list of rows.
+   */
+  static int rowCount(Object result) {
+    if (result instanceof Collection<?> collection) {
+      return collection.size();
+    }
+    if (result instanceof Slice<?> slice) {
+      return slice.getNumberOfElements();
+    }
+    if (result instanceof Optional<?> optional) {
+      return optional.isPresent() ? 1 : 0;
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,129 @@
+package dev.algorise.geojobsearch.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records the body size of every response as the {@value #RESPONSE_SIZE} distribution, tagged
+ * with the HTTP method and the matched URI pattern. Bytes are counted as the application writes
+ * them to the output stream, which is how the JSON and NDJSON responses are written, so
+ * streaming responses are measured once their last row has been sent.
+ */
+public class ResponseSizeFilter extends OncePerRequestFilter {
+
+  static final String RESPONSE_SIZE = "geojobsearch.http.response.size";
+
+  private final MeterRegistry meterRegistry;
+
+  public ResponseSizeFilter(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    CountingResponse counting = new CountingResponse(response);
+    try {
+      filterChain.doFilter(request, counting);
+    } finally {
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new AsyncListener() {
+          @Override
+          public void onComplete(AsyncEvent event) {
+            record(request, counting.bytes);
+          }
+
+          @Override
+          public void onTimeout(AsyncEvent event) {
+          }
+
+          @Override
+          public void onError(AsyncEvent event) {
+          }
+
+          @Override
+          public void onStartAsync(AsyncEvent event) {
+          }
+        });
+      } else {
+        record(request, counting.bytes);
+      }
+    }
+  }
+
+  private void record(HttpServletRequest request, long bytes) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    DistributionSummary.builder(RESPONSE_SIZE)
+        .description("Bytes written in a response body")
+        .baseUnit("bytes")
+        .tag("method", request.getMethod())
+        .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+        .register(meterRegistry)
+        .record(bytes);
+  }
+
+  /**
+   * Counts the bytes written through {@link #getOutputStream()}.
+   */
+  private static final class CountingResponse extends HttpServletResponseWrapper {
+    private volatile long bytes;
+    private ServletOutputStream outputStream;
+
+    private CountingResponse(HttpServletResponse response) {
+      super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        ServletOutputStream delegate = super.getOutputStream();
+        outputStream = new ServletOutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            delegate.write(b);
+            bytes++;
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            bytes += len;
+          }
+
+          @Override
+          public void flush() throws IOException {
+            delegate.flush();
+          }
+
+          @Override
+          public void close() throws IOException {
+            delegate.close();
+          }
+
+          @Override
+          public boolean isReady() {
+            return delegate.isReady();
+          }
+
+          @Override
+          public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+          }
+        };
+      }
+      return outputStream;
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package dev.algorise.geojobsearch.model;
 
+import dev.algorise.geojobsearch.config.EntityCacheConfig;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column; // Import the Table annotation
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -7,12 +9,19 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 /**
- * table entity.
+ * table entity. Companies do not change once geocoded, so they are immutable to Hibernate and
+ * cached read-only; the ingestion endpoints write them through JDBC and evict the ones they update.
  */
 @Entity
 @Table(name = "Company")
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = EntityCacheConfig.COMPANY_REGION)
 public class Company {
 
   @Id
@@ -0,0 +1,31 @@
+package dev.algorise.geojobsearch.model;
+
+import java.math.BigDecimal;
+
+/**
+ * One company for the batch ingestion endpoints, keyed by its CompanyUID.
+ *
+ * @param companyUID - stable id assigned by the scraper, required
+ * @param name - required
+ * @param city - required
+ * @param province - required
+ * @param address - geocoded address, may be null
+ * @param latitude - may be null when the company has not been geocoded
+ * @param longitude - may be null when the company has not been geocoded
+ */
+public record CompanyUpsert(
+    String companyUID,
+    String name,
+    String city,
+    String province,
+    String address,
+    BigDecimal latitude,
+    BigDecimal longitude) {
+
+  /**
+   * Whether this company carries geocoding results.
+   */
+  public boolean isGeocoded() {
+    return latitude != null && longitude != null;
+  }
+}
@@ -0,0 +1,29 @@
+package dev.algorise.geojobsearch.model;
+
+import java.util.List;
+
+/**
+ * One keyset page of results. {@code nextCursor} is an opaque token to pass back as
+ * {@code cursor} for the following page, or null on the last page.
+ *
+ * @param <T> row type
+ */
+public class CursorPage<T> {
+
+  private final List<T> items;
+
+  private final String nextCursor;
+
+  public CursorPage(List<T> items, String nextCursor) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+}
@@ -0,0 +1,60 @@
+package dev.algorise.geojobsearch.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response body for the parallel facet count endpoint: the location, job type and salary
+ * histograms with the same row keys as the individual endpoints. A facet that failed or timed
+ * out is null and named in {@link #getUnavailable()}, so the filter panel can render the rest.
+ */
+public class FacetCounts {
+
+  private final List<Map<String, Object>> locations;
+
+  private final List<Map<String, Object>> jobTypes;
+
+  private final List<Map<String, Object>> salaries;
+
+  private final List<String> unavailable;
+
+  public FacetCounts(List<Map<String, Object>> locations, List<Map<String, Object>> jobTypes,
+      List<Map<String, Object>> salaries) {
+    this.locations = locations;
+    this.jobTypes = jobTypes;
+    this.salaries = salaries;
+    List<String> missing = new ArrayList<>(3);
+    if (locations == null) {
+      missing.add("locations");
+    }
+    if (jobTypes == null) {
+      missing.add("jobTypes");
+    }
+    if (salaries == null) {
+      missing.add("salaries");
+    }
+    this.unavailable = Collections.unmodifiableList(missing);
+  }
+
+  public List<Map<String, Object>> getLocations() {
+    return locations;
+  }
+
+  public List<Map<String, Object>> getJobTypes() {
+    return jobTypes;
+  }
+
+  public List<Map<String, Object>> getSalaries() {
+    return salaries;
+  }
+
+  public List<String> getUnavailable() {
+    return unavailable;
+  }
+
+  public boolean isPartial() {
+    return !unavailable.isEmpty();
+  }
+}
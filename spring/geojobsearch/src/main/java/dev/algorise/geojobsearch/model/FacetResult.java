@@ -0,0 +1,50 @@
+package dev.algorise.geojobsearch.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response body for the combined facet endpoint: the three filter panel histograms plus one page
+ * of matching jobs. Histogram rows use the same keys as the individual facet endpoints.
+ */
+public class FacetResult {
+
+  private final List<Map<String, Object>> locations;
+
+  private final List<Map<String, Object>> jobTypes;
+
+  private final List<Map<String, Object>> salaries;
+
+  private final List<JobSummary> jobs;
+
+  private final long totalJobs;
+
+  public FacetResult(List<Map<String, Object>> locations, List<Map<String, Object>> jobTypes,
+      List<Map<String, Object>> salaries, List<JobSummary> jobs, long totalJobs) {
+    this.locations = locations;
+    this.jobTypes = jobTypes;
+    this.salaries = salaries;
+    this.jobs = jobs;
+    this.totalJobs = totalJobs;
+  }
+
+  public List<Map<String, Object>> getLocations() {
+    return locations;
+  }
+
+  public List<Map<String, Object>> getJobTypes() {
+    return jobTypes;
+  }
+
+  public List<Map<String, Object>> getSalaries() {
+    return salaries;
+  }
+
+  public List<JobSummary> getJobs() {
+    return jobs;
+  }
+
+  public long getTotalJobs() {
+    return totalJobs;
+  }
+}
@@ -0,0 +1,10 @@
+package dev.algorise.geojobsearch.model;
+
+/**
+ * Outcome of a batch ingestion.
+ *
+ * @param rows - number of jobs or companies inserted or updated
+ * @param generation - the dataset generation that includes them
+ */
+public record IngestResult(int rows, long generation) {
+}
@@ -1,5 +1,7 @@
 package dev.algorise.geojobsearch.model;
 
+import dev.algorise.geojobsearch.config.EntityCacheConfig;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column; // Import the Table annotation
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -15,12 +17,17 @@ import java.util.Date;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.FetchType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
- * table entity.
+ * table entity. Cached in the second-level cache; batch ingestion writes through JDBC and evicts
+ * the jobs it changed, so a stale read lasts at most until the next dataset generation.
  */
 @Entity
 @Table(name = "Jobs")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = EntityCacheConfig.JOB_REGION)
 public class Job {
 
   @Id
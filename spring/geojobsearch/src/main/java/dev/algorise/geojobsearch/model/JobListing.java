@@ -0,0 +1,39 @@
+package dev.algorise.geojobsearch.model;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Immutable copy of a job with every field the {@link Job} entity serializes, for results that
+ * outlive the persistence context, such as filtered job lists held in the read cache.
+ */
+public record JobListing(
+    Long jobID,
+    String title,
+    String company,
+    String location,
+    String city,
+    String province,
+    String description,
+    BigDecimal salary,
+    String jobType,
+    Date date,
+    String jobURL) {
+
+  /**
+   * Copy a job entity. The date is copied too, since {@link Date} itself is mutable.
+   * @param job - the job to copy
+   * @return the listing
+   */
+  public static JobListing of(Job job) {
+    Date date = job.getDate() == null ? null : new Date(job.getDate().getTime());
+    return new JobListing(job.getJobID(), job.getTitle(), job.getCompany(), job.getLocation(),
+        job.getCity(), job.getProvince(), job.getDescription(), job.getSalary(), job.getJobType(),
+        date, job.getJobURL());
+  }
+
+  @Override
+  public Date date() {
+    return date == null ? null : new Date(date.getTime());
+  }
+}
@@ -0,0 +1,23 @@
+package dev.algorise.geojobsearch.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only map marker: the job fields a map popup shows plus its company coordinates.
+ */
+public record JobMarker(
+    Long jobID,
+    String title,
+    String company,
+    String location,
+    BigDecimal salary,
+    String jobType,
+    BigDecimal latitude,
+    BigDecimal longitude) {
+
+  /**
+   * JPQL select list matching the record components; the query must join {@code j.companyT c}.
+   */
+  public static final String SELECT = "SELECT new dev.algorise.geojobsearch.model.JobMarker("
+      + "j.jobID, j.title, j.company, j.location, j.salary, j.jobType, c.latitude, c.longitude) ";
+}
@@ -0,0 +1,27 @@
+package dev.algorise.geojobsearch.model;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Read-only list view of a job: everything a result card shows, without the description.
+ *
+ * <p>Built by JPQL constructor expressions, so rows are never managed by the persistence context.
+ * Fetch the description separately through {@code /api/jobs/{id}/description}.
+ */
+public record JobSummary(
+    Long jobID,
+    String title,
+    String company,
+    String location,
+    BigDecimal salary,
+    String jobType,
+    Date date,
+    String jobURL) {
+
+  /**
+   * JPQL select list matching the record components, for use in {@code SELECT new} queries.
+   */
+  public static final String SELECT = "SELECT new dev.algorise.geojobsearch.model.JobSummary("
+      + "j.jobID, j.title, j.company, j.location, j.salary, j.jobType, j.date, j.jobURL) ";
+}
@@ -0,0 +1,35 @@
+package dev.algorise.geojobsearch.model;
+
+import java.time.LocalDate;
+
+/**
+ * One scraped job for the batch ingestion endpoint, keyed by its JobUID. A job whose JobUID is
+ * already stored replaces the stored fields.
+ *
+ * @param jobUID - stable id assigned by the scraper, required
+ * @param title - required
+ * @param company - company name as posted, required
+ * @param companyUID - the company's Company table key, may be null
+ * @param location - required
+ * @param city - required
+ * @param province - required
+ * @param description - may be null
+ * @param salary - yearly salary, may be null
+ * @param jobType - required
+ * @param date - posting date, may be null
+ * @param jobURL - may be null
+ */
+public record JobUpsert(
+    String jobUID,
+    String title,
+    String company,
+    String companyUID,
+    String location,
+    String city,
+    String province,
+    String description,
+    Integer salary,
+    String jobType,
+    LocalDate date,
+    String jobURL) {
+}
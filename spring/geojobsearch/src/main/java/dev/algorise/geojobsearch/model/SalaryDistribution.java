@@ -0,0 +1,17 @@
+package dev.algorise.geojobsearch.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Salary histogram and percentiles of the jobs matching a location and job type.
+ *
+ * @param bucketWidth - width of each histogram bucket
+ * @param buckets - rows with the same keys as /api/jobs/salary: minSalary, maxSalary and count;
+ *     jobs without a salary come first with null bounds
+ * @param percentiles - salary per requested percentile, keyed by the percentile as given, such
+ *     as "50" or "99.9"; null when no matching job has a salary
+ */
+public record SalaryDistribution(int bucketWidth, List<Map<String, Object>> buckets,
+    Map<String, Integer> percentiles) {
+}
@@ -0,0 +1,11 @@
+package dev.algorise.geojobsearch.model;
+
+/**
+ * One search-as-you-type suggestion.
+ *
+ * @param text - the title, company name or city as stored
+ * @param type - "title", "company" or "city"
+ * @param count - number of jobs with this value
+ */
+public record Suggestion(String text, String type, long count) {
+}
@@ -0,0 +1,19 @@
+package dev.algorise.geojobsearch.repository;
+import dev.algorise.geojobsearch.model.Company;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Company table access. Batched writes for the ingestion endpoints are declared in
+ * {@link CompanyUpsertRepository}.
+ */
+@Repository
+public interface CompanyRepository extends JpaRepository<Company, String>, CompanyUpsertRepository {
+
+
+    // Every stored CompanyUID, to seed the set of known companies
+    @Query("SELECT c.companyUID FROM Company c")
+    List<String> findAllCompanyUids();
+}
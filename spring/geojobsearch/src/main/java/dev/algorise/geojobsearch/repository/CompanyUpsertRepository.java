@@ -0,0 +1,26 @@
+package dev.algorise.geojobsearch.repository;
+
+import dev.algorise.geojobsearch.model.CompanyUpsert;
+import java.util.Collection;
+
+/**
+ * Batched {@code INSERT ... ON DUPLICATE KEY UPDATE} writes keyed on CompanyUID. With
+ * {@code rewriteBatchedStatements=true} on the datasource URL each batch is one statement.
+ */
+public interface CompanyUpsertRepository {
+
+  /**
+   * Insert companies that are not stored yet; stored companies are left untouched.
+   * @param companies - companies with distinct CompanyUIDs
+   * @param batchSize - rows per JDBC batch
+   */
+  void insertMissing(Collection<CompanyUpsert> companies, int batchSize);
+
+  /**
+   * Insert companies or update the stored ones. A null address or coordinate keeps the stored
+   * value, so a failed geocode does not erase an earlier one.
+   * @param companies - companies with distinct CompanyUIDs
+   * @param batchSize - rows per JDBC batch
+   */
+  void upsert(Collection<CompanyUpsert> companies, int batchSize);
+}
@@ -0,0 +1,69 @@
+package dev.algorise.geojobsearch.repository;
+
+import dev.algorise.geojobsearch.model.CompanyUpsert;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link CompanyUpsertRepository}, picked up by Spring Data as a fragment
+ * of {@link CompanyRepository}.
+ */
+class CompanyUpsertRepositoryImpl implements CompanyUpsertRepository {
+
+  private static final String INSERT = "INSERT INTO Company (CompanyUID, Name, City, Province, "
+      + "Address, Latitude, Longitude) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_MISSING = INSERT
+      + " ON DUPLICATE KEY UPDATE CompanyUID = CompanyUID";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // Built on first use, once the server the datasource reaches is known
+  private volatile String upsertSql;
+
+  CompanyUpsertRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void insertMissing(Collection<CompanyUpsert> companies, int batchSize) {
+    jdbcTemplate.batchUpdate(INSERT_MISSING, companies, batchSize,
+        CompanyUpsertRepositoryImpl::setCompany);
+  }
+
+  @Override
+  public void upsert(Collection<CompanyUpsert> companies, int batchSize) {
+    jdbcTemplate.batchUpdate(upsertSql(), companies, batchSize, CompanyUpsertRepositoryImpl::setCompany);
+  }
+
+  private String upsertSql() {
+    String sql = upsertSql;
+    if (sql == null) {
+      sql = upsertSql(UpsertSyntax.of(jdbcTemplate));
+      upsertSql = sql;
+    }
+    return sql;
+  }
+
+  // Coordinates and address are only overwritten by a non-null value
+  static String upsertSql(UpsertSyntax syntax) {
+    return INSERT + syntax.rowAlias() + " ON DUPLICATE KEY UPDATE "
+        + syntax.assignInserted("Name", "City", "Province") + ", "
+        + "Address = COALESCE(" + syntax.inserted("Address") + ", Address), "
+        + "Latitude = COALESCE(" + syntax.inserted("Latitude") + ", Latitude), "
+        + "Longitude = COALESCE(" + syntax.inserted("Longitude") + ", Longitude)";
+  }
+
+  private static void setCompany(PreparedStatement ps, CompanyUpsert company)
+      throws SQLException {
+    ps.setString(1, company.companyUID());
+    ps.setString(2, company.name());
+    ps.setString(3, company.city());
+    ps.setString(4, company.province());
+    ps.setString(5, company.address());
+    ps.setBigDecimal(6, company.latitude());
+    ps.setBigDecimal(7, company.longitude());
+  }
+}
@@ -0,0 +1,59 @@
+package dev.algorise.geojobsearch.repository;
+
+import java.util.Locale;
+
+/**
+ * Job columns that can be fetched on their own by {@link JobQueryRepository#findFieldsByIds}.
+ * Requests name them by {@link #key()}; anything else is rejected rather than passed to a query.
+ */
+public enum JobField {
+  TITLE("title", "title"),
+  COMPANY("company", "company"),
+  LOCATION("location", "location"),
+  CITY("city", "city"),
+  PROVINCE("province", "province"),
+  DESCRIPTION("description", "description"),
+  SALARY("salary", "salary"),
+  JOB_TYPE("jobType", "jobType"),
+  DATE("date", "date"),
+  URL("url", "jobURL");
+
+  private final String key;
+
+  private final String attribute;
+
+  JobField(String key, String attribute) {
+    this.key = key;
+    this.attribute = attribute;
+  }
+
+  /**
+   * @return the name used in requests and responses
+   */
+  public String key() {
+    return key;
+  }
+
+  /**
+   * @return the {@code Job} entity attribute holding the column
+   */
+  public String attribute() {
+    return attribute;
+  }
+
+  /**
+   * Look up a field by its request name, ignoring case.
+   * @param key - a field name such as "title" or "url"
+   * @return the field
+   * @throws IllegalArgumentException when no field has that name
+   */
+  public static JobField of(String key) {
+    String trimmed = key == null ? "" : key.trim().toLowerCase(Locale.ROOT);
+    for (JobField field : values()) {
+      if (field.key.toLowerCase(Locale.ROOT).equals(trimmed)) {
+        return field;
+      }
+    }
+    throw new IllegalArgumentException("Unknown job field: " + key);
+  }
+}
@@ -0,0 +1,256 @@
+package dev.algorise.geojobsearch.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable set of job filters, built with {@link #builder()}.
+ *
+ * <p>Only the filters that are set become predicates (see {@link JobSpecifications}), so a filter
+ * on location alone is a plain {@code Location = ?} that MySQL can serve from an index, instead
+ * of the {@code :x IS NULL OR ...} form that forces a plan for the generic case.
+ */
+public final class JobFilter {
+
+  private final String location;
+  private final String jobType;
+  private final Integer minSalary;
+  private final Integer maxSalary;
+  private final List<String> keywords;
+  private final boolean matchAllKeywords;
+  private final Collection<Long> jobIds;
+  private final BitSet keywordMatches;
+  private final Collection<String> companyUids;
+  private final BigDecimal[] box;
+
+  private JobFilter(Builder builder) {
+    this.location = builder.location;
+    this.jobType = builder.jobType;
+    this.minSalary = builder.minSalary;
+    this.maxSalary = builder.maxSalary;
+    this.keywords = Collections.unmodifiableList(new ArrayList<>(builder.keywords));
+    this.matchAllKeywords = builder.matchAllKeywords;
+    this.jobIds = builder.jobIds;
+    this.keywordMatches = builder.keywordMatches;
+    this.companyUids = builder.companyUids;
+    this.box = builder.box;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Filter on location, job type and salary range; null arguments are left out.
+   */
+  public static JobFilter of(String location, String jobType, Integer minSalary, Integer maxSalary) {
+    return builder().location(location).jobType(jobType).salaryBetween(minSalary, maxSalary).build();
+  }
+
+  /**
+   * A builder starting from this filter's values.
+   */
+  public Builder toBuilder() {
+    Builder builder = new Builder().location(location).jobType(jobType)
+        .salaryBetween(minSalary, maxSalary).jobIds(jobIds).companies(companyUids);
+    builder.keywords.addAll(keywords);
+    builder.matchAllKeywords = matchAllKeywords;
+    builder.keywordMatches = keywordMatches;
+    builder.box = box;
+    return builder;
+  }
+
+  public String getLocation() {
+    return location;
+  }
+
+  public String getJobType() {
+    return jobType;
+  }
+
+  public Integer getMinSalary() {
+    return minSalary;
+  }
+
+  public Integer getMaxSalary() {
+    return maxSalary;
+  }
+
+  public List<String> getKeywords() {
+    return keywords;
+  }
+
+  public boolean isMatchAllKeywords() {
+    return matchAllKeywords;
+  }
+
+  public Collection<Long> getJobIds() {
+    return jobIds;
+  }
+
+  /**
+   * The job ids the keyword index resolved the keywords to, or null when it could not answer.
+   * Shared, not copied: read it, never modify it.
+   */
+  public BitSet getKeywordMatches() {
+    return keywordMatches;
+  }
+
+  public Collection<String> getCompanyUids() {
+    return companyUids;
+  }
+
+  /**
+   * The coordinate box as south, west, north, east, or null.
+   */
+  public BigDecimal[] getBox() {
+    return box == null ? null : box.clone();
+  }
+
+  /**
+   * Whether any predicate needs the company join.
+   */
+  public boolean needsCompany() {
+    return companyUids != null || box != null;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof JobFilter other)) {
+      return false;
+    }
+    return matchAllKeywords == other.matchAllKeywords
+        && Objects.equals(location, other.location)
+        && Objects.equals(jobType, other.jobType)
+        && Objects.equals(minSalary, other.minSalary)
+        && Objects.equals(maxSalary, other.maxSalary)
+        && keywords.equals(other.keywords)
+        && Objects.equals(jobIds, other.jobIds)
+        && Objects.equals(keywordMatches, other.keywordMatches)
+        && Objects.equals(companyUids, other.companyUids)
+        && Arrays.equals(box, other.box);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(location, jobType, minSalary, maxSalary, keywords, matchAllKeywords, jobIds,
+        keywordMatches, companyUids, Arrays.hashCode(box));
+  }
+
+  @Override
+  public String toString() {
+    return "JobFilter{location=" + location + ", jobType=" + jobType + ", minSalary=" + minSalary
+        + ", maxSalary=" + maxSalary + ", keywords=" + keywords + ", matchAllKeywords="
+        + matchAllKeywords + ", jobIds=" + (jobIds == null ? null : jobIds.size() + " ids")
+        + ", keywordMatches=" + (keywordMatches == null ? null : keywordMatches.cardinality() + " ids")
+        + ", companyUids=" + companyUids + "}";
+  }
+
+  /**
+   * Fluent builder; every setter accepts null to mean "no filter".
+   */
+  public static final class Builder {
+    private String location;
+    private String jobType;
+    private Integer minSalary;
+    private Integer maxSalary;
+    private final List<String> keywords = new ArrayList<>();
+    private boolean matchAllKeywords = true;
+    private Collection<Long> jobIds;
+    private BitSet keywordMatches;
+    private Collection<String> companyUids;
+    private BigDecimal[] box;
+
+    private Builder() {
+    }
+
+    public Builder location(String location) {
+      this.location = location;
+      return this;
+    }
+
+    public Builder jobType(String jobType) {
+      this.jobType = jobType;
+      return this;
+    }
+
+    public Builder salaryBetween(Integer minSalary, Integer maxSalary) {
+      this.minSalary = minSalary;
+      this.maxSalary = maxSalary;
+      return this;
+    }
+
+    /**
+     * Require every keyword in title, description or company.
+     * @param keywords - lowercase keywords, any number
+     */
+    public Builder allKeywords(Collection<String> keywords) {
+      return keywords(keywords, true);
+    }
+
+    /**
+     * Require at least one keyword in title, description or company.
+     * @param keywords - lowercase keywords, any number
+     */
+    public Builder anyKeyword(Collection<String> keywords) {
+      return keywords(keywords, false);
+    }
+
+    private Builder keywords(Collection<String> keywords, boolean matchAll) {
+      this.keywords.clear();
+      if (keywords != null) {
+        keywords.stream().filter(k -> k != null && !k.isEmpty()).forEach(this.keywords::add);
+      }
+      this.matchAllKeywords = matchAll;
+      return this;
+    }
+
+    /**
+     * Restrict to the given job ids. They become an IN list, so keep them to a page or a batch.
+     */
+    public Builder jobIds(Collection<Long> jobIds) {
+      this.jobIds = jobIds;
+      return this;
+    }
+
+    /**
+     * Attach the job ids the keyword index resolved the keywords to. The in-memory indexes
+     * intersect this bitmap instead of matching the keywords; SQL never sees it and matches the
+     * keywords themselves, so no query grows with the number of matches.
+     * @param matches - job ids as returned by the keyword index, not modified afterwards
+     */
+    public Builder keywordMatches(BitSet matches) {
+      this.keywordMatches = matches;
+      return this;
+    }
+
+    /**
+     * Restrict to jobs of the given companies.
+     */
+    public Builder companies(Collection<String> companyUids) {
+      this.companyUids = companyUids;
+      return this;
+    }
+
+    /**
+     * Restrict to jobs whose company coordinates lie inside the box.
+     */
+    public Builder within(BigDecimal south, BigDecimal west, BigDecimal north, BigDecimal east) {
+      this.box = new BigDecimal[] {south, west, north, east};
+      return this;
+    }
+
+    public JobFilter build() {
+      return new JobFilter(this);
+    }
+  }
+}
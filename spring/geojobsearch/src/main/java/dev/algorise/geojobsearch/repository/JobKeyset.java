@@ -0,0 +1,19 @@
+package dev.algorise.geojobsearch.repository;
+
+/**
+ * Position and ordering of a keyset page: rows continue strictly after {@code afterId} (and
+ * {@code afterValue}, when sorting by a column).
+ *
+ * @param sortAttribute - "date" or "salary" for newest/highest first, null for ascending JobID
+ * @param afterValue - the sort value of the previous page's last row, null when it had none
+ * @param afterId - the JobID of the previous page's last row, null for the first page
+ */
+public record JobKeyset(String sortAttribute, Comparable<?> afterValue, Long afterId) {
+
+  /**
+   * Ascending JobID order, after the given id.
+   */
+  public static JobKeyset byJobId(Long afterId) {
+    return new JobKeyset(null, null, afterId);
+  }
+}
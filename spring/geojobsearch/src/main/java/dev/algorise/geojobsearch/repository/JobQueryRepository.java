@@ -0,0 +1,122 @@
+package dev.algorise.geojobsearch.repository;
+
+import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobMarker;
+import dev.algorise.geojobsearch.model.JobSummary;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Criteria queries over {@link JobFilter}: grouped counts, projections and keyset pages whose
+ * WHERE clause only contains the filters that are set.
+ */
+public interface JobQueryRepository {
+
+  /**
+   * Count jobs per location.
+   * @param filter - the filters to apply
+   * @return rows of (location, count)
+   */
+  List<Object[]> countByLocation(JobFilter filter);
+
+  /**
+   * Count jobs per job type.
+   * @param filter - the filters to apply
+   * @return rows of (jobType, count)
+   */
+  List<Object[]> countByJobType(JobFilter filter);
+
+  /**
+   * Count jobs per salary range of {@code bucketWidth}, ordered by range.
+   * @param filter - the filters to apply
+   * @param bucketWidth - width of each salary range
+   * @return rows of (minSalary, maxSalary, count)
+   */
+  List<Object[]> countBySalaryRange(JobFilter filter, int bucketWidth);
+
+  /**
+   * Get jobs with the coordinates of their company.
+   * @param filter - the filters to apply
+   * @return rows of (job, latitude, longitude)
+   */
+  List<Object[]> findJobsWithCoordinates(JobFilter filter);
+
+  /**
+   * Get slim (id, location, jobType, salary) rows in JobID order, for single-pass facet counting.
+   * Rows must match the location, jobType and salary filters only two at a time, since each
+   * facet ignores its own.
+   * @param filter - the candidates plus the selected location, jobType and salary
+   * @return the facet rows
+   */
+  List<Object[]> findFacetRows(JobFilter filter);
+
+  /**
+   * Get the salaries of matching jobs that have one, lowest first.
+   * @param filter - the filters to apply
+   * @return the salaries
+   */
+  List<BigDecimal> findSalaries(JobFilter filter);
+
+  /**
+   * Get only the given columns of the given jobs, in one query.
+   * @param ids - JobIDs to read; ids without a job are left out of the result
+   * @param fields - the columns to read
+   * @return rows of (jobID, then one value per field in the given order)
+   */
+  List<Object[]> findFieldsByIds(Collection<Long> ids, List<JobField> fields);
+
+  /**
+   * Get map markers of matching jobs; the company join is always present.
+   * @param filter - the filters to apply
+   * @return the markers
+   */
+  List<JobMarker> findMarkers(JobFilter filter);
+
+  /**
+   * Get one keyset page of job summaries.
+   * @param filter - the filters to apply
+   * @param keyset - ordering and position of the page
+   * @param limit - maximum number of rows
+   * @return the page; {@code hasNext} tells whether more rows follow
+   */
+  Slice<JobSummary> findSummaryPage(JobFilter filter, JobKeyset keyset, int limit);
+
+  /**
+   * Get one keyset page of map markers in JobID order.
+   * @param filter - the filters to apply
+   * @param afterId - the JobID of the previous page's last row, null for the first page
+   * @param limit - maximum number of rows
+   * @return the page; {@code hasNext} tells whether more rows follow
+   */
+  Slice<JobMarker> findMarkerPage(JobFilter filter, Long afterId, int limit);
+
+  /**
+   * Get matching jobs.
+   * @param filter - the filters to apply
+   * @param sortAttribute - "date" or "salary" for newest/highest first, null for no ordering
+   * @return the jobs
+   */
+  List<Job> findJobs(JobFilter filter, String sortAttribute);
+
+  /**
+   * Stream matching jobs from an open cursor, {@code geojobsearch.stream.fetch-size} rows at a
+   * time. Each job is detached before it is handed out, so the persistence context stays empty
+   * however many rows match. Must be closed, and consumed inside a transaction.
+   * @param filter - the filters to apply
+   * @param sortAttribute - "date" or "salary" for newest/highest first, null for no ordering
+   * @return the jobs, read lazily
+   */
+  Stream<Job> streamJobs(JobFilter filter, String sortAttribute);
+
+  /**
+   * Stream the given jobs in the given order, reading them by primary key a bounded batch at a
+   * time and detaching each, for lists evaluated in memory. Ids without a job are skipped. Must be
+   * closed, and consumed inside a transaction.
+   * @param ids - JobIDs in the order to stream them
+   * @return the jobs, read lazily
+   */
+  Stream<Job> streamJobsByIds(long[] ids);
+}
@@ -0,0 +1,282 @@
+package dev.algorise.geojobsearch.repository;
+
+import dev.algorise.geojobsearch.model.Company;
+import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobMarker;
+import dev.algorise.geojobsearch.model.JobSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Criteria implementation of {@link JobQueryRepository}, picked up by Spring Data as a fragment
+ * of {@link JobRepository}.
+ */
+class JobQueryRepositoryImpl implements JobQueryRepository {
+
+  // Ids per IN list when reading jobs by primary key
+  private static final int ID_BATCH_SIZE = 1000;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${geojobsearch.stream.fetch-size:500}")
+  private int streamFetchSize;
+
+  @Override
+  public List<Object[]> countByLocation(JobFilter filter) {
+    return countBy(filter, "location");
+  }
+
+  @Override
+  public List<Object[]> countByJobType(JobFilter filter) {
+    return countBy(filter, "jobType");
+  }
+
+  private List<Object[]> countBy(JobFilter filter, String attribute) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+    Root<Job> job = query.from(Job.class);
+    Path<Object> group = job.get(attribute);
+    query.multiselect(group, cb.count(job))
+        .where(where(filter, job, cb))
+        .groupBy(group);
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  @Override
+  public List<Object[]> countBySalaryRange(JobFilter filter, int bucketWidth) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+    Root<Job> job = query.from(Job.class);
+    // Group by the bucket number alone and derive the range bounds below, so the select list
+    // holds nothing but the grouped expression and the count
+    Expression<Number> bucket = cb.floor(cb.quot(job.get("salary"), cb.literal(bucketWidth)));
+    query.multiselect(bucket, cb.count(job))
+        .where(where(filter, job, cb))
+        .groupBy(bucket)
+        .orderBy(cb.asc(bucket));
+
+    List<Object[]> rows = entityManager.createQuery(query).getResultList();
+    List<Object[]> result = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      if (row[0] == null) {
+        result.add(new Object[] {null, null, row[1]});
+      } else {
+        long minSalary = ((Number) row[0]).longValue() * bucketWidth;
+        result.add(new Object[] {minSalary, minSalary + bucketWidth - 1, row[1]});
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public List<Object[]> findJobsWithCoordinates(JobFilter filter) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+    Root<Job> job = query.from(Job.class);
+    Join<Job, Company> company = JobSpecifications.companyJoin(job);
+    query.multiselect(job, company.get("latitude"), company.get("longitude"))
+        .where(where(filter, job, cb));
+    // Map loads repeat the same few filters; id lists and boxes would only fill the region
+    boolean cacheable = filter.getJobIds() == null && filter.getCompanyUids() == null
+        && filter.getBox() == null;
+    return entityManager.createQuery(query)
+        .setHint(HibernateHints.HINT_CACHEABLE, cacheable)
+        .getResultList();
+  }
+
+  @Override
+  public List<Object[]> findFacetRows(JobFilter filter) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+    Root<Job> job = query.from(Job.class);
+    query.multiselect(job.get("jobID"), job.get("location"), job.get("jobType"), job.get("salary"))
+        .where(JobSpecifications.facetPredicates(filter, job, cb).toArray(new Predicate[0]))
+        .orderBy(cb.asc(job.get("jobID")));
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  @Override
+  public List<BigDecimal> findSalaries(JobFilter filter) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<BigDecimal> query = cb.createQuery(BigDecimal.class);
+    Root<Job> job = query.from(Job.class);
+    Path<BigDecimal> salary = job.get("salary");
+    List<Predicate> predicates = JobSpecifications.predicates(filter, job, cb);
+    predicates.add(cb.isNotNull(salary));
+    query.select(salary).where(predicates.toArray(new Predicate[0])).orderBy(cb.asc(salary));
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  @Override
+  public List<Object[]> findFieldsByIds(Collection<Long> ids, List<JobField> fields) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+    Root<Job> job = query.from(Job.class);
+    List<Selection<?>> columns = new ArrayList<>(fields.size() + 1);
+    columns.add(job.get("jobID"));
+    for (JobField field : fields) {
+      columns.add(job.get(field.attribute()));
+    }
+    query.multiselect(columns).where(job.get("jobID").in(ids));
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  @Override
+  public List<JobMarker> findMarkers(JobFilter filter) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<JobMarker> query = cb.createQuery(JobMarker.class);
+    Root<Job> job = query.from(Job.class);
+    query.select(marker(cb, job)).where(where(filter, job, cb));
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  @Override
+  public Slice<JobSummary> findSummaryPage(JobFilter filter, JobKeyset keyset, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<JobSummary> query = cb.createQuery(JobSummary.class);
+    Root<Job> job = query.from(Job.class);
+    List<Predicate> predicates = JobSpecifications.predicates(filter, job, cb);
+    Path<Long> jobId = job.get("jobID");
+
+    if (keyset.sortAttribute() == null) {
+      if (keyset.afterId() != null) {
+        predicates.add(cb.gt(jobId, keyset.afterId()));
+      }
+      query.orderBy(cb.asc(jobId));
+    } else {
+      // Descending sort puts rows without a value last, so they follow every valued row
+      Path<Comparable<Object>> sortKey = job.get(keyset.sortAttribute());
+      if (keyset.afterId() != null) {
+        predicates.add(after(cb, sortKey, jobId, keyset));
+      }
+      query.orderBy(cb.desc(sortKey), cb.desc(jobId));
+    }
+
+    query.select(cb.construct(JobSummary.class, job.get("jobID"), job.get("title"),
+        job.get("company"), job.get("location"), job.get("salary"), job.get("jobType"),
+        job.get("date"), job.get("jobURL")))
+        .where(predicates.toArray(new Predicate[0]));
+    return slice(entityManager.createQuery(query).setMaxResults(limit + 1).getResultList(), limit);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Predicate after(CriteriaBuilder cb, Path<Comparable<Object>> sortKey,
+      Path<Long> jobId, JobKeyset keyset) {
+    if (keyset.afterValue() == null) {
+      return cb.and(cb.isNull(sortKey), cb.lt(jobId, keyset.afterId()));
+    }
+    Comparable<Object> value = (Comparable<Object>) keyset.afterValue();
+    return cb.or(
+        cb.lessThan(sortKey, value),
+        cb.and(cb.equal(sortKey, value), cb.lt(jobId, keyset.afterId())),
+        cb.isNull(sortKey));
+  }
+
+  @Override
+  public Slice<JobMarker> findMarkerPage(JobFilter filter, Long afterId, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<JobMarker> query = cb.createQuery(JobMarker.class);
+    Root<Job> job = query.from(Job.class);
+    // Join before building the filter predicates so they reuse it
+    query.select(marker(cb, job));
+    List<Predicate> predicates = JobSpecifications.predicates(filter, job, cb);
+    Path<Long> jobId = job.get("jobID");
+    if (afterId != null) {
+      predicates.add(cb.gt(jobId, afterId));
+    }
+    query.where(predicates.toArray(new Predicate[0])).orderBy(cb.asc(jobId));
+    return slice(entityManager.createQuery(query).setMaxResults(limit + 1).getResultList(), limit);
+  }
+
+  @Override
+  public List<Job> findJobs(JobFilter filter, String sortAttribute) {
+    return entityManager.createQuery(jobQuery(filter, sortAttribute)).getResultList();
+  }
+
+  @Override
+  public Stream<Job> streamJobs(JobFilter filter, String sortAttribute) {
+    // A positive fetch size only reads row by row on MySQL with useCursorFetch=true on the URL
+    return entityManager.createQuery(jobQuery(filter, sortAttribute))
+        .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .getResultStream()
+        .map(job -> {
+          entityManager.detach(job);
+          return job;
+        });
+  }
+
+  @Override
+  public Stream<Job> streamJobsByIds(long[] ids) {
+    int batches = (ids.length + ID_BATCH_SIZE - 1) / ID_BATCH_SIZE;
+    return IntStream.range(0, batches).mapToObj(batch -> {
+      List<Long> batchIds = new ArrayList<>(ID_BATCH_SIZE);
+      for (int i = batch * ID_BATCH_SIZE; i < Math.min(ids.length, (batch + 1) * ID_BATCH_SIZE); i++) {
+        batchIds.add(ids[i]);
+      }
+      Map<Long, Job> byId = new HashMap<>();
+      for (Job job : entityManager.createQuery("SELECT j FROM Job j WHERE j.jobID IN :ids", Job.class)
+          .setParameter("ids", batchIds)
+          .setHint(HibernateHints.HINT_READ_ONLY, true)
+          .getResultList()) {
+        entityManager.detach(job);
+        byId.put(job.getJobID(), job);
+      }
+      // The IN query does not keep the order of the ids; jobs deleted since are skipped
+      return batchIds.stream().map(byId::get).filter(Objects::nonNull);
+    }).flatMap(Function.identity());
+  }
+
+  private CriteriaQuery<Job> jobQuery(JobFilter filter, String sortAttribute) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Job> query = cb.createQuery(Job.class);
+    Root<Job> job = query.from(Job.class);
+    query.select(job).where(where(filter, job, cb));
+    if (sortAttribute != null) {
+      query.orderBy(cb.desc(job.get(sortAttribute)));
+    }
+    return query;
+  }
+
+  private static CompoundSelection<JobMarker> marker(CriteriaBuilder cb, Root<Job> job) {
+    Join<Job, Company> company = JobSpecifications.companyJoin(job);
+    return cb.construct(JobMarker.class, job.get("jobID"), job.get("title"), job.get("company"),
+        job.get("location"), job.get("salary"), job.get("jobType"), company.get("latitude"),
+        company.get("longitude"));
+  }
+
+  private static Predicate[] where(JobFilter filter, Root<Job> job, CriteriaBuilder cb) {
+    return JobSpecifications.predicates(filter, job, cb).toArray(new Predicate[0]);
+  }
+
+  private static <T> Slice<T> slice(List<T> rows, int limit) {
+    boolean hasNext = rows.size() > limit;
+    List<T> content = hasNext ? rows.subList(0, limit) : rows;
+    return new SliceImpl<>(content, PageRequest.ofSize(limit), hasNext);
+  }
+}
@@ -1,177 +1,102 @@
 package dev.algorise.geojobsearch.repository;
 import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobMarker;
+import dev.algorise.geojobsearch.model.JobSummary;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Jobs table access. Filtered counts, lists and pages are built per request from a
+ * {@link JobFilter} (see {@link JobQueryRepository}); only fixed-shape queries are declared here.
+ * The hot company and location lookups keep their results in the Hibernate query cache.
+ */
 @Repository
-public interface JobRepository extends JpaRepository<Job, Long> {
-
-
-  @Query("SELECT j.location, COUNT(j) AS jobCount FROM Job j " + 
-    "WHERE (:jobType IS NULL OR j.jobType = :jobType) " +
-    "AND (:minSalary IS NULL OR j.salary >= :minSalary ) " +
-    "AND (:maxSalary IS NULL OR j.salary <= :maxSalary ) " + 
-    "GROUP BY j.location")
-    List<Object[]> findLocationsCount(  @Param("jobType") String jobType,  
-                                        @Param("minSalary") Integer minSalary, 
-                                        @Param("maxSalary") Integer maxSalary);
-
-
-@Query("SELECT j.location, COUNT(j) AS jobCount FROM Job j " + 
-    "WHERE (:jobType IS NULL OR j.jobType = :jobType) " +
-    "AND (:minSalary IS NULL OR j.salary >= :minSalary ) " +
-    "AND (:maxSalary IS NULL OR j.salary <= :maxSalary ) " +
-    "AND (:keywordOne IS NULL OR j.title LIKE CONCAT('%', :keywordOne, '%') " +
-    "OR j.description LIKE CONCAT('%', :keywordOne, '%') OR j.company LIKE CONCAT('%', :keywordOne, '%') ) " +
-    "AND (:keywordTwo IS NULL OR j.title LIKE CONCAT('%', :keywordTwo, '%') " +
-    "OR j.description LIKE CONCAT('%', :keywordTwo, '%') OR j.company LIKE CONCAT('%', :keywordTwo, '%') ) " +
-    "AND (:keywordThree IS NULL OR j.title LIKE CONCAT('%', :keywordThree, '%') " +
-    "OR j.description LIKE CONCAT('%', :keywordThree, '%') OR j.company LIKE CONCAT('%', :keywordThree, '%') ) " +
-    "GROUP BY j.location")
-    List<Object[]> findLocationCountSearch(@Param("jobType") String jobType,  
-                                        @Param("minSalary") Integer minSalary, 
-                                        @Param("maxSalary") Integer maxSalary,
-                                        @Param("keywordOne") String keywordOne,
-                                        @Param("keywordTwo") String keywordTwo,
-                                        @Param("keywordThree") String keywordThree);
-
-
-    
-   @Query("SELECT j.jobType, COUNT(j) AS jobCount FROM Job j " + 
-    "WHERE (:location IS NULL OR j.location = :location) " +
-    "AND (:minSalary IS NULL OR j.salary >= :minSalary ) " +
-    "AND (:maxSalary IS NULL OR j.salary <= :maxSalary ) " + 
-    "GROUP BY j.jobType")
-    List<Object[]> findJobTypeCount(@Param("location")String location, 
-                                    @Param("minSalary")Integer minSalary, 
-                                    @Param("maxSalary")Integer maxSalary);
-
-
-
-    @Query("SELECT j.jobType, COUNT(j) AS jobCount FROM Job j " + 
-    "WHERE (:location IS NULL OR j.location = :location) " +
-    "AND (:minSalary IS NULL OR j.salary >= :minSalary ) " +
-    "AND (:maxSalary IS NULL OR j.salary <= :maxSalary ) " + 
-    "AND (:keywordOne IS NULL OR j.title LIKE CONCAT('%', :keywordOne, '%') " +
-    "OR j.description LIKE CONCAT('%', :keywordOne, '%') OR j.company LIKE CONCAT('%', :keywordOne, '%') ) " +
-    "AND (:keywordTwo IS NULL OR j.title LIKE CONCAT('%', :keywordTwo, '%') " +
-    "OR j.description LIKE CONCAT('%', :keywordTwo, '%') OR j.company LIKE CONCAT('%', :keywordTwo, '%') ) " +
-    "AND (:keywordThree IS NULL OR j.title LIKE CONCAT('%', :keywordThree, '%') " +
-    "OR j.description LIKE CONCAT('%', :keywordThree, '%') OR j.company LIKE CONCAT('%', :keywordThree, '%') ) " +
-    "GROUP BY j.jobType")
-    List<Object[]> findJobTypeCountSearch(@Param("location") String location,  
-                                        @Param("minSalary") Integer minSalary, 
-                                        @Param("maxSalary") Integer maxSalary,
-                                        @Param("keywordOne") String keywordOne,
-                                        @Param("keywordTwo") String keywordTwo,
-                                        @Param("keywordThree") String keywordThree);
-
-
-    @Query("SELECT FLOOR(j.salary / 50000) * 50000  AS minSalary, " +
-            "(FLOOR(j.salary / 50000) + 1) * 50000 - 1 AS maxSalary, " +
-            "COUNT(j) as jobCount FROM Job j " +
-            "WHERE (:location IS NULL OR j.location = :location) " +
-            "AND (:jobType IS NULL OR j.jobType = :jobType) " +
-            "GROUP BY FLOOR(j.salary / 50000) * 50000 " +
-            "ORDER BY minSalary")
-    List<Object[]> findSalaryRangeCount(@Param("location")String location, 
-                                        @Param ("jobType")String jobType);
-
-
-
-     @Query("SELECT FLOOR(j.salary / 50000) * 50000  AS minSalary, " +
-            "(FLOOR(j.salary / 50000) + 1) * 50000 - 1 AS maxSalary, " +
-            "COUNT(j) as jobCount FROM Job j " +
-            "WHERE (:location IS NULL OR j.location = :location) " +
-            "AND (:jobType IS NULL OR j.jobType = :jobType) " +
-            "AND (:keywordOne IS NULL OR j.title LIKE CONCAT('%', :keywordOne, '%') " +
-            "OR j.description LIKE CONCAT('%', :keywordOne, '%') OR j.company LIKE CONCAT('%', :keywordOne, '%') ) " +
-            "AND (:keywordTwo IS NULL OR j.title LIKE CONCAT('%', :keywordTwo, '%') " +
-            "OR j.description LIKE CONCAT('%', :keywordTwo, '%') OR j.company LIKE CONCAT('%', :keywordTwo, '%') ) " +
-            "AND (:keywordThree IS NULL OR j.title LIKE CONCAT('%', :keywordThree, '%') " +
-            "OR j.description LIKE CONCAT('%', :keywordThree, '%') OR j.company LIKE CONCAT('%', :keywordThree, '%') ) " +
-            "GROUP BY FLOOR(j.salary / 50000) * 50000 " +
-            "ORDER BY minSalary")
-    List<Object[]> findSalaryRangeCountSearch(@Param("location")String location, 
-                                        @Param ("jobType")String jobType,
-                                        @Param("keywordOne") String keywordOne,
-                                        @Param("keywordTwo") String keywordTwo,
-                                        @Param("keywordThree") String keywordThree);
-
-
-    @Query("SELECT j FROM Job j " +
-            "WHERE (:location is NULL OR j.location = :location) " + 
-            "AND (:jobType IS NULL OR j.jobType = :jobType) " +
-            "AND (:minSalary IS NULL OR j.salary >= :minSalary ) " +
-            "AND (:maxSalary IS NULL OR j.salary <= :maxSalary )")
-    List<Job> findJobByFilters(@Param("location")String location, 
-                                    @Param("jobType")String jobType,
-                                    @Param("minSalary")Integer minSalary, 
-                                    @Param("maxSalary")Integer maxSalary);
-
-    @Query("SELECT j FROM Job j " +
-    "WHERE (:location is NULL OR j.location = :location) " + 
-    "AND (:jobType IS NULL OR j.jobType = :jobType) " +
-    "AND (:minSalary IS NULL OR j.salary >= :minSalary ) " +
-    "AND (:maxSalary IS NULL OR j.salary <= :maxSalary ) " +
-    "AND (:keywordOne IS NULL OR j.title LIKE CONCAT('%', :keywordOne, '%') " +
-    "OR j.description LIKE CONCAT('%', :keywordOne, '%') OR j.company LIKE CONCAT('%', :keywordOne, '%') ) " +
-    "AND (:keywordTwo IS NULL OR j.title LIKE CONCAT('%', :keywordTwo, '%') " +
-    "OR j.description LIKE CONCAT('%', :keywordTwo, '%') OR j.company LIKE CONCAT('%', :keywordTwo, '%') ) " +
-    "AND (:keywordThree IS NULL OR j.title LIKE CONCAT('%', :keywordThree, '%') " +
-    "OR j.description LIKE CONCAT('%', :keywordThree, '%') OR j.company LIKE CONCAT('%', :keywordThree, '%') ) ")
-    List<Job> findJobByFiltersSearch(@Param("location")String location, 
-                                    @Param("jobType")String jobType,
-                                    @Param("minSalary")Integer minSalary, 
-                                    @Param("maxSalary")Integer maxSalary,
-                                    @Param("keywordOne") String keywordOne,
-                                    @Param("keywordTwo") String keywordTwo,
-                                    @Param("keywordThree") String keywordThree);
-
-
-    @Query("SELECT j FROM Job j " +
-    "WHERE (:location is NULL OR j.location = :location) " + 
-    "AND (:jobType IS NULL OR j.jobType = :jobType) " +
-    "AND (:minSalary IS NULL OR j.salary >= :minSalary ) " +
-    "AND (:maxSalary IS NULL OR j.salary <= :maxSalary ) " +
-    "ORDER BY j.date DESC")
-    List<Job> findJobBySortDate(@Param("location")String location, 
-                                    @Param("jobType")String jobType,
-                                    @Param("minSalary")Integer minSalary, 
-                                    @Param("maxSalary")Integer maxSalary);
-
-    @Query("SELECT j FROM Job j " +
-    "WHERE (:location is NULL OR j.location = :location) " + 
-    "AND (:jobType IS NULL OR j.jobType = :jobType) " +
-    "AND (:minSalary IS NULL OR j.salary >= :minSalary ) " +
-    "AND (:maxSalary IS NULL OR j.salary <= :maxSalary ) " +
-    "ORDER BY j.salary DESC")
-    List<Job> findJobBySortSalary(@Param("location")String location, 
-                                    @Param("jobType")String jobType,
-                                    @Param("minSalary")Integer minSalary, 
-                                    @Param("maxSalary")Integer maxSalary);
-
-
-
-    @Query("SELECT j, c.latitude, c.longitude FROM Job j JOIN j.companyT c " +
-    "WHERE (:jobType IS NULL OR j.jobType = :jobType) " +
-    "AND (:location IS NULL OR j.location = :location) " +
-    "AND (:minSalary IS NULL OR j.salary >= :minSalary) " +
-    "AND (:maxSalary IS NULL OR j.salary <= :maxSalary)")
-     List<Object[]> findJobsWithCoordinates(@Param("location")String location, 
-                                            @Param("jobType")String jobType,
-                                            @Param("minSalary")Integer minSalary,
-                                            @Param("maxSalary")Integer maxSalary);
+public interface JobRepository extends JpaRepository<Job, Long>, JobQueryRepository {
 
 
+    // Geocoded companies for the in-memory spatial index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c.companyUID, c.latitude, c.longitude FROM Company c " +
+    "WHERE c.latitude IS NOT NULL AND c.longitude IS NOT NULL")
+    List<Object[]> findCompanyCoordinates();
+
+    // Job count per geocoded company, the weights of the precomputed map clusters
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c.latitude, c.longitude, COUNT(j) FROM Job j JOIN j.companyT c " +
+    "WHERE c.latitude IS NOT NULL AND c.longitude IS NOT NULL " +
+    "GROUP BY c.companyUID, c.latitude, c.longitude")
+    List<Object[]> findCompanyJobCounts();
+
+
+    // Read-only summaries for a page of ids, and the description for the detail view
+    @Query(JobSummary.SELECT + "FROM Job j WHERE j.jobID IN :ids")
+    List<JobSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Map markers for a page of ids
+    @Query(JobMarker.SELECT + "FROM Job j JOIN j.companyT c WHERE j.jobID IN :ids")
+    List<JobMarker> findMarkersByIds(@Param("ids") Collection<Long> ids);
+
+
+    // Distinct titles, company names and cities with their job counts, for search suggestions
+    @Query("SELECT j.title, COUNT(j) FROM Job j WHERE j.title IS NOT NULL GROUP BY j.title")
+    List<Object[]> findTitleCounts();
+
+    @Query("SELECT c.name, COUNT(j) FROM Job j JOIN j.companyT c WHERE c.name IS NOT NULL " +
+    "GROUP BY c.name")
+    List<Object[]> findCompanyNameCounts();
+
+    @Query("SELECT j.city, COUNT(j) FROM Job j WHERE j.city IS NOT NULL GROUP BY j.city")
+    List<Object[]> findCityCounts();
+
+
+    // Cheap change detector for the Jobs table: row count, highest JobID and latest row change.
+    // UpdatedAt is maintained by MySQL (ON UPDATE CURRENT_TIMESTAMP) and not mapped on Job
+    @Query(value = "SELECT COUNT(*), MAX(JobID), MAX(UpdatedAt) FROM Jobs", nativeQuery = true)
+    List<Object[]> findDataSignature();
+
+
+    // Batched read of the searchable text columns, used to build the in-memory keyword index
+    @Query("SELECT j.jobID, j.title, j.description, j.company FROM Job j " +
+    "WHERE j.jobID > :afterId ORDER BY j.jobID")
+    List<Object[]> findSearchableTextAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Batched read of the filter columns and company coordinates, used to build the columnar snapshot
+    @Query("SELECT j.jobID, j.location, j.jobType, j.salary, j.date, c.latitude, c.longitude " +
+    "FROM Job j LEFT JOIN j.companyT c WHERE j.jobID > :afterId ORDER BY j.jobID")
+    List<Object[]> findSnapshotRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Batched read of the facet columns, used to build the bitmap index
+    @Query("SELECT j.jobID, j.location, j.jobType, j.city, j.province, j.salary FROM Job j " +
+    "WHERE j.jobID > :afterId ORDER BY j.jobID")
+    List<Object[]> findBitmapRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // The same rows for a set of changed jobs, used to patch the indexes after a batch upsert
+    @Query("SELECT j.jobID, j.title, j.description, j.company FROM Job j " +
+    "WHERE j.jobID IN :ids ORDER BY j.jobID")
+    List<Object[]> findSearchableTextByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT j.jobID, j.location, j.jobType, j.salary, j.date, c.latitude, c.longitude " +
+    "FROM Job j LEFT JOIN j.companyT c WHERE j.jobID IN :ids ORDER BY j.jobID")
+    List<Object[]> findSnapshotRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT j.jobID, j.location, j.jobType, j.city, j.province, j.salary FROM Job j " +
+    "WHERE j.jobID IN :ids ORDER BY j.jobID")
+    List<Object[]> findBitmapRowsByIds(@Param("ids") Collection<Long> ids);
 
 
 
   //retrieve jobs by a specific location
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   List<Job> findByLocation(String location);
 
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   List<Job> findByCity(String city);
 }
@@ -0,0 +1,127 @@
+package dev.algorise.geojobsearch.repository;
+
+import dev.algorise.geojobsearch.model.Company;
+import dev.algorise.geojobsearch.model.Job;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds JPA predicates for a {@link JobFilter}, emitting only the filters that are set.
+ */
+public final class JobSpecifications {
+
+  private JobSpecifications() {
+  }
+
+  /**
+   * The predicates of a filter, for hand-built criteria queries over {@code root}.
+   * @param filter - the filters to apply
+   * @param root - the Job root; the company join is reused when the query already has one
+   * @param cb - the criteria builder
+   * @return one predicate per filter that is set, to be combined with AND
+   */
+  static List<Predicate> predicates(JobFilter filter, Root<Job> root, CriteriaBuilder cb) {
+    List<Predicate> predicates = new ArrayList<>();
+    if (filter.getLocation() != null) {
+      predicates.add(cb.equal(root.get("location"), filter.getLocation()));
+    }
+    if (filter.getJobType() != null) {
+      predicates.add(cb.equal(root.get("jobType"), filter.getJobType()));
+    }
+    Path<BigDecimal> salary = root.get("salary");
+    if (filter.getMinSalary() != null) {
+      predicates.add(cb.ge(salary, filter.getMinSalary()));
+    }
+    if (filter.getMaxSalary() != null) {
+      predicates.add(cb.le(salary, filter.getMaxSalary()));
+    }
+    if (filter.getJobIds() != null) {
+      predicates.add(root.get("jobID").in(filter.getJobIds()));
+    }
+    if (!filter.getKeywords().isEmpty()) {
+      predicates.add(keywords(filter, root, cb));
+    }
+    if (filter.needsCompany()) {
+      Join<Job, Company> company = companyJoin(root);
+      if (filter.getCompanyUids() != null) {
+        predicates.add(company.get("companyUID").in(filter.getCompanyUids()));
+      }
+      BigDecimal[] box = filter.getBox();
+      if (box != null) {
+        predicates.add(cb.between(company.get("latitude"), box[0], box[2]));
+        predicates.add(cb.between(company.get("longitude"), box[1], box[3]));
+      }
+    }
+    return predicates;
+  }
+
+  /**
+   * The predicates of a facet query: the filter in full, except that location, job type and
+   * salary only have to hold two at a time. Each facet ignores its own filter, so a row failing
+   * two of them counts toward no histogram and no page, and need not be read.
+   * @param filter - the candidates plus the selected location, job type and salary
+   * @param root - the Job root
+   * @param cb - the criteria builder
+   * @return the predicates, to be combined with AND
+   */
+  static List<Predicate> facetPredicates(JobFilter filter, Root<Job> root, CriteriaBuilder cb) {
+    List<Predicate> predicates = predicates(
+        filter.toBuilder().location(null).jobType(null).salaryBetween(null, null).build(), root, cb);
+    List<Predicate> facets = new ArrayList<>(3);
+    for (JobFilter facet : new JobFilter[] {
+        JobFilter.of(filter.getLocation(), null, null, null),
+        JobFilter.of(null, filter.getJobType(), null, null),
+        JobFilter.of(null, null, filter.getMinSalary(), filter.getMaxSalary())}) {
+      List<Predicate> facetPredicates = predicates(facet, root, cb);
+      if (!facetPredicates.isEmpty()) {
+        facets.add(cb.and(facetPredicates.toArray(new Predicate[0])));
+      }
+    }
+    if (facets.size() == 2) {
+      // The unselected facet always holds, so either of the other two is enough
+      predicates.add(cb.or(facets.get(0), facets.get(1)));
+    } else if (facets.size() == 3) {
+      predicates.add(cb.or(
+          cb.and(facets.get(0), facets.get(1)),
+          cb.and(facets.get(0), facets.get(2)),
+          cb.and(facets.get(1), facets.get(2))));
+    }
+    return predicates;
+  }
+
+  /**
+   * The company join of a Job root, created on first use.
+   */
+  @SuppressWarnings("unchecked")
+  static Join<Job, Company> companyJoin(From<?, Job> root) {
+    return root.getJoins().stream()
+        .filter(join -> "companyT".equals(join.getAttribute().getName()))
+        .map(join -> (Join<Job, Company>) join)
+        .findFirst()
+        .orElseGet(() -> root.join("companyT"));
+  }
+
+  private static Predicate keywords(JobFilter filter, Root<Job> root, CriteriaBuilder cb) {
+    List<Predicate> perKeyword = new ArrayList<>();
+    for (String keyword : filter.getKeywords()) {
+      String pattern = "%" + escapeLike(keyword) + "%";
+      perKeyword.add(cb.or(
+          cb.like(root.get("title"), pattern, '\\'),
+          cb.like(root.get("description"), pattern, '\\'),
+          cb.like(root.get("company"), pattern, '\\')));
+    }
+    Predicate[] array = perKeyword.toArray(new Predicate[0]);
+    return filter.isMatchAllKeywords() ? cb.and(array) : cb.or(array);
+  }
+
+  private static String escapeLike(String keyword) {
+    return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,107 @@
+package dev.algorise.geojobsearch.repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * How an {@code INSERT ... ON DUPLICATE KEY UPDATE} refers to the row it tried to insert.
+ *
+ * <p>MySQL 8.0.19 added a row alias, {@code INSERT ... AS new ON DUPLICATE KEY UPDATE
+ * Title = new.Title}, and 8.0.20 deprecated the {@code VALUES(Title)} function it replaces.
+ * MariaDB, which the bundled database image runs, has no row alias and keeps the function, so
+ * upserts are written for whichever server the datasource reaches.
+ */
+public enum UpsertSyntax {
+
+  ROW_ALIAS {
+    @Override
+    public String rowAlias() {
+      return " AS new";
+    }
+
+    @Override
+    public String inserted(String column) {
+      return "new." + column;
+    }
+  },
+
+  VALUES_FUNCTION {
+    @Override
+    public String rowAlias() {
+      return "";
+    }
+
+    @Override
+    public String inserted(String column) {
+      return "VALUES(" + column + ")";
+    }
+  };
+
+  private static final Pattern VERSION = Pattern.compile("(\\d+)\\.(\\d+)\\.(\\d+)");
+
+  /**
+   * The clause to append right after the {@code VALUES (...)} list of the insert.
+   */
+  public abstract String rowAlias();
+
+  /**
+   * The inserted value of a column, for use in the update clause.
+   * @param column - the column name
+   * @return an expression reading the column from the inserted row
+   */
+  public abstract String inserted(String column);
+
+  /**
+   * The update clause assigning each column its inserted value.
+   * @param columns - the columns to overwrite
+   * @return {@code Column = <inserted value>} pairs, comma separated
+   */
+  public String assignInserted(String... columns) {
+    StringBuilder sql = new StringBuilder();
+    for (String column : columns) {
+      if (sql.length() > 0) {
+        sql.append(", ");
+      }
+      sql.append(column).append(" = ").append(inserted(column));
+    }
+    return sql.toString();
+  }
+
+  /**
+   * The syntax of the server behind a JDBC template, read from its connection metadata.
+   * @param jdbcTemplate - the template to ask
+   * @return the syntax the server accepts
+   */
+  public static UpsertSyntax of(JdbcTemplate jdbcTemplate) {
+    return jdbcTemplate.execute((ConnectionCallback<UpsertSyntax>) connection ->
+        of(connection.getMetaData()));
+  }
+
+  /**
+   * The syntax of a server, from its product name and version.
+   * @param metaData - the connection metadata
+   * @return the row alias on MySQL 8.0.19 and later, the VALUES function otherwise
+   * @throws SQLException when the metadata cannot be read
+   */
+  static UpsertSyntax of(DatabaseMetaData metaData) throws SQLException {
+    String product = metaData.getDatabaseProductName() + " " + metaData.getDatabaseProductVersion();
+    // MariaDB also answers to the MySQL driver, reporting versions such as 5.5.5-10.11.6-MariaDB
+    if (product.toLowerCase(Locale.ROOT).contains("mariadb")) {
+      return VALUES_FUNCTION;
+    }
+    Matcher version = VERSION.matcher(metaData.getDatabaseProductVersion());
+    if (!version.find()) {
+      return VALUES_FUNCTION;
+    }
+    int major = Integer.parseInt(version.group(1));
+    int minor = Integer.parseInt(version.group(2));
+    int patch = Integer.parseInt(version.group(3));
+    boolean rowAlias = major > 8 || major == 8 && (minor > 0 || patch >= 19);
+    return rowAlias ? ROW_ALIAS : VALUES_FUNCTION;
+  }
+}
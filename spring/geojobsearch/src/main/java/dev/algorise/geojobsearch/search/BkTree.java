@@ -0,0 +1,134 @@
+package dev.algorise.geojobsearch.search;
+
+import java.util.Arrays;
+
+/**
+ * Burkhard-Keller tree over a term dictionary, for finding every term within a small edit
+ * distance of a misspelled query term.
+ *
+ * <p>Each child hangs under its parent at its Levenshtein distance from the parent term. The
+ * triangle inequality means a term within {@code k} edits of the query can only sit under
+ * children at distance {@code d - k .. d + k}, where {@code d} is the query's distance from the
+ * parent, so a lookup visits a small fraction of the dictionary.
+ */
+final class BkTree {
+
+  /**
+   * Receives each term found, as its dictionary index and its distance from the query.
+   */
+  @FunctionalInterface
+  interface Visitor {
+    void visit(int termId, int distance);
+  }
+
+  private final String[] terms;
+
+  // Node i holds terms[i]; children of node i are childIds[i][*] at distances childDistances[i][*]
+  private final int[][] childIds;
+  private final int[][] childDistances;
+  private final int root;
+
+  /**
+   * Build the tree over a dictionary.
+   * @param terms - the distinct terms, indexed by term id
+   */
+  BkTree(String[] terms) {
+    this.terms = terms;
+    this.childIds = new int[terms.length][];
+    this.childDistances = new int[terms.length][];
+    this.root = terms.length == 0 ? -1 : 0;
+    for (int termId = 1; termId < terms.length; termId++) {
+      insert(termId);
+    }
+  }
+
+  /**
+   * Visit every term within {@code maxDistance} edits of the query.
+   */
+  void search(String query, int maxDistance, Visitor visitor) {
+    if (root < 0) {
+      return;
+    }
+    int[] stack = new int[64];
+    int depth = 0;
+    stack[depth++] = root;
+    while (depth > 0) {
+      int node = stack[--depth];
+      int distance = distance(query, terms[node]);
+      if (distance <= maxDistance) {
+        visitor.visit(node, distance);
+      }
+      int[] children = childIds[node];
+      if (children == null) {
+        continue;
+      }
+      for (int i = 0; i < children.length; i++) {
+        int edge = childDistances[node][i];
+        if (edge >= distance - maxDistance && edge <= distance + maxDistance) {
+          if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+          }
+          stack[depth++] = children[i];
+        }
+      }
+    }
+  }
+
+  private void insert(int termId) {
+    int node = root;
+    while (true) {
+      int distance = distance(terms[termId], terms[node]);
+      int[] children = childIds[node];
+      int child = -1;
+      if (children != null) {
+        for (int i = 0; i < children.length; i++) {
+          if (childDistances[node][i] == distance) {
+            child = children[i];
+            break;
+          }
+        }
+      }
+      if (child < 0) {
+        if (children == null) {
+          childIds[node] = new int[] {termId};
+          childDistances[node] = new int[] {distance};
+        } else {
+          childIds[node] = Arrays.copyOf(children, children.length + 1);
+          childIds[node][children.length] = termId;
+          childDistances[node] = Arrays.copyOf(childDistances[node], children.length + 1);
+          childDistances[node][children.length] = distance;
+        }
+        return;
+      }
+      node = child;
+    }
+  }
+
+  /**
+   * Levenshtein distance with two rolling rows.
+   */
+  static int distance(String a, String b) {
+    if (a.length() < b.length()) {
+      String swap = a;
+      a = b;
+      b = swap;
+    }
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      char c = a.charAt(i - 1);
+      for (int j = 1; j <= b.length(); j++) {
+        int substitution = previous[j - 1] + (c == b.charAt(j - 1) ? 0 : 1);
+        current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[b.length()];
+  }
+}
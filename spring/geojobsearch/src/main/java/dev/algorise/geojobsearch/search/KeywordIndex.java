@@ -0,0 +1,449 @@
+package dev.algorise.geojobsearch.search;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory inverted index over job title, description and company.
+ *
+ * <p>Every field is folded with {@link TextAnalyzer#fold} and split into alphanumeric terms; each
+ * term keeps a sorted postings list of job ids. A keyword made only of letters and digits occurs
+ * inside a field exactly when it occurs inside one of that field's terms, so resolving the folded
+ * keyword against the term dictionary gives the same rows as {@code LIKE '%keyword%'} under the
+ * case and accent insensitive collation, without touching the Jobs table.
+ */
+@Component
+public class KeywordIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KeywordIndex.class);
+
+  private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+  private static final int BATCH_SIZE = 5000;
+
+  private final JobRepository jobRepository;
+
+  private volatile Snapshot snapshot;
+
+  public KeywordIndex(JobRepository jobRepository) {
+    this.jobRepository = jobRepository;
+  }
+
+  /**
+   * Whether a snapshot has been built and keywords can be resolved.
+   *
+   * @return true once the first rebuild has completed
+   */
+  public boolean isReady() {
+    return snapshot != null;
+  }
+
+  /**
+   * Resolve keywords to the ids of jobs containing every keyword, the same semantics as the
+   * chained {@code AND (... LIKE ...)} predicates in {@link JobRepository}.
+   *
+   * @param keywords - lowercase keywords, null entries are ignored
+   * @return matching job ids, or null when the index cannot answer and the caller must use SQL
+   */
+  public BitSet matchAll(Collection<String> keywords) {
+    return match(keywords, true);
+  }
+
+  /**
+   * Resolve keywords to the ids of jobs containing at least one keyword.
+   *
+   * @param keywords - lowercase keywords, null entries are ignored
+   * @return matching job ids, or null when the index cannot answer and the caller must use SQL
+   */
+  public BitSet matchAny(Collection<String> keywords) {
+    return match(keywords, false);
+  }
+
+  /**
+   * Convert a bitmap of job ids into a list. Filters carry the bitmap itself (see
+   * {@link dev.algorise.geojobsearch.repository.JobFilter.Builder#keywordMatches}); this is for
+   * callers that need the ids one by one.
+   *
+   * @param ids - job ids as returned by {@link #matchAll} or {@link #matchAny}
+   * @return the ids in ascending order
+   */
+  public static List<Long> toIdList(BitSet ids) {
+    List<Long> list = new ArrayList<>(ids.cardinality());
+    for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+      list.add((long) id);
+    }
+    return list;
+  }
+
+  /**
+   * Rebuild the index from the Jobs table and swap it in atomically. Runs once at startup, on a
+   * fixed delay, and whenever the dataset generation advances without a list of changed jobs, so
+   * ingested rows become searchable.
+   */
+  @Scheduled(fixedDelayString = "${geojobsearch.search.index-refresh-ms:900000}")
+  public synchronized void rebuild() {
+    try {
+      long start = System.nanoTime();
+      Snapshot built = build();
+      snapshot = built;
+      LOG.info("Keyword index built: {} terms, {} postings in {} ms", built.terms.length,
+          built.postingCount, (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // Keep serving the previous snapshot (or SQL when there is none) if the database is down
+      LOG.warn("Keyword index rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Bring the index up to date after a change. Jobs written through the batch ingestion endpoint
+   * are re-tokenized from their reloaded text and merged into the existing postings; any other
+   * change rebuilds.
+   */
+  @EventListener
+  @Order(DataChangedEvent.REBUILD_ORDER)
+  public synchronized void onDataChanged(DataChangedEvent event) {
+    Snapshot current = snapshot;
+    if (current == null || !event.isIncremental()) {
+      rebuild();
+      return;
+    }
+    try {
+      long start = System.nanoTime();
+      List<Object[]> rows = event.loadRows(jobRepository::findSearchableTextByIds);
+      Snapshot merged = merge(current, event.sortedJobIds(), rows);
+      snapshot = merged;
+      LOG.info("Keyword index patched: {} changed, {} terms in {} ms", rows.size(),
+          merged.terms.length, (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // The scheduled rebuild catches up later
+      LOG.warn("Keyword index patch failed: {}", e.getMessage());
+    }
+  }
+
+  private Snapshot build() {
+    Map<String, PostingsBuilder> dictionary = new HashMap<>();
+    long afterId = 0;
+    List<Object[]> rows;
+    do {
+      rows = jobRepository.findSearchableTextAfter(afterId, PageRequest.ofSize(BATCH_SIZE));
+      addRows(dictionary, rows);
+      if (!rows.isEmpty()) {
+        afterId = ((Number) rows.get(rows.size() - 1)[0]).longValue();
+      }
+    } while (rows.size() == BATCH_SIZE);
+
+    String[] terms = dictionary.keySet().toArray(new String[0]);
+    Arrays.sort(terms);
+    int[][] postings = new int[terms.length][];
+    long postingCount = 0;
+    for (int i = 0; i < terms.length; i++) {
+      postings[i] = dictionary.get(terms[i]).toArray();
+      postingCount += postings[i].length;
+    }
+    return new Snapshot(terms, postings, postingCount);
+  }
+
+  /**
+   * Drop the changed ids from every postings list and add the terms of the reloaded rows. Terms
+   * left without postings are dropped.
+   */
+  private static Snapshot merge(Snapshot base, long[] changedIds, List<Object[]> rows) {
+    Map<String, PostingsBuilder> dictionary = new HashMap<>();
+    addRows(dictionary, rows);
+    int[] changed = Arrays.stream(changedIds).filter(id -> id <= Integer.MAX_VALUE)
+        .mapToInt(id -> (int) id).toArray();
+
+    String[] added = dictionary.keySet().toArray(new String[0]);
+    Arrays.sort(added);
+    List<String> terms = new ArrayList<>(base.terms.length + added.length);
+    List<int[]> postings = new ArrayList<>(base.terms.length + added.length);
+    long postingCount = 0;
+    int i = 0;
+    int j = 0;
+    while (i < base.terms.length || j < added.length) {
+      int order = i == base.terms.length ? 1 : j == added.length ? -1
+          : base.terms[i].compareTo(added[j]);
+      String term = order <= 0 ? base.terms[i] : added[j];
+      int[] kept = order <= 0 ? without(base.postings[i++], changed) : new int[0];
+      int[] fresh = order >= 0 ? dictionary.get(added[j++]).toArray() : new int[0];
+      int[] merged = union(kept, fresh);
+      if (merged.length > 0) {
+        terms.add(term);
+        postings.add(merged);
+        postingCount += merged.length;
+      }
+    }
+    return new Snapshot(terms.toArray(new String[0]), postings.toArray(new int[0][]),
+        postingCount);
+  }
+
+  private static void addRows(Map<String, PostingsBuilder> dictionary, List<Object[]> rows) {
+    for (Object[] row : rows) {
+      int jobId = ((Number) row[0]).intValue();
+      for (int field = 1; field < row.length; field++) {
+        if (row[field] != null) {
+          addTerms(dictionary, jobId, (String) row[field]);
+        }
+      }
+    }
+  }
+
+  private static int[] without(int[] ids, int[] removed) {
+    int[] result = new int[ids.length];
+    int count = 0;
+    for (int id : ids) {
+      if (Arrays.binarySearch(removed, id) < 0) {
+        result[count++] = id;
+      }
+    }
+    return count == ids.length ? ids : Arrays.copyOf(result, count);
+  }
+
+  /**
+   * Union of two ascending id lists.
+   */
+  private static int[] union(int[] a, int[] b) {
+    if (b.length == 0) {
+      return a;
+    }
+    int[] result = new int[a.length + b.length];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < a.length || j < b.length) {
+      int next = j == b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+      if (count == 0 || result[count - 1] != next) {
+        result[count++] = next;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  private static void addTerms(Map<String, PostingsBuilder> dictionary, int jobId, String text) {
+    for (String term : SEPARATOR.split(TextAnalyzer.fold(text))) {
+      if (!term.isEmpty()) {
+        dictionary.computeIfAbsent(term, t -> new PostingsBuilder()).add(jobId);
+      }
+    }
+  }
+
+  private BitSet match(Collection<String> keywords, boolean all) {
+    Snapshot current = snapshot;
+    if (current == null) {
+      return null;
+    }
+    BitSet result = null;
+    for (String keyword : keywords) {
+      if (keyword == null || keyword.isEmpty()) {
+        continue;
+      }
+      String folded = TextAnalyzer.fold(keyword);
+      if (!WORD.matcher(folded).matches()) {
+        // Keywords spanning punctuation can't be answered from single terms
+        return null;
+      }
+      BitSet hits = current.resolve(folded);
+      if (result == null) {
+        result = hits;
+      } else if (all) {
+        result.and(hits);
+      } else {
+        result.or(hits);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Immutable term dictionary and postings, replaced as a whole on every rebuild or patch.
+   *
+   * <p>A keyword matches every term that contains it, so lookups go through a suffix array: every
+   * suffix of every term, sorted, in which the terms containing a keyword are exactly those with a
+   * suffix in the range starting with it. A lookup is two binary searches plus the matching
+   * suffixes instead of a scan of the dictionary. The array is sorted when the snapshot is built,
+   * on the rebuild thread, so no request pays for it.
+   */
+  private static final class Snapshot {
+    // Ranges of suffixes sharing their first two chars up to this size are insertion sorted
+    private static final int INSERTION_SORT_MAX = 16;
+
+    private final String[] terms;
+    private final int[][] postings;
+    private final long postingCount;
+    // (term << 32 | offset) per suffix, sorted by suffix text
+    private final long[] suffixes;
+
+    private Snapshot(String[] terms, int[][] postings, long postingCount) {
+      this.terms = terms;
+      this.postings = postings;
+      this.postingCount = postingCount;
+      this.suffixes = sortSuffixes();
+    }
+
+    private BitSet resolve(String keyword) {
+      BitSet hits = new BitSet();
+      BitSet seenTerms = new BitSet(terms.length);
+      for (int i = lowerBound(suffixes, keyword); i < suffixes.length; i++) {
+        int term = (int) (suffixes[i] >>> 32);
+        if (!terms[term].startsWith(keyword, (int) suffixes[i])) {
+          break;
+        }
+        if (!seenTerms.get(term)) {
+          seenTerms.set(term);
+          for (int jobId : postings[term]) {
+            hits.set(jobId);
+          }
+        }
+      }
+      return hits;
+    }
+
+    /**
+     * Sort every suffix by its text. A primitive sort of (first two chars, suffix number) keys
+     * does most of the work; only suffixes sharing both chars are then compared char by char.
+     */
+    private long[] sortSuffixes() {
+      int count = 0;
+      for (String term : terms) {
+        count += term.length();
+      }
+      long[] positions = new long[count];
+      long[] keys = new long[count];
+      int next = 0;
+      for (int term = 0; term < terms.length; term++) {
+        String text = terms[term];
+        for (int offset = 0; offset < text.length(); offset++) {
+          long prefix = ((long) text.charAt(offset) << 16)
+              | (offset + 1 < text.length() ? text.charAt(offset + 1) : 0);
+          positions[next] = ((long) term << 32) | offset;
+          // Flipping the sign bit makes the signed sort order the unsigned chars correctly
+          keys[next] = ((prefix << 32) | next) ^ Long.MIN_VALUE;
+          next++;
+        }
+      }
+      Arrays.sort(keys);
+
+      long[] sorted = new long[count];
+      for (int i = 0; i < count; i++) {
+        sorted[i] = positions[(int) keys[i]];
+      }
+      long[] buffer = positions;
+      for (int from = 0; from < count; ) {
+        int to = from + 1;
+        while (to < count && keys[to] >>> 32 == keys[from] >>> 32) {
+          to++;
+        }
+        if (to - from > 1) {
+          sortRange(sorted, buffer, from, to);
+        }
+        from = to;
+      }
+      return sorted;
+    }
+
+    /**
+     * Merge sort of {@code suffixes[from, to)} by suffix text, through a scratch buffer.
+     */
+    private void sortRange(long[] suffixes, long[] buffer, int from, int to) {
+      if (to - from <= INSERTION_SORT_MAX) {
+        for (int i = from + 1; i < to; i++) {
+          long suffix = suffixes[i];
+          int j = i - 1;
+          while (j >= from && compare(suffixes[j], suffix) > 0) {
+            suffixes[j + 1] = suffixes[j];
+            j--;
+          }
+          suffixes[j + 1] = suffix;
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      sortRange(suffixes, buffer, from, mid);
+      sortRange(suffixes, buffer, mid, to);
+      if (compare(suffixes[mid - 1], suffixes[mid]) <= 0) {
+        return;
+      }
+      System.arraycopy(suffixes, from, buffer, from, to - from);
+      int left = from;
+      int right = mid;
+      for (int i = from; i < to; i++) {
+        suffixes[i] = right == to || (left < mid && compare(buffer[left], buffer[right]) <= 0)
+            ? buffer[left++] : buffer[right++];
+      }
+    }
+
+    private int compare(long suffix, long other) {
+      return compare(suffix, terms[(int) (other >>> 32)], (int) other);
+    }
+
+    /**
+     * Index of the first suffix not ordered before the keyword.
+     */
+    private int lowerBound(long[] sorted, String keyword) {
+      int low = 0;
+      int high = sorted.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (compare(sorted[mid], keyword, 0) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    /**
+     * Compare a suffix with {@code other} from {@code otherOffset} on, without copying either.
+     */
+    private int compare(long suffix, String other, int otherOffset) {
+      String term = terms[(int) (suffix >>> 32)];
+      int offset = (int) suffix;
+      int length = Math.min(term.length() - offset, other.length() - otherOffset);
+      for (int i = 0; i < length; i++) {
+        int diff = term.charAt(offset + i) - other.charAt(otherOffset + i);
+        if (diff != 0) {
+          return diff;
+        }
+      }
+      return (term.length() - offset) - (other.length() - otherOffset);
+    }
+  }
+
+  /**
+   * Growable postings list; ids arrive in ascending order so duplicates are always adjacent.
+   */
+  private static final class PostingsBuilder {
+    private int[] ids = new int[4];
+    private int size;
+
+    private void add(int jobId) {
+      if (size > 0 && ids[size - 1] == jobId) {
+        return;
+      }
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = jobId;
+    }
+
+    private int[] toArray() {
+      return Arrays.copyOf(ids, size);
+    }
+  }
+}
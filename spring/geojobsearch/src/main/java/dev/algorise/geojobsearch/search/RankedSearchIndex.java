@@ -0,0 +1,369 @@
+package dev.algorise.geojobsearch.search;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relevance-ranked, typo-tolerant search over job title, company and description.
+ *
+ * <p>Text is split into stemmed terms by {@link TextAnalyzer}, so a keyword matches whole words
+ * rather than any substring. Jobs are scored with BM25F: each field's term frequency is
+ * normalized by the field's length, weighted by a field boost (a title hit counts three times a
+ * description hit, a company hit twice), and saturated once per term. A query term missing from
+ * the dictionary is expanded to the terms within one or two edits of it through a {@link BkTree},
+ * at a reduced weight. Only the best {@code limit} jobs are kept, in a bounded heap.
+ */
+@Component
+public class RankedSearchIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RankedSearchIndex.class);
+
+  private static final int BATCH_SIZE = 5000;
+
+  // BM25 term frequency saturation and length normalization
+  private static final float K1 = 1.2f;
+  private static final float B = 0.75f;
+
+  // Field boosts, in findSearchableTextAfter column order: title, description, company
+  private static final float[] BOOSTS = {3f, 1f, 2f};
+
+  private static final int MAX_FUZZY_TERMS = 50;
+
+  private final JobRepository jobRepository;
+
+  private final int maxResults;
+
+  private volatile Index index;
+
+  public RankedSearchIndex(JobRepository jobRepository,
+      @Value("${geojobsearch.search.max-results:200}") int maxResults) {
+    this.jobRepository = jobRepository;
+    this.maxResults = maxResults;
+  }
+
+  public boolean isReady() {
+    return index != null;
+  }
+
+  /**
+   * Find the best matching jobs for a search, up to the configured result limit.
+   * @param query - free text
+   * @return job ids, best match first, or null when the index is not built yet
+   */
+  public long[] search(String query) {
+    return search(query, maxResults);
+  }
+
+  /**
+   * Find the best matching jobs for a search.
+   * @param query - free text
+   * @param limit - maximum number of ids
+   * @return job ids, best match first with ties in JobID order, or null when the index is not
+   *     built yet
+   */
+  public long[] search(String query, int limit) {
+    Index current = index;
+    if (current == null) {
+      return null;
+    }
+    Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+    if (terms.isEmpty() || limit <= 0) {
+      return new long[0];
+    }
+    float[] scores = new float[current.jobIds.length];
+    for (String term : terms) {
+      Integer termId = current.termIds.get(term);
+      if (termId != null) {
+        current.accumulate(termId, 1f, scores);
+      } else {
+        current.accumulateFuzzy(term, scores);
+      }
+    }
+    return current.top(scores, limit);
+  }
+
+  /**
+   * Rebuild the index from the Jobs table and swap it in atomically. Runs once at startup, on a
+   * fixed delay, and whenever the dataset generation advances.
+   */
+  @EventListener(DataChangedEvent.class)
+  @Order(DataChangedEvent.REBUILD_ORDER)
+  @Scheduled(fixedDelayString = "${geojobsearch.search.index-refresh-ms:900000}")
+  public void rebuild() {
+    try {
+      long start = System.nanoTime();
+      Index built = build();
+      index = built;
+      LOG.info("Ranked search index built: {} jobs, {} terms in {} ms", built.jobIds.length,
+          built.terms.length, (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // Keep serving the previous index (or the keyword search when there is none)
+      LOG.warn("Ranked search index rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  private Index build() {
+    IndexBuilder builder = new IndexBuilder();
+    long afterId = 0;
+    List<Object[]> rows;
+    do {
+      rows = jobRepository.findSearchableTextAfter(afterId, PageRequest.ofSize(BATCH_SIZE));
+      for (Object[] row : rows) {
+        builder.add(row);
+        afterId = ((Number) row[0]).longValue();
+      }
+    } while (rows.size() == BATCH_SIZE);
+    return builder.build();
+  }
+
+  /**
+   * Edits tolerated for a query term of this length: none up to two letters, one up to five,
+   * two beyond.
+   */
+  static int maxEdits(String term) {
+    return term.length() <= 2 ? 0 : term.length() <= 5 ? 1 : 2;
+  }
+
+  /**
+   * Immutable dictionary and postings, replaced as a whole on every rebuild.
+   */
+  private static final class Index {
+    private final int[] jobIds;
+    private final String[] terms;
+    private final Map<String, Integer> termIds;
+    // Per term: positions of the jobs containing it and their length-normalized, boosted
+    // term frequency
+    private final int[][] postings;
+    private final float[][] frequencies;
+    private final float[] idf;
+    private final BkTree fuzzy;
+
+    private Index(int[] jobIds, String[] terms, Map<String, Integer> termIds, int[][] postings,
+        float[][] frequencies) {
+      this.jobIds = jobIds;
+      this.terms = terms;
+      this.termIds = termIds;
+      this.postings = postings;
+      this.frequencies = frequencies;
+      this.idf = new float[terms.length];
+      for (int i = 0; i < terms.length; i++) {
+        double df = postings[i].length;
+        idf[i] = (float) Math.log(1 + (jobIds.length - df + 0.5) / (df + 0.5));
+      }
+      this.fuzzy = new BkTree(terms);
+    }
+
+    private void accumulate(int termId, float weight, float[] scores) {
+      int[] positions = postings[termId];
+      float[] tf = frequencies[termId];
+      float termWeight = weight * idf[termId] * (K1 + 1);
+      for (int i = 0; i < positions.length; i++) {
+        scores[positions[i]] += termWeight * tf[i] / (tf[i] + K1);
+      }
+    }
+
+    /**
+     * Score the closest dictionary terms in place of a term the dictionary does not have,
+     * each at {@code 1 / (1 + edits)} of an exact match.
+     */
+    private void accumulateFuzzy(String term, float[] scores) {
+      int maxEdits = maxEdits(term);
+      if (maxEdits == 0) {
+        return;
+      }
+      long[] candidates = new long[MAX_FUZZY_TERMS];
+      int[] count = new int[1];
+      fuzzy.search(term, maxEdits, (termId, distance) -> {
+        // Keep the closest candidates, ordered by (distance, termId)
+        long candidate = ((long) distance << 32) | termId;
+        if (count[0] < candidates.length) {
+          candidates[count[0]++] = candidate;
+        } else {
+          int worst = 0;
+          for (int i = 1; i < candidates.length; i++) {
+            if (candidates[i] > candidates[worst]) {
+              worst = i;
+            }
+          }
+          if (candidate < candidates[worst]) {
+            candidates[worst] = candidate;
+          }
+        }
+      });
+      for (int i = 0; i < count[0]; i++) {
+        int distance = (int) (candidates[i] >>> 32);
+        accumulate((int) candidates[i], 1f / (1 + distance), scores);
+      }
+    }
+
+    /**
+     * The best {@code limit} positions, through a min-heap of packed (score, position) entries.
+     * Scores are positive, so their float bits order like the floats; the inverted position
+     * makes the lower JobID win a tie.
+     */
+    private long[] top(float[] scores, int limit) {
+      long[] heap = new long[Math.min(limit, scores.length)];
+      int size = 0;
+      for (int row = 0; row < scores.length; row++) {
+        if (scores[row] <= 0) {
+          continue;
+        }
+        long entry = ((long) Float.floatToIntBits(scores[row]) << 32) | (Integer.MAX_VALUE - row);
+        if (size < heap.length) {
+          heap[size] = entry;
+          siftUp(heap, size++);
+        } else if (heap.length > 0 && entry > heap[0]) {
+          heap[0] = entry;
+          siftDown(heap, size);
+        }
+      }
+      long[] best = Arrays.copyOf(heap, size);
+      Arrays.sort(best);
+      long[] ids = new long[size];
+      for (int i = 0; i < size; i++) {
+        ids[i] = jobIds[Integer.MAX_VALUE - (int) best[size - 1 - i]];
+      }
+      return ids;
+    }
+
+    private static void siftUp(long[] heap, int i) {
+      while (i > 0) {
+        int parent = (i - 1) / 2;
+        if (heap[parent] <= heap[i]) {
+          return;
+        }
+        long swap = heap[parent];
+        heap[parent] = heap[i];
+        heap[i] = swap;
+        i = parent;
+      }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+      int i = 0;
+      while (true) {
+        int smallest = i;
+        int left = 2 * i + 1;
+        int right = left + 1;
+        if (left < size && heap[left] < heap[smallest]) {
+          smallest = left;
+        }
+        if (right < size && heap[right] < heap[smallest]) {
+          smallest = right;
+        }
+        if (smallest == i) {
+          return;
+        }
+        long swap = heap[smallest];
+        heap[smallest] = heap[i];
+        heap[i] = swap;
+        i = smallest;
+      }
+    }
+  }
+
+  /**
+   * Postings filled from (jobID, title, description, company) rows in JobID order. Raw term
+   * frequencies are kept until every field length is known, then normalized.
+   */
+  private static final class IndexBuilder {
+    private int size;
+    private int[] jobIds = new int[1024];
+    private final int[][] fieldLengths = new int[BOOSTS.length][1024];
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<PostingsBuilder> postings = new ArrayList<>();
+
+    private void add(Object[] row) {
+      if (size == jobIds.length) {
+        jobIds = Arrays.copyOf(jobIds, size * 2);
+        for (int field = 0; field < BOOSTS.length; field++) {
+          fieldLengths[field] = Arrays.copyOf(fieldLengths[field], size * 2);
+        }
+      }
+      jobIds[size] = ((Number) row[0]).intValue();
+      // Term id to this job's frequency in each field
+      Map<Integer, int[]> counts = new HashMap<>();
+      for (int field = 0; field < BOOSTS.length; field++) {
+        List<String> fieldTerms = TextAnalyzer.analyze((String) row[field + 1]);
+        fieldLengths[field][size] = fieldTerms.size();
+        for (String term : fieldTerms) {
+          int termId = termIds.computeIfAbsent(term, t -> {
+            postings.add(new PostingsBuilder());
+            return postings.size() - 1;
+          });
+          counts.computeIfAbsent(termId, t -> new int[BOOSTS.length])[field]++;
+        }
+      }
+      int position = size;
+      counts.forEach((termId, frequencies) -> postings.get(termId).add(position, frequencies));
+      size++;
+    }
+
+    private Index build() {
+      float[] averageLengths = new float[BOOSTS.length];
+      for (int field = 0; field < BOOSTS.length; field++) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+          total += fieldLengths[field][i];
+        }
+        averageLengths[field] = size == 0 ? 1 : Math.max(1f, (float) total / size);
+      }
+      String[] terms = new String[termIds.size()];
+      termIds.forEach((term, termId) -> terms[termId] = term);
+      int[][] positions = new int[terms.length][];
+      float[][] frequencies = new float[terms.length][];
+      for (int termId = 0; termId < terms.length; termId++) {
+        PostingsBuilder builder = postings.get(termId);
+        positions[termId] = Arrays.copyOf(builder.rows, builder.size);
+        frequencies[termId] = new float[builder.size];
+        for (int i = 0; i < builder.size; i++) {
+          int row = builder.rows[i];
+          float tf = 0;
+          for (int field = 0; field < BOOSTS.length; field++) {
+            int raw = builder.frequencies[i * BOOSTS.length + field];
+            if (raw > 0) {
+              float norm = 1 - B + B * fieldLengths[field][row] / averageLengths[field];
+              tf += BOOSTS[field] * raw / norm;
+            }
+          }
+          frequencies[termId][i] = tf;
+        }
+      }
+      return new Index(Arrays.copyOf(jobIds, size), terms, termIds, positions, frequencies);
+    }
+  }
+
+  /**
+   * Growable postings list of row positions with their per-field raw frequencies.
+   */
+  private static final class PostingsBuilder {
+    private int[] rows = new int[4];
+    private int[] frequencies = new int[4 * BOOSTS.length];
+    private int size;
+
+    private void add(int row, int[] fieldFrequencies) {
+      if (size == rows.length) {
+        rows = Arrays.copyOf(rows, size * 2);
+        frequencies = Arrays.copyOf(frequencies, size * 2 * BOOSTS.length);
+      }
+      rows[size] = row;
+      System.arraycopy(fieldFrequencies, 0, frequencies, size * BOOSTS.length, BOOSTS.length);
+      size++;
+    }
+  }
+}
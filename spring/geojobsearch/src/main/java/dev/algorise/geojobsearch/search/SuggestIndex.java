@@ -0,0 +1,255 @@
+package dev.algorise.geojobsearch.search;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.model.Suggestion;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prefix autocomplete over distinct job titles, company names and cities, most jobs first.
+ *
+ * <p>Entries are numbered in popularity order, so the best suggestions for a prefix are simply
+ * the lowest entry numbers among its matches. Every word start of an entry is a key into a
+ * sorted array, found by binary search, so "dev" suggests "Senior Developer". Prefixes matching
+ * more than {@value #SCAN_LIMIT} keys have their top suggestions computed at build time, which
+ * bounds the work of any lookup to a binary search plus a short scan.
+ */
+@Component
+public class SuggestIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SuggestIndex.class);
+
+  /** Most suggestions returned for one prefix. */
+  public static final int MAX_SUGGESTIONS = 20;
+
+  private static final int SCAN_LIMIT = 256;
+
+  private final JobRepository jobRepository;
+
+  private volatile Entries entries;
+
+  public SuggestIndex(JobRepository jobRepository) {
+    this.jobRepository = jobRepository;
+  }
+
+  public boolean isReady() {
+    return entries != null;
+  }
+
+  /**
+   * Suggest titles, companies and cities with a word starting with the prefix.
+   * @param prefix - what the user has typed so far, case and accents ignored
+   * @param limit - maximum number of suggestions, at most {@value #MAX_SUGGESTIONS}
+   * @return suggestions with the most jobs first, empty when the index is not built yet
+   */
+  public List<Suggestion> suggest(String prefix, int limit) {
+    Entries current = entries;
+    if (current == null || prefix == null || prefix.isBlank() || limit <= 0) {
+      return Collections.emptyList();
+    }
+    int[] best = current.top(TextAnalyzer.fold(prefix).strip(), Math.min(limit, MAX_SUGGESTIONS));
+    List<Suggestion> result = new ArrayList<>(best.length);
+    for (int entry : best) {
+      result.add(current.suggestions[entry]);
+    }
+    return result;
+  }
+
+  /**
+   * Rebuild the suggestions from the job counts and swap them in atomically. Runs once at
+   * startup, on a fixed delay, and whenever the dataset generation advances.
+   */
+  @EventListener(DataChangedEvent.class)
+  @Order(DataChangedEvent.REBUILD_ORDER)
+  @Scheduled(fixedDelayString = "${geojobsearch.search.index-refresh-ms:900000}")
+  public void rebuild() {
+    try {
+      long start = System.nanoTime();
+      Entries built = build();
+      entries = built;
+      LOG.info("Suggest index built: {} entries, {} keys, {} cached prefixes in {} ms",
+          built.suggestions.length, built.keyEntries.length, built.cached.size(),
+          (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // Keep serving the previous suggestions if the database is down
+      LOG.warn("Suggest index rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  private Entries build() {
+    List<Suggestion> suggestions = new ArrayList<>();
+    addAll(suggestions, jobRepository.findTitleCounts(), "title");
+    addAll(suggestions, jobRepository.findCompanyNameCounts(), "company");
+    addAll(suggestions, jobRepository.findCityCounts(), "city");
+    suggestions.sort(Comparator.comparingLong(Suggestion::count).reversed()
+        .thenComparingInt(suggestion -> suggestion.text().length())
+        .thenComparing(Suggestion::text));
+    return new Entries(suggestions.toArray(new Suggestion[0]));
+  }
+
+  private static void addAll(List<Suggestion> suggestions, List<Object[]> rows, String type) {
+    for (Object[] row : rows) {
+      String text = ((String) row[0]).strip();
+      if (!text.isEmpty()) {
+        suggestions.add(new Suggestion(text, type, ((Number) row[1]).longValue()));
+      }
+    }
+  }
+
+  /**
+   * Immutable suggestions and their sorted word-start keys, replaced as a whole on every rebuild.
+   * Key {@code k} is the folded text of entry {@code keyEntries[k]} from {@code keyOffsets[k]}.
+   */
+  private static final class Entries {
+    private final Suggestion[] suggestions;
+    private final String[] folded;
+    private final int[] keyEntries;
+    private final int[] keyOffsets;
+    private final Map<String, int[]> cached = new HashMap<>();
+
+    private Entries(Suggestion[] suggestions) {
+      this.suggestions = suggestions;
+      this.folded = new String[suggestions.length];
+      List<long[]> keys = new ArrayList<>();
+      for (int entry = 0; entry < suggestions.length; entry++) {
+        folded[entry] = TextAnalyzer.fold(suggestions[entry].text());
+        String text = folded[entry];
+        for (int i = 0; i < text.length(); i++) {
+          if (Character.isLetterOrDigit(text.charAt(i))
+              && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))) {
+            keys.add(new long[] {entry, i});
+          }
+        }
+      }
+      keys.sort((a, b) -> compareKeys((int) a[0], (int) a[1], (int) b[0], (int) b[1]));
+      keyEntries = new int[keys.size()];
+      keyOffsets = new int[keys.size()];
+      for (int k = 0; k < keyEntries.length; k++) {
+        keyEntries[k] = (int) keys.get(k)[0];
+        keyOffsets[k] = (int) keys.get(k)[1];
+      }
+      cacheHeavyPrefixes(0, keyEntries.length, 1);
+    }
+
+    /**
+     * The lowest distinct entry numbers among the keys starting with the prefix.
+     */
+    private int[] top(String prefix, int limit) {
+      int[] precomputed = cached.get(prefix);
+      if (precomputed != null) {
+        return Arrays.copyOf(precomputed, Math.min(limit, precomputed.length));
+      }
+      int from = lowerBound(prefix);
+      int to = from;
+      while (to < keyEntries.length && startsWith(to, prefix)) {
+        to++;
+      }
+      return lowest(from, to, limit);
+    }
+
+    /**
+     * Cache the top suggestions of every prefix of this length that matches more than
+     * SCAN_LIMIT keys in [from, to), then descend into those prefixes. Keys sharing a prefix
+     * are adjacent, and a prefix can only be heavy when all of its shorter prefixes are.
+     */
+    private void cacheHeavyPrefixes(int from, int to, int length) {
+      int start = from;
+      while (start < to) {
+        String key = key(start);
+        if (key.length() < length) {
+          start++;
+          continue;
+        }
+        String prefix = key.substring(0, length);
+        int end = start + 1;
+        while (end < to && startsWith(end, prefix)) {
+          end++;
+        }
+        if (end - start > SCAN_LIMIT) {
+          cached.put(prefix, lowest(start, end, MAX_SUGGESTIONS));
+          cacheHeavyPrefixes(start, end, length + 1);
+        }
+        start = end;
+      }
+    }
+
+    private int[] lowest(int from, int to, int limit) {
+      int[] matches = Arrays.copyOfRange(keyEntries, from, to);
+      Arrays.sort(matches);
+      // An entry with several matching word starts appears once
+      int[] result = new int[Math.min(limit, matches.length)];
+      int count = 0;
+      for (int i = 0; i < matches.length && count < result.length; i++) {
+        if (i == 0 || matches[i] != matches[i - 1]) {
+          result[count++] = matches[i];
+        }
+      }
+      return Arrays.copyOf(result, count);
+    }
+
+    private int lowerBound(String prefix) {
+      int low = 0;
+      int high = keyEntries.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (compareToPrefix(mid, prefix) < 0) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private String key(int k) {
+      return folded[keyEntries[k]].substring(keyOffsets[k]);
+    }
+
+    private boolean startsWith(int k, String prefix) {
+      return folded[keyEntries[k]].startsWith(prefix, keyOffsets[k]);
+    }
+
+    /**
+     * Compare key k with the prefix, as String.compareTo would compare the key substring.
+     */
+    private int compareToPrefix(int k, String prefix) {
+      String text = folded[keyEntries[k]];
+      int offset = keyOffsets[k];
+      int length = Math.min(text.length() - offset, prefix.length());
+      for (int i = 0; i < length; i++) {
+        int diff = text.charAt(offset + i) - prefix.charAt(i);
+        if (diff != 0) {
+          return diff;
+        }
+      }
+      return (text.length() - offset) - prefix.length();
+    }
+
+    private int compareKeys(int entryA, int offsetA, int entryB, int offsetB) {
+      String a = folded[entryA];
+      String b = folded[entryB];
+      int length = Math.min(a.length() - offsetA, b.length() - offsetB);
+      for (int i = 0; i < length; i++) {
+        int diff = a.charAt(offsetA + i) - b.charAt(offsetB + i);
+        if (diff != 0) {
+          return diff;
+        }
+      }
+      int diff = (a.length() - offsetA) - (b.length() - offsetB);
+      // Equal keys keep popularity order
+      return diff != 0 ? diff : entryA - entryB;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package dev.algorise.geojobsearch.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into the terms the ranked search indexes and queries.
+ *
+ * <p>Text is lowercased and stripped of accents, split on anything that is not a letter or digit,
+ * cleared of common English stop words and reduced by a light suffix stemmer, so "manages",
+ * "managing" and "managed" share one term while "java" and "javascript" stay apart.
+ * The stemmer only strips plurals, -ing, -ed and a final e; it is deliberately conservative
+ * because job titles are short and over-stemming merges unrelated roles.
+ */
+public final class TextAnalyzer {
+
+  private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+  private static final Set<String> STOP_WORDS = Set.of(
+      "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on",
+      "or", "our", "the", "to", "we", "with", "you", "your");
+
+  private TextAnalyzer() {
+  }
+
+  /**
+   * Analyze text into stemmed terms, in order and with repeats.
+   * @param text - free text, may be null
+   * @return the terms, empty when there is nothing to index or search for
+   */
+  public static List<String> analyze(String text) {
+    List<String> terms = new ArrayList<>();
+    if (text == null || text.isBlank()) {
+      return terms;
+    }
+    for (String token : SEPARATOR.split(fold(text))) {
+      if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+        terms.add(stem(token));
+      }
+    }
+    return terms;
+  }
+
+  /**
+   * Lowercase text and strip its accents, keeping everything else. Every in-memory index folds
+   * through here, so they agree with each other and with the case and accent insensitive
+   * utf8mb4_unicode_ci comparisons of MySQL.
+   * @param text - free text
+   * @return the folded text
+   */
+  public static String fold(String text) {
+    String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    return stripped.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Reduce one lowercase token to its stem.
+   */
+  static String stem(String token) {
+    if (token.length() <= 3 || !Character.isLetter(token.charAt(token.length() - 1))) {
+      return token;
+    }
+    String stem = token;
+    if (stem.endsWith("ies") && stem.length() > 4) {
+      stem = stem.substring(0, stem.length() - 3) + "y";
+    } else if (stem.endsWith("es") && (stem.endsWith("sses") || stem.endsWith("xes")
+        || stem.endsWith("ches") || stem.endsWith("shes") || stem.endsWith("zes"))) {
+      stem = stem.substring(0, stem.length() - 2);
+    } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us")
+        && !stem.endsWith("is")) {
+      stem = stem.substring(0, stem.length() - 1);
+    }
+    if (stem.endsWith("ing") && hasVowel(stem, stem.length() - 3)) {
+      stem = undouble(stem.substring(0, stem.length() - 3));
+    } else if (stem.endsWith("ed") && hasVowel(stem, stem.length() - 2)) {
+      stem = undouble(stem.substring(0, stem.length() - 2));
+    }
+    if (stem.length() > 3 && stem.endsWith("e")) {
+      stem = stem.substring(0, stem.length() - 1);
+    }
+    return stem;
+  }
+
+  /**
+   * Whether the first {@code end} characters, at least three of them, contain a vowel.
+   */
+  private static boolean hasVowel(String token, int end) {
+    if (end < 3) {
+      return false;
+    }
+    for (int i = 0; i < end; i++) {
+      if ("aeiouy".indexOf(token.charAt(i)) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Drop one letter of a doubled final consonant: "runn" to "run", "embedd" to "embed".
+   */
+  private static String undouble(String stem) {
+    int n = stem.length();
+    if (n >= 3 && stem.charAt(n - 1) == stem.charAt(n - 2) && "aeioulsz".indexOf(stem.charAt(n - 1)) < 0) {
+      return stem.substring(0, n - 1);
+    }
+    return stem;
+  }
+}
@@ -0,0 +1,174 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.cache.DataVersion;
+import dev.algorise.geojobsearch.cache.EntityCacheEvictor;
+import dev.algorise.geojobsearch.model.CompanyUpsert;
+import dev.algorise.geojobsearch.model.IngestResult;
+import dev.algorise.geojobsearch.repository.CompanyRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes companies in batches keyed on CompanyUID, remembering which ones are stored.
+ *
+ * <p>Scraped jobs come from a few hundred companies, nearly all of them stored by an earlier
+ * batch, so the CompanyUIDs already in the table are kept in memory and job ingestion only writes
+ * the companies it has not seen: one batched statement for the newcomers instead of a SELECT and
+ * an INSERT per job. The set is exact rather than a Bloom filter; a few thousand short strings
+ * fit easily, and a false positive would make a job insert fail its foreign key. It is loaded on
+ * first use and dropped whenever the table changes outside the ingestion endpoints.
+ */
+@Service
+public class CompanyIngestService {
+
+  private final CompanyRepository companyRepository;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final DataVersion dataVersion;
+
+  private final EntityCacheEvictor entityCacheEvictor;
+
+  private final int batchSize;
+
+  private final int maxCompanies;
+
+  private final Set<String> knownUids = ConcurrentHashMap.newKeySet();
+
+  private volatile boolean loaded;
+
+  public CompanyIngestService(CompanyRepository companyRepository,
+      PlatformTransactionManager transactionManager, DataVersion dataVersion,
+      EntityCacheEvictor entityCacheEvictor,
+      @Value("${geojobsearch.ingest.batch-size:500}") int batchSize,
+      @Value("${geojobsearch.ingest.max-companies:5000}") int maxCompanies) {
+    this.companyRepository = companyRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.dataVersion = dataVersion;
+    this.entityCacheEvictor = entityCacheEvictor;
+    this.batchSize = batchSize;
+    this.maxCompanies = maxCompanies;
+  }
+
+  /**
+   * Insert the companies that are not stored yet, as part of the caller's transaction. Stored
+   * companies cost no database round trip.
+   * @param companies - companies referenced by ingested jobs; the first of each CompanyUID wins
+   * @return the number of companies written
+   */
+  public int addMissing(Collection<CompanyUpsert> companies) {
+    loadKnownUids();
+    Map<String, CompanyUpsert> missing = new LinkedHashMap<>();
+    for (CompanyUpsert company : companies) {
+      if (!knownUids.contains(company.companyUID())) {
+        missing.putIfAbsent(company.companyUID(), company);
+      }
+    }
+    if (missing.isEmpty()) {
+      return 0;
+    }
+    companyRepository.insertMissing(missing.values(), batchSize);
+    remember(missing.keySet());
+    return missing.size();
+  }
+
+  /**
+   * Insert companies or update the stored ones, typically with geocoding results. Geocoded
+   * companies move job markers, so they advance the dataset generation and the map indexes and
+   * snapshot are rebuilt.
+   * @param companies - the batch; a CompanyUID appearing twice keeps its last version
+   * @return the number of companies written and the generation that includes them
+   * @throws IllegalArgumentException when the batch is too large or a company lacks a required
+   *     field
+   */
+  public IngestResult upsert(List<CompanyUpsert> companies) {
+    if (companies.size() > maxCompanies) {
+      throw new IllegalArgumentException("At most " + maxCompanies + " companies per batch");
+    }
+    Map<String, CompanyUpsert> byUid = new LinkedHashMap<>();
+    for (CompanyUpsert company : companies) {
+      validate(company);
+      byUid.put(company.companyUID(), company);
+    }
+    if (byUid.isEmpty()) {
+      return new IngestResult(0, dataVersion.current());
+    }
+    List<CompanyUpsert> unique = new ArrayList<>(byUid.values());
+    transactionTemplate.executeWithoutResult(status -> {
+      companyRepository.upsert(unique, batchSize);
+      remember(byUid.keySet());
+    });
+    // The JDBC upsert bypasses the read-only Company cache region
+    entityCacheEvictor.evictCompanies(byUid.keySet());
+    boolean geocoded = unique.stream().anyMatch(CompanyUpsert::isGeocoded);
+    long generation = geocoded ? dataVersion.advance(unique.size() + " companies geocoded")
+        : dataVersion.current();
+    return new IngestResult(unique.size(), generation);
+  }
+
+  /**
+   * Forget the known companies after a change made outside the ingestion endpoints, which may
+   * have removed some.
+   */
+  @EventListener(condition = "!#root.event.incremental")
+  @Order(DataChangedEvent.REBUILD_ORDER)
+  public synchronized void onDataChanged(DataChangedEvent event) {
+    loaded = false;
+    knownUids.clear();
+  }
+
+  private synchronized void loadKnownUids() {
+    if (!loaded) {
+      knownUids.addAll(companyRepository.findAllCompanyUids());
+      loaded = true;
+    }
+  }
+
+  /**
+   * Add CompanyUIDs to the known set once the current transaction commits, or right away when
+   * there is none.
+   */
+  private void remember(Collection<String> uids) {
+    List<String> written = new ArrayList<>(uids);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          knownUids.addAll(written);
+        }
+      });
+    } else {
+      knownUids.addAll(written);
+    }
+  }
+
+  private static void validate(CompanyUpsert company) {
+    if (company == null) {
+      throw new IllegalArgumentException("Null company in batch");
+    }
+    require(company.companyUID(), "companyUID", company);
+    require(company.name(), "name", company);
+    require(company.city(), "city", company);
+    require(company.province(), "province", company);
+  }
+
+  private static void require(String value, String field, CompanyUpsert company) {
+    if (value == null || value.isBlank()) {
+      throw new IllegalArgumentException("Company " + company.companyUID() + " has no " + field);
+    }
+  }
+}
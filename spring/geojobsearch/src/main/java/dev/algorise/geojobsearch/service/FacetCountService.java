@@ -0,0 +1,107 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.config.FacetExecutorConfig;
+import dev.algorise.geojobsearch.model.FacetCounts;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the location, job type and salary count queries concurrently and merges them.
+ *
+ * <p>The three aggregations are independent, so the filter panel waits for the slowest one
+ * instead of their sum. Each runs through {@link JobService}, keeping its read cache, on the
+ * bounded facet executor and gets its own timeout; a facet that is late or fails comes back as
+ * null rather than holding up the others.
+ */
+@Service
+public class FacetCountService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FacetCountService.class);
+
+  private final JobService jobService;
+
+  private final Executor executor;
+
+  private final long timeoutMs;
+
+  public FacetCountService(JobService jobService,
+      @Qualifier(FacetExecutorConfig.FACET_EXECUTOR) Executor executor,
+      @Value("${geojobsearch.facets.timeout-ms:2000}") long timeoutMs) {
+    this.jobService = jobService;
+    this.executor = executor;
+    this.timeoutMs = timeoutMs;
+  }
+
+  /**
+   * Get the three filter panel histograms, each honouring every filter but its own.
+   * @param location - a location as a String
+   * @param jobType - a job type as a String
+   * @param minSalary - a minimum salary as an Integer
+   * @param maxSalary - a maximum salary as an Integer
+   * @param search - space separated keywords, all of which must match; may be null
+   * @return - completes once every facet has answered or timed out
+   */
+  public CompletableFuture<FacetCounts> getFacetCounts(String location, String jobType,
+      Integer minSalary, Integer maxSalary, String search) {
+
+    CompletableFuture<List<Map<String, Object>>> locations = facet("locations",
+        () -> search == null ? jobService.getLocationsCount(jobType, minSalary, maxSalary)
+            : jobService.getLocationsCountSearch(jobType, minSalary, maxSalary, search),
+        "location", "count");
+    CompletableFuture<List<Map<String, Object>>> jobTypes = facet("jobTypes",
+        () -> search == null ? jobService.getJobTypeCount(location, minSalary, maxSalary)
+            : jobService.getJobTypeCountSearch(location, minSalary, maxSalary, search),
+        "jobType", "count");
+    CompletableFuture<List<Map<String, Object>>> salaries = facet("salaries",
+        () -> search == null ? jobService.getSalaryRangeCount(location, jobType)
+            : jobService.getSalaryRangeCountSearch(location, jobType, search),
+        "minSalary", "maxSalary", "count");
+
+    return CompletableFuture.allOf(locations, jobTypes, salaries)
+        .thenApply(done -> new FacetCounts(locations.join(), jobTypes.join(), salaries.join()));
+  }
+
+  private CompletableFuture<List<Map<String, Object>>> facet(String name,
+      Supplier<List<Object[]>> query, String... keys) {
+    CompletableFuture<List<Object[]>> rows;
+    try {
+      rows = CompletableFuture.supplyAsync(query, executor);
+    } catch (RejectedExecutionException e) {
+      LOG.warn("Facet {} rejected, executor saturated", name);
+      return CompletableFuture.completedFuture(null);
+    }
+    return rows.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+        .handle((result, error) -> {
+          if (error != null) {
+            LOG.warn("Facet {} unavailable: {}", name, error.toString());
+            return null;
+          }
+          return toRows(result, keys);
+        });
+  }
+
+  private static List<Map<String, Object>> toRows(List<Object[]> rows, String... keys) {
+    List<Map<String, Object>> result = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      // LinkedHashMap rather than Map.of: the salary range of jobs without a salary is null
+      Map<String, Object> map = new LinkedHashMap<>();
+      for (int i = 0; i < keys.length; i++) {
+        map.put(keys[i], row[i]);
+      }
+      result.add(map);
+    }
+    return result;
+  }
+}
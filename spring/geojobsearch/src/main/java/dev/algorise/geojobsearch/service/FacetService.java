@@ -0,0 +1,256 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.cache.SearchKey;
+import dev.algorise.geojobsearch.cache.SearchKey;
+import dev.algorise.geojobsearch.config.CacheConfig;
+import dev.algorise.geojobsearch.model.FacetResult;
+import dev.algorise.geojobsearch.model.JobSummary;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.snapshot.BitmapIndex;
+import dev.algorise.geojobsearch.snapshot.JobSnapshot;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Computes the filter panel facets and the matching job page in one pass.
+ *
+ * <p>Each facet ignores its own filter, exactly like the separate location, job type and salary
+ * count endpoints: the location histogram honours jobType and salary, the job type histogram
+ * honours location and salary, and the salary histogram honours location and jobType. All three
+ * are counted from a single read of slim (id, location, jobType, salary) rows, or without the
+ * database from the {@link BitmapIndex} once it is built, leaving only the page itself to load.
+ * The read skips rows failing two of the three filters, which no facet counts; the remaining
+ * rows are matched with {@link JobSnapshot#fold}, the same case and accent insensitive
+ * comparison the column collation applies in SQL.
+ */
+@Service
+public class FacetService {
+
+  static final int SALARY_BUCKET = 50000;
+
+  private final JobRepository jobRepository;
+
+  private final KeywordIndex keywordIndex;
+
+  private final BitmapIndex bitmapIndex;
+
+  public FacetService(JobRepository jobRepository, KeywordIndex keywordIndex, BitmapIndex bitmapIndex) {
+    this.jobRepository = jobRepository;
+    this.keywordIndex = keywordIndex;
+    this.bitmapIndex = bitmapIndex;
+  }
+
+  /**
+   * Get the location, job type and salary histograms plus one page of matching jobs.
+   * @param location - a location as a String
+   * @param jobType - a job type as a String
+   * @param minSalary - a minimum salary as an Integer
+   * @param maxSalary - a maximum salary as an Integer
+   * @param search - space separated keywords, all of which must match
+   * @param page - zero based page number
+   * @param size - page size
+   * @return - the facet histograms, the requested page and the total match count
+   */
+  @Cacheable(cacheNames = CacheConfig.FACETS, keyGenerator = "filterKeyGenerator")
+  public FacetResult getFacets(String location, String jobType, Integer minSalary,
+      Integer maxSalary, @SearchKey String search, int page, int size) {
+
+    JobFilter.Builder candidates = JobFilter.builder();
+    if (!SearchKeywords.restrict(candidates, keywordIndex, search, true)) {
+      return new FacetResult(Collections.emptyList(), Collections.emptyList(),
+          Collections.emptyList(), Collections.emptyList(), 0);
+    }
+    if (bitmapIndex.isReady()) {
+      FacetResult result = countFromBitmaps(candidates.build(), location, jobType, minSalary,
+          maxSalary, page, size);
+      if (result != null) {
+        return result;
+      }
+    }
+
+    List<Object[]> rows = jobRepository.findFacetRows(candidates.location(location)
+        .jobType(jobType).salaryBetween(minSalary, maxSalary).build());
+    ValueMatcher locationMatcher = new ValueMatcher(location);
+    ValueMatcher jobTypeMatcher = new ValueMatcher(jobType);
+
+    OrdinalCounter locationCounts = new OrdinalCounter();
+    OrdinalCounter jobTypeCounts = new OrdinalCounter();
+    Map<Integer, int[]> salaryCounts = new TreeMap<>();
+    List<Long> pageIds = new ArrayList<>(size);
+    long firstMatch = (long) page * size;
+    long totalJobs = 0;
+
+    for (Object[] row : rows) {
+      String rowLocation = (String) row[1];
+      String rowJobType = (String) row[2];
+      BigDecimal rowSalary = (BigDecimal) row[3];
+
+      boolean locationOk = locationMatcher.matches(rowLocation);
+      boolean jobTypeOk = jobTypeMatcher.matches(rowJobType);
+      boolean salaryOk = inRange(rowSalary, minSalary, maxSalary);
+
+      if (jobTypeOk && salaryOk) {
+        locationCounts.increment(rowLocation);
+      }
+      if (locationOk && salaryOk) {
+        jobTypeCounts.increment(rowJobType);
+      }
+      if (locationOk && jobTypeOk && rowSalary != null) {
+        salaryCounts.computeIfAbsent(Math.floorDiv(rowSalary.intValue(), SALARY_BUCKET),
+            b -> new int[1])[0]++;
+      }
+      if (locationOk && jobTypeOk && salaryOk) {
+        if (totalJobs >= firstMatch && pageIds.size() < size) {
+          pageIds.add(((Number) row[0]).longValue());
+        }
+        totalJobs++;
+      }
+    }
+
+    return new FacetResult(
+        locationCounts.toRows("location"),
+        jobTypeCounts.toRows("jobType"),
+        toSalaryRows(salaryCounts),
+        loadPage(pageIds),
+        totalJobs);
+  }
+
+  /**
+   * Answer the facets by bitmap intersection, or return null when the candidates carry keyword
+   * predicates the bitmap index cannot evaluate.
+   */
+  private FacetResult countFromBitmaps(JobFilter candidates, String location, String jobType,
+      Integer minSalary, Integer maxSalary, int page, int size) {
+    List<Object[]> locations = bitmapIndex.countBy(BitmapIndex.Facet.LOCATION,
+        candidates.toBuilder().jobType(jobType).salaryBetween(minSalary, maxSalary).build());
+    if (locations == null) {
+      return null;
+    }
+    List<Object[]> jobTypes = bitmapIndex.countBy(BitmapIndex.Facet.JOB_TYPE,
+        candidates.toBuilder().location(location).salaryBetween(minSalary, maxSalary).build());
+    List<Object[]> salaries = bitmapIndex.countBySalaryRange(
+        candidates.toBuilder().location(location).jobType(jobType).build(), SALARY_BUCKET);
+    JobFilter all = candidates.toBuilder().location(location).jobType(jobType)
+        .salaryBetween(minSalary, maxSalary).build();
+    long totalJobs = bitmapIndex.count(all);
+    long[] ids = bitmapIndex.matchIds(all, (long) page * size, size);
+
+    List<Map<String, Object>> salaryRows = new ArrayList<>(salaries.size());
+    for (Object[] row : salaries) {
+      // The salary histogram skips jobs without a salary
+      if (row[0] != null) {
+        salaryRows.add(Map.of(
+            "minSalary", ((Number) row[0]).intValue(),
+            "maxSalary", ((Number) row[1]).intValue(),
+            "count", ((Number) row[2]).intValue()));
+      }
+    }
+    List<Long> pageIds = new ArrayList<>(ids.length);
+    for (long id : ids) {
+      pageIds.add(id);
+    }
+    return new FacetResult(toRows(locations, "location"), toRows(jobTypes, "jobType"), salaryRows,
+        loadPage(pageIds), totalJobs);
+  }
+
+  private static List<Map<String, Object>> toRows(List<Object[]> counts, String key) {
+    List<Map<String, Object>> result = new ArrayList<>(counts.size());
+    for (Object[] count : counts) {
+      Map<String, Object> row = new HashMap<>();
+      row.put(key, count[0]);
+      row.put("count", ((Number) count[1]).intValue());
+      result.add(row);
+    }
+    return result;
+  }
+
+  private static boolean inRange(BigDecimal salary, Integer minSalary, Integer maxSalary) {
+    if (minSalary == null && maxSalary == null) {
+      return true;
+    }
+    if (salary == null) {
+      return false;
+    }
+    int value = salary.intValue();
+    return (minSalary == null || value >= minSalary) && (maxSalary == null || value <= maxSalary);
+  }
+
+  private List<JobSummary> loadPage(List<Long> pageIds) {
+    if (pageIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    // The IN query does not preserve order, so restore the candidate (JobID) order
+    Map<Long, JobSummary> byId = jobRepository.findSummariesByIds(pageIds).stream()
+        .collect(Collectors.toMap(JobSummary::jobID, Function.identity()));
+    return pageIds.stream().map(byId::get).filter(job -> job != null).collect(Collectors.toList());
+  }
+
+  private static List<Map<String, Object>> toSalaryRows(Map<Integer, int[]> salaryCounts) {
+    List<Map<String, Object>> result = new ArrayList<>(salaryCounts.size());
+    salaryCounts.forEach((bucket, count) -> result.add(Map.of(
+        "minSalary", bucket * SALARY_BUCKET,
+        "maxSalary", (bucket + 1) * SALARY_BUCKET - 1,
+        "count", count[0])));
+    return result;
+  }
+
+  /**
+   * Compares facet values the way the column collation does, folding each distinct spelling once.
+   */
+  private static final class ValueMatcher {
+    private final String selected;
+    private final Map<String, Boolean> matches = new HashMap<>();
+
+    private ValueMatcher(String selected) {
+      this.selected = selected == null ? null : JobSnapshot.fold(selected);
+    }
+
+    private boolean matches(String value) {
+      if (selected == null) {
+        return true;
+      }
+      return value != null
+          && matches.computeIfAbsent(value, v -> selected.equals(JobSnapshot.fold(v)));
+    }
+  }
+
+  /**
+   * Interns facet values to dense ordinals and counts them in a primitive array.
+   */
+  private static final class OrdinalCounter {
+    private final Map<String, Integer> ordinals = new LinkedHashMap<>();
+    private int[] counts = new int[16];
+
+    private void increment(String value) {
+      int ordinal = ordinals.computeIfAbsent(value, v -> ordinals.size());
+      if (ordinal == counts.length) {
+        counts = Arrays.copyOf(counts, counts.length * 2);
+      }
+      counts[ordinal]++;
+    }
+
+    private List<Map<String, Object>> toRows(String key) {
+      List<Map<String, Object>> result = new ArrayList<>(ordinals.size());
+      ordinals.forEach((value, ordinal) -> {
+        Map<String, Object> row = new HashMap<>();
+        row.put(key, value);
+        row.put("count", counts[ordinal]);
+        result.add(row);
+      });
+      return result;
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.repository.JobKeyset;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset cursor: the sort key and JobID of the last row of the previous page.
+ *
+ * <p>Encoded as base64url of {@code <order>:<key>:<jobId>}, where the key is empty when the last
+ * row had no date or salary. Ranked search pages keep the number of results already returned as
+ * the key.
+ */
+final class JobCursor {
+
+  /**
+   * Page orderings supported by keyset pagination.
+   */
+  enum Order {
+    ID('i'), DATE('d'), SALARY('s'), RANK('r');
+
+    private final char code;
+
+    Order(char code) {
+      this.code = code;
+    }
+
+    static Order fromSortBy(String sortBy) {
+      if ("date".equals(sortBy)) {
+        return DATE;
+      } else if ("salary".equals(sortBy)) {
+        return SALARY;
+      }
+      return ID;
+    }
+  }
+
+  private final Order order;
+
+  private final String key;
+
+  private final Long jobId;
+
+  private JobCursor(Order order, String key, Long jobId) {
+    this.order = order;
+    this.key = key;
+    this.jobId = jobId;
+  }
+
+  /**
+   * Cursor positioned after the row with the given sort keys.
+   */
+  static JobCursor after(Order order, Long jobId, Date date, BigDecimal salary) {
+    String key = "";
+    if (order == Order.DATE && date != null) {
+      key = new java.sql.Date(date.getTime()).toString();
+    } else if (order == Order.SALARY && salary != null) {
+      key = salary.toPlainString();
+    }
+    return new JobCursor(order, key, jobId);
+  }
+
+  /**
+   * Cursor positioned after the given number of ranked search results.
+   * @param rank - results returned so far
+   * @param jobId - the id of the last result returned
+   */
+  static JobCursor afterRank(int rank, long jobId) {
+    return new JobCursor(Order.RANK, String.valueOf(rank), jobId);
+  }
+
+  /**
+   * Whether a cursor from a request was issued for an ordering.
+   * @param cursor - the opaque token, may be null
+   * @param order - the ordering to check for
+   * @return true for a well-formed token of that ordering
+   */
+  static boolean isOrder(String cursor, Order order) {
+    try {
+      decode(cursor, order);
+      return cursor != null && !cursor.isEmpty();
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Decode a cursor from a request.
+   * @param cursor - the opaque token, or null for the first page
+   * @param order - the ordering of the current request
+   * @return the decoded cursor; a first page cursor when the token is null
+   * @throws IllegalArgumentException when the token is malformed or was issued for another ordering
+   */
+  static JobCursor decode(String cursor, Order order) {
+    if (cursor == null || cursor.isEmpty()) {
+      return new JobCursor(order, "", null);
+    }
+    try {
+      String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+          .split(":", 3);
+      if (parts.length != 3 || parts[0].length() != 1 || parts[0].charAt(0) != order.code) {
+        throw new IllegalArgumentException("Cursor does not match the requested sort order");
+      }
+      JobCursor decoded = new JobCursor(order, parts[1], Long.valueOf(parts[2]));
+      // Validate the key eagerly so a bad token fails here rather than in the query
+      decoded.getDate();
+      decoded.getSalary();
+      decoded.getRank();
+      return decoded;
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+  }
+
+  String encode() {
+    String raw = order.code + ":" + key + ":" + jobId;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  Long getJobId() {
+    return jobId;
+  }
+
+  Date getDate() {
+    return order == Order.DATE && !key.isEmpty() ? java.sql.Date.valueOf(key) : null;
+  }
+
+  BigDecimal getSalary() {
+    return order == Order.SALARY && !key.isEmpty() ? new BigDecimal(key) : null;
+  }
+
+  int getRank() {
+    return order == Order.RANK && !key.isEmpty() ? Math.max(0, Integer.parseInt(key)) : 0;
+  }
+
+  /**
+   * The repository keyset continuing after this cursor.
+   */
+  JobKeyset toKeyset() {
+    if (order == Order.DATE) {
+      return new JobKeyset("date", getDate(), jobId);
+    } else if (order == Order.SALARY) {
+      return new JobKeyset("salary", getSalary(), jobId);
+    }
+    return JobKeyset.byJobId(jobId);
+  }
+}
@@ -0,0 +1,141 @@
+package dev.algorise.geojobsearch.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobField;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads single columns of jobs by JobID, many jobs at a time, through a per-job cache.
+ *
+ * <p>Each cached job holds the columns read for it so far. A request is answered from the cache
+ * for every job that already has all requested columns; the others are read together with one
+ * {@code WHERE JobID IN (...)} projection per {@value #ID_BATCH_SIZE} ids, so a detail view or a
+ * list of hundreds of jobs costs at most one query instead of a full-row fetch per job and field.
+ * Changed jobs are evicted as their changes are published.
+ */
+@Service
+public class JobFieldService {
+
+  // Bound on the IN list of one query
+  private static final int ID_BATCH_SIZE = 1000;
+
+  private final JobRepository jobRepository;
+
+  private final int maxIds;
+
+  private final Cache<Long, Map<JobField, Object>> cache;
+
+  public JobFieldService(JobRepository jobRepository,
+      @Value("${geojobsearch.fields.max-ids:1000}") int maxIds,
+      @Value("${geojobsearch.fields.cache-size:10000}") long cacheSize) {
+    this.jobRepository = jobRepository;
+    this.maxIds = maxIds;
+    this.cache = Caffeine.newBuilder().maximumSize(cacheSize).build();
+  }
+
+  /**
+   * Get some columns of some jobs.
+   * @param ids - JobIDs, at most {@code geojobsearch.fields.max-ids}; duplicates are ignored
+   * @param fields - the columns to return
+   * @return for each job that exists, in request order, its field values by field key
+   * @throws IllegalArgumentException when no ids or fields are given, or too many ids
+   */
+  public Map<Long, Map<String, Object>> getFields(Collection<Long> ids, Collection<JobField> fields) {
+    if (ids.isEmpty() || fields.isEmpty()) {
+      throw new IllegalArgumentException("At least one id and one field are required");
+    }
+    LinkedHashSet<Long> unique = new LinkedHashSet<>(ids);
+    if (unique.size() > maxIds) {
+      throw new IllegalArgumentException("At most " + maxIds + " ids per request");
+    }
+    EnumSet<JobField> wanted = EnumSet.copyOf(fields);
+
+    Map<Long, Map<JobField, Object>> found = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long id : unique) {
+      Map<JobField, Object> cached = cache.getIfPresent(id);
+      if (cached != null && cached.keySet().containsAll(wanted)) {
+        found.put(id, cached);
+      } else {
+        missing.add(id);
+      }
+    }
+    if (!missing.isEmpty()) {
+      load(missing, new ArrayList<>(wanted), found);
+    }
+
+    Map<Long, Map<String, Object>> result = new LinkedHashMap<>();
+    for (Long id : unique) {
+      Map<JobField, Object> values = found.get(id);
+      if (values != null) {
+        Map<String, Object> job = new LinkedHashMap<>();
+        for (JobField field : wanted) {
+          job.put(field.key(), values.get(field));
+        }
+        result.put(id, job);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get one column of one job.
+   * @param id - the JobID
+   * @param field - the column
+   * @return the value, empty when the job does not exist or the column is null
+   */
+  public Optional<Object> getField(Long id, JobField field) {
+    Map<String, Object> job = getFields(List.of(id), List.of(field)).get(id);
+    return job == null ? Optional.empty() : Optional.ofNullable(job.get(field.key()));
+  }
+
+  /**
+   * Evict the jobs named by an incremental change, or every job after any other change. Runs
+   * last, like the other read caches, once the indexes have been rebuilt.
+   */
+  @EventListener
+  @Order(DataChangedEvent.CLEAR_ORDER)
+  public void onDataChanged(DataChangedEvent event) {
+    if (event.isIncremental()) {
+      cache.invalidateAll(Arrays.stream(event.sortedJobIds()).boxed().toList());
+    } else {
+      cache.invalidateAll();
+    }
+  }
+
+  private void load(List<Long> ids, List<JobField> fields, Map<Long, Map<JobField, Object>> found) {
+    for (int from = 0; from < ids.size(); from += ID_BATCH_SIZE) {
+      List<Long> batch = ids.subList(from, Math.min(ids.size(), from + ID_BATCH_SIZE));
+      for (Object[] row : jobRepository.findFieldsByIds(batch, fields)) {
+        Map<JobField, Object> values = new EnumMap<>(JobField.class);
+        for (int i = 0; i < fields.size(); i++) {
+          values.put(fields.get(i), row[i + 1]);
+        }
+        // Keep the columns cached earlier so the entry only ever widens
+        Long id = ((Number) row[0]).longValue();
+        found.put(id, cache.asMap().merge(id, values, (cached, loaded) -> {
+          Map<JobField, Object> merged = new EnumMap<>(cached);
+          merged.putAll(loaded);
+          return merged;
+        }));
+      }
+    }
+  }
+}
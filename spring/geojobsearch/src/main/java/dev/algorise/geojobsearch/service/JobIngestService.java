@@ -0,0 +1,175 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.cache.DataVersion;
+import dev.algorise.geojobsearch.model.CompanyUpsert;
+import dev.algorise.geojobsearch.model.IngestResult;
+import dev.algorise.geojobsearch.model.JobUpsert;
+import dev.algorise.geojobsearch.repository.UpsertSyntax;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes batches of scraped jobs, upserting by JobUID, and tells the in-memory indexes which
+ * jobs changed.
+ *
+ * <p>Rows go out as JDBC batches of {@code geojobsearch.ingest.batch-size}; with
+ * {@code rewriteBatchedStatements=true} on the datasource URL the MySQL driver sends each batch
+ * as one multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} instead of a statement per job,
+ * written in the {@link UpsertSyntax} of the connected server.
+ * After the transaction commits, the JobIDs of the written jobs are published with the next
+ * dataset generation so indexes reload only those rows.
+ */
+@Service
+public class JobIngestService {
+
+  private static final String INSERT_JOB = "INSERT INTO Jobs (JobUID, Title, Company, "
+      + "CompanyUID, Location, City, Province, Description, Salary, JobType, Date, JobURL) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String SELECT_IDS = "SELECT JobID FROM Jobs WHERE JobUID IN (%s)";
+
+  // Bound on the IN list used to read back the JobIDs
+  private static final int ID_BATCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final CompanyIngestService companyIngestService;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final DataVersion dataVersion;
+
+  private final int batchSize;
+
+  private final int maxJobs;
+
+  // Built on first use, once the server the datasource reaches is known
+  private volatile String upsertJob;
+
+  public JobIngestService(JdbcTemplate jdbcTemplate, CompanyIngestService companyIngestService,
+      PlatformTransactionManager transactionManager, DataVersion dataVersion,
+      @Value("${geojobsearch.ingest.batch-size:500}") int batchSize,
+      @Value("${geojobsearch.ingest.max-jobs:5000}") int maxJobs) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.companyIngestService = companyIngestService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.dataVersion = dataVersion;
+    this.batchSize = batchSize;
+    this.maxJobs = maxJobs;
+  }
+
+  /**
+   * Insert new jobs and update stored ones with the same JobUID, in one transaction. Companies
+   * referenced by a CompanyUID that is not stored yet are added without coordinates, as the
+   * Python ingester does when geocoding fails; stored companies cost no round trip.
+   * @param jobs - the batch; a JobUID appearing twice keeps its last version
+   * @return the number of jobs written and the generation that includes them
+   * @throws IllegalArgumentException when the batch is too large or a job lacks a required field
+   */
+  public IngestResult upsert(List<JobUpsert> jobs) {
+    if (jobs.size() > maxJobs) {
+      throw new IllegalArgumentException("At most " + maxJobs + " jobs per batch");
+    }
+    Map<String, JobUpsert> byUid = new LinkedHashMap<>();
+    for (JobUpsert job : jobs) {
+      validate(job);
+      byUid.put(job.jobUID(), job);
+    }
+    if (byUid.isEmpty()) {
+      return new IngestResult(0, dataVersion.current());
+    }
+    List<JobUpsert> unique = new ArrayList<>(byUid.values());
+    long[] jobIds = transactionTemplate.execute(status -> write(unique));
+    long generation = dataVersion.advance(unique.size() + " jobs ingested", jobIds);
+    return new IngestResult(unique.size(), generation);
+  }
+
+  private long[] write(List<JobUpsert> jobs) {
+    List<CompanyUpsert> companies = new ArrayList<>();
+    for (JobUpsert job : jobs) {
+      if (job.companyUID() != null) {
+        companies.add(new CompanyUpsert(job.companyUID(), job.company(), job.city(),
+            job.province(), null, null, null));
+      }
+    }
+    companyIngestService.addMissing(companies);
+    jdbcTemplate.batchUpdate(upsertJob(), jobs, batchSize, JobIngestService::setJob);
+    return findJobIds(jobs.stream().map(JobUpsert::jobUID).toList());
+  }
+
+  private String upsertJob() {
+    String sql = upsertJob;
+    if (sql == null) {
+      sql = upsertJob(UpsertSyntax.of(jdbcTemplate));
+      upsertJob = sql;
+    }
+    return sql;
+  }
+
+  static String upsertJob(UpsertSyntax syntax) {
+    return INSERT_JOB + syntax.rowAlias() + " ON DUPLICATE KEY UPDATE "
+        + syntax.assignInserted("Title", "Company", "CompanyUID", "Location", "City", "Province",
+            "Description", "Salary", "JobType", "Date", "JobURL");
+  }
+
+  private long[] findJobIds(List<String> uids) {
+    List<Long> ids = new ArrayList<>(uids.size());
+    for (int from = 0; from < uids.size(); from += ID_BATCH_SIZE) {
+      List<String> batch = uids.subList(from, Math.min(uids.size(), from + ID_BATCH_SIZE));
+      String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+      ids.addAll(jdbcTemplate.queryForList(String.format(SELECT_IDS, placeholders), Long.class,
+          batch.toArray()));
+    }
+    return ids.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  private static void setJob(PreparedStatement ps, JobUpsert job) throws SQLException {
+    ps.setString(1, job.jobUID());
+    ps.setString(2, job.title());
+    ps.setString(3, job.company());
+    ps.setString(4, job.companyUID());
+    ps.setString(5, job.location());
+    ps.setString(6, job.city());
+    ps.setString(7, job.province());
+    ps.setString(8, job.description());
+    if (job.salary() == null) {
+      ps.setNull(9, Types.INTEGER);
+    } else {
+      ps.setInt(9, job.salary());
+    }
+    ps.setString(10, job.jobType());
+    ps.setDate(11, job.date() == null ? null : Date.valueOf(job.date()));
+    ps.setString(12, job.jobURL());
+  }
+
+  private static void validate(JobUpsert job) {
+    if (job == null) {
+      throw new IllegalArgumentException("Null job in batch");
+    }
+    require(job.jobUID(), "jobUID", job);
+    require(job.title(), "title", job);
+    require(job.company(), "company", job);
+    require(job.location(), "location", job);
+    require(job.city(), "city", job);
+    require(job.province(), "province", job);
+    require(job.jobType(), "jobType", job);
+  }
+
+  private static void require(String value, String field, JobUpsert job) {
+    if (value == null || value.isBlank()) {
+      throw new IllegalArgumentException("Job " + job.jobUID() + " has no " + field);
+    }
+  }
+}
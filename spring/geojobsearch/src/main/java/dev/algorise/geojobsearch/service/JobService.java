@@ -1,13 +1,40 @@
 package dev.algorise.geojobsearch.service;
 
+import dev.algorise.geojobsearch.cache.SearchKey;
+import dev.algorise.geojobsearch.config.CacheConfig;
+import dev.algorise.geojobsearch.model.CursorPage;
 import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobListing;
+import dev.algorise.geojobsearch.model.JobMarker;
+import dev.algorise.geojobsearch.model.JobSummary;
+import dev.algorise.geojobsearch.model.SalaryDistribution;
+import dev.algorise.geojobsearch.model.Suggestion;
+import dev.algorise.geojobsearch.repository.JobField;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobKeyset;
 import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.search.RankedSearchIndex;
+import dev.algorise.geojobsearch.search.SuggestIndex;
+import dev.algorise.geojobsearch.snapshot.BitmapIndex;
+import dev.algorise.geojobsearch.snapshot.FacetCube;
+import dev.algorise.geojobsearch.snapshot.JobSnapshot;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
-import java.util.Arrays;
-import java.util.stream.Collectors;
 
 
 /**
@@ -19,8 +46,38 @@ public class JobService {
   @Autowired // Automatically injects the instance of OrderRepository into the OrderService.
   private final JobRepository jobRepository;
 
-  public JobService(JobRepository jobRepository) {
+  private static final int LOAD_BATCH = 1000;
+
+  // Narrowest salary histogram bucket, which bounds the number of buckets in a response
+  static final int MIN_BUCKET_WIDTH = 1000;
+
+  private static final int MAX_PERCENTILES = 20;
+
+  private final KeywordIndex keywordIndex;
+
+  private final JobSnapshot jobSnapshot;
+
+  private final BitmapIndex bitmapIndex;
+
+  private final RankedSearchIndex rankedSearchIndex;
+
+  private final SuggestIndex suggestIndex;
+
+  private final JobFieldService jobFieldService;
+
+  private final FacetCube facetCube;
+
+  public JobService(JobRepository jobRepository, KeywordIndex keywordIndex, JobSnapshot jobSnapshot,
+      BitmapIndex bitmapIndex, RankedSearchIndex rankedSearchIndex, SuggestIndex suggestIndex,
+      JobFieldService jobFieldService, FacetCube facetCube) {
     this.jobRepository = jobRepository;
+    this.keywordIndex = keywordIndex;
+    this.jobSnapshot = jobSnapshot;
+    this.bitmapIndex = bitmapIndex;
+    this.rankedSearchIndex = rankedSearchIndex;
+    this.suggestIndex = suggestIndex;
+    this.jobFieldService = jobFieldService;
+    this.facetCube = facetCube;
   }
 
   // RESTful Services
@@ -38,33 +95,43 @@ public class JobService {
     return jobRepository.findById(id);
   }
 
+  // The single-field getters read one column through the per-job field cache
   public String getJobTitleByJobId(Long id) {
-    Optional<Job> optionalJob = jobRepository.findById(id);
-    return optionalJob.map(Job::getTitle).orElse("Job not found");
+    return jobFieldService.getField(id, JobField.TITLE).map(String.class::cast).orElse("Job not found");
   }
 
   public String getJobDescriptionByJobId(Long id) {
-    Optional<Job> optionalJob = jobRepository.findById(id);
-    return optionalJob.map(Job::getDescription).orElse("Job not found");
+    return jobFieldService.getField(id, JobField.DESCRIPTION).map(String.class::cast)
+        .orElse("Job not found");
   }
 
   public String getJobURLByJobId(Long id) {
-    Optional<Job> optionalJob = jobRepository.findById(id);
-    return optionalJob.map(Job::getJobURL).orElse("Job not found");
+    return jobFieldService.getField(id, JobField.URL).map(String.class::cast).orElse("Job not found");
   }
 
   public String getLocationByJobId(Long id) {
-    Optional<Job> optionalJob = jobRepository.findById(id);
-    return optionalJob.map(Job::getLocation).orElse("Job not found");
+    return jobFieldService.getField(id, JobField.LOCATION).map(String.class::cast)
+        .orElse("Job not found");
   }
 
   public int getSalaryByJobId(Long id) {
-    Optional<Job> optionalJob = jobRepository.findById(id);
-    return optionalJob.map(job -> job.getSalary().intValue()).orElse(0);
+    return jobFieldService.getField(id, JobField.SALARY).map(salary -> ((Number) salary).intValue())
+        .orElse(0);
+  }
+
+  /**
+   * Get some columns of many jobs at once.
+   * @param ids - JobIDs
+   * @param fields - field names such as "title" or "url"
+   * @return for each job that exists, its field values by field name
+   */
+  public Map<Long, Map<String, Object>> getJobFields(List<Long> ids, List<String> fields) {
+    return jobFieldService.getFields(ids, fields.stream().map(JobField::of).toList());
   }
 
   public List<Job> filterJobsByCity(String city) {
-    return jobRepository.findByCity(city);
+    long[] ids = bitmapIndex.idsWhere(BitmapIndex.Facet.CITY, city);
+    return ids == null ? jobRepository.findByCity(city) : loadJobs(ids);
   }
 
 
@@ -77,9 +144,10 @@ public class JobService {
    * @param maxSalary - a maximum salary as an Integer
    * @return - return a list of locations and their counts
    */
+  @Cacheable(cacheNames = CacheConfig.FACETS, keyGenerator = "filterKeyGenerator")
   public List<Object[]> getLocationsCount(String jobType, Integer minSalary, Integer maxSalary){
 
-    return jobRepository.findLocationsCount(jobType,minSalary,maxSalary);
+    return countBy(BitmapIndex.Facet.LOCATION, JobFilter.of(null, jobType, minSalary, maxSalary));
   }
 
 
@@ -90,32 +158,15 @@ public class JobService {
    * @param maxSalary - a maximum salary as an Integer
    * @return - return a list of locations and their counts
    */
-  public List<Object[]> getLocationsCountSearch(String jobType, Integer minSalary, Integer maxSalary, String search){
-
-    String keywordOne = null;
-    String keywordTwo = null;
-    String keywordThree = null;
-     
-    //Split search string into keywords
-    String[] keywords = search.toLowerCase().split("\\s+",4);
+  @Cacheable(cacheNames = CacheConfig.FACETS, keyGenerator = "filterKeyGenerator")
+  public List<Object[]> getLocationsCountSearch(String jobType, Integer minSalary, Integer maxSalary, @SearchKey String search){
 
-    if(keywords.length > 0){
-
-      keywordOne = keywords[0];
+    JobFilter.Builder filter = JobFilter.builder().jobType(jobType).salaryBetween(minSalary, maxSalary);
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, true)) {
+      return Collections.emptyList();
     }
 
-    if(keywords.length > 1){
-
-      keywordTwo = keywords[1];
-    }
-
-    if(keywords.length > 2){
-
-      keywordThree = keywords[2];
-    }
-
-  
-    return jobRepository.findLocationCountSearch(jobType, minSalary, maxSalary,keywordOne,keywordTwo,keywordThree);
+    return countBy(BitmapIndex.Facet.LOCATION, filter.build());
 
   }
 
@@ -127,9 +178,10 @@ public class JobService {
    * @param maxSalary - a maximum salary as an Integer
    * @return - a list of job types and their counts
    */
+  @Cacheable(cacheNames = CacheConfig.FACETS, keyGenerator = "filterKeyGenerator")
   public List<Object[]> getJobTypeCount(String location, Integer minSalary, Integer maxSalary){
 
-    return jobRepository.findJobTypeCount(location,minSalary,maxSalary);
+    return countBy(BitmapIndex.Facet.JOB_TYPE, JobFilter.of(location, null, minSalary, maxSalary));
   }
 
 
@@ -140,32 +192,15 @@ public class JobService {
    * @param maxSalary - a maximum salary as an Integer
    * @return - return a list of locations and their counts
    */
-  public List<Object[]> getJobTypeCountSearch(String location, Integer minSalary, Integer maxSalary, String search){
+  @Cacheable(cacheNames = CacheConfig.FACETS, keyGenerator = "filterKeyGenerator")
+  public List<Object[]> getJobTypeCountSearch(String location, Integer minSalary, Integer maxSalary, @SearchKey String search){
 
-    String keywordOne = null;
-    String keywordTwo = null;
-    String keywordThree = null;
-     
-    //Split search string into keywords
-    String[] keywords = search.toLowerCase().split("\\s+",4);
-
-    if(keywords.length > 0){
-
-      keywordOne = keywords[0];
-    }
-
-    if(keywords.length > 1){
-
-      keywordTwo = keywords[1];
+    JobFilter.Builder filter = JobFilter.builder().location(location).salaryBetween(minSalary, maxSalary);
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, true)) {
+      return Collections.emptyList();
     }
 
-    if(keywords.length > 2){
-
-      keywordThree = keywords[2];
-    }
-
-  
-    return jobRepository.findJobTypeCountSearch(location, minSalary, maxSalary,keywordOne,keywordTwo,keywordThree);
+    return countBy(BitmapIndex.Facet.JOB_TYPE, filter.build());
 
   }
 
@@ -176,40 +211,24 @@ public class JobService {
    * @param jobType - a job type as a String
    * @param minSalary - a minimum salary as an Integer
    * @param maxSalary - a maximum salary as an Integer
-   * @return - a list of jobs
+   * @return - an unmodifiable list of job listings, safe to share from the cache
    */
-  public List<Job> getJobsByFilter(String location, String  jobType, Integer minSalary, Integer maxSalary){
+  @Cacheable(cacheNames = CacheConfig.FILTERS, keyGenerator = "filterKeyGenerator")
+  public List<JobListing> getJobsByFilter(String location, String  jobType, Integer minSalary, Integer maxSalary){
 
-    return jobRepository.findJobByFilters(location,jobType,minSalary,maxSalary);
+    return toListings(findJobs(JobFilter.of(location, jobType, minSalary, maxSalary), null));
   }
 
 
-  public List<Job> getJobsByFilterSearch(String location, String  jobType, Integer minSalary, Integer maxSalary,String search){
-
-      String keywordOne = null;
-      String keywordTwo = null;
-      String keywordThree = null;
-     
-
-      String[] keywords = search.toLowerCase().split("\\s+",4);
-
-      if(keywords.length > 0){
-
-        keywordOne = keywords[0];
-      }
-
-      if(keywords.length > 1){
-
-        keywordTwo = keywords[1];
-      }
-
-      if(keywords.length > 2){
-
-        keywordThree = keywords[2];
-      }
+  @Cacheable(cacheNames = CacheConfig.FILTERS, keyGenerator = "filterKeyGenerator")
+  public List<JobListing> getJobsByFilterSearch(String location, String  jobType, Integer minSalary, Integer maxSalary, @SearchKey String search){
 
+    JobFilter.Builder filter = JobFilter.of(location, jobType, minSalary, maxSalary).toBuilder();
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, true)) {
+      return Collections.emptyList();
+    }
 
-    return jobRepository.findJobByFiltersSearch(location,jobType,minSalary,maxSalary,keywordOne,keywordTwo,keywordThree);
+    return toListings(findJobs(filter.build(), null));
   }
 
 
@@ -219,39 +238,74 @@ public class JobService {
    * @param jobType - a job type as a String
    * @return a list of salaries and their counts
    */
+  @Cacheable(cacheNames = CacheConfig.FACETS, keyGenerator = "filterKeyGenerator")
   public List<Object[]> getSalaryRangeCount(String location, String jobType){
 
-    return jobRepository.findSalaryRangeCount(location, jobType);
+    return countBySalaryRange(JobFilter.of(location, jobType, null, null), FacetService.SALARY_BUCKET);
 
   }
 
 
-  public List<Object[]> getSalaryRangeCountSearch(String location, String jobType, String search){
-
-    String keywordOne = null;
-    String keywordTwo = null;
-    String keywordThree = null;
-     
-    //Split search string into keywords
-    String[] keywords = search.toLowerCase().split("\\s+",4);
-
-    if(keywords.length > 0){
+  /**
+   * Get the salary histogram of a location and job type with buckets of any width, and
+   * optionally salary percentiles, both answered from the facet cube once it is built.
+   * @param location - a location as a string
+   * @param jobType - a job type as a String
+   * @param bucketWidth - width of each bucket, at least {@value #MIN_BUCKET_WIDTH}
+   * @param percentiles - percentiles between 0 and 100, such as 50 for the median; may be empty
+   * @return the histogram and one salary per percentile
+   */
+  @Cacheable(cacheNames = CacheConfig.FACETS, keyGenerator = "filterKeyGenerator")
+  public SalaryDistribution getSalaryDistribution(String location, String jobType, int bucketWidth,
+      List<Double> percentiles){
 
-      keywordOne = keywords[0];
+    if (bucketWidth < MIN_BUCKET_WIDTH) {
+      throw new IllegalArgumentException("bucketWidth must be at least " + MIN_BUCKET_WIDTH);
+    }
+    if (percentiles.size() > MAX_PERCENTILES) {
+      throw new IllegalArgumentException("At most " + MAX_PERCENTILES + " percentiles per request");
+    }
+    double[] requested = new double[percentiles.size()];
+    for (int i = 0; i < requested.length; i++) {
+      Double percentile = percentiles.get(i);
+      if (percentile == null || !(percentile >= 0 && percentile <= 100)) {
+        throw new IllegalArgumentException("Percentiles must be between 0 and 100");
+      }
+      requested[i] = percentile;
     }
 
-    if(keywords.length > 1){
+    JobFilter filter = JobFilter.of(location, jobType, null, null);
+    Integer[] salaries = facetCube.isReady() ? facetCube.salaryPercentiles(filter, requested) : null;
+    if (salaries == null && requested.length > 0) {
+      salaries = percentilesOf(jobRepository.findSalaries(filter), requested);
+    }
+    Map<String, Integer> byPercentile = new LinkedHashMap<>();
+    for (int i = 0; i < requested.length; i++) {
+      byPercentile.put(BigDecimal.valueOf(requested[i]).stripTrailingZeros().toPlainString(), salaries[i]);
+    }
 
-      keywordTwo = keywords[1];
+    List<Map<String, Object>> buckets = new ArrayList<>();
+    for (Object[] row : countBySalaryRange(filter, bucketWidth)) {
+      // Jobs without a salary have null bounds, which Map.of does not accept
+      Map<String, Object> bucket = new LinkedHashMap<>();
+      bucket.put("minSalary", row[0]);
+      bucket.put("maxSalary", row[1]);
+      bucket.put("count", row[2]);
+      buckets.add(bucket);
     }
+    return new SalaryDistribution(bucketWidth, buckets, byPercentile);
+  }
 
-    if(keywords.length > 2){
 
-      keywordThree = keywords[2];
-    }
+  @Cacheable(cacheNames = CacheConfig.FACETS, keyGenerator = "filterKeyGenerator")
+  public List<Object[]> getSalaryRangeCountSearch(String location, String jobType, @SearchKey String search){
 
+    JobFilter.Builder filter = JobFilter.builder().location(location).jobType(jobType);
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, true)) {
+      return Collections.emptyList();
+    }
 
-    return jobRepository.findSalaryRangeCountSearch(location, jobType, keywordOne,keywordTwo,keywordThree);
+    return countBySalaryRange(filter.build(), FacetService.SALARY_BUCKET);
 
   }
 
@@ -271,92 +325,398 @@ public class JobService {
 
 
   /**
-   * Filter job list by search keyword
-   *
-   * @return return filtered jobs
+   * Get filtered jobs in the requested order, restricted to jobs matching any search keyword.
+   * Keywords are resolved to job ids up front so only matching rows are loaded, already sorted.
+   * @param sortBy - "salary" or "date" for highest/newest first; null returns every job matching the search
+   * @return - the sorted list of jobs
    */
+  public List<Job> getJobsBySort(String location, String  jobType, Integer minSalary, Integer maxSalary,String search, String sortBy){
 
-  
-  public List<Job> updateJobsBySearch(List<Job> jobs, String search){ 
+    if (sortBy == null && (search == null || search.isEmpty())) {
+      return getAllJobs();
+    }
+
+    // Without a sort order the search alone selects the jobs, as before
+    JobFilter.Builder filter = sortBy == null ? JobFilter.builder()
+        : JobFilter.of(location, jobType, minSalary, maxSalary).toBuilder();
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, false)) {
+      return Collections.emptyList();
+    }
+
+    String sortAttribute = "salary".equals(sortBy) || "date".equals(sortBy) ? sortBy : null;
+    return findJobs(filter.build(), sortAttribute);
+
+  }
+
+
+  /**
+   * Get the jobs that best match a search, most relevant first. Words are matched whole after
+   * stemming, with a typo allowance, and only the top results are loaded; until the ranked index
+   * is built, every job containing any keyword is returned in JobID order.
+   * @param search - free text
+   * @return - matching jobs, or all jobs when there is no search
+   */
+  public List<Job> searchJobs(String search){
 
-    // If search is null or empty, return the filtered jobs as is
     if (search == null || search.isEmpty()) {
-        return jobs;
+      return getAllJobs();
     }
 
-    // Step 2: Perform in-memory search on the filtered jobs
-    String[] keywords = search.toLowerCase().split("\\s+",4); // Split search string into keywords(first 4)
+    long[] ranked = rankedSearchIndex.search(search);
+    if (ranked != null) {
+      return loadJobs(ranked);
+    }
 
-    // Filter the jobs based on whether any keyword is contained in the job's title or description
-    return jobs.stream()
-            .filter(job -> Arrays.stream(keywords).anyMatch(keyword -> 
-                    job.getTitle().toLowerCase().contains(keyword) || 
-                    job.getDescription().toLowerCase().contains(keyword)||
-                    job.getCompany().toLowerCase().contains(keyword))) 
-            .collect(Collectors.toList());
+    JobFilter.Builder filter = JobFilter.builder();
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, false)) {
+      return Collections.emptyList();
+    }
 
+    return findJobs(filter.build(), null);
   }
 
 
-  public List<Job> getJobsBySort(String location, String  jobType, Integer minSalary, Integer maxSalary,String search, String sortBy){
+  /**
+   * Suggest titles, companies and cities for a partly typed search, answered from memory.
+   * @param prefix - what the user has typed so far
+   * @param limit - maximum number of suggestions
+   * @return - suggestions with the most jobs first
+   */
+  public List<Suggestion> suggest(String prefix, int limit){
 
+    return suggestIndex.suggest(prefix, limit);
+  }
 
-    if(sortBy == null){
 
-      return updateJobsBySearch(getAllJobs(), search);
+  public List<Object[]> getJobByCoordinates(String location, String jobType, Integer minSalary, Integer maxSalary, String search){
 
-    }else if(sortBy.equals("salary")){
+    JobFilter.Builder filter = JobFilter.of(location, jobType, minSalary, maxSalary).toBuilder();
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, false)) {
+      return Collections.emptyList();
+    }
 
+    long[] ids = jobSnapshot.matchIds(filter.build(), null);
+    if (ids == null) {
+      return jobRepository.findJobsWithCoordinates(filter.build());
+    }
+    // Read the matches with their coordinates a bounded batch of ids at a time
+    List<Object[]> rows = new ArrayList<>(ids.length);
+    for (int from = 0; from < ids.length; from += LOAD_BATCH) {
+      List<Long> batch = idList(ids, from, Math.min(ids.length, from + LOAD_BATCH));
+      rows.addAll(jobRepository.findJobsWithCoordinates(JobFilter.builder().jobIds(batch).build()));
+    }
+    return rows;
 
-      return updateJobsBySearch(jobRepository.findJobBySortSalary(location,jobType,minSalary,maxSalary), search);
+  }
 
-    }else if (sortBy.equals("date")){
 
-      
-      return updateJobsBySearch(jobRepository.findJobBySortDate(location,jobType,minSalary,maxSalary), search);
 
+  /**
+   * Get one keyset page of jobs.
+   * @param location - a location as String
+   * @param jobType - a job type as a String
+   * @param minSalary - a minimum salary as an Integer
+   * @param maxSalary - a maximum salary as an Integer
+   * @param search - space separated keywords, may be null
+   * @param matchAllKeywords - true to require every keyword (filter search), false for any (sort and search)
+   * @param sortBy - "date" or "salary" for newest/highest first, anything else for JobID order
+   * @param cursor - the nextCursor of the previous page, null for the first page
+   * @param limit - maximum number of jobs on the page
+   * @return - the page and the cursor of the following page
+   */
+  public CursorPage<JobSummary> getJobPage(String location, String jobType, Integer minSalary, Integer maxSalary,
+      String search, boolean matchAllKeywords, String sortBy, String cursor, int limit){
+
+    JobCursor.Order order = JobCursor.Order.fromSortBy(sortBy);
+    JobCursor after = JobCursor.decode(cursor, order);
+    JobFilter.Builder filter = JobFilter.of(location, jobType, minSalary, maxSalary).toBuilder();
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, matchAllKeywords)) {
+      return new CursorPage<>(Collections.emptyList(), null);
     }
 
-    //default sort
-    return updateJobsBySearch(jobRepository.findJobByFilters(location,jobType,minSalary,maxSalary), search);
-    
+    // The snapshot pages in memory and only the page's ids are read; SQL pages by keyset otherwise
+    List<JobSummary> jobs;
+    boolean hasNext;
+    long[] ids = jobSnapshot.pageIds(filter.build(), after.toKeyset(), limit + 1);
+    if (ids != null) {
+      hasNext = ids.length > limit;
+      List<Long> page = idList(ids, 0, Math.min(limit, ids.length));
+      jobs = page.isEmpty() ? Collections.emptyList()
+          : inOrder(page, jobRepository.findSummariesByIds(page), JobSummary::jobID);
+    } else {
+      Slice<JobSummary> slice = jobRepository.findSummaryPage(filter.build(), after.toKeyset(), limit);
+      jobs = slice.getContent();
+      hasNext = slice.hasNext();
+    }
 
+    JobSummary last = jobs.isEmpty() ? null : jobs.get(jobs.size() - 1);
+    String nextCursor = hasNext && last != null
+        ? JobCursor.after(order, last.jobID(), last.date(), last.salary()).encode() : null;
+    return new CursorPage<>(jobs, nextCursor);
   }
 
 
-  public List<Object[]> filterJobsBySearch(List<Object[]> jobData, String search){ 
+  /**
+   * Get one page of a search, with the same ranking and rules as {@link #searchJobs(String)}:
+   * most relevant first once the ranked index is built, every job containing any keyword in JobID
+   * order before that, and nothing when the search matches nothing.
+   * @param search - free text, null or empty for every job
+   * @param cursor - the nextCursor of the previous page, null for the first page
+   * @param limit - maximum number of jobs on the page
+   * @return - the jobs and the cursor of the following page
+   */
+  public CursorPage<JobSummary> getSearchPage(String search, String cursor, int limit){
 
-    // If search is null or empty, return the filtered jobs as is
-    if (search == null || search.isEmpty()) {
-        return jobData;
+    long[] ranked = search == null || search.isEmpty() ? null : rankedSearchIndex.search(search);
+    // A cursor issued before the ranked index was built keeps paging by JobID
+    if (ranked == null || (cursor != null && !cursor.isEmpty()
+        && !JobCursor.isOrder(cursor, JobCursor.Order.RANK))) {
+      return getJobPage(null, null, null, null, search, false, null, cursor, limit);
     }
 
-    // Step 2: Perform in-memory search on the filtered jobs
-    String[] keywords = search.toLowerCase().split("\\s+",4); // Split search string into keywords(first 4)
+    JobCursor after = JobCursor.decode(cursor, JobCursor.Order.RANK);
+    int from = 0;
+    if (after.getJobId() != null) {
+      // Continue after the cursor's job; if a rebuild dropped it, after as many results
+      from = Math.min(after.getRank(), ranked.length);
+      for (int i = 0; i < ranked.length; i++) {
+        if (ranked[i] == after.getJobId()) {
+          from = i + 1;
+          break;
+        }
+      }
+    }
+    int to = Math.min(from + limit, ranked.length);
+    List<Long> page = idList(ranked, from, to);
+    List<JobSummary> jobs = page.isEmpty() ? Collections.emptyList()
+        : inOrder(page, jobRepository.findSummariesByIds(page), JobSummary::jobID);
+    String nextCursor = to < ranked.length ? JobCursor.afterRank(to, ranked[to - 1]).encode() : null;
+    return new CursorPage<>(jobs, nextCursor);
+  }
 
-    // Filter the jobs based on whether any keyword is contained in the job's title or description
-    return jobData.stream()
-            .filter(data ->{
 
-              Job job = (Job) data[0];
+  /**
+   * Get one keyset page of job map markers, in JobID order.
+   * @param cursor - the nextCursor of the previous page, null for the first page
+   * @param limit - maximum number of markers on the page
+   * @return - the markers and the cursor of the following page
+   */
+  public CursorPage<JobMarker> getJobCoordinatesPage(String location, String jobType, Integer minSalary,
+      Integer maxSalary, String search, String cursor, int limit){
 
-              return Arrays.stream(keywords).anyMatch(keyword -> 
-                    job.getTitle().toLowerCase().contains(keyword) || 
-                    job.getDescription().toLowerCase().contains(keyword)||
-                    job.getCompany().toLowerCase().contains(keyword));
+    JobCursor after = JobCursor.decode(cursor, JobCursor.Order.ID);
+    JobFilter.Builder filter = JobFilter.of(location, jobType, minSalary, maxSalary).toBuilder();
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, false)) {
+      return new CursorPage<>(Collections.emptyList(), null);
+    }
 
-            }).collect(Collectors.toList());
+    // As for job pages; the cursor follows the page's last id even when that job has no marker
+    List<JobMarker> markers;
+    boolean hasNext;
+    Long lastId;
+    long[] ids = jobSnapshot.pageIds(filter.build(), JobKeyset.byJobId(after.getJobId()), limit + 1);
+    if (ids != null) {
+      hasNext = ids.length > limit;
+      List<Long> page = idList(ids, 0, Math.min(limit, ids.length));
+      markers = page.isEmpty() ? Collections.emptyList()
+          : inOrder(page, jobRepository.findMarkersByIds(page), JobMarker::jobID);
+      lastId = page.isEmpty() ? null : page.get(page.size() - 1);
+    } else {
+      Slice<JobMarker> slice = jobRepository.findMarkerPage(filter.build(), after.getJobId(), limit);
+      markers = slice.getContent();
+      hasNext = slice.hasNext();
+      lastId = markers.isEmpty() ? null : markers.get(markers.size() - 1).jobID();
+    }
 
+    String nextCursor = hasNext && lastId != null
+        ? JobCursor.after(JobCursor.Order.ID, lastId, null, null).encode() : null;
+    return new CursorPage<>(markers, nextCursor);
+  }
 
+
+  /**
+   * Stream matching jobs to a consumer one at a time, for the NDJSON variants of the list endpoints.
+   * Jobs are read by id in batches when the snapshot evaluates the filter, otherwise from a
+   * database cursor, and detached as they go, so memory use does not grow with the number of
+   * matches.
+   * @param location - a location as String
+   * @param jobType - a job type as a String
+   * @param minSalary - a minimum salary as an Integer
+   * @param maxSalary - a maximum salary as an Integer
+   * @param search - space separated keywords, may be null
+   * @param matchAllKeywords - true to require every keyword (filter search), false for any (sort and search)
+   * @param sortBy - "date" or "salary" for newest/highest first, anything else for no ordering
+   * @param action - receives each job
+   * @return - the number of jobs streamed
+   */
+  @Transactional(readOnly = true)
+  public long streamJobs(String location, String jobType, Integer minSalary, Integer maxSalary,
+      String search, boolean matchAllKeywords, String sortBy, Consumer<Job> action){
+
+    JobFilter.Builder filter = JobFilter.of(location, jobType, minSalary, maxSalary).toBuilder();
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, matchAllKeywords)) {
+      return 0;
+    }
+
+    String sortAttribute = "salary".equals(sortBy) || "date".equals(sortBy) ? sortBy : null;
+    // Matches evaluated by the snapshot are read by id in batches; otherwise from a SQL cursor
+    long[] ids = jobSnapshot.matchIds(filter.build(), sortAttribute);
+    return forEach(ids != null ? jobRepository.streamJobsByIds(ids)
+        : jobRepository.streamJobs(filter.build(), sortAttribute), action);
   }
 
-  public List<Object[]> getJobByCoordinates(String location, String jobType, Integer minSalary, Integer maxSalary, String search){
 
-  
-    List<Object[]> jobList = jobRepository.findJobsWithCoordinates(location, jobType, minSalary, maxSalary);
+  /**
+   * Stream the jobs of a search, with the same ranking and rules as {@link #searchJobs(String)}.
+   * @param search - free text, null or empty for every job
+   * @param action - receives each job
+   * @return - the number of jobs streamed
+   */
+  @Transactional(readOnly = true)
+  public long streamSearchJobs(String search, Consumer<Job> action){
+
+    long[] ranked = search == null || search.isEmpty() ? null : rankedSearchIndex.search(search);
+    if (ranked == null) {
+      return streamJobs(null, null, null, null, search, false, null, action);
+    }
+    return forEach(jobRepository.streamJobsByIds(ranked), action);
+  }
+
+
+  /**
+   * Pass every job of a stream to an action, then close the stream.
+   */
+  private static long forEach(Stream<Job> jobs, Consumer<Job> action){
+
+    long count = 0;
+    try (jobs) {
+      for (Job job : (Iterable<Job>) jobs::iterator) {
+        action.accept(job);
+        count++;
+      }
+    }
+    return count;
+  }
 
-    return filterJobsBySearch(jobList, search);
 
+  /**
+   * Find jobs by evaluating the filter over the columnar snapshot and loading only the matching
+   * rows by primary key; filters the snapshot cannot answer, or a snapshot not built yet, use SQL.
+   */
+  private List<Job> findJobs(JobFilter filter, String sortAttribute){
+
+    long[] ids = jobSnapshot.matchIds(filter, sortAttribute);
+    return ids == null ? jobRepository.findJobs(filter, sortAttribute) : loadJobs(ids);
+  }
+
+
+  /**
+   * Copy jobs out of the persistence context, so a cached result cannot be changed by a caller.
+   */
+  private static List<JobListing> toListings(List<Job> jobs){
+
+    return jobs.stream().map(JobListing::of).toList();
+  }
+
+
+  /**
+   * Load jobs by primary key in batches, keeping the order of the ids.
+   */
+  private List<Job> loadJobs(long[] ids){
+
+    Map<Long, Job> byId = new HashMap<>();
+    List<Long> batch = new ArrayList<>(Math.min(ids.length, LOAD_BATCH));
+    for (int i = 0; i < ids.length; i++) {
+      batch.add(ids[i]);
+      if (batch.size() == LOAD_BATCH || i == ids.length - 1) {
+        jobRepository.findAllById(batch).forEach(job -> byId.put(job.getJobID(), job));
+        batch.clear();
+      }
+    }
+    // The IN query does not preserve order; jobs deleted since the snapshot was built are skipped
+    List<Job> jobs = new ArrayList<>(ids.length);
+    for (long id : ids) {
+      Job job = byId.get(id);
+      if (job != null) {
+        jobs.add(job);
+      }
+    }
+    return jobs;
+  }
+
+
+  /**
+   * The ids from {@code from} to {@code to} as a list for an IN query.
+   */
+  private static List<Long> idList(long[] ids, int from, int to){
+
+    List<Long> list = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      list.add(ids[i]);
+    }
+    return list;
+  }
+
+
+  /**
+   * Put rows read by an IN query back in the order of their ids, skipping ids without a row.
+   */
+  private static <T> List<T> inOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf){
+
+    Map<Long, T> byId = new HashMap<>();
+    rows.forEach(row -> byId.put(idOf.apply(row), row));
+    List<T> ordered = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      T row = byId.get(id);
+      if (row != null) {
+        ordered.add(row);
+      }
+    }
+    return ordered;
+  }
+
+
+  /**
+   * Count per location or job type from the precomputed facet cube, else through the bitmap
+   * index, or with SQL when neither is built yet or the filter has keyword predicates.
+   */
+  private List<Object[]> countBy(BitmapIndex.Facet facet, JobFilter filter){
+
+    List<Object[]> counts = facetCube.isReady() ? facetCube.countBy(facet, filter) : null;
+    if (counts == null && bitmapIndex.isReady()) {
+      counts = bitmapIndex.countBy(facet, filter);
+    }
+    if (counts != null) {
+      return counts;
+    }
+    return facet == BitmapIndex.Facet.LOCATION ? jobRepository.countByLocation(filter)
+        : jobRepository.countByJobType(filter);
+  }
+
+
+  private List<Object[]> countBySalaryRange(JobFilter filter, int bucketWidth){
+
+    List<Object[]> counts = facetCube.isReady()
+        ? facetCube.countBySalaryRange(filter, bucketWidth) : null;
+    if (counts == null && bitmapIndex.isReady()) {
+      // The bitmap index only keeps SALARY_BUCKET wide buckets and answers null for others
+      counts = bitmapIndex.countBySalaryRange(filter, bucketWidth);
+    }
+    return counts != null ? counts : jobRepository.countBySalaryRange(filter, bucketWidth);
+  }
+
+
+  /**
+   * Nearest-rank percentiles of salaries sorted lowest first, null when there are none.
+   */
+  static Integer[] percentilesOf(List<BigDecimal> salaries, double[] percentiles){
+
+    Integer[] result = new Integer[percentiles.length];
+    for (int i = 0; i < percentiles.length && !salaries.isEmpty(); i++) {
+      long rank = Math.max(1, (long) Math.ceil(percentiles[i] / 100 * salaries.size()));
+      result[i] = salaries.get((int) rank - 1).intValue();
+    }
+    return result;
   }
 
 
@@ -0,0 +1,118 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.geo.BoundingBox;
+import dev.algorise.geojobsearch.geo.ClusterIndex;
+import dev.algorise.geojobsearch.geo.GeoGridIndex;
+import dev.algorise.geojobsearch.geo.MarkerCluster;
+import dev.algorise.geojobsearch.model.JobMarker;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Service;
+
+/**
+ * Map queries: job markers inside a viewport or within a radius of a point.
+ */
+@Service
+public class MapService {
+
+  private final JobRepository jobRepository;
+
+  private final KeywordIndex keywordIndex;
+
+  private final GeoGridIndex geoGridIndex;
+
+  private final ClusterIndex clusterIndex;
+
+  public MapService(JobRepository jobRepository, KeywordIndex keywordIndex, GeoGridIndex geoGridIndex,
+      ClusterIndex clusterIndex) {
+    this.jobRepository = jobRepository;
+    this.keywordIndex = keywordIndex;
+    this.geoGridIndex = geoGridIndex;
+    this.clusterIndex = clusterIndex;
+  }
+
+  /**
+   * Get the precomputed job clusters visible at a zoom level.
+   * @param zoom - map zoom level
+   * @param box - the visible map area
+   * @return - clusters with centroid and job count
+   */
+  public List<MarkerCluster> getClusters(int zoom, BoundingBox box) {
+    if (!clusterIndex.isReady()) {
+      // First request before the scheduled build: build now rather than answer empty
+      clusterIndex.rebuild();
+    }
+    return clusterIndex.clusters(zoom, box);
+  }
+
+  /**
+   * Get the markers of filtered jobs whose company lies inside a bounding box.
+   * @param box - the visible map area
+   * @param search - space separated keywords, any of which must match
+   * @return - the markers in the box
+   */
+  public List<JobMarker> getMarkersInBox(String location, String jobType, Integer minSalary,
+      Integer maxSalary, String search, BoundingBox box) {
+
+    JobFilter.Builder filter = JobFilter.of(location, jobType, minSalary, maxSalary).toBuilder();
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, false)) {
+      return Collections.emptyList();
+    }
+    List<String> companies = geoGridIndex.companiesIn(box);
+    if (companies == null) {
+      return jobRepository.findMarkers(filter.within(BigDecimal.valueOf(box.south()),
+          BigDecimal.valueOf(box.west()), BigDecimal.valueOf(box.north()),
+          BigDecimal.valueOf(box.east())).build());
+    } else if (companies.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return jobRepository.findMarkers(filter.companies(companies).build());
+  }
+
+  /**
+   * Get the markers of filtered jobs within a radius of a point, nearest first.
+   * @param lat - latitude of the centre
+   * @param lng - longitude of the centre
+   * @param radiusKm - search radius in kilometres
+   * @return - the markers in the circle, sorted by distance
+   */
+  public List<JobMarker> getMarkersNear(String location, String jobType, Integer minSalary,
+      Integer maxSalary, String search, double lat, double lng, double radiusKm) {
+
+    JobFilter.Builder filter = JobFilter.of(location, jobType, minSalary, maxSalary).toBuilder();
+    if (!SearchKeywords.restrict(filter, keywordIndex, search, false)) {
+      return Collections.emptyList();
+    }
+    Map<String, Double> companies = geoGridIndex.companiesWithin(lat, lng, radiusKm);
+    List<JobMarker> markers;
+    if (companies == null) {
+      BoundingBox box = BoundingBox.around(lat, lng, radiusKm);
+      markers = jobRepository.findMarkers(filter.within(BigDecimal.valueOf(box.south()),
+          BigDecimal.valueOf(box.west()), BigDecimal.valueOf(box.north()),
+          BigDecimal.valueOf(box.east())).build());
+    } else if (companies.isEmpty()) {
+      return Collections.emptyList();
+    } else {
+      markers = jobRepository.findMarkers(filter.companies(companies.keySet()).build());
+    }
+
+    return markers.stream()
+        .map(marker -> Map.entry(marker, distanceKm(marker, lat, lng)))
+        .filter(entry -> entry.getValue() <= radiusKm)
+        .sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toList());
+  }
+
+  private static double distanceKm(JobMarker marker, double lat, double lng) {
+    return BoundingBox.distanceKm(lat, lng, marker.latitude().doubleValue(),
+        marker.longitude().doubleValue());
+  }
+}
@@ -0,0 +1,69 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns a search string into keyword restrictions on a {@link JobFilter}.
+ */
+final class SearchKeywords {
+
+  /**
+   * Most keywords a search contributes. Each one becomes its own LIKE predicate group in SQL,
+   * so words past the fourth are dropped, as the original title search did.
+   */
+  static final int MAX_KEYWORDS = 4;
+
+  private SearchKeywords() {
+  }
+
+  /**
+   * Split a search string into lowercase keywords, keeping at most {@link #MAX_KEYWORDS}.
+   * @param search - space separated keywords, may be null
+   * @return the leading keywords, empty when there is nothing to search for
+   */
+  static List<String> split(String search) {
+    if (search == null || search.isBlank()) {
+      return Collections.emptyList();
+    }
+    String[] keywords = search.trim().toLowerCase(Locale.ROOT).split("\\s+");
+    return Arrays.asList(keywords).subList(0, Math.min(keywords.length, MAX_KEYWORDS));
+  }
+
+  /**
+   * Restrict a filter to jobs matching the search. The keywords are always kept for SQL, which
+   * matches them with one LIKE predicate group each; when the keyword index can answer, its
+   * bitmap of job ids is attached for the snapshot and bitmap index to intersect in memory.
+   * @param filter - the filter being built
+   * @param keywordIndex - the in-memory keyword index
+   * @param search - space separated keywords, may be null
+   * @param matchAll - true to require every keyword, false for any
+   * @return false when the index proves no job matches, so the query can be skipped
+   */
+  static boolean restrict(JobFilter.Builder filter, KeywordIndex keywordIndex, String search,
+      boolean matchAll) {
+    List<String> keywords = split(search);
+    if (keywords.isEmpty()) {
+      return true;
+    }
+    if (matchAll) {
+      filter.allKeywords(keywords);
+    } else {
+      filter.anyKeyword(keywords);
+    }
+    BitSet matches = matchAll ? keywordIndex.matchAll(keywords) : keywordIndex.matchAny(keywords);
+    if (matches == null) {
+      return true;
+    }
+    if (matches.isEmpty()) {
+      return false;
+    }
+    filter.keywordMatches(matches);
+    return true;
+  }
+}
@@ -0,0 +1,707 @@
+package dev.algorise.geojobsearch.snapshot;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RangeBitmap;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compressed bitmap per distinct facet value, for answering facet counts without the database.
+ *
+ * <p>Jobs are numbered by their position in JobID order. Location, job type, city and province
+ * each keep one Roaring bitmap of positions per distinct value (plus one for null), and salaries
+ * keep one bitmap per {@value #SALARY_BUCKET} bucket, the bucketing of
+ * {@code countBySalaryRange}, next to a range-encoded bitmap for arbitrary min/max bounds. A
+ * filter is the AND of the bitmaps of its predicates, and each facet count is the cardinality of
+ * that result intersected with one value's bitmap, computed without materializing it.
+ *
+ * <p>Values are compared case- and accent-insensitively like the snapshot and the MySQL
+ * collations; a count row shows the first spelling of its value in JobID order.
+ */
+@Component
+public class BitmapIndex {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BitmapIndex.class);
+
+  private static final int BATCH_SIZE = 5000;
+
+  /** Width of the salary buckets kept as bitmaps. */
+  public static final int SALARY_BUCKET = 50000;
+
+  /**
+   * Attributes with one bitmap per distinct value.
+   */
+  public enum Facet {
+    LOCATION, JOB_TYPE, CITY, PROVINCE
+  }
+
+  private final JobRepository jobRepository;
+
+  private volatile Bitmaps bitmaps;
+
+  public BitmapIndex(JobRepository jobRepository) {
+    this.jobRepository = jobRepository;
+  }
+
+  public boolean isReady() {
+    return bitmaps != null;
+  }
+
+  /**
+   * Count matching jobs per value of one attribute, like the SQL GROUP BY counts.
+   * @param facet - the attribute to group by
+   * @param filter - location, job type, salary range and job ids are supported
+   * @return rows of (value, Long count) for every value with a match, or null when the index is
+   *     not built yet or the filter has predicates the caller must answer with SQL
+   */
+  public List<Object[]> countBy(Facet facet, JobFilter filter) {
+    Bitmaps current = bitmaps;
+    RoaringBitmap matches = current == null ? null : current.match(filter);
+    if (matches == null) {
+      return null;
+    }
+    return current.dimension(facet).count(matches);
+  }
+
+  /**
+   * Count matching jobs per salary bucket, like {@code countBySalaryRange}.
+   * @param filter - location, job type, salary range and job ids are supported
+   * @param bucketWidth - bucket width; only {@value #SALARY_BUCKET} is indexed
+   * @return rows of (Long minSalary, Long maxSalary, Long count) in salary order, with jobs that
+   *     have no salary first as (null, null, count), or null when the index cannot answer
+   */
+  public List<Object[]> countBySalaryRange(JobFilter filter, int bucketWidth) {
+    Bitmaps current = bitmaps;
+    RoaringBitmap matches = current == null || bucketWidth != SALARY_BUCKET ? null
+        : current.match(filter);
+    if (matches == null) {
+      return null;
+    }
+    List<Object[]> result = new ArrayList<>();
+    long withoutSalary = RoaringBitmap.andNotCardinality(matches, current.hasSalary);
+    if (withoutSalary > 0) {
+      result.add(new Object[] {null, null, withoutSalary});
+    }
+    for (int i = 0; i < current.salaryBuckets.length; i++) {
+      long count = RoaringBitmap.andCardinality(current.salaryBitmaps[i], matches);
+      if (count > 0) {
+        long minSalary = (long) current.salaryBuckets[i] * SALARY_BUCKET;
+        result.add(new Object[] {minSalary, minSalary + SALARY_BUCKET - 1, count});
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Count the jobs matching a filter.
+   * @return the count, or -1 when the index cannot answer
+   */
+  public long count(JobFilter filter) {
+    Bitmaps current = bitmaps;
+    RoaringBitmap matches = current == null ? null : current.match(filter);
+    return matches == null ? -1 : matches.getLongCardinality();
+  }
+
+  /**
+   * One page of the ids of jobs matching a filter, in JobID order.
+   * @param filter - location, job type, salary range and job ids are supported
+   * @param offset - number of matches to skip
+   * @param limit - maximum number of ids
+   * @return the ids, or null when the index cannot answer
+   */
+  public long[] matchIds(JobFilter filter, long offset, int limit) {
+    Bitmaps current = bitmaps;
+    RoaringBitmap matches = current == null ? null : current.match(filter);
+    if (matches == null) {
+      return null;
+    }
+    long total = matches.getLongCardinality();
+    if (offset >= total) {
+      return new long[0];
+    }
+    long[] ids = new long[(int) Math.min(limit, total - offset)];
+    PeekableIntIterator rows = matches.getIntIterator();
+    rows.advanceIfNeeded(matches.select((int) offset));
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = current.jobIds[rows.next()];
+    }
+    return ids;
+  }
+
+  /**
+   * Ids of the jobs with one value of an attribute, in JobID order.
+   * @return the ids, or null when the index is not built yet
+   */
+  public long[] idsWhere(Facet facet, String value) {
+    Bitmaps current = bitmaps;
+    if (current == null) {
+      return null;
+    }
+    RoaringBitmap rows = current.dimension(facet).rows(value);
+    long[] ids = new long[rows.getCardinality()];
+    int i = 0;
+    for (PeekableIntIterator it = rows.getIntIterator(); it.hasNext(); ) {
+      ids[i++] = current.jobIds[it.next()];
+    }
+    return ids;
+  }
+
+  /**
+   * Rebuild the bitmaps from the Jobs table and swap them in atomically. Runs once at startup, on
+   * a fixed delay, and whenever the dataset generation advances without a list of changed jobs.
+   */
+  @Scheduled(fixedDelayString = "${geojobsearch.bitmap.refresh-ms:900000}")
+  public synchronized void rebuild() {
+    try {
+      long start = System.nanoTime();
+      Bitmaps built = build();
+      bitmaps = built;
+      LOG.info("Bitmap index built: {} jobs, {} locations, {} job types, {} salary buckets in {} ms",
+          built.size, built.locations.values.size(), built.jobTypes.values.size(),
+          built.salaryBuckets.length, (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // Keep serving the previous bitmaps (or SQL when there are none) if the database is down
+      LOG.warn("Bitmap index rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Bring the bitmaps up to date after a change. Jobs written through the batch ingestion
+   * endpoint are read back by id and patched into copies of the bitmaps they touch, or merged
+   * with the positions of the unchanged jobs when positions move; any other change rebuilds.
+   */
+  @EventListener
+  @Order(DataChangedEvent.REBUILD_ORDER)
+  public synchronized void onDataChanged(DataChangedEvent event) {
+    Bitmaps current = bitmaps;
+    if (current == null || !event.isIncremental()) {
+      rebuild();
+      return;
+    }
+    try {
+      long start = System.nanoTime();
+      List<Object[]> rows = event.loadRows(jobRepository::findBitmapRowsByIds);
+      long[] changedIds = event.sortedJobIds();
+      Bitmaps patched = patch(current, changedIds, rows);
+      Bitmaps merged = patched != null ? patched : merge(current, changedIds, rows);
+      bitmaps = merged;
+      LOG.info("Bitmap index patched: {} changed, {} jobs in {} ms", rows.size(), merged.size,
+          (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // The scheduled rebuild catches up later
+      LOG.warn("Bitmap index patch failed: {}", e.getMessage());
+    }
+  }
+
+  private Bitmaps build() {
+    BitmapsBuilder builder = new BitmapsBuilder();
+    long afterId = 0;
+    List<Object[]> rows;
+    do {
+      rows = jobRepository.findBitmapRowsAfter(afterId, PageRequest.ofSize(BATCH_SIZE));
+      for (Object[] row : rows) {
+        builder.add(row);
+        afterId = ((Number) row[0]).longValue();
+      }
+    } while (rows.size() == BATCH_SIZE);
+    return builder.build();
+  }
+
+  /**
+   * Patch the bitmaps when no position moves: every changed job is still stored, and new jobs
+   * have higher JobIDs than any indexed one, as AUTO_INCREMENT assigns them. Only the bitmaps
+   * that gain or lose a position are copied; the rest are shared with the current bitmaps.
+   * @return the patched bitmaps, or null when positions would move and a merge is needed
+   */
+  private static Bitmaps patch(Bitmaps base, long[] changedIds, List<Object[]> rows) {
+    int[] positions = new int[rows.size()];
+    long lastId = base.size == 0 ? 0 : base.jobIds[base.size - 1];
+    int size = base.size;
+    int updated = 0;
+    for (int i = 0; i < rows.size(); i++) {
+      long jobId = ((Number) rows.get(i)[0]).longValue();
+      int position = position(base, jobId);
+      if (position >= 0) {
+        positions[i] = position;
+        updated++;
+      } else if (jobId > lastId && jobId <= Integer.MAX_VALUE) {
+        // Rows come in JobID order, so new jobs append in order
+        positions[i] = size++;
+      } else {
+        return null;
+      }
+    }
+    int stored = 0;
+    for (long jobId : changedIds) {
+      if (position(base, jobId) >= 0) {
+        stored++;
+      }
+    }
+    if (stored != updated) {
+      // A stored job was not reloaded, so it has been deleted
+      return null;
+    }
+
+    RoaringBitmap changedRows = RoaringBitmap.bitmapOf(positions);
+    int[] jobIds = Arrays.copyOf(base.jobIds, size);
+    int[] salaryValues = Arrays.copyOf(base.salaryValues, size);
+    RoaringBitmap hasSalary = RoaringBitmap.andNot(base.hasSalary, changedRows);
+    Map<Integer, RoaringBitmap> salaryBuckets = new TreeMap<>();
+    for (int i = 0; i < base.salaryBuckets.length; i++) {
+      salaryBuckets.put(base.salaryBuckets[i],
+          RoaringBitmap.andNot(base.salaryBitmaps[i], changedRows));
+    }
+    boolean salariesChanged = size > base.size;
+    for (int i = 0; i < rows.size(); i++) {
+      Object[] row = rows.get(i);
+      jobIds[positions[i]] = ((Number) row[0]).intValue();
+      salariesChanged |= positions[i] < base.size && (row[5] == null
+          ? base.hasSalary.contains(positions[i])
+          : !base.hasSalary.contains(positions[i])
+              || base.salaryValues[positions[i]] != ((Number) row[5]).intValue());
+      if (row[5] != null) {
+        int salary = ((Number) row[5]).intValue();
+        salaryValues[positions[i]] = salary;
+        hasSalary.add(positions[i]);
+        salaryBuckets.computeIfAbsent(Math.floorDiv(salary, SALARY_BUCKET),
+            bucket -> new RoaringBitmap()).add(positions[i]);
+      }
+    }
+    return new Bitmaps(jobIds,
+        base.locations.patch(changedRows, positions, rows, 1),
+        base.jobTypes.patch(changedRows, positions, rows, 2),
+        base.cities.patch(changedRows, positions, rows, 3),
+        base.provinces.patch(changedRows, positions, rows, 4),
+        hasSalary, salaryValues,
+        salariesChanged ? encodeSalaries(hasSalary, salaryValues) : base.salaries, salaryBuckets);
+  }
+
+  /**
+   * Range-encode a salary column. The encoding cannot be patched, so it is redone whenever a
+   * salary changes or a job is added.
+   */
+  private static RangeBitmap encodeSalaries(RoaringBitmap hasSalary, int[] salaryValues) {
+    RangeBitmap.Appender salaries = RangeBitmap.appender(encode(Integer.MAX_VALUE));
+    PeekableIntIterator withSalary = hasSalary.getIntIterator();
+    for (int i = 0; i < salaryValues.length; i++) {
+      boolean present = withSalary.hasNext() && withSalary.peekNext() == i;
+      if (present) {
+        withSalary.next();
+      }
+      salaries.add(present ? encode(salaryValues[i]) : 0);
+    }
+    return salaries.build();
+  }
+
+  private static int position(Bitmaps base, long jobId) {
+    return jobId < 0 || jobId > Integer.MAX_VALUE ? -1
+        : Arrays.binarySearch(base.jobIds, (int) jobId);
+  }
+
+  /**
+   * Copy the positions in JobID order, replacing those of the changed ids with the reloaded rows.
+   * A changed id without a reloaded row has been deleted.
+   */
+  private static Bitmaps merge(Bitmaps base, long[] changedIds, List<Object[]> rows) {
+    BitmapsBuilder builder = new BitmapsBuilder(base);
+    int[][] ordinals = {base.locations.ordinalsByRow(base.size),
+        base.jobTypes.ordinalsByRow(base.size), base.cities.ordinalsByRow(base.size),
+        base.provinces.ordinalsByRow(base.size)};
+    int next = 0;
+    for (int i = 0; i < base.size; i++) {
+      int jobId = base.jobIds[i];
+      while (next < rows.size() && ((Number) rows.get(next)[0]).longValue() < jobId) {
+        builder.add(rows.get(next++));
+      }
+      if (Arrays.binarySearch(changedIds, jobId) < 0) {
+        builder.copy(base, ordinals, i);
+      }
+    }
+    while (next < rows.size()) {
+      builder.add(rows.get(next++));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Immutable bitmaps, replaced as a whole on every rebuild or patch.
+   */
+  private static final class Bitmaps {
+    private final int size;
+    private final int[] jobIds;
+    private final RoaringBitmap all;
+    private final Dimension locations;
+    private final Dimension jobTypes;
+    private final Dimension cities;
+    private final Dimension provinces;
+    private final RoaringBitmap hasSalary;
+    // Salary of each position, kept so a patch can re-encode the range bitmap
+    private final int[] salaryValues;
+    // Salaries offset by Integer.MIN_VALUE into the unsigned range the range bitmap encodes
+    private final RangeBitmap salaries;
+    private final int[] salaryBuckets;
+    private final RoaringBitmap[] salaryBitmaps;
+
+    private Bitmaps(int[] jobIds, Dimension locations, Dimension jobTypes, Dimension cities,
+        Dimension provinces, RoaringBitmap hasSalary, int[] salaryValues, RangeBitmap salaries,
+        Map<Integer, RoaringBitmap> salaryBuckets) {
+      this.size = jobIds.length;
+      this.jobIds = jobIds;
+      this.all = RoaringBitmap.bitmapOfRange(0, size);
+      this.locations = locations;
+      this.jobTypes = jobTypes;
+      this.cities = cities;
+      this.provinces = provinces;
+      this.hasSalary = hasSalary;
+      hasSalary.runOptimize();
+      this.salaryValues = salaryValues;
+      this.salaries = salaries;
+      this.salaryBuckets = salaryBuckets.keySet().stream().mapToInt(Integer::intValue).toArray();
+      this.salaryBitmaps = salaryBuckets.values().toArray(new RoaringBitmap[0]);
+      for (RoaringBitmap bitmap : salaryBitmaps) {
+        bitmap.runOptimize();
+      }
+    }
+
+    private Dimension dimension(Facet facet) {
+      switch (facet) {
+        case LOCATION:
+          return locations;
+        case JOB_TYPE:
+          return jobTypes;
+        case CITY:
+          return cities;
+        default:
+          return provinces;
+      }
+    }
+
+    /**
+     * AND the bitmaps of the filter's predicates, or null for company and box filters and for
+     * keywords not resolved to job ids.
+     */
+    private RoaringBitmap match(JobFilter filter) {
+      if ((!filter.getKeywords().isEmpty() && filter.getKeywordMatches() == null)
+          || filter.getCompanyUids() != null
+          || filter.getBox() != null) {
+        return null;
+      }
+      RoaringBitmap matches = all;
+      if (filter.getLocation() != null) {
+        matches = RoaringBitmap.and(matches, locations.rows(filter.getLocation()));
+      }
+      if (filter.getJobType() != null) {
+        matches = RoaringBitmap.and(matches, jobTypes.rows(filter.getJobType()));
+      }
+      if (filter.getJobIds() != null) {
+        matches = RoaringBitmap.and(matches, rowsOf(filter.getJobIds()));
+      }
+      if (filter.getKeywordMatches() != null) {
+        matches = RoaringBitmap.and(matches, rowsOf(filter.getKeywordMatches()));
+      }
+      // A bound of either kind excludes jobs without a salary, as the SQL comparison does
+      if (filter.getMinSalary() != null || filter.getMaxSalary() != null) {
+        matches = RoaringBitmap.and(matches, hasSalary);
+        if (filter.getMinSalary() != null) {
+          matches = salaries.gte(encode(filter.getMinSalary()), matches);
+        }
+        if (filter.getMaxSalary() != null) {
+          matches = salaries.lte(encode(filter.getMaxSalary()), matches);
+        }
+      }
+      return matches;
+    }
+
+    private RoaringBitmap rowsOf(Collection<Long> ids) {
+      RoaringBitmap rows = new RoaringBitmap();
+      for (Long id : ids) {
+        if (id != null && id >= 0 && id <= Integer.MAX_VALUE) {
+          int row = Arrays.binarySearch(jobIds, id.intValue());
+          if (row >= 0) {
+            rows.add(row);
+          }
+        }
+      }
+      return rows;
+    }
+
+    /**
+     * Rows of the jobs in a bitmap of ids. Both are ascending, so each search starts where the
+     * previous one ended.
+     */
+    private RoaringBitmap rowsOf(BitSet ids) {
+      RoaringBitmap rows = new RoaringBitmap();
+      int from = 0;
+      for (int id = ids.nextSetBit(0); id >= 0 && from < jobIds.length; id = ids.nextSetBit(id + 1)) {
+        int row = Arrays.binarySearch(jobIds, from, jobIds.length, id);
+        if (row >= 0) {
+          rows.add(row);
+          from = row + 1;
+        } else {
+          from = -row - 1;
+        }
+      }
+      return rows;
+    }
+  }
+
+  private static long encode(int salary) {
+    return (long) salary - Integer.MIN_VALUE;
+  }
+
+  /**
+   * Bitmaps of one attribute, one per folded value, plus the bitmap of jobs without a value.
+   */
+  private static final class Dimension {
+    private final Map<String, Integer> ordinals;
+    private final List<String> values;
+    private final RoaringBitmap[] bitmaps;
+    private final RoaringBitmap nulls;
+
+    private Dimension(Map<String, Integer> ordinals, List<String> values, RoaringBitmap[] bitmaps,
+        RoaringBitmap nulls) {
+      this.ordinals = ordinals;
+      this.values = values;
+      this.bitmaps = bitmaps;
+      this.nulls = nulls;
+    }
+
+    private RoaringBitmap rows(String value) {
+      Integer ordinal = ordinals.get(JobSnapshot.fold(value));
+      return ordinal == null ? new RoaringBitmap() : bitmaps[ordinal];
+    }
+
+    /**
+     * A copy with the changed positions moved to the values of the reloaded rows. Bitmaps that
+     * neither lose nor gain a position are shared with this dimension.
+     * @param changedRows - positions of every reloaded row
+     * @param positions - position of each reloaded row
+     * @param rows - the reloaded rows
+     * @param column - index of this attribute in the rows
+     */
+    private Dimension patch(RoaringBitmap changedRows, int[] positions, List<Object[]> rows,
+        int column) {
+      Map<String, Integer> patchedOrdinals = new HashMap<>(ordinals);
+      List<String> patchedValues = new ArrayList<>(values);
+      List<RoaringBitmap> patched = new ArrayList<>(Arrays.asList(bitmaps));
+      // Bitmaps copied for this patch, which may be modified
+      Set<Integer> copied = new HashSet<>();
+      for (int i = 0; i < bitmaps.length; i++) {
+        if (RoaringBitmap.intersects(bitmaps[i], changedRows)) {
+          patched.set(i, RoaringBitmap.andNot(bitmaps[i], changedRows));
+          copied.add(i);
+        }
+      }
+      RoaringBitmap patchedNulls = RoaringBitmap.andNot(nulls, changedRows);
+      for (int i = 0; i < rows.size(); i++) {
+        String value = (String) rows.get(i)[column];
+        if (value == null) {
+          patchedNulls.add(positions[i]);
+          continue;
+        }
+        Integer ordinal = patchedOrdinals.computeIfAbsent(JobSnapshot.fold(value), key -> {
+          patchedValues.add(value);
+          patched.add(new RoaringBitmap());
+          return patched.size() - 1;
+        });
+        if (copied.add(ordinal)) {
+          patched.set(ordinal, patched.get(ordinal).clone());
+        }
+        patched.get(ordinal).add(positions[i]);
+      }
+      return new Dimension(Map.copyOf(patchedOrdinals), List.copyOf(patchedValues),
+          patched.toArray(new RoaringBitmap[0]), patchedNulls);
+    }
+
+    /**
+     * The ordinal of every position, -1 for positions without a value.
+     */
+    private int[] ordinalsByRow(int size) {
+      int[] result = new int[size];
+      Arrays.fill(result, -1);
+      for (int ordinal = 0; ordinal < bitmaps.length; ordinal++) {
+        for (PeekableIntIterator it = bitmaps[ordinal].getIntIterator(); it.hasNext(); ) {
+          result[it.next()] = ordinal;
+        }
+      }
+      return result;
+    }
+
+    private List<Object[]> count(RoaringBitmap matches) {
+      List<Object[]> result = new ArrayList<>();
+      for (int i = 0; i < bitmaps.length; i++) {
+        long count = RoaringBitmap.andCardinality(bitmaps[i], matches);
+        if (count > 0) {
+          result.add(new Object[] {values.get(i), count});
+        }
+      }
+      long withoutValue = RoaringBitmap.andCardinality(nulls, matches);
+      if (withoutValue > 0) {
+        result.add(new Object[] {null, withoutValue});
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Bitmaps of one attribute under construction; positions arrive in increasing order.
+   */
+  private static final class DimensionBuilder {
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    // Raw column value to ordinal, so each distinct spelling is folded only once
+    private final Map<String, Integer> rawOrdinals = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private final List<RoaringBitmap> bitmaps = new ArrayList<>();
+    private final RoaringBitmap nulls = new RoaringBitmap();
+
+    private DimensionBuilder() {
+    }
+
+    /**
+     * Start from the values of an existing dimension, so their ordinals can be copied verbatim.
+     * Values left without jobs keep an empty bitmap until the next rebuild.
+     */
+    private DimensionBuilder(Dimension base) {
+      ordinals.putAll(base.ordinals);
+      values.addAll(base.values);
+      for (int i = 0; i < base.values.size(); i++) {
+        bitmaps.add(new RoaringBitmap());
+      }
+    }
+
+    private void add(int row, String value) {
+      if (value == null) {
+        nulls.add(row);
+        return;
+      }
+      Integer ordinal = rawOrdinals.get(value);
+      if (ordinal == null) {
+        ordinal = ordinals.computeIfAbsent(JobSnapshot.fold(value), key -> {
+          values.add(value);
+          bitmaps.add(new RoaringBitmap());
+          return values.size() - 1;
+        });
+        rawOrdinals.put(value, ordinal);
+      }
+      bitmaps.get(ordinal).add(row);
+    }
+
+    private void addOrdinal(int row, int ordinal) {
+      if (ordinal < 0) {
+        nulls.add(row);
+      } else {
+        bitmaps.get(ordinal).add(row);
+      }
+    }
+
+    private Dimension build() {
+      RoaringBitmap[] built = bitmaps.toArray(new RoaringBitmap[0]);
+      for (RoaringBitmap bitmap : built) {
+        bitmap.runOptimize();
+      }
+      nulls.runOptimize();
+      return new Dimension(Map.copyOf(ordinals), List.copyOf(values), built, nulls);
+    }
+  }
+
+  /**
+   * Bitmaps filled from (jobID, location, jobType, city, province, salary) rows in JobID order.
+   */
+  private static final class BitmapsBuilder {
+    private int size;
+    private int[] jobIds = new int[1024];
+    private int[] salaryValues = new int[1024];
+    private final DimensionBuilder locations;
+    private final DimensionBuilder jobTypes;
+    private final DimensionBuilder cities;
+    private final DimensionBuilder provinces;
+    private final RoaringBitmap hasSalary = new RoaringBitmap();
+    private final RangeBitmap.Appender salaries = RangeBitmap.appender(encode(Integer.MAX_VALUE));
+    private final Map<Integer, RoaringBitmap> salaryBuckets = new TreeMap<>();
+
+    private BitmapsBuilder() {
+      locations = new DimensionBuilder();
+      jobTypes = new DimensionBuilder();
+      cities = new DimensionBuilder();
+      provinces = new DimensionBuilder();
+    }
+
+    private BitmapsBuilder(Bitmaps base) {
+      locations = new DimensionBuilder(base.locations);
+      jobTypes = new DimensionBuilder(base.jobTypes);
+      cities = new DimensionBuilder(base.cities);
+      provinces = new DimensionBuilder(base.provinces);
+    }
+
+    private void add(Object[] row) {
+      grow();
+      jobIds[size] = ((Number) row[0]).intValue();
+      locations.add(size, (String) row[1]);
+      jobTypes.add(size, (String) row[2]);
+      cities.add(size, (String) row[3]);
+      provinces.add(size, (String) row[4]);
+      addSalary(row[5] == null ? null : ((Number) row[5]).intValue());
+      size++;
+    }
+
+    /**
+     * Copy a position of existing bitmaps, given the per-position ordinals of its location, job
+     * type, city and province dimensions.
+     */
+    private void copy(Bitmaps base, int[][] ordinals, int row) {
+      grow();
+      jobIds[size] = base.jobIds[row];
+      locations.addOrdinal(size, ordinals[0][row]);
+      jobTypes.addOrdinal(size, ordinals[1][row]);
+      cities.addOrdinal(size, ordinals[2][row]);
+      provinces.addOrdinal(size, ordinals[3][row]);
+      addSalary(base.hasSalary.contains(row) ? base.salaryValues[row] : null);
+      size++;
+    }
+
+    private void addSalary(Integer salary) {
+      if (salary == null) {
+        // Every position needs a value; hasSalary keeps this one out of every range
+        salaries.add(0);
+      } else {
+        salaryValues[size] = salary;
+        salaries.add(encode(salary));
+        hasSalary.add(size);
+        salaryBuckets.computeIfAbsent(Math.floorDiv(salary, SALARY_BUCKET),
+            bucket -> new RoaringBitmap()).add(size);
+      }
+    }
+
+    private void grow() {
+      if (size == jobIds.length) {
+        jobIds = Arrays.copyOf(jobIds, size * 2);
+        salaryValues = Arrays.copyOf(salaryValues, size * 2);
+      }
+    }
+
+    private Bitmaps build() {
+      return new Bitmaps(Arrays.copyOf(jobIds, size), locations.build(), jobTypes.build(),
+          cities.build(), provinces.build(), hasSalary, Arrays.copyOf(salaryValues, size),
+          salaries.build(), salaryBuckets);
+    }
+  }
+}
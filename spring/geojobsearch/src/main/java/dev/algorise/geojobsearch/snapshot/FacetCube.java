@@ -0,0 +1,527 @@
+package dev.algorise.geojobsearch.snapshot;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Materialized job counts by (location, job type, salary), for the facet counts that filter on
+ * nothing else.
+ *
+ * <p>Each distinct (location, job type) pair is a cell holding its jobs without a salary and the
+ * cumulative count of its jobs per distinct salary, so a salary range is counted with two binary
+ * searches. Grouped counts are sums over the cells, whose number depends on the distinct values
+ * and not on the number of jobs. Cells are maintained by deltas: the location, job type and
+ * salary of every job is remembered, so a changed job is subtracted from its old cell and added
+ * to its new one.
+ *
+ * <p>The same cells serve salary histograms of any bucket width and exact salary percentiles,
+ * merged across every cell a filter matches.
+ *
+ * <p>Values are compared case- and accent-insensitively like the bitmap index, and a count row
+ * shows the first spelling of its value seen.
+ */
+@Component
+public class FacetCube {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FacetCube.class);
+
+  private static final int BATCH_SIZE = 5000;
+
+  private static final int NO_SALARY = Integer.MIN_VALUE;
+
+  private final JobRepository jobRepository;
+
+  private volatile Cube cube;
+
+  public FacetCube(JobRepository jobRepository) {
+    this.jobRepository = jobRepository;
+  }
+
+  public boolean isReady() {
+    return cube != null;
+  }
+
+  /**
+   * Count matching jobs per location or job type, like the SQL GROUP BY counts.
+   * @param facet - {@code LOCATION} or {@code JOB_TYPE}
+   * @param filter - location, job type and salary range are supported
+   * @return rows of (value, Long count) for every value with a match, or null when the cube is
+   *     not built yet or the filter has other predicates
+   */
+  public List<Object[]> countBy(BitmapIndex.Facet facet, JobFilter filter) {
+    Cube current = cube;
+    if (current == null || !supports(filter)
+        || (facet != BitmapIndex.Facet.LOCATION && facet != BitmapIndex.Facet.JOB_TYPE)) {
+      return null;
+    }
+    boolean byLocation = facet == BitmapIndex.Facet.LOCATION;
+    Values groups = byLocation ? current.locations : current.jobTypes;
+    // Slot 0 counts jobs without a value, slot ordinal + 1 the others
+    long[] counts = new long[groups.values.size() + 1];
+    current.forEachCell(filter, (key, cell) -> {
+      int ordinal = byLocation ? locationOf(key) : jobTypeOf(key);
+      counts[ordinal + 1] += cell.count(filter.getMinSalary(), filter.getMaxSalary());
+    });
+    List<Object[]> result = new ArrayList<>();
+    for (int i = 0; i < groups.values.size(); i++) {
+      if (counts[i + 1] > 0) {
+        result.add(new Object[] {groups.values.get(i), counts[i + 1]});
+      }
+    }
+    if (counts[0] > 0) {
+      result.add(new Object[] {null, counts[0]});
+    }
+    return result;
+  }
+
+  /**
+   * Count matching jobs per salary bucket, like {@code countBySalaryRange}.
+   * @param filter - location, job type and salary range are supported
+   * @param bucketWidth - bucket width
+   * @return rows of (Long minSalary, Long maxSalary, Long count) in salary order, with jobs that
+   *     have no salary first as (null, null, count), or null when the cube cannot answer
+   */
+  public List<Object[]> countBySalaryRange(JobFilter filter, int bucketWidth) {
+    Cube current = cube;
+    if (current == null || !supports(filter) || bucketWidth <= 0) {
+      return null;
+    }
+    long[] withoutSalary = new long[1];
+    Map<Integer, Long> buckets = new TreeMap<>();
+    current.forEachCell(filter, (key, cell) -> {
+      if (filter.getMinSalary() == null && filter.getMaxSalary() == null) {
+        withoutSalary[0] += cell.withoutSalary;
+      }
+      cell.addBuckets(buckets, bucketWidth, filter.getMinSalary(), filter.getMaxSalary());
+    });
+    List<Object[]> result = new ArrayList<>(buckets.size() + 1);
+    if (withoutSalary[0] > 0) {
+      result.add(new Object[] {null, null, withoutSalary[0]});
+    }
+    buckets.forEach((bucket, count) -> {
+      long minSalary = (long) bucket * bucketWidth;
+      result.add(new Object[] {minSalary, minSalary + bucketWidth - 1, count});
+    });
+    return result;
+  }
+
+  /**
+   * Salary percentiles of the matching jobs that have a salary, by nearest rank: the p-th
+   * percentile is the lowest salary that at least p percent of the salaries do not exceed. Cells are
+   * merged exactly; each percentile is a binary search over salary values that counts the
+   * salaries at or below a candidate with one binary search per cell.
+   * @param filter - location, job type and salary range are supported
+   * @param percentiles - percentiles between 0 and 100
+   * @return one salary per percentile, null entries when no matching job has a salary, or null
+   *     when the cube cannot answer
+   */
+  public Integer[] salaryPercentiles(JobFilter filter, double[] percentiles) {
+    Cube current = cube;
+    if (current == null || !supports(filter)) {
+      return null;
+    }
+    List<Cell> matching = new ArrayList<>();
+    current.forEachCell(filter, (key, cell) -> matching.add(cell));
+    Integer minSalary = filter.getMinSalary();
+    Integer maxSalary = filter.getMaxSalary();
+    long total = 0;
+    long lowest = Integer.MAX_VALUE;
+    long highest = Integer.MIN_VALUE;
+    for (Cell cell : matching) {
+      int from = cell.from(minSalary);
+      int to = cell.to(maxSalary);
+      if (from < to) {
+        total += cell.withSalary(from, to);
+        lowest = Math.min(lowest, cell.salaries[from]);
+        highest = Math.max(highest, cell.salaries[to - 1]);
+      }
+    }
+    Integer[] result = new Integer[percentiles.length];
+    for (int i = 0; i < percentiles.length && total > 0; i++) {
+      long rank = Math.max(1, (long) Math.ceil(percentiles[i] / 100 * total));
+      long low = lowest;
+      long high = highest;
+      while (low < high) {
+        long mid = (low + high) >> 1;
+        long atMost = 0;
+        for (Cell cell : matching) {
+          atMost += cell.withSalary(cell.from(minSalary),
+              Math.min(cell.to(maxSalary), cell.to((int) mid)));
+        }
+        if (atMost >= rank) {
+          high = mid;
+        } else {
+          low = mid + 1;
+        }
+      }
+      result[i] = (int) low;
+    }
+    return result;
+  }
+
+  /**
+   * Rebuild the cube from the Jobs table and swap it in atomically. Runs once at startup, on a
+   * fixed delay, and whenever the dataset generation advances without a list of changed jobs.
+   */
+  @Scheduled(fixedDelayString = "${geojobsearch.cube.refresh-ms:900000}")
+  public synchronized void rebuild() {
+    try {
+      long start = System.nanoTime();
+      Cube built = build();
+      cube = built;
+      LOG.info("Facet cube built: {} jobs, {} cells in {} ms", built.jobIds.length,
+          built.cells.size(), (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // Keep serving the previous counts (or the bitmap index when there are none)
+      LOG.warn("Facet cube rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Apply the changed jobs as deltas when their ids are known; any other change rebuilds.
+   */
+  @EventListener
+  @Order(DataChangedEvent.REBUILD_ORDER)
+  public synchronized void onDataChanged(DataChangedEvent event) {
+    Cube current = cube;
+    if (current == null || !event.isIncremental()) {
+      rebuild();
+      return;
+    }
+    try {
+      long start = System.nanoTime();
+      List<Object[]> rows = event.loadRows(jobRepository::findBitmapRowsByIds);
+      Cube updated = apply(current, event.sortedJobIds(), rows);
+      cube = updated;
+      LOG.info("Facet cube updated: {} changed, {} cells in {} ms", rows.size(),
+          updated.cells.size(), (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // The scheduled rebuild catches up later
+      LOG.warn("Facet cube update failed: {}", e.getMessage());
+    }
+  }
+
+  private static boolean supports(JobFilter filter) {
+    return filter.getKeywords().isEmpty() && filter.getJobIds() == null
+        && filter.getCompanyUids() == null && filter.getBox() == null;
+  }
+
+  private Cube build() {
+    Values locations = new Values();
+    Values jobTypes = new Values();
+    Map<Long, CellDelta> cells = new HashMap<>();
+    JobColumns jobs = new JobColumns(1024);
+    long afterId = 0;
+    List<Object[]> rows;
+    do {
+      rows = jobRepository.findBitmapRowsAfter(afterId, PageRequest.ofSize(BATCH_SIZE));
+      for (Object[] row : rows) {
+        long key = cellKey(locations.ordinal((String) row[1]), jobTypes.ordinal((String) row[2]));
+        int salary = salaryOf(row);
+        cells.computeIfAbsent(key, k -> new CellDelta()).add(salary, 1);
+        afterId = ((Number) row[0]).longValue();
+        jobs.add(afterId, key, salary);
+      }
+    } while (rows.size() == BATCH_SIZE);
+
+    Map<Long, Cell> built = new HashMap<>();
+    cells.forEach((key, delta) -> built.put(key, delta.applyTo(Cell.EMPTY)));
+    return new Cube(locations, jobTypes, built, jobs);
+  }
+
+  /**
+   * Subtract the stored state of every changed job and add the reloaded rows. A changed id
+   * without a reloaded row has been deleted.
+   */
+  private static Cube apply(Cube base, long[] changedIds, List<Object[]> rows) {
+    Values locations = base.locations.copy();
+    Values jobTypes = base.jobTypes.copy();
+    Map<Long, CellDelta> deltas = new HashMap<>();
+    for (long jobId : changedIds) {
+      int position = Arrays.binarySearch(base.jobIds, jobId);
+      if (position >= 0) {
+        deltas.computeIfAbsent(base.cellKeys[position], k -> new CellDelta())
+            .add(base.salaries[position], -1);
+      }
+    }
+    long[] rowKeys = new long[rows.size()];
+    for (int i = 0; i < rows.size(); i++) {
+      Object[] row = rows.get(i);
+      rowKeys[i] = cellKey(locations.ordinal((String) row[1]), jobTypes.ordinal((String) row[2]));
+      deltas.computeIfAbsent(rowKeys[i], k -> new CellDelta()).add(salaryOf(row), 1);
+    }
+
+    Map<Long, Cell> cells = new HashMap<>(base.cells);
+    deltas.forEach((key, delta) -> {
+      Cell cell = delta.applyTo(cells.getOrDefault(key, Cell.EMPTY));
+      if (cell.total() > 0) {
+        cells.put(key, cell);
+      } else {
+        cells.remove(key);
+      }
+    });
+
+    // Merge the remembered jobs in JobID order, replacing the changed ones
+    JobColumns jobs = new JobColumns(base.jobIds.length + rows.size());
+    int next = 0;
+    for (int i = 0; i < base.jobIds.length; i++) {
+      long jobId = base.jobIds[i];
+      while (next < rows.size() && ((Number) rows.get(next)[0]).longValue() < jobId) {
+        jobs.add(((Number) rows.get(next)[0]).longValue(), rowKeys[next], salaryOf(rows.get(next)));
+        next++;
+      }
+      if (Arrays.binarySearch(changedIds, jobId) < 0) {
+        jobs.add(jobId, base.cellKeys[i], base.salaries[i]);
+      }
+    }
+    for (; next < rows.size(); next++) {
+      jobs.add(((Number) rows.get(next)[0]).longValue(), rowKeys[next], salaryOf(rows.get(next)));
+    }
+    return new Cube(locations, jobTypes, cells, jobs);
+  }
+
+  private static int salaryOf(Object[] row) {
+    return row[5] == null ? NO_SALARY : ((Number) row[5]).intValue();
+  }
+
+  /**
+   * Cell key of a (location, job type) pair of ordinals, -1 standing for a null value.
+   */
+  private static long cellKey(int location, int jobType) {
+    return ((long) (location + 1) << 32) | (jobType + 1);
+  }
+
+  private static int locationOf(long key) {
+    return (int) (key >>> 32) - 1;
+  }
+
+  private static int jobTypeOf(long key) {
+    return (int) key - 1;
+  }
+
+  /**
+   * Immutable counts and the per-job state they were derived from, replaced as a whole on every
+   * rebuild or update.
+   */
+  private static final class Cube {
+    private final Values locations;
+    private final Values jobTypes;
+    private final Map<Long, Cell> cells;
+    // Cell key and salary of every job, in JobID order
+    private final long[] jobIds;
+    private final long[] cellKeys;
+    private final int[] salaries;
+
+    private Cube(Values locations, Values jobTypes, Map<Long, Cell> cells, JobColumns jobs) {
+      this.locations = locations;
+      this.jobTypes = jobTypes;
+      this.cells = cells;
+      this.jobIds = Arrays.copyOf(jobs.jobIds, jobs.size);
+      this.cellKeys = Arrays.copyOf(jobs.cellKeys, jobs.size);
+      this.salaries = Arrays.copyOf(jobs.salaries, jobs.size);
+    }
+
+    /**
+     * Visit the cells matching the location and job type of the filter.
+     */
+    private void forEachCell(JobFilter filter, CellVisitor visitor) {
+      int location = filter.getLocation() == null ? -2 : locations.find(filter.getLocation());
+      int jobType = filter.getJobType() == null ? -2 : jobTypes.find(filter.getJobType());
+      if (location == -1 || jobType == -1) {
+        // A value no job has matches nothing
+        return;
+      }
+      cells.forEach((key, cell) -> {
+        if ((location == -2 || locationOf(key) == location)
+            && (jobType == -2 || jobTypeOf(key) == jobType)) {
+          visitor.visit(key, cell);
+        }
+      });
+    }
+  }
+
+  private interface CellVisitor {
+    void visit(long key, Cell cell);
+  }
+
+  /**
+   * Jobs of one (location, job type) pair: those without a salary, and the cumulative count of
+   * the others per distinct salary.
+   */
+  private static final class Cell {
+    private static final Cell EMPTY = new Cell(0, new int[0], new long[0]);
+
+    private final long withoutSalary;
+    private final int[] salaries;
+    private final long[] cumulative;
+
+    private Cell(long withoutSalary, int[] salaries, long[] cumulative) {
+      this.withoutSalary = withoutSalary;
+      this.salaries = salaries;
+      this.cumulative = cumulative;
+    }
+
+    private long total() {
+      return withoutSalary + withSalary(0, salaries.length);
+    }
+
+    /**
+     * Jobs within the bounds; a bound of either kind excludes jobs without a salary, as the SQL
+     * comparison does.
+     */
+    private long count(Integer minSalary, Integer maxSalary) {
+      if (minSalary == null && maxSalary == null) {
+        return total();
+      }
+      return withSalary(from(minSalary), to(maxSalary));
+    }
+
+    private void addBuckets(Map<Integer, Long> buckets, int bucketWidth, Integer minSalary,
+        Integer maxSalary) {
+      int to = to(maxSalary);
+      for (int i = from(minSalary); i < to; i++) {
+        buckets.merge(Math.floorDiv(salaries[i], bucketWidth), withSalary(i, i + 1), Long::sum);
+      }
+    }
+
+    private int from(Integer minSalary) {
+      return minSalary == null ? 0 : insertionPoint(minSalary);
+    }
+
+    private int to(Integer maxSalary) {
+      return maxSalary == null ? salaries.length
+          : maxSalary == Integer.MAX_VALUE ? salaries.length : insertionPoint(maxSalary + 1);
+    }
+
+    /**
+     * Jobs with the distinct salaries in [from, to).
+     */
+    private long withSalary(int from, int to) {
+      if (to <= from) {
+        return 0;
+      }
+      return cumulative[to - 1] - (from == 0 ? 0 : cumulative[from - 1]);
+    }
+
+    private int insertionPoint(int salary) {
+      int index = Arrays.binarySearch(salaries, salary);
+      return index >= 0 ? index : -index - 1;
+    }
+  }
+
+  /**
+   * Changes to one cell: jobs without a salary and jobs per salary, positive or negative.
+   */
+  private static final class CellDelta {
+    private long withoutSalary;
+    private final TreeMap<Integer, Long> salaries = new TreeMap<>();
+
+    private void add(int salary, long count) {
+      if (salary == NO_SALARY) {
+        withoutSalary += count;
+      } else {
+        salaries.merge(salary, count, Long::sum);
+      }
+    }
+
+    private Cell applyTo(Cell base) {
+      TreeMap<Integer, Long> counts = new TreeMap<>(salaries);
+      for (int i = 0; i < base.salaries.length; i++) {
+        counts.merge(base.salaries[i], base.withSalary(i, i + 1), Long::sum);
+      }
+      counts.values().removeIf(count -> count <= 0);
+      int[] distinct = new int[counts.size()];
+      long[] cumulative = new long[counts.size()];
+      long running = 0;
+      int i = 0;
+      for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+        distinct[i] = entry.getKey();
+        running += entry.getValue();
+        cumulative[i++] = running;
+      }
+      return new Cell(base.withoutSalary + withoutSalary, distinct, cumulative);
+    }
+  }
+
+  /**
+   * Distinct values of one attribute by folded value, numbered in the order first seen.
+   */
+  private static final class Values {
+    private final Map<String, Integer> ordinals;
+    private final List<String> values;
+
+    private Values() {
+      this(new HashMap<>(), new ArrayList<>());
+    }
+
+    private Values(Map<String, Integer> ordinals, List<String> values) {
+      this.ordinals = ordinals;
+      this.values = values;
+    }
+
+    private Values copy() {
+      return new Values(new HashMap<>(ordinals), new ArrayList<>(values));
+    }
+
+    /**
+     * The ordinal of a value, numbering it if it is new; -1 for null.
+     */
+    private int ordinal(String value) {
+      if (value == null) {
+        return -1;
+      }
+      return ordinals.computeIfAbsent(JobSnapshot.fold(value), key -> {
+        values.add(value);
+        return values.size() - 1;
+      });
+    }
+
+    /**
+     * The ordinal of a value, or -1 when no job has had it.
+     */
+    private int find(String value) {
+      return ordinals.getOrDefault(JobSnapshot.fold(value), -1);
+    }
+  }
+
+  /**
+   * Growable per-job columns, filled in JobID order.
+   */
+  private static final class JobColumns {
+    private int size;
+    private long[] jobIds;
+    private long[] cellKeys;
+    private int[] salaries;
+
+    private JobColumns(int capacity) {
+      jobIds = new long[Math.max(capacity, 16)];
+      cellKeys = new long[jobIds.length];
+      salaries = new int[jobIds.length];
+    }
+
+    private void add(long jobId, long cellKey, int salary) {
+      if (size == jobIds.length) {
+        jobIds = Arrays.copyOf(jobIds, size * 2);
+        cellKeys = Arrays.copyOf(cellKeys, size * 2);
+        salaries = Arrays.copyOf(salaries, size * 2);
+      }
+      jobIds[size] = jobId;
+      cellKeys[size] = cellKey;
+      salaries[size++] = salary;
+    }
+  }
+}
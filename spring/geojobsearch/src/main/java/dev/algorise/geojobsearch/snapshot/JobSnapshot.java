@@ -0,0 +1,448 @@
+package dev.algorise.geojobsearch.snapshot;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobKeyset;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.TextAnalyzer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-optimized, column-wise copy of the job attributes that list filters test.
+ *
+ * <p>Every job is one position in a set of primitive arrays: id, salary, location and job type
+ * ordinals into small dictionaries, posting date as an epoch day, and its company's coordinates.
+ * A filter becomes a single loop over those arrays, around 32 bytes per job instead of a
+ * {@code Job} entity with BigDecimal, Date and String fields. Callers load the full rows of the
+ * matching ids by primary key.
+ *
+ * <p>Location and job type are compared case- and accent-insensitively, the way the MySQL
+ * {@code _ai_ci} collations compare them in SQL.
+ */
+@Component
+public class JobSnapshot {
+
+  private static final Logger LOG = LoggerFactory.getLogger(JobSnapshot.class);
+
+  private static final int BATCH_SIZE = 5000;
+
+  /** Salary and date value of jobs that have none; sorts after every real value. */
+  static final int NONE = Integer.MIN_VALUE;
+
+  private final JobRepository jobRepository;
+
+  private volatile Columns columns;
+
+  public JobSnapshot(JobRepository jobRepository) {
+    this.jobRepository = jobRepository;
+  }
+
+  public boolean isReady() {
+    return columns != null;
+  }
+
+  /**
+   * Number of jobs in the current snapshot.
+   */
+  public int size() {
+    Columns current = columns;
+    return current == null ? 0 : current.size;
+  }
+
+  /**
+   * Evaluate a filter against the snapshot.
+   * @param filter - location, job type, salary range, job ids and coordinate box are supported,
+   *     and keywords once resolved to job ids
+   * @param sortAttribute - "date" or "salary" for newest/highest first with missing values last,
+   *     null for JobID order
+   * @return matching job ids in order, or null when the snapshot is not built yet or the filter
+   *     has keyword or company predicates the caller must answer with SQL
+   */
+  public long[] matchIds(JobFilter filter, String sortAttribute) {
+    Columns current = columns;
+    if (current == null || !supports(filter)) {
+      return null;
+    }
+    int[] rows = current.match(filter);
+    if ("salary".equals(sortAttribute)) {
+      sortDescending(rows, current.salaries);
+    } else if ("date".equals(sortAttribute)) {
+      sortDescending(rows, current.days);
+    }
+    long[] ids = new long[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      ids[i] = current.jobIds[rows[i]];
+    }
+    return ids;
+  }
+
+  /**
+   * One keyset page of the jobs matching a filter, so only the ids of the page go to the database.
+   * @param filter - as for {@link #matchIds}
+   * @param keyset - ordering and position of the page, in the order of the SQL keyset queries:
+   *     highest first, missing values last and ties in descending JobID order, or ascending JobID
+   * @param limit - maximum number of ids
+   * @return up to {@code limit} ids in page order, or null when the snapshot cannot answer
+   */
+  public long[] pageIds(JobFilter filter, JobKeyset keyset, int limit) {
+    Columns current = columns;
+    if (current == null || !supports(filter)) {
+      return null;
+    }
+    int[] rows = current.match(filter);
+    int[] column = "salary".equals(keyset.sortAttribute()) ? current.salaries
+        : "date".equals(keyset.sortAttribute()) ? current.days : null;
+    long afterId = keyset.afterId() == null ? Long.MIN_VALUE : keyset.afterId();
+
+    if (column == null) {
+      // Rows are already in JobID order
+      int from = 0;
+      while (from < rows.length && current.jobIds[rows[from]] <= afterId) {
+        from++;
+      }
+      long[] ids = new long[Math.max(0, Math.min(limit, rows.length - from))];
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = current.jobIds[rows[from + i]];
+      }
+      return ids;
+    }
+
+    // The cursor value as a column value; a fractional salary falls between two column values
+    int afterValue = NONE;
+    boolean exact = true;
+    if (keyset.afterId() != null && keyset.afterValue() instanceof BigDecimal salary) {
+      afterValue = salary.setScale(0, RoundingMode.FLOOR).intValue();
+      exact = salary.signum() == 0 || salary.stripTrailingZeros().scale() <= 0;
+    } else if (keyset.afterId() != null && keyset.afterValue() instanceof Date date) {
+      afterValue = (int) new java.sql.Date(date.getTime()).toLocalDate().toEpochDay();
+    }
+    long[] packed = new long[rows.length];
+    int count = 0;
+    for (int row : rows) {
+      int value = column[row];
+      boolean after = keyset.afterId() == null
+          || (afterValue == NONE ? value == NONE && current.jobIds[row] < afterId
+              : value == NONE || value < afterValue
+                  || (value == afterValue && (!exact || current.jobIds[row] < afterId)));
+      if (after) {
+        // Highest first and, within a value, highest JobID first
+        packed[count++] = ((long) ~value << 32) | (~row & 0xFFFFFFFFL);
+      }
+    }
+    Arrays.sort(packed, 0, count);
+    long[] ids = new long[Math.min(limit, count)];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = current.jobIds[~(int) packed[i]];
+    }
+    return ids;
+  }
+
+  /**
+   * Rebuild the snapshot from the Jobs table and swap it in atomically. Runs once at startup, on
+   * a fixed delay, and whenever the dataset generation advances without a list of changed jobs.
+   */
+  @Scheduled(fixedDelayString = "${geojobsearch.snapshot.refresh-ms:900000}")
+  public synchronized void rebuild() {
+    try {
+      long start = System.nanoTime();
+      Columns built = build();
+      columns = built;
+      LOG.info("Job snapshot built: {} jobs, {} locations, {} job types in {} ms", built.size,
+          built.locations.size(), built.jobTypes.size(), (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // Keep serving the previous snapshot (or SQL when there is none) if the database is down
+      LOG.warn("Job snapshot rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Bring the snapshot up to date after a change. Jobs written through the batch ingestion
+   * endpoint are read back by id and merged into a copy of the columns, which costs one pass over
+   * memory instead of a scan of the Jobs table; any other change rebuilds.
+   */
+  @EventListener
+  @Order(DataChangedEvent.REBUILD_ORDER)
+  public synchronized void onDataChanged(DataChangedEvent event) {
+    Columns current = columns;
+    if (current == null || !event.isIncremental()) {
+      rebuild();
+      return;
+    }
+    try {
+      long start = System.nanoTime();
+      List<Object[]> rows = event.loadRows(jobRepository::findSnapshotRowsByIds);
+      Columns merged = merge(current, event.sortedJobIds(), rows);
+      columns = merged;
+      LOG.info("Job snapshot patched: {} changed, {} jobs in {} ms", rows.size(), merged.size,
+          (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      // The scheduled rebuild catches up later
+      LOG.warn("Job snapshot patch failed: {}", e.getMessage());
+    }
+  }
+
+  private Columns build() {
+    ColumnsBuilder builder = new ColumnsBuilder();
+    long afterId = 0;
+    List<Object[]> rows;
+    do {
+      rows = jobRepository.findSnapshotRowsAfter(afterId, PageRequest.ofSize(BATCH_SIZE));
+      for (Object[] row : rows) {
+        builder.add(row);
+        afterId = ((Number) row[0]).longValue();
+      }
+    } while (rows.size() == BATCH_SIZE);
+    return builder.build();
+  }
+
+  /**
+   * Copy the columns in JobID order, replacing the rows of the changed ids with the reloaded rows.
+   * A changed id without a reloaded row has been deleted.
+   */
+  private static Columns merge(Columns base, long[] changedIds, List<Object[]> rows) {
+    ColumnsBuilder builder = new ColumnsBuilder(base);
+    int next = 0;
+    for (int i = 0; i < base.size; i++) {
+      int jobId = base.jobIds[i];
+      while (next < rows.size() && ((Number) rows.get(next)[0]).longValue() < jobId) {
+        builder.add(rows.get(next++));
+      }
+      if (Arrays.binarySearch(changedIds, jobId) < 0) {
+        builder.copy(base, i);
+      }
+    }
+    while (next < rows.size()) {
+      builder.add(rows.get(next++));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Whether the snapshot can evaluate every predicate of a filter. Keywords are answered through
+   * the bitmap of job ids they were resolved to.
+   */
+  private static boolean supports(JobFilter filter) {
+    return (filter.getKeywords().isEmpty() || filter.getKeywordMatches() != null)
+        && filter.getCompanyUids() == null;
+  }
+
+  /**
+   * Dictionary key of a location or job type: folded like the search text and, as the collation
+   * pads with spaces for equality, without trailing spaces.
+   */
+  public static String fold(String value) {
+    return TextAnalyzer.fold(value).stripTrailing();
+  }
+
+  /**
+   * Sort row positions by a column, highest first, missing values last and ties in JobID order.
+   * Each row is packed with its inverted key into one long so a primitive sort does the work.
+   */
+  private static void sortDescending(int[] rows, int[] column) {
+    long[] packed = new long[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      packed[i] = ((long) ~column[rows[i]] << 32) | rows[i];
+    }
+    Arrays.sort(packed);
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = (int) packed[i];
+    }
+  }
+
+  /**
+   * Immutable column arrays, replaced as a whole on every rebuild or patch. Rows are in JobID
+   * order.
+   */
+  private static final class Columns {
+    private final int size;
+    private final int[] jobIds;
+    private final int[] salaries;
+    private final short[] locationOrdinals;
+    private final short[] jobTypeOrdinals;
+    private final int[] days;
+    private final double[] lats;
+    private final double[] lngs;
+    private final Map<String, Short> locations;
+    private final Map<String, Short> jobTypes;
+
+    private Columns(ColumnsBuilder builder) {
+      size = builder.size;
+      jobIds = Arrays.copyOf(builder.jobIds, size);
+      salaries = Arrays.copyOf(builder.salaries, size);
+      locationOrdinals = Arrays.copyOf(builder.locationOrdinals, size);
+      jobTypeOrdinals = Arrays.copyOf(builder.jobTypeOrdinals, size);
+      days = Arrays.copyOf(builder.days, size);
+      lats = Arrays.copyOf(builder.lats, size);
+      lngs = Arrays.copyOf(builder.lngs, size);
+      locations = Map.copyOf(builder.locations);
+      jobTypes = Map.copyOf(builder.jobTypes);
+    }
+
+    private int[] match(JobFilter filter) {
+      // An unknown location or job type matches nothing; -1 is the ordinal of a null value
+      boolean anyLocation = filter.getLocation() == null;
+      boolean anyJobType = filter.getJobType() == null;
+      int location = anyLocation ? -1 : locations.getOrDefault(fold(filter.getLocation()), (short) -2);
+      int jobType = anyJobType ? -1 : jobTypes.getOrDefault(fold(filter.getJobType()), (short) -2);
+      if (location == -2 || jobType == -2) {
+        return new int[0];
+      }
+
+      // Salary bounds as one closed range; a bound of either kind excludes jobs without a salary
+      boolean anySalary = filter.getMinSalary() == null && filter.getMaxSalary() == null;
+      int minSalary = filter.getMinSalary() != null ? Math.max(filter.getMinSalary(), NONE + 1)
+          : anySalary ? NONE : NONE + 1;
+      int maxSalary = filter.getMaxSalary() != null ? filter.getMaxSalary() : Integer.MAX_VALUE;
+
+      BitSet allowedIds = toBitSet(filter.getJobIds());
+      BitSet keywordMatches = filter.getKeywordMatches();
+      BigDecimal[] box = filter.getBox();
+      double south = box == null ? 0 : box[0].doubleValue();
+      double west = box == null ? 0 : box[1].doubleValue();
+      double north = box == null ? 0 : box[2].doubleValue();
+      double east = box == null ? 0 : box[3].doubleValue();
+
+      int[] rows = new int[64];
+      int count = 0;
+      for (int i = 0; i < size; i++) {
+        int salary = salaries[i];
+        if ((anyLocation || locationOrdinals[i] == location)
+            && (anyJobType || jobTypeOrdinals[i] == jobType)
+            && salary >= minSalary && salary <= maxSalary
+            && (allowedIds == null || allowedIds.get(jobIds[i]))
+            && (keywordMatches == null || keywordMatches.get(jobIds[i]))
+            // NaN coordinates of jobs without a geocoded company fail every comparison
+            && (box == null || (lats[i] >= south && lats[i] <= north
+                && lngs[i] >= west && lngs[i] <= east))) {
+          if (count == rows.length) {
+            rows = Arrays.copyOf(rows, Math.min(size, count * 2));
+          }
+          rows[count++] = i;
+        }
+      }
+      return Arrays.copyOf(rows, count);
+    }
+
+    private static BitSet toBitSet(Collection<Long> ids) {
+      if (ids == null) {
+        return null;
+      }
+      BitSet bits = new BitSet();
+      for (Long id : ids) {
+        if (id != null && id >= 0 && id <= Integer.MAX_VALUE) {
+          bits.set(id.intValue());
+        }
+      }
+      return bits;
+    }
+  }
+
+  /**
+   * Growable columns filled from (jobID, location, jobType, salary, date, latitude, longitude) rows.
+   */
+  private static final class ColumnsBuilder {
+    private int size;
+    private int[] jobIds = new int[1024];
+    private int[] salaries = new int[1024];
+    private short[] locationOrdinals = new short[1024];
+    private short[] jobTypeOrdinals = new short[1024];
+    private int[] days = new int[1024];
+    private double[] lats = new double[1024];
+    private double[] lngs = new double[1024];
+    private final Map<String, Short> locations = new HashMap<>();
+    private final Map<String, Short> jobTypes = new HashMap<>();
+    // Raw column value to ordinal, so each distinct spelling is folded only once
+    private final Map<String, Short> rawLocations = new HashMap<>();
+    private final Map<String, Short> rawJobTypes = new HashMap<>();
+
+    private ColumnsBuilder() {
+    }
+
+    /**
+     * Start from the dictionaries of existing columns, so their ordinals can be copied verbatim.
+     */
+    private ColumnsBuilder(Columns base) {
+      locations.putAll(base.locations);
+      jobTypes.putAll(base.jobTypes);
+    }
+
+    private void add(Object[] row) {
+      grow();
+      jobIds[size] = ((Number) row[0]).intValue();
+      locationOrdinals[size] = ordinal(rawLocations, locations, (String) row[1]);
+      jobTypeOrdinals[size] = ordinal(rawJobTypes, jobTypes, (String) row[2]);
+      salaries[size] = row[3] == null ? NONE : ((Number) row[3]).intValue();
+      days[size] = row[4] == null ? NONE
+          : (int) new java.sql.Date(((Date) row[4]).getTime()).toLocalDate().toEpochDay();
+      lats[size] = row[5] == null ? Double.NaN : ((Number) row[5]).doubleValue();
+      lngs[size] = row[6] == null ? Double.NaN : ((Number) row[6]).doubleValue();
+      size++;
+    }
+
+    private void copy(Columns base, int row) {
+      grow();
+      jobIds[size] = base.jobIds[row];
+      locationOrdinals[size] = base.locationOrdinals[row];
+      jobTypeOrdinals[size] = base.jobTypeOrdinals[row];
+      salaries[size] = base.salaries[row];
+      days[size] = base.days[row];
+      lats[size] = base.lats[row];
+      lngs[size] = base.lngs[row];
+      size++;
+    }
+
+    private void grow() {
+      if (size == jobIds.length) {
+        int capacity = size * 2;
+        jobIds = Arrays.copyOf(jobIds, capacity);
+        salaries = Arrays.copyOf(salaries, capacity);
+        locationOrdinals = Arrays.copyOf(locationOrdinals, capacity);
+        jobTypeOrdinals = Arrays.copyOf(jobTypeOrdinals, capacity);
+        days = Arrays.copyOf(days, capacity);
+        lats = Arrays.copyOf(lats, capacity);
+        lngs = Arrays.copyOf(lngs, capacity);
+      }
+    }
+
+    private static short ordinal(Map<String, Short> raw, Map<String, Short> dictionary, String value) {
+      if (value == null) {
+        return -1;
+      }
+      Short known = raw.get(value);
+      if (known != null) {
+        return known;
+      }
+      String key = fold(value);
+      Short ordinal = dictionary.get(key);
+      if (ordinal == null) {
+        if (dictionary.size() > Short.MAX_VALUE) {
+          // Fails the rebuild; filters keep using the previous snapshot or SQL
+          throw new IllegalStateException("More than " + (Short.MAX_VALUE + 1) + " distinct values");
+        }
+        ordinal = (short) dictionary.size();
+        dictionary.put(key, ordinal);
+      }
+      raw.put(value, ordinal);
+      return ordinal;
+    }
+
+    private Columns build() {
+      return new Columns(this);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package dev.algorise.geojobsearch.api;
+
+import dev.algorise.geojobsearch.http.IngestAuthConfig;
+import dev.algorise.geojobsearch.http.IngestTokenInterceptor;
+import dev.algorise.geojobsearch.model.CompanyUpsert;
+import dev.algorise.geojobsearch.model.IngestResult;
+import dev.algorise.geojobsearch.service.CompanyIngestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CompanyControllerTest {
+
+    @Mock
+    private CompanyIngestService companyIngestService;
+
+    @InjectMocks
+    private CompanyController companyController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testUpsertCompaniesDelegatesToService() {
+        // Prepare
+        List<CompanyUpsert> companies = Collections.singletonList(new CompanyUpsert("acme_toronto_on", "Acme",
+                "Toronto", "ON", "1 King St W", new BigDecimal("43.65"), new BigDecimal("-79.38")));
+        when(companyIngestService.upsert(companies)).thenReturn(new IngestResult(1, 4));
+
+        // Execute
+        IngestResult result = companyController.upsertCompanies(companies);
+
+        // Verify
+        assertEquals(new IngestResult(1, 4), result);
+    }
+
+    @Test
+    public void testBatchRequiresIngestToken() throws Exception {
+        // Prepare
+        when(companyIngestService.upsert(any())).thenReturn(new IngestResult(0, 4));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(companyController)
+                .addMappedInterceptors(IngestAuthConfig.PROTECTED_PATHS, new IngestTokenInterceptor("s3cret"))
+                .build();
+
+        // Execute & Verify
+        mockMvc.perform(post("/api/companies/batch").contentType(MediaType.APPLICATION_JSON).content("[]")
+                        .header(IngestTokenInterceptor.TOKEN_HEADER, "guess"))
+                .andExpect(status().isUnauthorized());
+        verify(companyIngestService, never()).upsert(any());
+        mockMvc.perform(post("/api/companies/batch").contentType(MediaType.APPLICATION_JSON).content("[]")
+                        .header(IngestTokenInterceptor.TOKEN_HEADER, "s3cret"))
+                .andExpect(status().isOk());
+        verify(companyIngestService).upsert(any());
+    }
+}
@@ -0,0 +1,78 @@
+package dev.algorise.geojobsearch.api;
+
+import dev.algorise.geojobsearch.http.IngestAuthConfig;
+import dev.algorise.geojobsearch.http.IngestTokenInterceptor;
+import dev.algorise.geojobsearch.model.IngestResult;
+import dev.algorise.geojobsearch.model.JobUpsert;
+import dev.algorise.geojobsearch.service.JobIngestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class IngestControllerTest {
+
+    @Mock
+    private JobIngestService jobIngestService;
+
+    @InjectMocks
+    private IngestController ingestController;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testUpsertJobsDelegatesToService() {
+        // Prepare
+        List<JobUpsert> jobs = Collections.singletonList(new JobUpsert("a", "Java Developer", "Acme",
+                null, "Toronto, ON", "Toronto", "ON", null, null, "Full-time", null, null));
+        when(jobIngestService.upsert(jobs)).thenReturn(new IngestResult(1, 4));
+
+        // Execute
+        IngestResult result = ingestController.upsertJobs(jobs);
+
+        // Verify
+        assertEquals(new IngestResult(1, 4), result);
+    }
+
+    @Test
+    public void testInvalidBatchIsBadRequest() {
+        assertEquals("Job a has no title",
+                ingestController.handleBadRequest(new IllegalArgumentException("Job a has no title")));
+    }
+
+    @Test
+    public void testBatchRequiresIngestToken() throws Exception {
+        // Prepare
+        when(jobIngestService.upsert(any())).thenReturn(new IngestResult(0, 4));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(ingestController)
+                .addMappedInterceptors(IngestAuthConfig.PROTECTED_PATHS, new IngestTokenInterceptor("s3cret"))
+                .build();
+
+        // Execute & Verify
+        mockMvc.perform(post("/api/jobs/batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isUnauthorized());
+        verify(jobIngestService, never()).upsert(any());
+        mockMvc.perform(post("/api/jobs/batch").contentType(MediaType.APPLICATION_JSON).content("[]")
+                        .header(IngestTokenInterceptor.TOKEN_HEADER, "s3cret"))
+                .andExpect(status().isOk());
+        verify(jobIngestService).upsert(any());
+    }
+}
@@ -1,29 +1,75 @@
 package dev.algorise.geojobsearch.api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.algorise.geojobsearch.model.CursorPage;
+import dev.algorise.geojobsearch.model.FacetCounts;
+import dev.algorise.geojobsearch.model.FacetResult;
 import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobListing;
+import dev.algorise.geojobsearch.model.JobSummary;
+import dev.algorise.geojobsearch.model.SalaryDistribution;
+import dev.algorise.geojobsearch.model.Suggestion;
+import dev.algorise.geojobsearch.service.FacetCountService;
+import dev.algorise.geojobsearch.service.FacetService;
 import dev.algorise.geojobsearch.service.JobService;
+import dev.algorise.geojobsearch.service.MapService;
 
 public class JobControllerTest {
 
     @Mock
     private JobService jobService;
 
+    @Mock
+    private FacetService facetService;
+
+    @Mock
+    private FacetCountService facetCountService;
+
+    @Mock
+    private MapService mapService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private JobController jobController;
 
@@ -108,6 +154,18 @@ public class JobControllerTest {
         assertEquals(salary, returnedSalary);
     }
 
+    @Test
+    public void testGetJobFields() {
+        List<Long> ids = Arrays.asList(1L, 2L);
+        List<String> fields = Arrays.asList("title", "url");
+        Map<Long, Map<String, Object>> expected = Collections.singletonMap(1L, Collections.singletonMap("title", "Developer"));
+        when(jobService.getJobFields(ids, fields)).thenReturn(expected);
+
+        Map<Long, Map<String, Object>> result = jobController.getJobFields(ids, fields);
+
+        assertEquals(expected, result);
+    }
+
     @Test
     public void testFilterJobs() {
         // Arrange
@@ -191,10 +249,10 @@ public class JobControllerTest {
         String jobType = "TestType";
         Integer minSalary = 10000;
         Integer maxSalary = 50000;
-        List<Job> filteredJobs = Arrays.asList(new Job(), new Job());
+        List<JobListing> filteredJobs = Arrays.asList(JobListing.of(new Job()), JobListing.of(new Job()));
         when(jobService.getJobsByFilter(location, jobType, minSalary, maxSalary)).thenReturn(filteredJobs);
 
-        List<Job> returnedJobs = jobController.getJobByFilter(location, jobType, minSalary, maxSalary);
+        List<JobListing> returnedJobs = jobController.getJobByFilter(location, jobType, minSalary, maxSalary);
 
         assertEquals(filteredJobs, returnedJobs);
     }
@@ -204,7 +262,7 @@ public class JobControllerTest {
         // Arrange
         String keyword = "test";
         List<Job> jobs = Arrays.asList(new Job(), new Job());
-        when(jobService.updateJobsBySearch(jobService.getAllJobs(), keyword)).thenReturn(jobs);
+        when(jobService.searchJobs(keyword)).thenReturn(jobs);
 
         // Act
         List<Job> returnedJobs = jobController.updateJobBySearch(keyword);
@@ -217,13 +275,40 @@ public class JobControllerTest {
     public void testUpdateJobBySearchWithEmptyKeyword() {
         // Arrange
         List<Job> jobs = Arrays.asList(new Job(), new Job());
-        when(jobService.getAllJobs()).thenReturn(jobs);
+        when(jobService.searchJobs(null)).thenReturn(jobs);
 
         // Act
         List<Job> returnedJobs = jobController.updateJobBySearch(null);
 
         // Assert
         assertEquals(jobs, returnedJobs);
+        verify(jobService, never()).getAllJobs();
+    }
+
+    @Test
+    public void testUpdateJobBySearchWithNoMatchesReturnsNothing() {
+        // Arrange
+        when(jobService.searchJobs("nomatch")).thenReturn(Collections.emptyList());
+
+        // Act
+        List<Job> returnedJobs = jobController.updateJobBySearch("nomatch");
+
+        // Assert
+        assertTrue(returnedJobs.isEmpty());
+        verify(jobService, never()).getAllJobs();
+    }
+
+    @Test
+    public void testSuggest() {
+        // Arrange
+        List<Suggestion> suggestions = List.of(new Suggestion("Toronto", "city", 40));
+        when(jobService.suggest("tor", 8)).thenReturn(suggestions);
+
+        // Act
+        List<Suggestion> returned = jobController.suggest("tor", 8);
+
+        // Assert
+        assertEquals(suggestions, returned);
     }
 
     @Test
@@ -287,13 +372,166 @@ public class JobControllerTest {
         Integer minSalary = 10000;
         Integer maxSalary = 50000;
         String search = "TestSearch";
-        List<Job> expectedJobs = Arrays.asList(new Job(), new Job());
+        List<JobListing> expectedJobs = Arrays.asList(JobListing.of(new Job()), JobListing.of(new Job()));
         when(jobService.getJobsByFilterSearch(location, jobType, minSalary, maxSalary, search)).thenReturn(expectedJobs);
 
         // Execute
-        List<Job> result = jobController.getJobByFilter(location, jobType, minSalary, maxSalary, search);
+        List<JobListing> result = jobController.getJobByFilter(location, jobType, minSalary, maxSalary, search);
 
         // Verify
         assertEquals(expectedJobs.size(), result.size());
     }
+
+    @Test
+    public void testGetFacets() {
+        // Prepare
+        FacetResult facets = new FacetResult(List.of(), List.of(), List.of(),
+                List.of(new JobSummary(1L, "Title", "Company", "TestLocation", null, "Full-time", null, null)), 1);
+        when(facetService.getFacets("TestLocation", null, null, null, "java", 0, 100)).thenReturn(facets);
+
+        // Execute
+        FacetResult result = jobController.getFacets("TestLocation", null, null, null, "java", -1, 500);
+
+        // Verify
+        assertEquals(facets, result);
+    }
+
+    @Test
+    public void testGetFacetCounts() {
+        // Prepare
+        CompletableFuture<FacetCounts> counts = CompletableFuture.completedFuture(
+                new FacetCounts(List.of(), null, List.of()));
+        when(facetCountService.getFacetCounts("TestLocation", null, null, null, "java")).thenReturn(counts);
+
+        // Execute
+        CompletableFuture<FacetCounts> result = jobController.getFacetCounts("TestLocation", null, null, null, "java");
+
+        // Verify
+        assertEquals(List.of("jobTypes"), result.join().getUnavailable());
+    }
+
+    @Test
+    public void testGetJobPageBySortClampsLimit() {
+        // Prepare
+        CursorPage<JobSummary> page = new CursorPage<>(Collections.emptyList(), "next");
+        when(jobService.getJobPage("TestLocation", null, null, null, "java", false, "salary", null, 500)).thenReturn(page);
+
+        // Execute
+        CursorPage<JobSummary> result = jobController.getJobPageBySort("TestLocation", null, null, null, "java", "salary", 10000, null);
+
+        // Verify
+        assertEquals(page, result);
+    }
+
+    // Helper method to create a job with the given id and title
+    private Job job(long id, String title) {
+        Job job = new Job();
+        job.setJobID(id);
+        job.setTitle(title);
+        return job;
+    }
+
+    // Helper method to write a streaming body and return it as text
+    private String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testStreamJobsByFilterWritesOneJobPerLine() throws IOException {
+        // Prepare
+        doAnswer(invocation -> {
+            Consumer<Job> write = invocation.getArgument(7);
+            write.accept(job(1L, "Developer"));
+            write.accept(job(2L, "Analyst"));
+            return 2L;
+        }).when(jobService).streamJobs(eq("TestLocation"), isNull(), isNull(), isNull(), isNull(), eq(true), isNull(), any());
+
+        // Execute
+        ResponseEntity<StreamingResponseBody> response = jobController.streamJobsByFilter("TestLocation", null, null, null);
+        String body = write(response);
+
+        // Verify
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = body.split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals(1L, objectMapper.readTree(lines[0]).get("jobID").asLong());
+        assertEquals("Analyst", objectMapper.readTree(lines[1]).get("title").asText());
+        assertEquals("", lines[2]);
+    }
+
+    @Test
+    public void testStreamJobsBySearchWithNoMatchesStreamsNothing() throws IOException {
+        // Prepare
+        when(jobService.streamSearchJobs(eq("nothing"), any())).thenReturn(0L);
+
+        // Execute
+        String body = write(jobController.streamJobsBySearch("nothing"));
+
+        // Verify: no fallback to every job
+        assertEquals("", body);
+        verify(jobService, never()).streamJobs(any(), any(), any(), any(), any(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    public void testGetSalaryHistogramWithBucketWidth() {
+        // Prepare
+        SalaryDistribution distribution = new SalaryDistribution(10000,
+                List.of(Map.of("minSalary", 60000, "maxSalary", 69999, "count", 3)), Map.of());
+        when(jobService.getSalaryDistribution("Toronto, ON", null, 10000, List.of())).thenReturn(distribution);
+
+        // Execute
+        List<Map<String, Object>> result = jobController.getSalaryHistogram("Toronto, ON", null, 10000);
+
+        // Verify
+        assertEquals(distribution.buckets(), result);
+    }
+
+    @Test
+    public void testGetSalaryDistribution() {
+        // Prepare
+        SalaryDistribution distribution = new SalaryDistribution(50000, List.of(), Map.of("50", 65000));
+        when(jobService.getSalaryDistribution(null, "Full-time", 50000, List.of(50.0))).thenReturn(distribution);
+
+        // Execute
+        SalaryDistribution result = jobController.getSalaryDistribution(null, "Full-time", 50000, List.of(50.0));
+
+        // Verify
+        assertEquals(distribution, result);
+    }
+
+    @Test
+    public void testCoordinateVariantsAreExclusive() throws Exception {
+        // Prepare
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(jobController).build();
+        when(mapService.getMarkersInBox(any(), any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        // Execute and Verify: one variant parameter picks its handler, a combination is rejected
+        mockMvc.perform(get("/api/jobs/coordinates").param("bbox", "-80,43,-79,44"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/jobs/coordinates").param("bbox", "-80,43,-79,44").param("near", "43.6,-79.4"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/jobs/coordinates").param("near", "43.6,-79.4").param("limit", "10"))
+                .andExpect(status().isBadRequest());
+        verify(mapService).getMarkersInBox(isNull(), isNull(), isNull(), isNull(), isNull(), any());
+    }
+
+    @Test
+    public void testGetJobCoordinatesNearRejectsBadInput() throws Exception {
+        // Prepare
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(jobController).build();
+
+        // Execute and Verify
+        mockMvc.perform(get("/api/jobs/coordinates").param("near", "toronto,-79.4"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/jobs/coordinates").param("near", "91,-79.4"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/jobs/coordinates").param("near", "NaN,-79.4"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/jobs/coordinates").param("near", "43.6,-79.4").param("radiusKm", "NaN"))
+                .andExpect(status().isBadRequest());
+        verify(mapService, never()).getMarkersNear(any(), any(), any(), any(), any(), anyDouble(), anyDouble(),
+                anyDouble());
+    }
 }
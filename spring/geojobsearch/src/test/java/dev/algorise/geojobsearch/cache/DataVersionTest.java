@@ -0,0 +1,164 @@
+package dev.algorise.geojobsearch.cache;
+
+import dev.algorise.geojobsearch.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DataVersionTest {
+
+    private static final Timestamp UPDATED = Timestamp.valueOf("2024-03-01 10:00:00");
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private DataVersion dataVersion;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testAdvancePublishesNewGeneration() {
+        // Execute
+        long generation = dataVersion.advance("test");
+
+        // Verify
+        assertEquals(2, generation);
+        assertEquals(2, dataVersion.current());
+        verify(eventPublisher).publishEvent(new DataChangedEvent(2));
+    }
+
+    @Test
+    public void testPollAdvancesOnlyWhenSignatureChanges() {
+        // Prepare
+        when(jobRepository.findDataSignature())
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 42L, UPDATED}))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 42L, UPDATED}))
+                .thenReturn(List.<Object[]>of(new Object[]{11L, 43L, UPDATED}));
+
+        // Execute: the first poll only records the baseline
+        dataVersion.poll();
+        dataVersion.poll();
+        assertEquals(1, dataVersion.current());
+        dataVersion.poll();
+
+        // Verify
+        assertEquals(2, dataVersion.current());
+        verify(eventPublisher).publishEvent(new DataChangedEvent(2));
+    }
+
+    @Test
+    public void testPollAdvancesOnInPlaceUpdate() {
+        // Prepare: same row count and highest JobID, but a row was edited
+        when(jobRepository.findDataSignature())
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 42L, UPDATED}))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 42L, Timestamp.valueOf("2024-03-01 10:05:00")}));
+
+        // Execute
+        dataVersion.poll();
+        dataVersion.poll();
+
+        // Verify
+        assertEquals(2, dataVersion.current());
+        verify(eventPublisher).publishEvent(new DataChangedEvent(2));
+    }
+
+    @Test
+    public void testFailedPollKeepsGeneration() {
+        // Prepare
+        when(jobRepository.findDataSignature()).thenThrow(new IllegalStateException("database unavailable"));
+
+        // Execute
+        dataVersion.poll();
+
+        // Verify
+        assertEquals(1, dataVersion.current());
+        verify(eventPublisher, never()).publishEvent(any(DataChangedEvent.class));
+    }
+
+    @Test
+    public void testAdvanceWithJobIdsIsNotAnnouncedAgainByPoll() {
+        // Prepare
+        long[] jobIds = {7L, 8L};
+        when(jobRepository.findDataSignature())
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 42L, UPDATED}))
+                .thenReturn(List.<Object[]>of(new Object[]{12L, 44L, UPDATED}));
+        dataVersion.poll();
+
+        // Execute: the batch write changed the signature before advancing
+        long generation = dataVersion.advance("2 jobs ingested", jobIds);
+        dataVersion.poll();
+
+        // Verify
+        assertEquals(2, generation);
+        assertEquals(2, dataVersion.current());
+        verify(eventPublisher).publishEvent(new DataChangedEvent(2, jobIds));
+    }
+
+    @Test
+    public void testPublishedGenerationWaitsForListeners() {
+        // Prepare
+        long[] seenByListener = new long[1];
+        doAnswer(invocation -> {
+            seenByListener[0] = dataVersion.published();
+            return null;
+        }).when(eventPublisher).publishEvent(any(DataChangedEvent.class));
+
+        // Execute
+        dataVersion.advance("test");
+
+        // Verify
+        assertEquals(1, seenByListener[0]);
+        assertEquals(2, dataVersion.published());
+    }
+
+    @Test
+    public void testRequestedAdvancesAreCoalesced() throws Exception {
+        // Prepare: the first rebuild blocks until released
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(eventPublisher).publishEvent(any(DataChangedEvent.class));
+
+        // Execute: one request starts a rebuild, the next two share the one after it
+        boolean first = dataVersion.requestAdvance("test");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        boolean second = dataVersion.requestAdvance("test");
+        boolean third = dataVersion.requestAdvance("test");
+        release.countDown();
+
+        // Verify
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        verify(eventPublisher, timeout(5000).times(2)).publishEvent(any(DataChangedEvent.class));
+        dataVersion.shutdown();
+    }
+}
@@ -0,0 +1,74 @@
+package dev.algorise.geojobsearch.cache;
+
+import dev.algorise.geojobsearch.model.Company;
+import dev.algorise.geojobsearch.model.Job;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EntityCacheEvictorTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private jakarta.persistence.Cache jpaCache;
+
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private EntityCacheEvictor entityCacheEvictor;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.getCache()).thenReturn(jpaCache);
+        when(jpaCache.unwrap(Cache.class)).thenReturn(cache);
+    }
+
+    @Test
+    public void testIncrementalChangeEvictsChangedJobsOnly() {
+        // Execute
+        entityCacheEvictor.onDataChanged(new DataChangedEvent(2, new long[]{7, 3}));
+
+        // Verify
+        verify(cache).evictEntityData(Job.class, 3L);
+        verify(cache).evictEntityData(Job.class, 7L);
+        verify(cache).evictQueryRegions();
+        verify(cache, never()).evictAllRegions();
+        verify(cache, never()).evictEntityData(Company.class);
+    }
+
+    @Test
+    public void testOutsideChangeEvictsEverything() {
+        // Execute
+        entityCacheEvictor.onDataChanged(new DataChangedEvent(2));
+
+        // Verify
+        verify(cache).evictAllRegions();
+        verify(cache, never()).evictEntityData(any(Class.class), any());
+    }
+
+    @Test
+    public void testEvictCompanies() {
+        // Execute
+        entityCacheEvictor.evictCompanies(List.of("a", "b"));
+
+        // Verify
+        verify(cache).evictEntityData(Company.class, "a");
+        verify(cache).evictEntityData(Company.class, "b");
+        verify(cache).evictQueryRegions();
+    }
+}
@@ -0,0 +1,118 @@
+package dev.algorise.geojobsearch.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BoundedDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    private BoundedDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new BoundedDataSource(pool, 2, 50);
+    }
+
+    @Test
+    public void testCallersBeyondLimitTimeOut() throws SQLException {
+        // Prepare
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Execute and Verify
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.getActiveCount());
+    }
+
+    @Test
+    public void testCloseReleasesPermitOnce() throws SQLException {
+        // Prepare
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Execute
+        first.close();
+        first.close();
+
+        // Verify: one permit came back, the second close did not hand out another
+        assertEquals(1, dataSource.getActiveCount());
+        assertNotNull(dataSource.getConnection());
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+    }
+
+    @Test
+    public void testWaitingCallerGetsReleasedConnection() throws Exception {
+        // Prepare
+        BoundedDataSource slowDataSource = new BoundedDataSource(pool, 1, 5000);
+        Connection held = slowDataSource.getConnection();
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return slowDataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (slowDataSource.getWaitingCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // Execute
+        held.close();
+
+        // Verify
+        assertNotNull(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(0, slowDataSource.getWaitingCount());
+    }
+
+    @Test
+    public void testFailedConnectionReleasesPermit() throws SQLException {
+        // Prepare
+        when(pool.getConnection()).thenThrow(new SQLException("down"));
+
+        // Execute
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        // Verify: every attempt reached the pool instead of timing out on a leaked permit
+        verify(pool, times(3)).getConnection();
+        assertEquals(0, dataSource.getActiveCount());
+    }
+
+    @Test
+    public void testCallsAreDelegated() throws SQLException {
+        // Prepare
+        Connection target = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(target);
+        Connection connection = dataSource.getConnection();
+
+        // Execute
+        connection.setAutoCommit(false);
+        connection.close();
+
+        // Verify
+        verify(target).setAutoCommit(false);
+        verify(target).close();
+    }
+}
@@ -0,0 +1,121 @@
+package dev.algorise.geojobsearch.config;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.cache.SearchKey;
+import dev.algorise.geojobsearch.geo.ClusterIndex;
+import dev.algorise.geojobsearch.geo.GeoGridIndex;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.search.RankedSearchIndex;
+import dev.algorise.geojobsearch.search.SuggestIndex;
+import dev.algorise.geojobsearch.service.CompanyIngestService;
+import dev.algorise.geojobsearch.snapshot.BitmapIndex;
+import dev.algorise.geojobsearch.snapshot.FacetCube;
+import dev.algorise.geojobsearch.snapshot.JobSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheConfigTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig(1000, 600);
+
+    // Stand-in for a cached service method; the search is found by annotation, not by name
+    @SuppressWarnings("unused")
+    public List<Object> getJobsByFilterSearch(String location, @SearchKey String keywords) {
+        return null;
+    }
+
+    @Test
+    public void testSearchKeysAreNormalized() throws Exception {
+        // Prepare
+        KeyGenerator keyGenerator = cacheConfig.filterKeyGenerator();
+        Method method = getClass().getMethod("getJobsByFilterSearch", String.class, String.class);
+
+        // Execute
+        Object first = keyGenerator.generate(this, method, "Toronto, ON", " Java  Developer ");
+        Object second = keyGenerator.generate(this, method, "Toronto, ON", "java developer");
+        Object otherLocation = keyGenerator.generate(this, method, "toronto, on", "java developer");
+
+        // Verify: only the search string is normalized
+        assertEquals(first, second);
+        assertNotEquals(first, otherLocation);
+    }
+
+    // Stand-in for an index listener, which serves a request while it rebuilds
+    public static class RebuildingIndex {
+        private final CacheManager cacheManager;
+
+        public RebuildingIndex(CacheManager cacheManager) {
+            this.cacheManager = cacheManager;
+        }
+
+        @EventListener
+        @Order(DataChangedEvent.REBUILD_ORDER)
+        public void onDataChanged(DataChangedEvent event) {
+            cacheManager.getCache(CacheConfig.FACETS).put("key", List.of("old generation"));
+        }
+    }
+
+    @Test
+    public void testCachesAreClearedAfterIndexListeners() {
+        // Prepare
+        try (AnnotationConfigApplicationContext context =
+                new AnnotationConfigApplicationContext(CacheConfig.class, RebuildingIndex.class)) {
+            Cache cache = context.getBean(CacheManager.class).getCache(CacheConfig.FACETS);
+
+            // Execute
+            context.publishEvent(new DataChangedEvent(2));
+
+            // Verify: what was cached during the rebuild is gone
+            assertNull(cache.get("key"));
+        }
+    }
+
+    @Test
+    public void testIndexListenersRunBeforeCachesAreCleared() throws Exception {
+        // Prepare
+        int clearOrder = CacheConfig.class.getMethod("onDataChanged", DataChangedEvent.class)
+                .getAnnotation(Order.class).value();
+        List<Class<?>> indexes = List.of(JobSnapshot.class, BitmapIndex.class, FacetCube.class,
+                KeywordIndex.class, RankedSearchIndex.class, SuggestIndex.class, ClusterIndex.class,
+                GeoGridIndex.class, CompanyIngestService.class);
+
+        // Execute & Verify
+        for (Class<?> index : indexes) {
+            for (Method method : index.getMethods()) {
+                if (method.isAnnotationPresent(EventListener.class)) {
+                    Order order = method.getAnnotation(Order.class);
+                    assertNotNull(order, index.getSimpleName() + "." + method.getName());
+                    assertTrue(order.value() < clearOrder, index.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDataChangeClearsCaches() {
+        // Prepare
+        CacheManager cacheManager = cacheConfig.cacheManager();
+        Cache cache = cacheManager.getCache(CacheConfig.FACETS);
+        cache.put("key", List.of(1, 2, 3));
+
+        // Execute
+        cacheConfig.onDataChanged(new DataChangedEvent(2));
+
+        // Verify
+        assertNull(cache.get("key"));
+    }
+}
@@ -0,0 +1,39 @@
+package dev.algorise.geojobsearch.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class DataSourceConfigTest {
+
+    @Test
+    public void testWrapsDataSourcesOnly() {
+        // Prepare
+        BeanPostProcessor postProcessor = DataSourceConfig.boundedDataSourcePostProcessor(20, 1000);
+        DataSource pool = mock(DataSource.class);
+        Object other = new Object();
+
+        // Execute
+        Object wrapped = postProcessor.postProcessAfterInitialization(pool, "dataSource");
+
+        // Verify
+        assertInstanceOf(BoundedDataSource.class, wrapped);
+        assertSame(wrapped, postProcessor.postProcessAfterInitialization(wrapped, "dataSource"));
+        assertSame(other, postProcessor.postProcessAfterInitialization(other, "other"));
+    }
+
+    @Test
+    public void testZeroLimitLeavesDataSourceAlone() {
+        // Prepare
+        BeanPostProcessor postProcessor = DataSourceConfig.boundedDataSourcePostProcessor(0, 1000);
+        DataSource pool = mock(DataSource.class);
+
+        // Execute and Verify
+        assertSame(pool, postProcessor.postProcessAfterInitialization(pool, "dataSource"));
+    }
+}
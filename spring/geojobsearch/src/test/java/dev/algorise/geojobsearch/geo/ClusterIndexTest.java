@@ -0,0 +1,74 @@
+package dev.algorise.geojobsearch.geo;
+
+import dev.algorise.geojobsearch.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class ClusterIndexTest {
+
+    private static final BoundingBox CANADA = BoundingBox.parse("-141,41,-52,84");
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @InjectMocks
+    private ClusterIndex clusterIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{new BigDecimal("43.6532"), new BigDecimal("-79.3832"), 30L},
+                new Object[]{new BigDecimal("43.8561"), new BigDecimal("-79.3370"), 10L},
+                new Object[]{new BigDecimal("51.0447"), new BigDecimal("-114.0719"), 5L});
+        when(jobRepository.findCompanyJobCounts()).thenReturn(rows);
+        clusterIndex.rebuild();
+    }
+
+    // Helper method to total the job counts of a list of clusters
+    private long total(List<MarkerCluster> clusters) {
+        return clusters.stream().mapToLong(MarkerCluster::count).sum();
+    }
+
+    @Test
+    public void testZoomedOutMergesNearbyCompanies() {
+        List<MarkerCluster> clusters = clusterIndex.clusters(3, CANADA);
+
+        assertEquals(2, clusters.size());
+        assertEquals(45, total(clusters));
+    }
+
+    @Test
+    public void testZoomedInSeparatesCompanies() {
+        List<MarkerCluster> clusters = clusterIndex.clusters(14, CANADA);
+
+        assertEquals(3, clusters.size());
+    }
+
+    @Test
+    public void testCentroidIsJobWeighted() {
+        MarkerCluster toronto = clusterIndex.clusters(3, BoundingBox.parse("-80,43,-79,44")).get(0);
+
+        assertEquals(40, toronto.count());
+        assertTrue(toronto.latitude() > 43.65 && toronto.latitude() < 43.71);
+    }
+
+    @Test
+    public void testAdjustUpdatesEveryLevel() {
+        clusterIndex.adjust(51.0447, -114.0719, -5);
+
+        assertEquals(40, total(clusterIndex.clusters(0, CANADA)));
+        assertEquals(2, clusterIndex.clusters(ClusterIndex.MAX_ZOOM, CANADA).size());
+    }
+}
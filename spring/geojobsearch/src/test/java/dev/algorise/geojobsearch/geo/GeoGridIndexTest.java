@@ -0,0 +1,82 @@
+package dev.algorise.geojobsearch.geo;
+
+import dev.algorise.geojobsearch.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class GeoGridIndexTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @InjectMocks
+    private GeoGridIndex geoGridIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    // Helper method to load the index with Toronto, Markham and Calgary companies
+    private void buildIndex() {
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{"toronto", new BigDecimal("43.6532"), new BigDecimal("-79.3832")},
+                new Object[]{"markham", new BigDecimal("43.8561"), new BigDecimal("-79.3370")},
+                new Object[]{"calgary", new BigDecimal("51.0447"), new BigDecimal("-114.0719")});
+        when(jobRepository.findCompanyCoordinates()).thenReturn(rows);
+        geoGridIndex.rebuild();
+    }
+
+    @Test
+    public void testNotReadyBeforeRebuild() {
+        assertNull(geoGridIndex.companiesIn(BoundingBox.parse("-80,43,-79,44")));
+    }
+
+    @Test
+    public void testCompaniesInBox() {
+        buildIndex();
+
+        List<String> result = geoGridIndex.companiesIn(BoundingBox.parse("-80,43,-79,44"));
+        Collections.sort(result);
+
+        assertEquals(Arrays.asList("markham", "toronto"), result);
+    }
+
+    @Test
+    public void testWholeCountryBoxWalksOccupiedCells() {
+        buildIndex();
+
+        assertEquals(3, geoGridIndex.companiesIn(BoundingBox.parse("-141,41,-52,84")).size());
+    }
+
+    @Test
+    public void testCompaniesWithinRadius() {
+        buildIndex();
+
+        Map<String, Double> result = geoGridIndex.companiesWithin(43.6532, -79.3832, 10);
+
+        assertEquals(1, result.size());
+        assertTrue(result.get("toronto") < 0.01);
+    }
+
+    @Test
+    public void testMalformedBoundingBox() {
+        assertThrows(IllegalArgumentException.class, () -> BoundingBox.parse("1,2,3"));
+        assertThrows(IllegalArgumentException.class, () -> BoundingBox.parse("-79,44,-80,43"));
+    }
+}
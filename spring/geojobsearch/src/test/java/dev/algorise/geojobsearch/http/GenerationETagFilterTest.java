@@ -0,0 +1,139 @@
+package dev.algorise.geojobsearch.http;
+
+import dev.algorise.geojobsearch.cache.DataVersion;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class GenerationETagFilterTest {
+
+    @Mock
+    private DataVersion dataVersion;
+
+    @InjectMocks
+    private GenerationETagFilter generationETagFilter;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(dataVersion.published()).thenReturn(4L);
+    }
+
+    // Helper method to build a GET request for the given path
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Accept", "application/json");
+        request.addHeader("Accept-Encoding", "gzip");
+        return request;
+    }
+
+    @Test
+    public void testSuccessfulResponseIsTagged() throws Exception {
+        // Prepare
+        MockHttpServletRequest request = request("/api/jobs");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Execute
+        generationETagFilter.doFilter(request, response, (req, res) -> res.getWriter().write("[]"));
+
+        // Verify
+        String etag = generationETagFilter.etag(request);
+        assertEquals(etag, response.getHeader("ETag"));
+        assertEquals(etag, request.getAttribute(GenerationETagFilter.ETAG_ATTRIBUTE));
+        assertTrue(etag.startsWith("\"4-") && etag.endsWith("-gzip\""));
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+        assertTrue(response.getHeaders("Vary").contains("Accept"));
+    }
+
+    @Test
+    public void testErrorResponseIsNotTagged() throws Exception {
+        // Prepare
+        MockHttpServletRequest request = request("/api/jobs/salary/histogram");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Execute
+        generationETagFilter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setStatus(400);
+            res.getWriter().write("{\"error\":\"bucketWidth\"}");
+        });
+
+        // Verify
+        assertNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    public void testEmptyResponseIsTaggedAfterTheChain() throws Exception {
+        // Prepare
+        MockHttpServletRequest request = request("/api/jobs/map");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Execute
+        generationETagFilter.doFilter(request, response, (req, res) -> { });
+
+        // Verify
+        assertEquals(generationETagFilter.etag(request), response.getHeader("ETag"));
+    }
+
+    @Test
+    public void testETagNamesGenerationAndRepresentation() {
+        // Prepare
+        MockHttpServletRequest json = request("/api/jobs");
+        MockHttpServletRequest ndjson = new MockHttpServletRequest("GET", "/api/jobs");
+        ndjson.addHeader("Accept", "application/x-ndjson");
+        ndjson.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletRequest identity = new MockHttpServletRequest("GET", "/api/jobs");
+        identity.addHeader("Accept", "application/json");
+
+        // Execute
+        String jsonETag = generationETagFilter.etag(json);
+        String ndjsonETag = generationETagFilter.etag(ndjson);
+        String identityETag = generationETagFilter.etag(identity);
+        when(dataVersion.published()).thenReturn(5L);
+        String nextETag = generationETagFilter.etag(json);
+
+        // Verify
+        assertNotEquals(jsonETag, ndjsonETag);
+        assertNotEquals(jsonETag, identityETag);
+        assertTrue(identityETag.endsWith("-identity\""));
+        assertNotEquals(jsonETag, nextETag);
+    }
+
+    @Test
+    public void testMatches() {
+        assertTrue(GenerationETagFilter.matches("\"4-a-gzip\"", "\"4-a-gzip\""));
+        assertTrue(GenerationETagFilter.matches("\"3-a-gzip\", W/\"4-a-gzip\"", "\"4-a-gzip\""));
+        assertTrue(GenerationETagFilter.matches("*", "\"4-a-gzip\""));
+        assertFalse(GenerationETagFilter.matches("\"3-a-gzip\"", "\"4-a-gzip\""));
+        assertFalse(GenerationETagFilter.matches(null, "\"4-a-gzip\""));
+    }
+
+    @Test
+    public void testSkipsWritesAndCacheStatistics() throws Exception {
+        // Prepare
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/api/jobs");
+        MockHttpServletRequest stats = request("/api/jobs/cache/stats");
+        MockHttpServletResponse postResponse = new MockHttpServletResponse();
+        MockHttpServletResponse statsResponse = new MockHttpServletResponse();
+
+        // Execute
+        generationETagFilter.doFilter(post, postResponse, (req, res) -> { });
+        generationETagFilter.doFilter(stats, statsResponse, (req, res) -> { });
+
+        // Verify
+        assertNull(postResponse.getHeader("ETag"));
+        assertNull(statsResponse.getHeader("ETag"));
+        assertNull(stats.getAttribute(GenerationETagFilter.ETAG_ATTRIBUTE));
+    }
+}
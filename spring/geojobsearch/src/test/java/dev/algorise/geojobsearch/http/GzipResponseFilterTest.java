@@ -0,0 +1,153 @@
+package dev.algorise.geojobsearch.http;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GzipResponseFilterTest {
+
+    private GzipResponseFilter gzipResponseFilter;
+
+    @BeforeEach
+    public void setUp() {
+        gzipResponseFilter = new GzipResponseFilter(1024);
+    }
+
+    // Helper method to build a GET request with the given Accept-Encoding header
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jobs");
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        return request;
+    }
+
+    // Helper method to create a JSON body of roughly the given size
+    private static byte[] json(int size) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; body.length() < size; i++) {
+            body.append("{\"jobID\":").append(i).append(",\"title\":\"Java Developer\"},");
+        }
+        return body.append("{}]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void testLargeJsonBodyIsGzipped() throws Exception {
+        // Prepare
+        MockHttpServletRequest request = request("gzip, deflate, br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] body = json(20000);
+
+        // Execute
+        gzipResponseFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.setContentLength(body.length);
+            res.getOutputStream().write(body);
+            res.flushBuffer();
+        });
+
+        // Verify
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertTrue(response.getHeaders("Vary").contains("Accept-Encoding"));
+        assertTrue(response.getContentAsByteArray().length < body.length / 4);
+        assertEquals(new String(body, StandardCharsets.UTF_8),
+                new String(gunzip(response.getContentAsByteArray()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSmallBodyIsSentAsItIs() throws Exception {
+        // Prepare
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] body = "{\"jobID\":42}".getBytes(StandardCharsets.UTF_8);
+
+        // Execute: the flush must not commit the body before its size is known
+        gzipResponseFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.setContentLength(body.length);
+            res.getOutputStream().write(body);
+            res.getOutputStream().flush();
+        });
+
+        // Verify
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(body.length, response.getContentLength());
+        assertEquals("{\"jobID\":42}", response.getContentAsString());
+    }
+
+    @Test
+    public void testBodyIsNotGzippedWithoutAcceptEncoding() throws Exception {
+        // Prepare
+        MockHttpServletRequest request = request("gzip;q=0, br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] body = json(20000);
+
+        // Execute
+        gzipResponseFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(body);
+        });
+
+        // Verify
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(body.length, response.getContentAsByteArray().length);
+        assertTrue(response.getHeaders("Vary").contains("Accept-Encoding"));
+    }
+
+    @Test
+    public void testParsesAcceptEncoding() {
+        assertTrue(GzipResponseFilter.acceptsGzip(request("gzip")));
+        assertTrue(GzipResponseFilter.acceptsGzip(request("br;q=1.0, GZIP;q=0.5")));
+        assertTrue(GzipResponseFilter.acceptsGzip(request("*")));
+        assertFalse(GzipResponseFilter.acceptsGzip(request("*, gzip;q=0")));
+        assertFalse(GzipResponseFilter.acceptsGzip(request("identity, br")));
+        assertFalse(GzipResponseFilter.acceptsGzip(request(null)));
+    }
+
+    @Test
+    public void testStreamingBodyIsFinishedByAsyncDispatch() throws Exception {
+        // Prepare
+        MockHttpServletRequest request = request("gzip");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] rows = json(5000);
+
+        // Execute: rows are written and flushed after the filter chain has returned
+        gzipResponseFilter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/x-ndjson");
+            req.startAsync(req, res);
+        });
+        ServletResponse asyncResponse = request.getAsyncContext().getResponse();
+        asyncResponse.getOutputStream().write(rows);
+        asyncResponse.getOutputStream().flush();
+        int flushed = response.getContentAsByteArray().length;
+        asyncResponse.getOutputStream().write(rows);
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        gzipResponseFilter.doFilter(request, response, (req, res) -> { });
+
+        // Verify
+        assertTrue(flushed > 0);
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(2 * rows.length, gunzip(response.getContentAsByteArray()).length);
+    }
+}
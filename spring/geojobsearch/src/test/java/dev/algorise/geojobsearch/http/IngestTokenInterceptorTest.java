@@ -0,0 +1,68 @@
+package dev.algorise.geojobsearch.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IngestTokenInterceptorTest {
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setUp() {
+        request = new MockHttpServletRequest("POST", "/api/jobs/cache/invalidate");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void testMatchingTokenIsAdmitted() throws Exception {
+        // Prepare
+        request.addHeader(IngestTokenInterceptor.TOKEN_HEADER, "s3cret");
+
+        // Execute
+        boolean proceed = new IngestTokenInterceptor("s3cret").preHandle(request, response, new Object());
+
+        // Verify
+        assertTrue(proceed);
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    public void testWrongOrMissingTokenIsUnauthorized() throws Exception {
+        // Prepare
+        IngestTokenInterceptor interceptor = new IngestTokenInterceptor("s3cret");
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        request.addHeader(IngestTokenInterceptor.TOKEN_HEADER, "guess");
+
+        // Execute
+        boolean wrongProceeds = interceptor.preHandle(request, response, new Object());
+        boolean missingProceeds = interceptor.preHandle(
+                new MockHttpServletRequest("POST", "/api/jobs/batch"), missing, new Object());
+
+        // Verify
+        assertFalse(wrongProceeds);
+        assertEquals(401, response.getStatus());
+        assertFalse(missingProceeds);
+        assertEquals(401, missing.getStatus());
+    }
+
+    @Test
+    public void testUnconfiguredTokenRefusesEveryRequest() throws Exception {
+        // Prepare: an empty header must not match an empty token
+        request.addHeader(IngestTokenInterceptor.TOKEN_HEADER, "");
+
+        // Execute
+        boolean proceed = new IngestTokenInterceptor(" ").preHandle(request, response, new Object());
+
+        // Verify
+        assertFalse(proceed);
+        assertEquals(403, response.getStatus());
+    }
+}
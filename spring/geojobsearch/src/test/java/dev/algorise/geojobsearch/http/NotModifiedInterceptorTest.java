@@ -0,0 +1,70 @@
+package dev.algorise.geojobsearch.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NotModifiedInterceptorTest {
+
+    private NotModifiedInterceptor notModifiedInterceptor;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setUp() {
+        notModifiedInterceptor = new NotModifiedInterceptor();
+        request = new MockHttpServletRequest("GET", "/api/jobs/facets");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void testMatchingETagIsNotModified() {
+        // Prepare
+        request.setAttribute(GenerationETagFilter.ETAG_ATTRIBUTE, "\"4-a-gzip\"");
+        request.addHeader("If-None-Match", "\"4-a-gzip\"");
+
+        // Execute
+        boolean proceed = notModifiedInterceptor.preHandle(request, response, new Object());
+
+        // Verify
+        assertFalse(proceed);
+        assertEquals(304, response.getStatus());
+        assertEquals("\"4-a-gzip\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    public void testStaleETagProceeds() {
+        // Prepare
+        request.setAttribute(GenerationETagFilter.ETAG_ATTRIBUTE, "\"4-a-gzip\"");
+        request.addHeader("If-None-Match", "\"3-a-gzip\"");
+
+        // Execute
+        boolean proceed = notModifiedInterceptor.preHandle(request, response, new Object());
+
+        // Verify
+        assertTrue(proceed);
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("ETag"));
+    }
+
+    @Test
+    public void testUntaggedRequestProceeds() {
+        // Prepare
+        request.addHeader("If-None-Match", "*");
+
+        // Execute
+        boolean proceed = notModifiedInterceptor.preHandle(request, response, new Object());
+
+        // Verify
+        assertTrue(proceed);
+        assertEquals(200, response.getStatus());
+    }
+}
@@ -2,6 +2,7 @@ package dev.algorise.geojobsearch.integration;
 
 import dev.algorise.geojobsearch.api.JobController;
 import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobListing;
 import dev.algorise.geojobsearch.service.JobService;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -201,11 +202,11 @@ public class JobIntegrationTest {
         // Mocking the behavior of jobService.getJobsByFilter() to return jobs filtered by location
         when(jobService.getJobsByFilter("San Francisco, CA", null, null, null))
             .thenReturn(Arrays.asList(
-                new Job(), new Job()
+                JobListing.of(new Job()), JobListing.of(new Job())
             ));
 
         // Calling the controller method to get jobs filtered by location
-        List<Job> filteredJobs = jobController.getJobByFilter("San Francisco, CA", null, null, null);
+        List<JobListing> filteredJobs = jobController.getJobByFilter("San Francisco, CA", null, null, null);
 
         // Asserting the count of returned jobs
         assertEquals(2, filteredJobs.size());
@@ -215,8 +216,8 @@ public class JobIntegrationTest {
     @Test
     public void testUpdateJobBySearch_KeywordFound() {
         //This tests the /api/jobs/search endpoint
-        // Mocking the behavior of jobService.updateJobsBySearch() to return jobs containing the keyword "Software"
-        when(jobService.updateJobsBySearch(jobService.getAllJobs(), "Software"))
+        // Mocking the behavior of jobService.searchJobs() to return jobs containing the keyword "Software"
+        when(jobService.searchJobs("Software"))
             .thenReturn(Arrays.asList(
                 new Job(), new Job()
             ));
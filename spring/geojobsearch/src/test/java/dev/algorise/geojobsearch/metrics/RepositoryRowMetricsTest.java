@@ -0,0 +1,82 @@
+package dev.algorise.geojobsearch.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+public class RepositoryRowMetricsTest {
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    @Mock
+    private MethodInvocation invocation;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RepositoryRowMetrics repositoryRowMetrics;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(meterRegistryProvider.getIfAvailable()).thenReturn(meterRegistry);
+        when(invocation.getMethod()).thenReturn(List.class.getMethod("size"));
+        repositoryRowMetrics = new RepositoryRowMetrics(meterRegistryProvider, "JobRepository");
+    }
+
+    @Test
+    public void testRecordsRowsPerMethod() throws Throwable {
+        // Prepare
+        List<String> rows = Arrays.asList("a", "b", "c");
+        when(invocation.proceed()).thenReturn(rows, List.of("d"));
+
+        // Execute
+        Object first = repositoryRowMetrics.invoke(invocation);
+        repositoryRowMetrics.invoke(invocation);
+
+        // Verify
+        assertSame(rows, first);
+        DistributionSummary summary = meterRegistry.find(RepositoryRowMetrics.ROWS)
+                .tags("repository", "JobRepository", "method", "size").summary();
+        assertEquals(2, summary.count());
+        assertEquals(4, summary.totalAmount());
+    }
+
+    @Test
+    public void testIgnoresResultsThatAreNotRows() throws Throwable {
+        // Prepare
+        when(invocation.proceed()).thenReturn(42L);
+
+        // Execute
+        repositoryRowMetrics.invoke(invocation);
+
+        // Verify
+        assertNull(meterRegistry.find(RepositoryRowMetrics.ROWS).summary());
+    }
+
+    @Test
+    public void testCountsRowsOfEachResultType() {
+        assertEquals(2, RepositoryRowMetrics.rowCount(List.of(1, 2)));
+        assertEquals(3, RepositoryRowMetrics.rowCount(new PageImpl<>(List.of(1, 2, 3))));
+        assertEquals(1, RepositoryRowMetrics.rowCount(Optional.of(1)));
+        assertEquals(0, RepositoryRowMetrics.rowCount(Optional.empty()));
+        assertEquals(-1, RepositoryRowMetrics.rowCount(null));
+        assertEquals(-1, RepositoryRowMetrics.rowCount(7L));
+    }
+}
@@ -0,0 +1,65 @@
+package dev.algorise.geojobsearch.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ResponseSizeFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ResponseSizeFilter responseSizeFilter;
+
+    @BeforeEach
+    public void setUp() {
+        responseSizeFilter = new ResponseSizeFilter(meterRegistry);
+    }
+
+    @Test
+    public void testRecordsBytesPerUriPattern() throws Exception {
+        // Prepare
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jobs/42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] body = "{\"jobID\":42}".getBytes(StandardCharsets.UTF_8);
+
+        // Execute
+        responseSizeFilter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/jobs/{id}");
+            res.getOutputStream().write(body);
+            res.getOutputStream().write('\n');
+        });
+
+        // Verify: the body still reaches the client
+        assertEquals(body.length + 1, response.getContentAsByteArray().length);
+        DistributionSummary summary = meterRegistry.find(ResponseSizeFilter.RESPONSE_SIZE)
+                .tags("method", "GET", "uri", "/api/jobs/{id}").summary();
+        assertEquals(1, summary.count());
+        assertEquals(body.length + 1, summary.totalAmount());
+    }
+
+    @Test
+    public void testAsyncResponsesAreRecordedOnCompletion() throws Exception {
+        // Prepare
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/jobs");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Execute: the body is written after the filter chain has returned
+        responseSizeFilter.doFilter(request, response, (req, res) -> req.startAsync(req, res));
+        request.getAsyncContext().getResponse().getOutputStream().write(new byte[100]);
+        request.getAsyncContext().complete();
+
+        // Verify
+        DistributionSummary summary = meterRegistry.find(ResponseSizeFilter.RESPONSE_SIZE).summary();
+        assertEquals(100, summary.totalAmount());
+    }
+}
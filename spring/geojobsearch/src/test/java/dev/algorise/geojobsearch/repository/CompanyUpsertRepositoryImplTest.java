@@ -0,0 +1,55 @@
+package dev.algorise.geojobsearch.repository;
+
+import dev.algorise.geojobsearch.model.CompanyUpsert;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CompanyUpsertRepositoryImplTest {
+
+    @Test
+    public void testUpsertReadsInsertedRowThroughServerSyntax() {
+        // Execute
+        String rowAlias = CompanyUpsertRepositoryImpl.upsertSql(UpsertSyntax.ROW_ALIAS);
+        String valuesFunction = CompanyUpsertRepositoryImpl.upsertSql(UpsertSyntax.VALUES_FUNCTION);
+
+        // Verify: coordinates are only replaced by non-null values
+        assertTrue(rowAlias.contains("?) AS new ON DUPLICATE KEY UPDATE Name = new.Name, "));
+        assertTrue(rowAlias.endsWith("Longitude = COALESCE(new.Longitude, Longitude)"));
+        assertFalse(rowAlias.contains("VALUES("));
+        assertTrue(valuesFunction.contains("Latitude = COALESCE(VALUES(Latitude), Latitude)"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testServerSyntaxIsReadOnce() {
+        // Prepare
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(UpsertSyntax.ROW_ALIAS);
+        CompanyUpsertRepositoryImpl repository = new CompanyUpsertRepositoryImpl(jdbcTemplate);
+        List<CompanyUpsert> companies = List.of(
+                new CompanyUpsert("acme_toronto_on", "Acme", "Toronto", "ON", null, null, null));
+
+        // Execute
+        repository.upsert(companies, 100);
+        repository.upsert(companies, 100);
+
+        // Verify
+        verify(jdbcTemplate, times(1)).execute(any(ConnectionCallback.class));
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(CompanyUpsertRepositoryImpl.upsertSql(UpsertSyntax.ROW_ALIAS)),
+                anyCollection(), eq(100), any(ParameterizedPreparedStatementSetter.class));
+    }
+}
@@ -0,0 +1,113 @@
+package dev.algorise.geojobsearch.repository;
+
+import dev.algorise.geojobsearch.model.Job;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyChar;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobSpecificationsTest {
+
+    @Mock
+    private Root<Job> root;
+
+    @Mock
+    private Path<Object> path;
+
+    @Mock
+    private CriteriaBuilder cb;
+
+    @Mock
+    private Predicate predicate;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(root.get(anyString())).thenReturn(path);
+        when(cb.equal(any(), any(Object.class))).thenReturn(predicate);
+        when(cb.like(any(), anyString(), anyChar())).thenReturn(predicate);
+        when(cb.or(any(Predicate[].class))).thenReturn(predicate);
+        when(cb.and(any(Predicate[].class))).thenReturn(predicate);
+    }
+
+    @Test
+    public void testOnlySuppliedFiltersBecomePredicates() {
+        // Execute
+        List<Predicate> predicates = JobSpecifications.predicates(
+                JobFilter.of("Toronto, ON", null, null, null), root, cb);
+
+        // Verify: a single equality on location, nothing for the unset filters
+        assertEquals(1, predicates.size());
+        verify(root).get("location");
+        verify(root, never()).get("jobType");
+        verify(cb, never()).ge(any(), any(Number.class));
+        verify(cb, never()).le(any(), any(Number.class));
+        verify(root, never()).join(anyString());
+    }
+
+    @Test
+    public void testEveryKeywordIsMatched() {
+        // Execute
+        JobFilter filter = JobFilter.builder()
+                .allKeywords(Arrays.asList("java", "spring", "kafka", "remote", "50%")).build();
+        List<Predicate> predicates = JobSpecifications.predicates(filter, root, cb);
+
+        // Verify: title, description and company for each of the five keywords, LIKE wildcards escaped
+        assertEquals(1, predicates.size());
+        verify(cb, times(15)).like(any(), anyString(), eq('\\'));
+        verify(cb, times(3)).like(any(), eq("%50\\%%"), eq('\\'));
+    }
+
+    @Test
+    public void testFacetRowsNeedEitherOfTwoSelectedFacets() {
+        // Execute
+        List<Predicate> predicates = JobSpecifications.facetPredicates(
+                JobFilter.of("Toronto, ON", "Full-time", null, null), root, cb);
+
+        // Verify: location OR jobType, since the salary facet is unselected
+        assertEquals(1, predicates.size());
+        verify(cb).or(any(Expression.class), any(Expression.class));
+        verify(cb, never()).and(any(Expression.class), any(Expression.class));
+    }
+
+    @Test
+    public void testFacetRowsNeedTwoOfThreeSelectedFacets() {
+        // Execute
+        List<Predicate> predicates = JobSpecifications.facetPredicates(
+                JobFilter.of("Toronto, ON", "Full-time", 50000, null), root, cb);
+
+        // Verify: one pair of facets per histogram
+        assertEquals(1, predicates.size());
+        verify(cb, times(3)).and(any(Expression.class), any(Expression.class));
+    }
+
+    @Test
+    public void testFacetRowsWithOneSelectedFacetAreUnrestricted() {
+        // Execute
+        List<Predicate> predicates = JobSpecifications.facetPredicates(
+                JobFilter.of("Toronto, ON", null, null, null), root, cb);
+
+        // Verify: every row still counts toward the location histogram
+        assertTrue(predicates.isEmpty());
+        verify(cb, never()).or(any(Expression.class), any(Expression.class));
+    }
+}
@@ -0,0 +1,43 @@
+package dev.algorise.geojobsearch.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.DatabaseMetaData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UpsertSyntaxTest {
+
+    // Helper method to describe a server the way its JDBC driver does
+    private DatabaseMetaData server(String product, String version) throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(product);
+        when(metaData.getDatabaseProductVersion()).thenReturn(version);
+        return metaData;
+    }
+
+    @Test
+    public void testRowAliasFromMySql8019() throws Exception {
+        assertEquals(UpsertSyntax.ROW_ALIAS, UpsertSyntax.of(server("MySQL", "8.0.36")));
+        assertEquals(UpsertSyntax.ROW_ALIAS, UpsertSyntax.of(server("MySQL", "8.0.19")));
+        assertEquals(UpsertSyntax.ROW_ALIAS, UpsertSyntax.of(server("MySQL", "9.1.0")));
+        assertEquals(UpsertSyntax.VALUES_FUNCTION, UpsertSyntax.of(server("MySQL", "8.0.18")));
+        assertEquals(UpsertSyntax.VALUES_FUNCTION, UpsertSyntax.of(server("MySQL", "5.7.44-log")));
+    }
+
+    @Test
+    public void testMariaDbKeepsValuesFunction() throws Exception {
+        // The MySQL driver reports MariaDB 10 behind a 5.5.5 prefix, MariaDB 11 without
+        assertEquals(UpsertSyntax.VALUES_FUNCTION, UpsertSyntax.of(server("MySQL", "5.5.5-10.11.6-MariaDB")));
+        assertEquals(UpsertSyntax.VALUES_FUNCTION, UpsertSyntax.of(server("MySQL", "11.4.2-MariaDB-ubu2404")));
+        assertEquals(UpsertSyntax.VALUES_FUNCTION, UpsertSyntax.of(server("MariaDB", "11.4.2")));
+    }
+
+    @Test
+    public void testAssignInserted() {
+        assertEquals("Name = new.Name, City = new.City", UpsertSyntax.ROW_ALIAS.assignInserted("Name", "City"));
+        assertEquals("Name = VALUES(Name)", UpsertSyntax.VALUES_FUNCTION.assignInserted("Name"));
+    }
+}
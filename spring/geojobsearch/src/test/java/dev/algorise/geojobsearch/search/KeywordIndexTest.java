@@ -0,0 +1,162 @@
+package dev.algorise.geojobsearch.search;
+
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KeywordIndexTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @InjectMocks
+    private KeywordIndex keywordIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    // Helper method to load the index with a small fixed corpus
+    private void buildIndex() {
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{1L, "Java Developer", "Spring Boot, REST APIs", "Acme"},
+                new Object[]{2L, "Frontend Engineer", "JavaScript and React", "Globex"},
+                new Object[]{3L, "Data Analyst", null, "Initech"});
+        when(jobRepository.findSearchableTextAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        keywordIndex.rebuild();
+    }
+
+    @Test
+    public void testNotReadyBeforeRebuild() {
+        assertFalse(keywordIndex.isReady());
+        assertNull(keywordIndex.matchAll(Collections.singletonList("java")));
+    }
+
+    @Test
+    public void testMatchAllUsesSubstringSemantics() {
+        buildIndex();
+
+        BitSet result = keywordIndex.matchAll(Collections.singletonList("java"));
+
+        assertTrue(keywordIndex.isReady());
+        assertEquals(Arrays.asList(1L, 2L), KeywordIndex.toIdList(result));
+    }
+
+    @Test
+    public void testMatchAllIntersectsKeywords() {
+        buildIndex();
+
+        BitSet result = keywordIndex.matchAll(Arrays.asList("java", "react", null));
+
+        assertEquals(Collections.singletonList(2L), KeywordIndex.toIdList(result));
+    }
+
+    @Test
+    public void testMatchAnyUnionsKeywords() {
+        buildIndex();
+
+        BitSet result = keywordIndex.matchAny(Arrays.asList("initech", "spring"));
+
+        assertEquals(Arrays.asList(1L, 3L), KeywordIndex.toIdList(result));
+    }
+
+    @Test
+    public void testMatchIgnoresAccentsLikeCollation() {
+        // Prepare
+        when(jobRepository.findSearchableTextAfter(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(
+                new Object[]{1L, "D\u00e9veloppeur Java", "Bureau de Montr\u00e9al", "Soci\u00e9t\u00e9 G\u00e9n\u00e9rale"},
+                new Object[]{2L, "Java Developer", "Toronto office", "Acme"}));
+        keywordIndex.rebuild();
+
+        // Execute and Verify: accented text and keywords meet in the middle, as in utf8mb4_unicode_ci
+        assertEquals(Arrays.asList(1L), KeywordIndex.toIdList(keywordIndex.matchAll(Collections.singletonList("montreal"))));
+        assertEquals(Arrays.asList(1L), KeywordIndex.toIdList(keywordIndex.matchAll(Collections.singletonList("Montr\u00e9al"))));
+        assertEquals(Arrays.asList(1L, 2L), KeywordIndex.toIdList(keywordIndex.matchAny(Arrays.asList("developpeur", "developer"))));
+        assertEquals(Arrays.asList(1L), KeywordIndex.toIdList(keywordIndex.matchAll(Collections.singletonList("SOCIETE"))));
+    }
+
+    @Test
+    public void testSuffixLookupAgreesWithSubstringScan() {
+        // Prepare: many terms over a small alphabet, so long runs of suffixes share a prefix
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            StringBuilder title = new StringBuilder();
+            for (int length = 1 + random.nextInt(9); length > 0; length--) {
+                title.append("abc".charAt(random.nextInt(3)));
+            }
+            rows.add(new Object[]{id, title.toString(), null, null});
+        }
+        when(jobRepository.findSearchableTextAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        keywordIndex.rebuild();
+
+        // Execute and Verify
+        for (String keyword : Arrays.asList("a", "ab", "cab", "bbb", "abcab", "ccccccccc", "abcabcabca")) {
+            List<Long> expected = new ArrayList<>();
+            for (Object[] row : rows) {
+                if (((String) row[1]).contains(keyword)) {
+                    expected.add((Long) row[0]);
+                }
+            }
+            assertEquals(expected, KeywordIndex.toIdList(keywordIndex.matchAll(Collections.singletonList(keyword))), keyword);
+        }
+    }
+
+    @Test
+    public void testKeywordWithPunctuationFallsBackToSql() {
+        buildIndex();
+
+        assertNull(keywordIndex.matchAll(Collections.singletonList("spring,")));
+    }
+
+    @Test
+    public void testFailedRebuildKeepsIndexUnavailable() {
+        when(jobRepository.findSearchableTextAfter(eq(0L), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        keywordIndex.rebuild();
+
+        assertFalse(keywordIndex.isReady());
+    }
+
+    @Test
+    public void testIncrementalChangePatchesChangedJobsOnly() {
+        // Prepare: job 1 is now a Kotlin job, job 3 is gone and job 4 is new
+        buildIndex();
+        when(jobRepository.findSearchableTextByIds(anyCollection())).thenReturn(Arrays.asList(
+                new Object[]{1L, "Kotlin Developer", "Spring Boot", "Acme"},
+                new Object[]{4L, "Java Architect", null, "Initech"}));
+
+        keywordIndex.onDataChanged(new DataChangedEvent(2, new long[]{1, 3, 4}));
+
+        assertEquals(Arrays.asList(2L, 4L), KeywordIndex.toIdList(keywordIndex.matchAll(Collections.singletonList("java"))));
+        assertEquals(Arrays.asList(1L), KeywordIndex.toIdList(keywordIndex.matchAll(Collections.singletonList("kotlin"))));
+        assertEquals(Arrays.asList(4L), KeywordIndex.toIdList(keywordIndex.matchAll(Collections.singletonList("initech"))));
+        assertTrue(keywordIndex.matchAll(Collections.singletonList("analyst")).isEmpty());
+        verify(jobRepository, times(1)).findSearchableTextAfter(eq(0L), any(Pageable.class));
+    }
+}
@@ -0,0 +1,104 @@
+package dev.algorise.geojobsearch.search;
+
+import dev.algorise.geojobsearch.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+public class RankedSearchIndexTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    private RankedSearchIndex rankedSearchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        rankedSearchIndex = new RankedSearchIndex(jobRepository, 10);
+    }
+
+    // Helper method to build the index over a small fixed set of jobs
+    private void buildIndex() {
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{1L, "JavaScript Developer", "Build web apps with React.", "Shopify"},
+                new Object[]{2L, "Senior Java Developer", "Spring Boot services.", "Wealthsimple"},
+                new Object[]{3L, "Data Analyst", "Java is a plus. We use Java for reporting.", "Statistics Canada"},
+                new Object[]{4L, "Registered Nurse", "Patient care.", "Java Health"},
+                new Object[]{5L, "Store Manager", "Managing staff and inventory.", null});
+        when(jobRepository.findSearchableTextAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        rankedSearchIndex.rebuild();
+    }
+
+    @Test
+    public void testNotReadyBeforeRebuild() {
+        assertFalse(rankedSearchIndex.isReady());
+        assertNull(rankedSearchIndex.search("java"));
+    }
+
+    @Test
+    public void testWholeWordsRankedByFieldBoost() {
+        // Prepare
+        buildIndex();
+
+        // Execute
+        long[] ids = rankedSearchIndex.search("java");
+
+        // Verify: the title match ranks first, javascript does not match at all
+        assertTrue(rankedSearchIndex.isReady());
+        assertEquals(3, ids.length);
+        assertEquals(2L, ids[0]);
+        assertFalse(Arrays.stream(ids).anyMatch(id -> id == 1L));
+    }
+
+    @Test
+    public void testMoreMatchingTermsRankHigher() {
+        // Prepare
+        buildIndex();
+
+        // Execute
+        long[] ids = rankedSearchIndex.search("java developer");
+
+        // Verify
+        assertEquals(2L, ids[0]);
+        assertEquals(4, ids.length);
+    }
+
+    @Test
+    public void testMisspellingsAndInflectionsStillMatch() {
+        // Prepare
+        buildIndex();
+
+        // Execute and Verify
+        assertArrayEquals(new long[]{1}, rankedSearchIndex.search("javascrpit"));
+        assertArrayEquals(new long[]{5}, rankedSearchIndex.search("managed"));
+        assertArrayEquals(new long[0], rankedSearchIndex.search("plumber"));
+        assertArrayEquals(new long[0], rankedSearchIndex.search("the"));
+    }
+
+    @Test
+    public void testLimitKeepsOnlyTheBestMatches() {
+        // Prepare
+        buildIndex();
+
+        // Execute
+        long[] ids = rankedSearchIndex.search("java", 1);
+
+        // Verify
+        assertArrayEquals(new long[]{2}, ids);
+    }
+}
@@ -0,0 +1,105 @@
+package dev.algorise.geojobsearch.search;
+
+import dev.algorise.geojobsearch.model.Suggestion;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class SuggestIndexTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @InjectMocks
+    private SuggestIndex suggestIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    // Helper method to build the index over a few titles, companies and cities
+    private void buildIndex() {
+        when(jobRepository.findTitleCounts()).thenReturn(Arrays.asList(
+                new Object[]{"Java Developer", 12L},
+                new Object[]{"Senior Java Developer", 30L},
+                new Object[]{"JavaScript Developer", 5L},
+                new Object[]{"Registered Nurse", 50L}));
+        when(jobRepository.findCompanyNameCounts()).thenReturn(Arrays.asList(
+                new Object[]{"Jabil", 3L},
+                new Object[]{"Toronto Hydro", 4L}));
+        when(jobRepository.findCityCounts()).thenReturn(Arrays.asList(
+                new Object[]{"Toronto", 40L},
+                new Object[]{"Montr\u00e9al", 20L}));
+        suggestIndex.rebuild();
+    }
+
+    // Helper method to get the suggested texts in order
+    private List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testEmptyUntilBuilt() {
+        assertFalse(suggestIndex.isReady());
+        assertTrue(suggestIndex.suggest("jav", 8).isEmpty());
+    }
+
+    @Test
+    public void testMatchesAnyWordStartMostJobsFirst() {
+        // Prepare
+        buildIndex();
+
+        // Execute and Verify
+        assertTrue(suggestIndex.isReady());
+        assertEquals(List.of("Senior Java Developer", "Java Developer", "JavaScript Developer"),
+                texts(suggestIndex.suggest("Jav", 8)));
+        assertEquals(List.of("Senior Java Developer", "Java Developer"), texts(suggestIndex.suggest("java d", 8)));
+        assertEquals(List.of("Toronto", "Toronto Hydro"), texts(suggestIndex.suggest("tor", 8)));
+        assertEquals("city", suggestIndex.suggest("tor", 8).get(0).type());
+        assertEquals(40L, suggestIndex.suggest("tor", 8).get(0).count());
+    }
+
+    @Test
+    public void testIgnoresAccentsAndLimitsResults() {
+        // Prepare
+        buildIndex();
+
+        // Execute and Verify
+        assertEquals(List.of("Montr\u00e9al"), texts(suggestIndex.suggest("montre", 8)));
+        assertEquals(List.of("Senior Java Developer"), texts(suggestIndex.suggest("ja", 1)));
+        assertTrue(suggestIndex.suggest("xyz", 8).isEmpty());
+        assertTrue(suggestIndex.suggest(" ", 8).isEmpty());
+    }
+
+    @Test
+    public void testHeavyPrefixesMatchUncachedScan() {
+        // Prepare: enough titles that short prefixes take the precomputed path
+        List<Object[]> titles = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            titles.add(new Object[]{"Analyst " + i, (long) i});
+        }
+        when(jobRepository.findTitleCounts()).thenReturn(titles);
+        suggestIndex.rebuild();
+
+        // Execute and Verify
+        assertEquals(List.of("Analyst 999", "Analyst 998", "Analyst 997"), texts(suggestIndex.suggest("a", 3)));
+        assertEquals(List.of("Analyst 999", "Analyst 998"), texts(suggestIndex.suggest("analyst", 2)));
+        assertEquals("Analyst 999", suggestIndex.suggest("analyst 9", 20).get(0).text());
+        assertEquals(20, suggestIndex.suggest("analyst 9", 20).size());
+        assertEquals("Analyst 99", suggestIndex.suggest("analyst 99", 20).get(10).text());
+    }
+}
@@ -0,0 +1,56 @@
+package dev.algorise.geojobsearch.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TextAnalyzerTest {
+
+    @Test
+    public void testSplitsFoldsAndDropsStopWords() {
+        assertEquals(List.of("senior", "java", "developer", "montreal"),
+                TextAnalyzer.analyze("Senior Java-Developer in Montr\u00e9al"));
+        assertTrue(TextAnalyzer.analyze(null).isEmpty());
+        assertTrue(TextAnalyzer.analyze("  ").isEmpty());
+    }
+
+    @Test
+    public void testStemsInflectionsToOneTerm() {
+        assertEquals("manag", TextAnalyzer.stem("manage"));
+        assertEquals("manag", TextAnalyzer.stem("managing"));
+        assertEquals("manag", TextAnalyzer.stem("managed"));
+        assertEquals("manag", TextAnalyzer.stem("manages"));
+        assertEquals("run", TextAnalyzer.stem("running"));
+        assertEquals("company", TextAnalyzer.stem("companies"));
+        assertEquals("engineer", TextAnalyzer.stem("engineers"));
+    }
+
+    @Test
+    public void testLeavesShortAndUnsuitableWordsAlone() {
+        assertEquals("java", TextAnalyzer.stem("java"));
+        assertEquals("javascript", TextAnalyzer.stem("javascript"));
+        assertEquals("business", TextAnalyzer.stem("business"));
+        assertEquals("spring", TextAnalyzer.stem("spring"));
+        assertEquals("aws", TextAnalyzer.stem("aws"));
+        assertEquals("2024", TextAnalyzer.stem("2024"));
+    }
+
+    @Test
+    public void testBkTreeFindsTermsWithinEditDistance() {
+        // Prepare
+        String[] terms = {"java", "javascript", "python", "lava", "react"};
+        BkTree tree = new BkTree(terms);
+        List<String> found = new ArrayList<>();
+
+        // Execute
+        tree.search("jav", 1, (termId, distance) -> found.add(terms[termId]));
+
+        // Verify
+        assertEquals(List.of("java"), found);
+        assertEquals(2, BkTree.distance("pyhton", "python"));
+    }
+}
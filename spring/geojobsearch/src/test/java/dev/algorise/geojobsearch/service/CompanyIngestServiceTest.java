@@ -0,0 +1,134 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.cache.DataVersion;
+import dev.algorise.geojobsearch.cache.EntityCacheEvictor;
+import dev.algorise.geojobsearch.model.CompanyUpsert;
+import dev.algorise.geojobsearch.model.IngestResult;
+import dev.algorise.geojobsearch.repository.CompanyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CompanyIngestServiceTest {
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DataVersion dataVersion;
+
+    @Mock
+    private EntityCacheEvictor entityCacheEvictor;
+
+    private CompanyIngestService companyIngestService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        companyIngestService = new CompanyIngestService(companyRepository, transactionManager, dataVersion,
+                entityCacheEvictor, 500, 2);
+    }
+
+    // Helper method to create a company that has not been geocoded
+    private CompanyUpsert company(String uid) {
+        return new CompanyUpsert(uid, "Acme", "Toronto", "ON", null, null, null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testKnownCompaniesSkipTheDatabase() {
+        // Prepare
+        when(companyRepository.findAllCompanyUids()).thenReturn(Collections.singletonList("stored"));
+
+        // Execute: three jobs from two companies, one of them stored, then the same batch again
+        int first = companyIngestService.addMissing(Arrays.asList(company("stored"), company("new"), company("new")));
+        int second = companyIngestService.addMissing(Arrays.asList(company("stored"), company("new")));
+
+        // Verify
+        assertEquals(1, first);
+        assertEquals(0, second);
+        ArgumentCaptor<Collection<CompanyUpsert>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(companyRepository, times(1)).insertMissing(written.capture(), eq(500));
+        assertEquals(1, written.getValue().size());
+        verify(companyRepository, times(1)).findAllCompanyUids();
+    }
+
+    @Test
+    public void testOutsideChangeReloadsKnownCompanies() {
+        // Prepare
+        when(companyRepository.findAllCompanyUids()).thenReturn(Collections.singletonList("stored"));
+        companyIngestService.addMissing(Collections.singletonList(company("stored")));
+
+        // Execute
+        companyIngestService.onDataChanged(new DataChangedEvent(2));
+        companyIngestService.addMissing(Collections.singletonList(company("stored")));
+
+        // Verify
+        verify(companyRepository, times(2)).findAllCompanyUids();
+        verify(companyRepository, never()).insertMissing(anyCollection(), anyInt());
+    }
+
+    @Test
+    public void testGeocodedUpsertAdvancesGeneration() {
+        // Prepare
+        List<CompanyUpsert> companies = Arrays.asList(company("a"),
+                new CompanyUpsert("a", "Acme", "Toronto", "ON", "1 King St W", new BigDecimal("43.65"), new BigDecimal("-79.38")));
+        when(dataVersion.advance(anyString())).thenReturn(7L);
+
+        // Execute
+        IngestResult result = companyIngestService.upsert(companies);
+
+        // Verify: the repeated CompanyUID keeps its geocoded version
+        assertEquals(new IngestResult(1, 7), result);
+        verify(companyRepository).upsert(eq(Collections.singletonList(companies.get(1))), eq(500));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testUngeocodedUpsertKeepsGeneration() {
+        // Prepare
+        when(dataVersion.current()).thenReturn(3L);
+
+        // Execute
+        IngestResult result = companyIngestService.upsert(Collections.singletonList(company("a")));
+
+        // Verify
+        assertEquals(new IngestResult(1, 3), result);
+        verify(dataVersion, never()).advance(anyString());
+        verify(entityCacheEvictor).evictCompanies(Collections.singleton("a"));
+    }
+
+    @Test
+    public void testInvalidBatchIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> companyIngestService.upsert(
+                Collections.singletonList(new CompanyUpsert("a", null, "Toronto", "ON", null, null, null))));
+        assertThrows(IllegalArgumentException.class, () -> companyIngestService.upsert(
+                Arrays.asList(company("a"), company("b"), company("c"))));
+        verify(companyRepository, never()).upsert(anyCollection(), anyInt());
+    }
+}
@@ -0,0 +1,126 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.model.FacetCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FacetCountServiceTest {
+
+    @Mock
+    private JobService jobService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = Executors.newFixedThreadPool(3);
+        when(jobService.getLocationsCountSearch("Full-time", null, null, "java"))
+                .thenReturn(Collections.singletonList(new Object[]{"Toronto, ON", 3L}));
+        when(jobService.getJobTypeCountSearch("Toronto, ON", null, null, "java"))
+                .thenReturn(Collections.singletonList(new Object[]{"Full-time", 2L}));
+        when(jobService.getSalaryRangeCountSearch("Toronto, ON", "Full-time", "java"))
+                .thenReturn(Arrays.asList(new Object[]{50000L, 99999L, 2L}, new Object[]{null, null, 1L}));
+    }
+
+    @Test
+    public void testMergesAllFacets() {
+        // Prepare
+        FacetCountService service = new FacetCountService(jobService, executor, 5000);
+
+        // Execute
+        FacetCounts counts = service.getFacetCounts("Toronto, ON", "Full-time", null, null, "java").join();
+
+        // Verify
+        assertFalse(counts.isPartial());
+        assertEquals("Toronto, ON", counts.getLocations().get(0).get("location"));
+        assertEquals(3L, counts.getLocations().get(0).get("count"));
+        assertEquals("Full-time", counts.getJobTypes().get(0).get("jobType"));
+        assertEquals(50000L, counts.getSalaries().get(0).get("minSalary"));
+        assertNull(counts.getSalaries().get(1).get("minSalary"));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testWithoutSearchUsesPlainCounts() {
+        // Prepare
+        FacetCountService service = new FacetCountService(jobService, executor, 5000);
+        when(jobService.getLocationsCount(null, 50000, null)).thenReturn(Collections.emptyList());
+        when(jobService.getJobTypeCount(null, 50000, null)).thenReturn(Collections.emptyList());
+        when(jobService.getSalaryRangeCount(null, null)).thenReturn(Collections.emptyList());
+
+        // Execute
+        FacetCounts counts = service.getFacetCounts(null, null, 50000, null, null).join();
+
+        // Verify
+        assertTrue(counts.getLocations().isEmpty());
+        verify(jobService, never()).getLocationsCountSearch(null, 50000, null, null);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSlowFacetDegradesToPartialResult() throws InterruptedException {
+        // Prepare
+        CountDownLatch release = new CountDownLatch(1);
+        when(jobService.getJobTypeCountSearch("Toronto, ON", null, null, "java")).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Collections.emptyList();
+        });
+        FacetCountService service = new FacetCountService(jobService, executor, 100);
+
+        // Execute
+        FacetCounts counts;
+        try {
+            counts = service.getFacetCounts("Toronto, ON", "Full-time", null, null, "java").join();
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        // Verify
+        assertTrue(counts.isPartial());
+        assertEquals(List.of("jobTypes"), counts.getUnavailable());
+        assertNull(counts.getJobTypes());
+        assertEquals(1, counts.getLocations().size());
+        assertEquals(2, counts.getSalaries().size());
+    }
+
+    @Test
+    public void testFailedOrRejectedFacetsAreUnavailable() {
+        // Prepare
+        when(jobService.getLocationsCountSearch("Full-time", null, null, "java"))
+                .thenThrow(new IllegalStateException("database down"));
+        FacetCountService failing = new FacetCountService(jobService, executor, 5000);
+        FacetCountService saturated = new FacetCountService(jobService, task -> {
+            throw new RejectedExecutionException("queue full");
+        }, 5000);
+
+        // Execute
+        FacetCounts failed = failing.getFacetCounts("Toronto, ON", "Full-time", null, null, "java").join();
+        FacetCounts rejected = saturated.getFacetCounts("Toronto, ON", "Full-time", null, null, "java").join();
+
+        // Verify
+        assertEquals(List.of("locations"), failed.getUnavailable());
+        assertEquals(List.of("locations", "jobTypes", "salaries"), rejected.getUnavailable());
+        executor.shutdown();
+    }
+}
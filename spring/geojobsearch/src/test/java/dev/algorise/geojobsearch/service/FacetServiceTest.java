@@ -0,0 +1,167 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.model.FacetResult;
+import dev.algorise.geojobsearch.model.JobSummary;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.snapshot.BitmapIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FacetServiceTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private KeywordIndex keywordIndex;
+
+    @Mock
+    private BitmapIndex bitmapIndex;
+
+    @InjectMocks
+    private FacetService facetService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{1L, "Toronto, ON", "Full-time", new BigDecimal(60000)},
+                new Object[]{2L, "Toronto, ON", "Part-time", new BigDecimal(40000)},
+                new Object[]{3L, "Calgary, AB", "Full-time", new BigDecimal(120000)},
+                new Object[]{4L, "Calgary, AB", "Full-time", null});
+        when(jobRepository.findFacetRows(JobFilter.builder().build())).thenReturn(rows);
+        when(jobRepository.findFacetRows(JobFilter.of(null, "Full-time", 50000, null))).thenReturn(rows);
+    }
+
+    // Helper method to create a job summary with the given id
+    private JobSummary job(long id) {
+        return new JobSummary(id, "Title", "Company", "Toronto, ON", null, "Full-time", null, null);
+    }
+
+    // Helper method to find the count for a facet value
+    private Object countOf(List<Map<String, Object>> rows, String key, Object value) {
+        return rows.stream().filter(row -> value.equals(row.get(key)))
+                .findFirst().map(row -> row.get("count")).orElse(0);
+    }
+
+    @Test
+    public void testEachFacetIgnoresItsOwnFilter() {
+        // Prepare
+        when(jobRepository.findSummariesByIds(Arrays.asList(1L, 3L))).thenReturn(Arrays.asList(job(3), job(1)));
+
+        // Execute
+        FacetResult result = facetService.getFacets(null, "Full-time", 50000, null, null, 0, 20);
+
+        // Verify: locations honour jobType and salary
+        assertEquals(1, countOf(result.getLocations(), "location", "Toronto, ON"));
+        assertEquals(1, countOf(result.getLocations(), "location", "Calgary, AB"));
+        // job types honour salary only, since no location is selected
+        assertEquals(2, countOf(result.getJobTypes(), "jobType", "Full-time"));
+        assertEquals(0, countOf(result.getJobTypes(), "jobType", "Part-time"));
+        // salary buckets honour jobType only and skip jobs without a salary
+        assertEquals(2, result.getSalaries().size());
+        assertEquals(50000, result.getSalaries().get(0).get("minSalary"));
+        assertEquals(99999, result.getSalaries().get(0).get("maxSalary"));
+        assertEquals(100000, result.getSalaries().get(1).get("minSalary"));
+        // the page keeps JobID order
+        assertEquals(2, result.getTotalJobs());
+        assertEquals(1L, result.getJobs().get(0).jobID());
+        assertEquals(3L, result.getJobs().get(1).jobID());
+    }
+
+    @Test
+    public void testRowsMatchSelectionLikeCollation() {
+        // Prepare: the rows spell the selected values with other case, accents and padding
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{5L, "Montr\u00e9al, QC ", "FULL-TIME", new BigDecimal(70000)},
+                new Object[]{6L, "Laval, QC", "full-time", new BigDecimal(80000)});
+        when(jobRepository.findFacetRows(JobFilter.of("Montreal, QC", "Full-time", null, null))).thenReturn(rows);
+        when(jobRepository.findSummariesByIds(List.of(5L))).thenReturn(List.of(job(5)));
+
+        // Execute
+        FacetResult result = facetService.getFacets("Montreal, QC", "Full-time", null, null, null, 0, 20);
+
+        // Verify: only the Montreal row matches both filters, but both count toward locations
+        assertEquals(1, result.getTotalJobs());
+        assertEquals(5L, result.getJobs().get(0).jobID());
+        assertEquals(1, countOf(result.getLocations(), "location", "Laval, QC"));
+        assertEquals(1, countOf(result.getJobTypes(), "jobType", "FULL-TIME"));
+    }
+
+    @Test
+    public void testPageOutsideResultsSkipsJobFetch() {
+        // Execute
+        FacetResult result = facetService.getFacets(null, null, null, null, null, 5, 20);
+
+        // Verify
+        assertEquals(4, result.getTotalJobs());
+        assertTrue(result.getJobs().isEmpty());
+        verify(jobRepository, never()).findSummariesByIds(anyList());
+    }
+
+    @Test
+    public void testSearchResolvesThroughKeywordIndex() {
+        // Prepare
+        BitSet matches = new BitSet();
+        matches.set(2);
+        when(keywordIndex.matchAll(List.of("java"))).thenReturn(matches);
+        List<Object[]> rows = List.<Object[]>of(new Object[]{2L, "Toronto, ON", "Part-time", new BigDecimal(40000)});
+        JobFilter filter = JobFilter.builder().allKeywords(List.of("java")).keywordMatches(matches).build();
+        when(jobRepository.findFacetRows(filter)).thenReturn(rows);
+        when(jobRepository.findSummariesByIds(List.of(2L))).thenReturn(List.of(job(2)));
+
+        // Execute
+        FacetResult result = facetService.getFacets(null, null, null, null, "Java", 0, 20);
+
+        // Verify
+        assertEquals(1, result.getTotalJobs());
+        assertEquals(1, countOf(result.getJobTypes(), "jobType", "Part-time"));
+    }
+
+    @Test
+    public void testBitmapIndexAnswersCountsWithoutFacetRows() {
+        // Prepare
+        when(bitmapIndex.isReady()).thenReturn(true);
+        when(bitmapIndex.countBy(BitmapIndex.Facet.LOCATION, JobFilter.of(null, "Full-time", null, null)))
+                .thenReturn(List.<Object[]>of(new Object[]{"Toronto, ON", 1L}, new Object[]{"Calgary, AB", 2L}));
+        when(bitmapIndex.countBy(BitmapIndex.Facet.JOB_TYPE, JobFilter.of("Calgary, AB", null, null, null)))
+                .thenReturn(List.<Object[]>of(new Object[]{"Full-time", 2L}));
+        when(bitmapIndex.countBySalaryRange(JobFilter.of("Calgary, AB", "Full-time", null, null), 50000))
+                .thenReturn(List.<Object[]>of(new Object[]{null, null, 1L}, new Object[]{100000L, 149999L, 1L}));
+        JobFilter all = JobFilter.of("Calgary, AB", "Full-time", null, null);
+        when(bitmapIndex.count(all)).thenReturn(2L);
+        when(bitmapIndex.matchIds(all, 0L, 20)).thenReturn(new long[]{3L, 4L});
+        when(jobRepository.findSummariesByIds(List.of(3L, 4L))).thenReturn(List.of(job(4), job(3)));
+
+        // Execute
+        FacetResult result = facetService.getFacets("Calgary, AB", "Full-time", null, null, null, 0, 20);
+
+        // Verify: counts come from the bitmaps, the salary histogram skips jobs without a salary
+        assertEquals(2, countOf(result.getLocations(), "location", "Calgary, AB"));
+        assertEquals(2, countOf(result.getJobTypes(), "jobType", "Full-time"));
+        assertEquals(1, result.getSalaries().size());
+        assertEquals(100000, result.getSalaries().get(0).get("minSalary"));
+        assertEquals(2, result.getTotalJobs());
+        assertEquals(3L, result.getJobs().get(0).jobID());
+        verify(jobRepository, never()).findFacetRows(any());
+    }
+}
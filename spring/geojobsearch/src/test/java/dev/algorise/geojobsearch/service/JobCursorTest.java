@@ -0,0 +1,79 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.repository.JobKeyset;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JobCursorTest {
+
+    // Helper method to create a cursor after a row with the given sort keys
+    private String after(JobCursor.Order order, long id, String date, Integer salary) {
+        return JobCursor.after(order, id, date != null ? java.sql.Date.valueOf(date) : null,
+                salary != null ? new BigDecimal(salary) : null).encode();
+    }
+
+    @Test
+    public void testDateCursorRoundTrip() {
+        String token = after(JobCursor.Order.DATE, 42, "2024-03-01", 90000);
+
+        JobCursor cursor = JobCursor.decode(token, JobCursor.Order.DATE);
+
+        assertEquals(42L, cursor.getJobId());
+        assertEquals(java.sql.Date.valueOf("2024-03-01"), cursor.getDate());
+        assertNull(cursor.getSalary());
+    }
+
+    @Test
+    public void testSalaryCursorWithNullKey() {
+        String token = after(JobCursor.Order.SALARY, 7, null, null);
+
+        JobCursor cursor = JobCursor.decode(token, JobCursor.Order.SALARY);
+
+        assertEquals(7L, cursor.getJobId());
+        assertNull(cursor.getSalary());
+    }
+
+    @Test
+    public void testFirstPageCursor() {
+        JobCursor cursor = JobCursor.decode(null, JobCursor.Order.ID);
+
+        assertNull(cursor.getJobId());
+    }
+
+    @Test
+    public void testCursorFromAnotherOrderIsRejected() {
+        String token = after(JobCursor.Order.ID, 1, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> JobCursor.decode(token, JobCursor.Order.DATE));
+        assertThrows(IllegalArgumentException.class, () -> JobCursor.decode("not a cursor", JobCursor.Order.ID));
+    }
+
+    @Test
+    public void testCursorToKeyset() {
+        String token = after(JobCursor.Order.SALARY, 42, null, 85000);
+
+        JobKeyset keyset = JobCursor.decode(token, JobCursor.Order.SALARY).toKeyset();
+
+        assertEquals(new JobKeyset("salary", new BigDecimal("85000"), 42L), keyset);
+        assertEquals(JobKeyset.byJobId(null), JobCursor.decode(null, JobCursor.Order.ID).toKeyset());
+    }
+
+    @Test
+    public void testRankCursorRoundTrip() {
+        String token = JobCursor.afterRank(20, 42).encode();
+
+        JobCursor cursor = JobCursor.decode(token, JobCursor.Order.RANK);
+
+        assertEquals(42L, cursor.getJobId());
+        assertEquals(20, cursor.getRank());
+        assertTrue(JobCursor.isOrder(token, JobCursor.Order.RANK));
+        assertFalse(JobCursor.isOrder(token, JobCursor.Order.ID));
+    }
+}
@@ -0,0 +1,110 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobField;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobFieldServiceTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    private JobFieldService jobFieldService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jobFieldService = new JobFieldService(jobRepository, 3, 100);
+    }
+
+    @Test
+    public void testFetchesAllJobsInOneQueryThenFromCache() {
+        // Prepare
+        List<JobField> fields = Arrays.asList(JobField.URL, JobField.TITLE);
+        when(jobRepository.findFieldsByIds(Arrays.asList(2L, 1L, 9L), Arrays.asList(JobField.TITLE, JobField.URL)))
+                .thenReturn(Arrays.asList(new Object[]{1L, "Developer", "https://a"}, new Object[]{2L, "Analyst", null}));
+
+        // Execute: the second request only asks for cached columns
+        Map<Long, Map<String, Object>> result = jobFieldService.getFields(Arrays.asList(2L, 1L, 9L, 2L), fields);
+        Map<Long, Map<String, Object>> cached = jobFieldService.getFields(Arrays.asList(1L, 2L),
+                Collections.singletonList(JobField.TITLE));
+
+        // Verify: request order is kept, the unknown id is left out and null values are returned
+        assertEquals(Arrays.asList(2L, 1L), new ArrayList<>(result.keySet()));
+        assertEquals(Arrays.asList("title", "url"), new ArrayList<>(result.get(1L).keySet()));
+        assertEquals("https://a", result.get(1L).get("url"));
+        assertEquals(null, result.get(2L).get("url"));
+        assertEquals("Analyst", cached.get(2L).get("title"));
+        verify(jobRepository, times(1)).findFieldsByIds(anyCollection(), anyList());
+    }
+
+    @Test
+    public void testReadsOnlyJobsMissingARequestedColumn() {
+        // Prepare
+        when(jobRepository.findFieldsByIds(Arrays.asList(1L), Arrays.asList(JobField.TITLE)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, "Developer"}));
+        when(jobRepository.findFieldsByIds(Arrays.asList(1L), Arrays.asList(JobField.SALARY)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, new BigDecimal("60000")}));
+
+        // Execute
+        jobFieldService.getField(1L, JobField.TITLE);
+        jobFieldService.getField(1L, JobField.SALARY);
+        Optional<Object> title = jobFieldService.getField(1L, JobField.TITLE);
+
+        // Verify: the entry widens instead of losing the title
+        assertEquals(Optional.of("Developer"), title);
+        verify(jobRepository, times(2)).findFieldsByIds(anyCollection(), anyList());
+    }
+
+    @Test
+    public void testChangedJobsAreEvicted() {
+        // Prepare
+        when(jobRepository.findFieldsByIds(anyCollection(), eq(Collections.singletonList(JobField.TITLE))))
+                .thenReturn(Arrays.asList(new Object[]{1L, "Developer"}, new Object[]{2L, "Analyst"}));
+        jobFieldService.getFields(Arrays.asList(1L, 2L), Collections.singletonList(JobField.TITLE));
+
+        // Execute
+        jobFieldService.onDataChanged(new DataChangedEvent(2, new long[]{2L}));
+        jobFieldService.getField(1L, JobField.TITLE);
+        jobFieldService.getField(2L, JobField.TITLE);
+
+        // Verify: only job 2 is read again
+        verify(jobRepository).findFieldsByIds(eq(Collections.singletonList(2L)), anyList());
+        verify(jobRepository, never()).findFieldsByIds(eq(Collections.singletonList(1L)), anyList());
+    }
+
+    @Test
+    public void testRejectsBadRequests() {
+        assertThrows(IllegalArgumentException.class,
+                () -> jobFieldService.getFields(Arrays.asList(1L, 2L, 3L, 4L), Collections.singletonList(JobField.TITLE)));
+        assertThrows(IllegalArgumentException.class,
+                () -> jobFieldService.getFields(Collections.singletonList(1L), Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> JobField.of("password"));
+        assertEquals(JobField.URL, JobField.of("URL"));
+        assertEquals(JobField.JOB_TYPE, JobField.of("jobtype"));
+        assertFalse(jobFieldService.getField(5L, JobField.TITLE).isPresent());
+    }
+}
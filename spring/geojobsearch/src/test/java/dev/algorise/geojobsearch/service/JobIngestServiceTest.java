@@ -0,0 +1,141 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.cache.DataVersion;
+import dev.algorise.geojobsearch.model.CompanyUpsert;
+import dev.algorise.geojobsearch.model.IngestResult;
+import dev.algorise.geojobsearch.model.JobUpsert;
+import dev.algorise.geojobsearch.repository.UpsertSyntax;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class JobIngestServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CompanyIngestService companyIngestService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DataVersion dataVersion;
+
+    private JobIngestService jobIngestService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(UpsertSyntax.ROW_ALIAS);
+        jobIngestService = new JobIngestService(jdbcTemplate, companyIngestService, transactionManager, dataVersion, 500, 3);
+    }
+
+    // Helper method to create a job with every required field
+    private JobUpsert job(String uid, String title, String companyUid) {
+        return new JobUpsert(uid, title, "Acme", companyUid, "Toronto, ON", "Toronto", "ON",
+                null, 60000, "Full-time", LocalDate.of(2024, 3, 1), null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpsertWritesBatchesAndPublishesChangedIds() {
+        // Prepare
+        List<JobUpsert> jobs = Arrays.asList(job("a", "Java Developer", "acme_toronto_on"),
+                job("b", "Data Analyst", "acme_toronto_on"), job("a", "Senior Java Developer", null));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class)))
+                .thenReturn(Arrays.asList(11L, 12L));
+        when(dataVersion.advance(anyString(), any(long[].class))).thenReturn(5L);
+
+        // Execute
+        IngestResult result = jobIngestService.upsert(jobs);
+
+        // Verify: the repeated JobUID keeps its last version, which has no company
+        assertEquals(new IngestResult(2, 5), result);
+        ArgumentCaptor<Collection<CompanyUpsert>> companies = ArgumentCaptor.forClass(Collection.class);
+        verify(companyIngestService).addMissing(companies.capture());
+        assertEquals(1, companies.getValue().size());
+        assertEquals("acme_toronto_on", companies.getValue().iterator().next().companyUID());
+        ArgumentCaptor<Collection<JobUpsert>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(eq(JobIngestService.upsertJob(UpsertSyntax.ROW_ALIAS)), written.capture(), eq(500),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals("Senior Java Developer", written.getValue().iterator().next().title());
+        ArgumentCaptor<long[]> jobIds = ArgumentCaptor.forClass(long[].class);
+        verify(dataVersion).advance(anyString(), jobIds.capture());
+        assertArrayEquals(new long[]{11, 12}, jobIds.getValue());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testUpsertReadsInsertedRowThroughServerSyntax() {
+        // Execute
+        String rowAlias = JobIngestService.upsertJob(UpsertSyntax.ROW_ALIAS);
+        String valuesFunction = JobIngestService.upsertJob(UpsertSyntax.VALUES_FUNCTION);
+
+        // Verify
+        assertTrue(rowAlias.startsWith("INSERT INTO Jobs"));
+        assertTrue(rowAlias.contains("?) AS new ON DUPLICATE KEY UPDATE Title = new.Title, "));
+        assertTrue(rowAlias.endsWith("JobURL = new.JobURL"));
+        assertFalse(rowAlias.contains("VALUES("));
+        assertTrue(valuesFunction.contains("?) ON DUPLICATE KEY UPDATE Title = VALUES(Title), "));
+    }
+
+    @Test
+    public void testEmptyBatchWritesNothing() {
+        // Prepare
+        when(dataVersion.current()).thenReturn(3L);
+
+        // Execute
+        IngestResult result = jobIngestService.upsert(Collections.emptyList());
+
+        // Verify
+        assertEquals(new IngestResult(0, 3), result);
+        verifyNoInteractions(jdbcTemplate, companyIngestService);
+        verify(dataVersion, never()).advance(anyString(), any(long[].class));
+    }
+
+    @Test
+    public void testInvalidBatchIsRejectedBeforeWriting() {
+        // Prepare
+        List<JobUpsert> missingTitle = Collections.singletonList(job("a", " ", null));
+        List<JobUpsert> tooMany = Arrays.asList(job("a", "A", null), job("b", "B", null),
+                job("c", "C", null), job("d", "D", null));
+
+        // Execute
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> jobIngestService.upsert(missingTitle));
+        assertThrows(IllegalArgumentException.class, () -> jobIngestService.upsert(tooMany));
+
+        // Verify
+        assertTrue(e.getMessage().contains("title"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
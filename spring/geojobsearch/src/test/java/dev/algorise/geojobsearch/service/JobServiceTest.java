@@ -2,18 +2,46 @@
 
 package dev.algorise.geojobsearch.service;
 
+import dev.algorise.geojobsearch.model.CursorPage;
 import dev.algorise.geojobsearch.model.Job;
+import dev.algorise.geojobsearch.model.JobListing;
+import dev.algorise.geojobsearch.model.JobSummary;
+import dev.algorise.geojobsearch.model.SalaryDistribution;
+import dev.algorise.geojobsearch.model.Suggestion;
+import dev.algorise.geojobsearch.repository.JobField;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobKeyset;
 import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import dev.algorise.geojobsearch.search.RankedSearchIndex;
+import dev.algorise.geojobsearch.search.SuggestIndex;
+import dev.algorise.geojobsearch.snapshot.BitmapIndex;
+import dev.algorise.geojobsearch.snapshot.FacetCube;
+import dev.algorise.geojobsearch.snapshot.JobSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 public class JobServiceTest {
@@ -21,6 +49,27 @@ public class JobServiceTest {
     @Mock
     private JobRepository jobRepository;
 
+    @Mock
+    private KeywordIndex keywordIndex;
+
+    @Mock
+    private JobSnapshot jobSnapshot;
+
+    @Mock
+    private BitmapIndex bitmapIndex;
+
+    @Mock
+    private RankedSearchIndex rankedSearchIndex;
+
+    @Mock
+    private SuggestIndex suggestIndex;
+
+    @Mock
+    private JobFieldService jobFieldService;
+
+    @Mock
+    private FacetCube facetCube;
+
     @InjectMocks
     private JobService jobService;
 
@@ -58,9 +107,7 @@ public class JobServiceTest {
         // Prepare
         Long jobId = 1L;
         String expectedTitle = "TestTitle";
-        Job job = new Job();
-        job.setTitle(expectedTitle);
-        setupJobById(jobId, job);
+        when(jobFieldService.getField(jobId, JobField.TITLE)).thenReturn(Optional.of(expectedTitle));
 
         // Execute
         String result = jobService.getJobTitleByJobId(jobId);
@@ -74,9 +121,7 @@ public class JobServiceTest {
         // Prepare
         Long jobId = 1L;
         String expectedDescription = "TestDescription";
-        Job job = new Job();
-        job.setDescription(expectedDescription);
-        setupJobById(jobId, job);
+        when(jobFieldService.getField(jobId, JobField.DESCRIPTION)).thenReturn(Optional.of(expectedDescription));
 
         // Execute
         String result = jobService.getJobDescriptionByJobId(jobId);
@@ -90,9 +135,7 @@ public class JobServiceTest {
         // Prepare
         Long jobId = 1L;
         String expectedURL = "TestURL";
-        Job job = new Job();
-        job.setJobURL(expectedURL);
-        setupJobById(jobId, job);
+        when(jobFieldService.getField(jobId, JobField.URL)).thenReturn(Optional.of(expectedURL));
 
         // Execute
         String result = jobService.getJobURLByJobId(jobId);
@@ -106,9 +149,7 @@ public class JobServiceTest {
         // Prepare
         Long jobId = 1L;
         String expectedLocation = "TestLocation";
-        Job job = new Job();
-        job.setLocation(expectedLocation);
-        setupJobById(jobId, job);
+        when(jobFieldService.getField(jobId, JobField.LOCATION)).thenReturn(Optional.of(expectedLocation));
 
         // Execute
         String result = jobService.getLocationByJobId(jobId);
@@ -122,9 +163,8 @@ public class JobServiceTest {
         // Prepare
         Long jobId = 1L;
         int expectedSalary = 50000;
-        Job job = new Job();
-        job.setSalary(new BigDecimal(expectedSalary));
-        setupJobById(jobId, job);
+        when(jobFieldService.getField(jobId, JobField.SALARY))
+                .thenReturn(Optional.of(new BigDecimal(expectedSalary)));
 
         // Execute
         int result = jobService.getSalaryByJobId(jobId);
@@ -133,6 +173,30 @@ public class JobServiceTest {
         assertEquals(expectedSalary, result);
     }
 
+    @Test
+    public void testMissingJobFieldFallsBack() {
+        // Prepare
+        when(jobFieldService.getField(2L, JobField.TITLE)).thenReturn(Optional.empty());
+        when(jobFieldService.getField(2L, JobField.SALARY)).thenReturn(Optional.empty());
+
+        // Execute and Verify
+        assertEquals("Job not found", jobService.getJobTitleByJobId(2L));
+        assertEquals(0, jobService.getSalaryByJobId(2L));
+    }
+
+    @Test
+    public void testGetJobFieldsParsesFieldNames() {
+        // Prepare
+        Map<Long, Map<String, Object>> expected = Map.of(1L, Map.of("title", "Developer", "url", "https://x"));
+        when(jobFieldService.getFields(List.of(1L, 2L), List.of(JobField.TITLE, JobField.URL))).thenReturn(expected);
+
+        // Execute
+        Map<Long, Map<String, Object>> result = jobService.getJobFields(List.of(1L, 2L), List.of("title", "url"));
+
+        // Verify
+        assertEquals(expected, result);
+    }
+
     @Test
     public void testFilterJobsByCity() {
         // Prepare
@@ -168,8 +232,8 @@ public class JobServiceTest {
         // Define a sample list of location counts
         List<Object[]> locationCounts = Arrays.asList(new Object[]{"Location 1", 5}, new Object[]{"Location 2", 3});
 
-        // Mock the behavior of jobRepository.getLocationCounts() to return the sample list
-        when(jobRepository.findLocationsCount("Location",0,0)).thenReturn(locationCounts);
+        // Mock the behavior of jobRepository.countByLocation() to return the sample list
+        when(jobRepository.countByLocation(JobFilter.of(null, "Location", 0, 0))).thenReturn(locationCounts);
 
         // Call the service method
         List<Object[]> returnedCounts = jobService.getLocationsCount("Location",0,0);
@@ -186,13 +250,13 @@ public class JobServiceTest {
         Integer minSalary = 10000;
         Integer maxSalary = 50000;
         List<Job> expectedJobs = Arrays.asList(new Job(), new Job());
-        when(jobRepository.findJobByFilters(location, jobType, minSalary, maxSalary)).thenReturn(expectedJobs);
+        when(jobRepository.findJobs(JobFilter.of(location, jobType, minSalary, maxSalary), null)).thenReturn(expectedJobs);
 
         // Execute
-        List<Job> result = jobService.getJobsByFilter(location, jobType, minSalary, maxSalary);
+        List<JobListing> result = jobService.getJobsByFilter(location, jobType, minSalary, maxSalary);
 
-        // Verify
-        assertEquals(expectedJobs, result);
+        // Verify: the cached result holds immutable copies of the jobs
+        assertEquals(expectedJobs.stream().map(JobListing::of).toList(), result);
     }
 
     @Test
@@ -202,7 +266,7 @@ public class JobServiceTest {
         Integer minSalary = 10000;
         Integer maxSalary = 50000;
         List<Object[]> expectedCounts = Arrays.asList(new Object[]{"Type 1", 5}, new Object[]{"Type 2", 3});
-        when(jobRepository.findJobTypeCount(location, minSalary, maxSalary)).thenReturn(expectedCounts);
+        when(jobRepository.countByJobType(JobFilter.of(location, null, minSalary, maxSalary))).thenReturn(expectedCounts);
 
         // Execute
         List<Object[]> result = jobService.getJobTypeCount(location, minSalary, maxSalary);
@@ -217,7 +281,7 @@ public class JobServiceTest {
         String location = "TestLocation";
         String jobType = "TestJobType";
         List<Object[]> expectedCounts = Arrays.asList(new Object[]{10000, 5}, new Object[]{20000, 3});
-        when(jobRepository.findSalaryRangeCount(location, jobType)).thenReturn(expectedCounts);
+        when(jobRepository.countBySalaryRange(JobFilter.of(location, jobType, null, null), 50000)).thenReturn(expectedCounts);
 
         // Execute
         List<Object[]> result = jobService.getSalaryRangeCount(location, jobType);
@@ -235,14 +299,16 @@ public class JobServiceTest {
         Integer maxSalary = 50000;
         String search = "keyword1 keyword2 keyword3";
         List<Job> expectedJobs = Arrays.asList(new Job(), new Job());
-        when(jobRepository.findJobByFiltersSearch(location, jobType, minSalary, maxSalary, "keyword1", "keyword2", "keyword3"))
+        JobFilter filter = JobFilter.of(location, jobType, minSalary, maxSalary).toBuilder()
+                .allKeywords(Arrays.asList("keyword1", "keyword2", "keyword3")).build();
+        when(jobRepository.findJobs(filter, null))
                 .thenReturn(expectedJobs);
 
         // Execute
-        List<Job> result = jobService.getJobsByFilterSearch(location, jobType, minSalary, maxSalary, search);
+        List<JobListing> result = jobService.getJobsByFilterSearch(location, jobType, minSalary, maxSalary, search);
 
-        // Verify
-        assertEquals(expectedJobs, result);
+        // Verify: the cached result holds immutable copies of the jobs
+        assertEquals(expectedJobs.stream().map(JobListing::of).toList(), result);
     }
 
     @Test
@@ -253,7 +319,9 @@ public class JobServiceTest {
         Integer maxSalary = 50000;
         String search = "keyword1 keyword2 keyword3";
         List<Object[]> expectedCounts = Arrays.asList(new Object[]{"Location 1", 5}, new Object[]{"Location 2", 3});
-        when(jobRepository.findLocationCountSearch(jobType, minSalary, maxSalary, "keyword1", "keyword2", "keyword3"))
+        JobFilter filter = JobFilter.builder().jobType(jobType).salaryBetween(minSalary, maxSalary)
+                .allKeywords(Arrays.asList("keyword1", "keyword2", "keyword3")).build();
+        when(jobRepository.countByLocation(filter))
                 .thenReturn(expectedCounts);
 
         // Execute
@@ -271,7 +339,9 @@ public class JobServiceTest {
         Integer maxSalary = 50000;
         String search = "keyword1 keyword2 keyword3";
         List<Object[]> expectedCounts = Arrays.asList(new Object[]{"Type 1", 5}, new Object[]{"Type 2", 3});
-        when(jobRepository.findJobTypeCountSearch(location, minSalary, maxSalary, "keyword1", "keyword2", "keyword3"))
+        JobFilter filter = JobFilter.builder().location(location).salaryBetween(minSalary, maxSalary)
+                .allKeywords(Arrays.asList("keyword1", "keyword2", "keyword3")).build();
+        when(jobRepository.countByJobType(filter))
                 .thenReturn(expectedCounts);
 
         // Execute
@@ -288,7 +358,9 @@ public class JobServiceTest {
         String jobType = "TestJobType";
         String search = "keyword1 keyword2 keyword3";
         List<Object[]> expectedCounts = Arrays.asList(new Object[]{10000, 5}, new Object[]{20000, 3});
-        when(jobRepository.findSalaryRangeCountSearch(location, jobType, "keyword1", "keyword2", "keyword3"))
+        JobFilter filter = JobFilter.builder().location(location).jobType(jobType)
+                .allKeywords(Arrays.asList("keyword1", "keyword2", "keyword3")).build();
+        when(jobRepository.countBySalaryRange(filter, 50000))
                 .thenReturn(expectedCounts);
 
         // Execute
@@ -298,5 +370,419 @@ public class JobServiceTest {
         assertEquals(expectedCounts, result);
     }
 
-}
+    @Test
+    public void testGetJobsByFilterSearchUsesKeywordIndex() {
+        // Prepare
+        BitSet matches = new BitSet();
+        matches.set(3);
+        matches.set(7);
+        List<Job> expectedJobs = Arrays.asList(new Job(), new Job());
+        when(keywordIndex.matchAll(Arrays.asList("java", "remote"))).thenReturn(matches);
+        JobFilter filter = JobFilter.builder().location("TestLocation").allKeywords(Arrays.asList("java", "remote"))
+                .keywordMatches(matches).build();
+        when(jobRepository.findJobs(filter, null))
+                .thenReturn(expectedJobs);
+
+        // Execute
+        List<JobListing> result = jobService.getJobsByFilterSearch("TestLocation", null, null, null, "Java Remote");
+
+        // Verify: the cached result holds immutable copies of the jobs
+        assertEquals(expectedJobs.stream().map(JobListing::of).toList(), result);
+    }
+
+    @Test
+    public void testGetLocationsCountSearchWithNoIndexMatches() {
+        // Prepare
+        when(keywordIndex.matchAll(Collections.singletonList("nomatch"))).thenReturn(new BitSet());
+
+        // Execute
+        List<Object[]> result = jobService.getLocationsCountSearch(null, null, null, "nomatch");
+
+        // Verify
+        assertEquals(0, result.size());
+        verifyNoInteractions(jobRepository);
+    }
+
+    @Test
+    public void testGetJobPageBySortDateReturnsNextCursor() {
+        // Prepare
+        JobSummary first = new JobSummary(9L, "Title", "Company", "Location", null, "Full-time", null, null);
+        JobSummary second = new JobSummary(4L, "Title", "Company", "Location", null, "Full-time",
+                java.sql.Date.valueOf("2024-02-01"), null);
+        Slice<JobSummary> slice = new SliceImpl<>(Arrays.asList(first, second), PageRequest.ofSize(2), true);
+        when(jobRepository.findSummaryPage(JobFilter.builder().build(), new JobKeyset("date", null, null), 2))
+                .thenReturn(slice);
+
+        // Execute
+        CursorPage<JobSummary> page = jobService.getJobPage(null, null, null, null, null, false, "date", null, 2);
+
+        // Verify
+        assertEquals(2, page.getItems().size());
+        when(jobRepository.findSummaryPage(JobFilter.builder().build(),
+                new JobKeyset("date", java.sql.Date.valueOf("2024-02-01"), 4L), 2))
+                .thenReturn(new SliceImpl<>(Collections.emptyList()));
+        CursorPage<JobSummary> next = jobService.getJobPage(null, null, null, null, null, false, "date", page.getNextCursor(), 2);
+        assertEquals(0, next.getItems().size());
+        assertEquals(null, next.getNextCursor());
+    }
+
+    @Test
+    public void testGetJobPageWithSearchUsesKeywordIndex() {
+        // Prepare
+        BitSet matches = new BitSet();
+        matches.set(5);
+        when(keywordIndex.matchAny(Collections.singletonList("java"))).thenReturn(matches);
+        List<JobSummary> jobs = Collections.singletonList(
+                new JobSummary(5L, "Java Developer", "Company", "Location", null, "Full-time", null, null));
+        when(jobRepository.findSummaryPage(JobFilter.builder().anyKeyword(Collections.singletonList("java"))
+                .keywordMatches(matches).build(),
+                JobKeyset.byJobId(null), 10)).thenReturn(new SliceImpl<>(jobs));
+
+        // Execute
+        CursorPage<JobSummary> page = jobService.getJobPage(null, null, null, null, "java", false, null, null, 10);
+
+        // Verify
+        assertEquals(jobs, page.getItems());
+        assertEquals(null, page.getNextCursor());
+    }
+
+    @Test
+    public void testGetJobPageFromSnapshotReadsOnlyPageIds() {
+        // Prepare
+        BitSet matches = new BitSet();
+        matches.set(4);
+        matches.set(5);
+        matches.set(9);
+        when(keywordIndex.matchAny(Collections.singletonList("java"))).thenReturn(matches);
+        when(jobSnapshot.pageIds(any(JobFilter.class), eq(JobKeyset.byJobId(null)), eq(3))).thenReturn(new long[]{4L, 5L, 9L});
+        JobSummary first = new JobSummary(4L, "Java Developer", "Company", "Location", null, "Full-time", null, null);
+        JobSummary second = new JobSummary(5L, "Java Architect", "Company", "Location", null, "Full-time", null, null);
+        when(jobRepository.findSummariesByIds(Arrays.asList(4L, 5L))).thenReturn(Arrays.asList(second, first));
+
+        // Execute
+        CursorPage<JobSummary> page = jobService.getJobPage(null, null, null, null, "java", false, null, null, 2);
+
+        // Verify: the page keeps the snapshot's order and SQL never sees the keyword ids
+        assertEquals(Arrays.asList(first, second), page.getItems());
+        assertEquals(JobCursor.after(JobCursor.Order.ID, 5L, null, null).encode(), page.getNextCursor());
+        verify(jobRepository, never()).findSummaryPage(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testGetJobsBySortPushesSearchIntoQuery() {
+        // Prepare
+        BitSet matches = new BitSet();
+        matches.set(2);
+        matches.set(8);
+        List<Job> expectedJobs = Arrays.asList(new Job(), new Job());
+        when(keywordIndex.matchAny(Collections.singletonList("java"))).thenReturn(matches);
+        JobFilter filter = JobFilter.builder().location("TestLocation").anyKeyword(Collections.singletonList("java"))
+                .keywordMatches(matches).build();
+        when(jobRepository.findJobs(filter, "salary"))
+                .thenReturn(expectedJobs);
+
+        // Execute
+        List<Job> result = jobService.getJobsBySort("TestLocation", null, null, null, "java", "salary");
+
+        // Verify
+        assertEquals(expectedJobs, result);
+        verify(jobRepository, never()).findAll();
+    }
+
+    @Test
+    public void testSearchJobsFallsBackToSqlWhenIndexUnavailable() {
+        // Prepare
+        List<Job> expectedJobs = Collections.singletonList(new Job());
+        JobFilter filter = JobFilter.builder().anyKeyword(Collections.singletonList("c++")).build();
+        when(jobRepository.findJobs(filter, null))
+                .thenReturn(expectedJobs);
+
+        // Execute
+        List<Job> result = jobService.searchJobs("C++");
+
+        // Verify
+        assertEquals(expectedJobs, result);
+        verify(jobRepository, never()).findAll();
+    }
+
+    @Test
+    public void testStreamJobsHandsOutEachJobAndClosesStream() {
+        // Prepare
+        Job first = new Job();
+        Job second = new Job();
+        AtomicBoolean closed = new AtomicBoolean();
+        JobFilter filter = JobFilter.builder().location("TestLocation").build();
+        when(jobRepository.streamJobs(filter, "date"))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        List<Job> streamed = new ArrayList<>();
+
+        // Execute
+        long count = jobService.streamJobs("TestLocation", null, null, null, null, true, "date", streamed::add);
+
+        // Verify
+        assertEquals(2, count);
+        assertEquals(Arrays.asList(first, second), streamed);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testStreamSearchJobsFollowsRanking() {
+        // Prepare
+        Job best = jobWithId(9);
+        Job next = jobWithId(2);
+        when(rankedSearchIndex.search("java")).thenReturn(new long[]{9L, 2L});
+        when(jobRepository.streamJobsByIds(new long[]{9L, 2L})).thenReturn(Stream.of(best, next));
+        List<Job> streamed = new ArrayList<>();
+
+        // Execute
+        long count = jobService.streamSearchJobs("java", streamed::add);
+
+        // Verify
+        assertEquals(2, count);
+        assertEquals(Arrays.asList(best, next), streamed);
+    }
+
+    @Test
+    public void testStreamSearchJobsWithNoMatchesStreamsNothing() {
+        // Prepare: ranked index not built yet, keyword index proves nothing matches
+        when(keywordIndex.matchAny(Collections.singletonList("cobol"))).thenReturn(new BitSet());
+
+        // Execute
+        long count = jobService.streamSearchJobs("cobol", job -> { });
+
+        // Verify
+        assertEquals(0, count);
+        verify(jobRepository, never()).streamJobs(any(), any());
+    }
+
+    @Test
+    public void testGetSearchPagePagesThroughRanking() {
+        // Prepare
+        when(rankedSearchIndex.search("java")).thenReturn(new long[]{9L, 2L, 5L});
+        JobSummary best = new JobSummary(9L, "Java Lead", "Company", "Location", null, "Full-time", null, null);
+        JobSummary next = new JobSummary(2L, "Java Developer", "Company", "Location", null, "Full-time", null, null);
+        JobSummary last = new JobSummary(5L, "Developer", "Company", "Location", null, "Full-time", null, null);
+        when(jobRepository.findSummariesByIds(Arrays.asList(9L, 2L))).thenReturn(Arrays.asList(next, best));
+        when(jobRepository.findSummariesByIds(Collections.singletonList(5L))).thenReturn(Collections.singletonList(last));
+
+        // Execute
+        CursorPage<JobSummary> first = jobService.getSearchPage("java", null, 2);
+        CursorPage<JobSummary> second = jobService.getSearchPage("java", first.getNextCursor(), 2);
+
+        // Verify
+        assertEquals(Arrays.asList(best, next), first.getItems());
+        assertEquals(Collections.singletonList(last), second.getItems());
+        assertNull(second.getNextCursor());
+        verify(jobRepository, never()).findSummaryPage(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testGetSearchPageWithNoMatchesIsEmpty() {
+        // Prepare
+        when(keywordIndex.matchAny(Collections.singletonList("cobol"))).thenReturn(new BitSet());
+
+        // Execute
+        CursorPage<JobSummary> page = jobService.getSearchPage("cobol", null, 10);
+
+        // Verify
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(jobRepository, never()).findSummaryPage(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testStreamJobsSkipsQueryWhenSearchMatchesNothing() {
+        // Prepare
+        when(keywordIndex.matchAll(Collections.singletonList("cobol"))).thenReturn(new BitSet());
+
+        // Execute
+        long count = jobService.streamJobs(null, null, null, null, "cobol", true, null, job -> { });
+
+        // Verify
+        assertEquals(0, count);
+        verify(jobRepository, never()).streamJobs(any(), any());
+    }
+
+    // Helper method to create a job with the given id
+    private Job jobWithId(long id) {
+        Job job = new Job();
+        job.setJobID(id);
+        return job;
+    }
+
+    @Test
+    public void testGetJobsByFilterLoadsSnapshotMatchesInOrder() {
+        // Prepare
+        JobFilter filter = JobFilter.of("TestLocation", null, 50000, null);
+        when(jobSnapshot.matchIds(filter, null)).thenReturn(new long[]{7L, 3L, 5L});
+        when(jobRepository.findAllById(Arrays.asList(7L, 3L, 5L)))
+                .thenReturn(Arrays.asList(jobWithId(3), jobWithId(5), jobWithId(7)));
+
+        // Execute
+        List<JobListing> result = jobService.getJobsByFilter("TestLocation", null, 50000, null);
+
+        // Verify: snapshot order is kept and the SQL filter is not run
+        assertEquals(Arrays.asList(7L, 3L, 5L), result.stream().map(JobListing::jobID).toList());
+        verify(jobRepository, never()).findJobs(filter, null);
+    }
+
+    @Test
+    public void testGetJobsByFilterSkipsLoadWhenSnapshotMatchesNothing() {
+        // Prepare
+        JobFilter filter = JobFilter.of("Nowhere", null, null, null);
+        when(jobSnapshot.matchIds(filter, null)).thenReturn(new long[0]);
+
+        // Execute
+        List<JobListing> result = jobService.getJobsByFilter("Nowhere", null, null, null);
+
+        // Verify
+        assertTrue(result.isEmpty());
+        verify(jobRepository, never()).findAllById(any());
+        verify(jobRepository, never()).findJobs(filter, null);
+    }
+
+    @Test
+    public void testCountsComeFromBitmapIndexWhenReady() {
+        // Prepare
+        JobFilter filter = JobFilter.of(null, "Full-time", 50000, null);
+        List<Object[]> counts = List.<Object[]>of(new Object[]{"Toronto, ON", 2L});
+        when(bitmapIndex.isReady()).thenReturn(true);
+        when(bitmapIndex.countBy(BitmapIndex.Facet.LOCATION, filter)).thenReturn(counts);
+
+        // Execute
+        List<Object[]> result = jobService.getLocationsCount("Full-time", 50000, null);
+
+        // Verify
+        assertEquals(counts, result);
+        verify(jobRepository, never()).countByLocation(any());
+    }
+
+    @Test
+    public void testCountsComeFromFacetCubeBeforeBitmapIndex() {
+        // Prepare
+        JobFilter filter = JobFilter.of("Toronto, ON", null, null, null);
+        List<Object[]> counts = List.<Object[]>of(new Object[]{50000L, 99999L, 4L});
+        when(facetCube.isReady()).thenReturn(true);
+        when(bitmapIndex.isReady()).thenReturn(true);
+        when(facetCube.countBySalaryRange(filter, 50000)).thenReturn(counts);
+
+        // Execute
+        List<Object[]> result = jobService.getSalaryRangeCount("Toronto, ON", null);
+
+        // Verify
+        assertEquals(counts, result);
+        verify(bitmapIndex, never()).countBySalaryRange(any(), anyInt());
+    }
+
+    @Test
+    public void testSalaryCountsFallBackToSqlWhenBitmapIndexCannotAnswer() {
+        // Prepare
+        JobFilter filter = JobFilter.of("Toronto, ON", null, null, null);
+        List<Object[]> counts = List.<Object[]>of(new Object[]{50000L, 99999L, 4L});
+        when(bitmapIndex.isReady()).thenReturn(true);
+        when(bitmapIndex.countBySalaryRange(filter, 50000)).thenReturn(null);
+        when(jobRepository.countBySalaryRange(filter, 50000)).thenReturn(counts);
+
+        // Execute
+        List<Object[]> result = jobService.getSalaryRangeCount("Toronto, ON", null);
+
+        // Verify
+        assertEquals(counts, result);
+    }
+
+    @Test
+    public void testFilterJobsByCityLoadsBitmapMatches() {
+        // Prepare
+        when(bitmapIndex.idsWhere(BitmapIndex.Facet.CITY, "Toronto")).thenReturn(new long[]{2L, 9L});
+        when(jobRepository.findAllById(Arrays.asList(2L, 9L))).thenReturn(Arrays.asList(jobWithId(9), jobWithId(2)));
+
+        // Execute
+        List<Job> result = jobService.filterJobsByCity("Toronto");
+
+        // Verify
+        assertEquals(Arrays.asList(2L, 9L), result.stream().map(Job::getJobID).toList());
+        verify(jobRepository, never()).findByCity("Toronto");
+    }
+
+    @Test
+    public void testSearchJobsLoadsRankedMatchesInRankOrder() {
+        // Prepare
+        when(rankedSearchIndex.search("java developer")).thenReturn(new long[]{8L, 2L});
+        when(jobRepository.findAllById(Arrays.asList(8L, 2L))).thenReturn(Arrays.asList(jobWithId(2), jobWithId(8)));
+
+        // Execute
+        List<Job> result = jobService.searchJobs("java developer");
+
+        // Verify: best match first, and the keyword index is not consulted
+        assertEquals(Arrays.asList(8L, 2L), result.stream().map(Job::getJobID).toList());
+        verifyNoInteractions(keywordIndex);
+    }
+
+    @Test
+    public void testSuggestDelegatesToSuggestIndex() {
+        // Prepare
+        List<Suggestion> suggestions = List.of(new Suggestion("Java Developer", "title", 12));
+        when(suggestIndex.suggest("jav", 8)).thenReturn(suggestions);
+
+        // Execute
+        List<Suggestion> result = jobService.suggest("jav", 8);
+
+        // Verify
+        assertEquals(suggestions, result);
+        verifyNoInteractions(jobRepository);
+    }
 
+    @Test
+    public void testSalaryDistributionComesFromFacetCube() {
+        // Prepare
+        JobFilter filter = JobFilter.of("Toronto, ON", null, null, null);
+        when(facetCube.isReady()).thenReturn(true);
+        when(facetCube.countBySalaryRange(filter, 10000)).thenReturn(List.of(
+                new Object[]{null, null, 2L}, new Object[]{60000L, 69999L, 3L}));
+        when(facetCube.salaryPercentiles(filter, new double[]{50, 99.9})).thenReturn(new Integer[]{65000, 69000});
+
+        // Execute
+        SalaryDistribution result = jobService.getSalaryDistribution("Toronto, ON", null, 10000, List.of(50.0, 99.9));
+
+        // Verify
+        assertEquals(10000, result.bucketWidth());
+        assertEquals(2, result.buckets().size());
+        assertNull(result.buckets().get(0).get("minSalary"));
+        assertEquals(3L, result.buckets().get(1).get("count"));
+        assertEquals(Map.of("50", 65000, "99.9", 69000), result.percentiles());
+        verifyNoInteractions(jobRepository);
+    }
+
+    @Test
+    public void testSalaryDistributionFallsBackToSql() {
+        // Prepare
+        JobFilter filter = JobFilter.of(null, "Full-time", null, null);
+        when(jobRepository.countBySalaryRange(filter, 20000)).thenReturn(List.<Object[]>of(new Object[]{40000L, 59999L, 4L}));
+        when(jobRepository.findSalaries(filter)).thenReturn(List.of(
+                new BigDecimal(40000), new BigDecimal(45000), new BigDecimal(50000), new BigDecimal(55000)));
+
+        // Execute
+        SalaryDistribution result = jobService.getSalaryDistribution(null, "Full-time", 20000, List.of(0.0, 50.0, 75.0, 100.0));
+
+        // Verify
+        assertEquals(Map.of("0", 40000, "50", 45000, "75", 50000, "100", 55000), result.percentiles());
+        assertEquals(1, result.buckets().size());
+    }
+
+    @Test
+    public void testSalaryDistributionRejectsInvalidRequests() {
+        assertThrows(IllegalArgumentException.class,
+                () -> jobService.getSalaryDistribution(null, null, 999, List.of(50.0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> jobService.getSalaryDistribution(null, null, 10000, List.of(101.0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> jobService.getSalaryDistribution(null, null, 10000, Collections.nCopies(21, 50.0)));
+        verifyNoInteractions(jobRepository);
+    }
+
+    @Test
+    public void testPercentilesOfEmptySalariesAreNull() {
+        assertNull(JobService.percentilesOf(List.of(), new double[]{50})[0]);
+    }
+
+}
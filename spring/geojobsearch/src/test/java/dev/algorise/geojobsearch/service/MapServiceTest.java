@@ -0,0 +1,118 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.geo.BoundingBox;
+import dev.algorise.geojobsearch.geo.GeoGridIndex;
+import dev.algorise.geojobsearch.model.JobMarker;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class MapServiceTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private KeywordIndex keywordIndex;
+
+    @Mock
+    private GeoGridIndex geoGridIndex;
+
+    @InjectMocks
+    private MapService mapService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    // Helper method to create a marker at the given coordinates
+    private JobMarker marker(long id, String lat, String lng) {
+        return new JobMarker(id, "Title", "Company", "Location", null, "Full-time",
+                new BigDecimal(lat), new BigDecimal(lng));
+    }
+
+    @Test
+    public void testGetMarkersInBoxUsesSpatialIndex() {
+        // Prepare
+        BoundingBox box = BoundingBox.parse("-80,43,-79,44");
+        List<JobMarker> markers = Collections.singletonList(marker(1, "43.65", "-79.38"));
+        when(geoGridIndex.companiesIn(box)).thenReturn(Collections.singletonList("toronto"));
+        when(jobRepository.findMarkers(JobFilter.builder().companies(Collections.singletonList("toronto")).build()))
+                .thenReturn(markers);
+
+        // Execute
+        List<JobMarker> result = mapService.getMarkersInBox(null, null, null, null, null, box);
+
+        // Verify
+        assertEquals(markers, result);
+    }
+
+    @Test
+    public void testGetMarkersInBoxFallsBackToSql() {
+        // Prepare: the keywords go into the query rather than filtering every marker in the box
+        BoundingBox box = BoundingBox.parse("-80,43,-79,44");
+        BitSet matches = new BitSet();
+        matches.set(2);
+        when(keywordIndex.matchAny(Collections.singletonList("java"))).thenReturn(matches);
+        when(geoGridIndex.companiesIn(box)).thenReturn(null);
+        JobFilter filter = JobFilter.builder().anyKeyword(Collections.singletonList("java"))
+                .keywordMatches(matches).within(BigDecimal.valueOf(43.0), BigDecimal.valueOf(-80.0),
+                        BigDecimal.valueOf(44.0), BigDecimal.valueOf(-79.0)).build();
+        List<JobMarker> markers = Collections.singletonList(marker(2, "43.85", "-79.33"));
+        when(jobRepository.findMarkers(filter)).thenReturn(markers);
+
+        // Execute
+        List<JobMarker> result = mapService.getMarkersInBox(null, null, null, null, "java", box);
+
+        // Verify
+        assertEquals(markers, result);
+    }
+
+    @Test
+    public void testGetMarkersWithUnmatchedSearchSkipsQuery() {
+        // Prepare
+        when(keywordIndex.matchAny(Collections.singletonList("cobol"))).thenReturn(new BitSet());
+
+        // Execute
+        List<JobMarker> result = mapService.getMarkersNear(null, null, null, null, "cobol", 43.65, -79.38, 50);
+
+        // Verify
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(jobRepository, geoGridIndex);
+    }
+
+    @Test
+    public void testGetMarkersNearSortsByDistance() {
+        // Prepare
+        when(geoGridIndex.companiesWithin(43.65, -79.38, 50))
+                .thenReturn(Map.of("markham", 22.0, "toronto", 0.0));
+        when(jobRepository.findMarkers(any()))
+                .thenReturn(Arrays.asList(marker(1, "43.85", "-79.33"), marker(2, "43.65", "-79.38")));
+
+        // Execute
+        List<JobMarker> result = mapService.getMarkersNear(null, null, null, null, null, 43.65, -79.38, 50);
+
+        // Verify
+        assertEquals(2L, result.get(0).jobID());
+        assertEquals(1L, result.get(1).jobID());
+    }
+}
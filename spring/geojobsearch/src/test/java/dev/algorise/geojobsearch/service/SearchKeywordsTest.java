@@ -0,0 +1,103 @@
+package dev.algorise.geojobsearch.service;
+
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.search.KeywordIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class SearchKeywordsTest {
+
+    @Mock
+    private KeywordIndex keywordIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testSplitKeepsLeadingKeywords() {
+        List<String> keywords = SearchKeywords.split("  Senior Java  Spring Boot Developer ");
+
+        assertEquals(Arrays.asList("senior", "java", "spring", "boot"), keywords);
+        assertTrue(SearchKeywords.split(" ").isEmpty());
+        assertTrue(SearchKeywords.split(null).isEmpty());
+    }
+
+    @Test
+    public void testSplitIgnoresDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals(Arrays.asList("linux", "admin"), SearchKeywords.split("LINUX ADMIN"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testRestrictWithoutSearchLeavesFilterUnchanged() {
+        // Execute
+        JobFilter.Builder filter = JobFilter.builder().location("Toronto, ON");
+        boolean possible = SearchKeywords.restrict(filter, keywordIndex, null, true);
+
+        // Verify
+        assertTrue(possible);
+        assertEquals(JobFilter.builder().location("Toronto, ON").build(), filter.build());
+        verifyNoInteractions(keywordIndex);
+    }
+
+    @Test
+    public void testRestrictFallsBackToKeywordPredicates() {
+        // Prepare: the index cannot answer keywords with punctuation
+        List<String> keywords = Arrays.asList("c++", "qt", "embedded", "linux");
+
+        // Execute
+        JobFilter.Builder filter = JobFilter.builder();
+        SearchKeywords.restrict(filter, keywordIndex, "C++ Qt Embedded Linux", false);
+
+        // Verify: all four keywords become OR predicates
+        assertEquals(JobFilter.builder().anyKeyword(keywords).build(), filter.build());
+    }
+
+    @Test
+    public void testRestrictUsesIndexIds() {
+        // Prepare
+        BitSet matches = new BitSet();
+        matches.set(12);
+        when(keywordIndex.matchAll(Arrays.asList("java", "spring"))).thenReturn(matches);
+
+        // Execute
+        JobFilter.Builder filter = JobFilter.builder();
+        boolean possible = SearchKeywords.restrict(filter, keywordIndex, "Java Spring", true);
+
+        // Verify: the bitmap serves the in-memory indexes, the keywords stay for SQL
+        assertTrue(possible);
+        JobFilter built = filter.build();
+        assertEquals(matches, built.getKeywordMatches());
+        assertNull(built.getJobIds());
+        assertEquals(Arrays.asList("java", "spring"), built.getKeywords());
+    }
+
+    @Test
+    public void testRestrictReportsNoMatches() {
+        when(keywordIndex.matchAll(Collections.singletonList("cobol"))).thenReturn(new BitSet());
+
+        assertFalse(SearchKeywords.restrict(JobFilter.builder(), keywordIndex, "cobol", true));
+    }
+}
@@ -0,0 +1,228 @@
+package dev.algorise.geojobsearch.snapshot;
+
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BitmapIndexTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @InjectMocks
+    private BitmapIndex bitmapIndex;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    // Helper method to build the index over a small fixed set of jobs
+    private void buildIndex() {
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{1L, "Toronto, ON", "Full-time", "Toronto", "ON", new BigDecimal(60000)},
+                new Object[]{2L, "Toronto, ON", "Part-time", "Toronto", "ON", new BigDecimal(40000)},
+                new Object[]{3L, "Montr\u00e9al, QC", "Full-time", "Montr\u00e9al", "QC", new BigDecimal(120000)},
+                new Object[]{4L, "Calgary, AB", "Full-time", "Calgary", "AB", null},
+                new Object[]{5L, null, "Contract", null, null, new BigDecimal(99999)});
+        when(jobRepository.findBitmapRowsAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        bitmapIndex.rebuild();
+    }
+
+    // Helper method to find the count of a value in count rows
+    private Object countOf(List<Object[]> rows, Object value) {
+        return rows.stream().filter(row -> value == null ? row[0] == null : value.equals(row[0]))
+                .findFirst().map(row -> row[row.length - 1]).orElse(0L);
+    }
+
+    @Test
+    public void testNotReadyBeforeRebuild() {
+        assertFalse(bitmapIndex.isReady());
+        assertNull(bitmapIndex.countBy(BitmapIndex.Facet.LOCATION, JobFilter.builder().build()));
+        assertNull(bitmapIndex.countBySalaryRange(JobFilter.builder().build(), BitmapIndex.SALARY_BUCKET));
+        assertNull(bitmapIndex.idsWhere(BitmapIndex.Facet.CITY, "Toronto"));
+    }
+
+    @Test
+    public void testCountsByLocationIntersectFilter() {
+        // Prepare
+        buildIndex();
+
+        // Execute
+        List<Object[]> all = bitmapIndex.countBy(BitmapIndex.Facet.LOCATION, JobFilter.builder().build());
+        List<Object[]> fullTime = bitmapIndex.countBy(BitmapIndex.Facet.LOCATION,
+                JobFilter.of(null, "full-time", 50000, null));
+
+        // Verify: jobs without a location form their own group, like SQL GROUP BY
+        assertTrue(bitmapIndex.isReady());
+        assertEquals(2L, countOf(all, "Toronto, ON"));
+        assertEquals(1L, countOf(all, null));
+        assertEquals(2, fullTime.size());
+        assertEquals(1L, countOf(fullTime, "Toronto, ON"));
+        assertEquals(1L, countOf(fullTime, "Montr\u00e9al, QC"));
+    }
+
+    @Test
+    public void testCountsByJobTypeMatchLocationAccentInsensitively() {
+        // Prepare
+        buildIndex();
+
+        // Execute
+        List<Object[]> counts = bitmapIndex.countBy(BitmapIndex.Facet.JOB_TYPE,
+                JobFilter.of("montreal, qc", null, null, null));
+
+        // Verify
+        assertEquals(1, counts.size());
+        assertEquals(1L, countOf(counts, "Full-time"));
+    }
+
+    @Test
+    public void testSalaryRangeCountsUseFixedBuckets() {
+        // Prepare
+        buildIndex();
+
+        // Execute
+        List<Object[]> counts = bitmapIndex.countBySalaryRange(JobFilter.builder().build(), BitmapIndex.SALARY_BUCKET);
+
+        // Verify: jobs without a salary first, then buckets in salary order
+        assertEquals(4, counts.size());
+        assertArrayEquals(new Object[]{null, null, 1L}, counts.get(0));
+        assertArrayEquals(new Object[]{0L, 49999L, 1L}, counts.get(1));
+        assertArrayEquals(new Object[]{50000L, 99999L, 2L}, counts.get(2));
+        assertArrayEquals(new Object[]{100000L, 149999L, 1L}, counts.get(3));
+        assertNull(bitmapIndex.countBySalaryRange(JobFilter.builder().build(), 10000));
+    }
+
+    @Test
+    public void testSalaryBoundsAreExactAndExcludeMissingSalaries() {
+        // Prepare
+        buildIndex();
+
+        // Execute and Verify
+        assertEquals(3, bitmapIndex.count(JobFilter.of(null, null, 60000, 120000)));
+        assertEquals(2, bitmapIndex.count(JobFilter.of(null, null, 60000, 119999)));
+        assertEquals(3, bitmapIndex.count(JobFilter.of(null, null, 50000, null)));
+        assertEquals(3, bitmapIndex.count(JobFilter.of(null, null, null, 99999)));
+        assertEquals(5, bitmapIndex.count(JobFilter.builder().build()));
+    }
+
+    @Test
+    public void testJobIdsAndPaging() {
+        // Prepare
+        buildIndex();
+        JobFilter filter = JobFilter.builder().jobIds(List.of(5L, 2L, 3L, 42L)).build();
+
+        // Execute and Verify
+        assertEquals(3, bitmapIndex.count(filter));
+        assertArrayEquals(new long[]{2, 3}, bitmapIndex.matchIds(filter, 0, 2));
+        assertArrayEquals(new long[]{5}, bitmapIndex.matchIds(filter, 2, 2));
+        assertArrayEquals(new long[0], bitmapIndex.matchIds(filter, 4, 2));
+    }
+
+    @Test
+    public void testKeywordMatchesIntersectWithoutIdList() {
+        // Prepare
+        buildIndex();
+        BitSet matches = new BitSet();
+        matches.set(2);
+        matches.set(3);
+        matches.set(5);
+        matches.set(42);
+        JobFilter filter = JobFilter.builder().anyKeyword(List.of("java")).keywordMatches(matches).build();
+
+        // Execute and Verify
+        assertEquals(3, bitmapIndex.count(filter));
+        assertArrayEquals(new long[]{2, 3, 5}, bitmapIndex.matchIds(filter, 0, 10));
+        assertNull(bitmapIndex.matchIds(JobFilter.builder().anyKeyword(List.of("java")).build(), 0, 10));
+    }
+
+    @Test
+    public void testIdsWhereCity() {
+        // Prepare
+        buildIndex();
+
+        // Execute and Verify
+        assertArrayEquals(new long[]{1, 2}, bitmapIndex.idsWhere(BitmapIndex.Facet.CITY, "TORONTO"));
+        assertArrayEquals(new long[]{4}, bitmapIndex.idsWhere(BitmapIndex.Facet.PROVINCE, "AB"));
+        assertArrayEquals(new long[0], bitmapIndex.idsWhere(BitmapIndex.Facet.CITY, "Nowhere"));
+    }
+
+    @Test
+    public void testKeywordFiltersAreLeftToSql() {
+        // Prepare
+        buildIndex();
+
+        // Execute and Verify
+        assertNull(bitmapIndex.countBy(BitmapIndex.Facet.JOB_TYPE, JobFilter.builder().allKeywords(List.of("java")).build()));
+        assertEquals(-1, bitmapIndex.count(JobFilter.builder().allKeywords(List.of("java")).build()));
+    }
+
+    @Test
+    public void testIncrementalChangePatchesChangedRowsOnly() {
+        // Prepare: job 1 moves to Montreal, job 5 is gone and job 6 is new
+        buildIndex();
+        when(jobRepository.findBitmapRowsByIds(anyCollection())).thenReturn(Arrays.asList(
+                new Object[]{1L, "Montreal, QC", "Full-time", "Montreal", "QC", new BigDecimal(130000)},
+                new Object[]{6L, "Halifax, NS", "Contract", "Halifax", "NS", new BigDecimal(45000)}));
+
+        // Execute
+        bitmapIndex.onDataChanged(new DataChangedEvent(2, new long[]{1, 5, 6}));
+
+        // Verify
+        List<Object[]> locations = bitmapIndex.countBy(BitmapIndex.Facet.LOCATION, JobFilter.builder().build());
+        assertEquals(2L, countOf(locations, "Montr\u00e9al, QC"));
+        assertEquals(1L, countOf(locations, "Toronto, ON"));
+        assertEquals(1L, countOf(locations, "Halifax, NS"));
+        assertEquals(0L, countOf(locations, null));
+        assertArrayEquals(new long[]{2, 6}, bitmapIndex.matchIds(JobFilter.of(null, null, null, 50000), 0, 10));
+        assertArrayEquals(new long[]{1, 3}, bitmapIndex.matchIds(JobFilter.of(null, null, 100000, null), 0, 10));
+        assertArrayEquals(new long[]{4}, bitmapIndex.idsWhere(BitmapIndex.Facet.PROVINCE, "AB"));
+        verify(jobRepository, times(1)).findBitmapRowsAfter(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    public void testUpdatesAndAppendsPatchInPlace() {
+        // Prepare: job 2 becomes a full-time job without a salary and job 6 is new
+        buildIndex();
+        when(jobRepository.findBitmapRowsByIds(anyCollection())).thenReturn(Arrays.asList(
+                new Object[]{2L, "Toronto, ON", "Full-time", "Toronto", "ON", null},
+                new Object[]{6L, "Halifax, NS", "Full-time", "Halifax", "NS", new BigDecimal(260000)}));
+
+        // Execute
+        bitmapIndex.onDataChanged(new DataChangedEvent(2, new long[]{2, 6}));
+
+        // Verify
+        assertEquals(6, bitmapIndex.count(JobFilter.builder().build()));
+        List<Object[]> jobTypes = bitmapIndex.countBy(BitmapIndex.Facet.JOB_TYPE, JobFilter.builder().build());
+        assertEquals(5L, countOf(jobTypes, "Full-time"));
+        assertEquals(0L, countOf(jobTypes, "Part-time"));
+        List<Object[]> salaries = bitmapIndex.countBySalaryRange(JobFilter.builder().build(), BitmapIndex.SALARY_BUCKET);
+        assertEquals(2L, salaries.get(0)[2]);
+        assertEquals(250000L, salaries.get(salaries.size() - 1)[0]);
+        assertArrayEquals(new long[]{3, 6}, bitmapIndex.matchIds(JobFilter.of(null, null, 100000, null), 0, 10));
+        assertArrayEquals(new long[]{6}, bitmapIndex.idsWhere(BitmapIndex.Facet.CITY, "halifax"));
+    }
+}
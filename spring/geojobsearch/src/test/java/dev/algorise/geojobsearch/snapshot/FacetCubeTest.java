@@ -0,0 +1,230 @@
+package dev.algorise.geojobsearch.snapshot;
+
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FacetCubeTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @InjectMocks
+    private FacetCube facetCube;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    // Helper method to build the cube over a small fixed set of jobs
+    private void buildCube() {
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{1L, "Toronto, ON", "Full-time", "Toronto", "ON", new BigDecimal(60000)},
+                new Object[]{2L, "Toronto, ON", "Part-time", "Toronto", "ON", new BigDecimal(40000)},
+                new Object[]{3L, "Montr\u00e9al, QC", "Full-time", "Montr\u00e9al", "QC", new BigDecimal(120000)},
+                new Object[]{4L, "Calgary, AB", "Full-time", "Calgary", "AB", null},
+                new Object[]{5L, null, "Contract", null, null, new BigDecimal(99999)});
+        when(jobRepository.findBitmapRowsAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        facetCube.rebuild();
+    }
+
+    // Helper method to compare count rows regardless of their type and order
+    private static String format(List<Object[]> rows) {
+        return rows.stream().map(Arrays::toString).sorted().collect(Collectors.joining(";"));
+    }
+
+    @Test
+    public void testNotReadyBeforeRebuild() {
+        assertFalse(facetCube.isReady());
+        assertNull(facetCube.countBy(BitmapIndex.Facet.LOCATION, JobFilter.builder().build()));
+        assertNull(facetCube.countBySalaryRange(JobFilter.builder().build(), BitmapIndex.SALARY_BUCKET));
+    }
+
+    @Test
+    public void testCountsMatchSqlGrouping() {
+        // Prepare
+        buildCube();
+
+        // Execute
+        List<Object[]> locations = facetCube.countBy(BitmapIndex.Facet.LOCATION,
+                JobFilter.of(null, "full-time", 50000, null));
+        List<Object[]> jobTypes = facetCube.countBy(BitmapIndex.Facet.JOB_TYPE,
+                JobFilter.of("montreal, qc", null, null, null));
+        List<Object[]> salaries = facetCube.countBySalaryRange(JobFilter.builder().build(), 50000);
+
+        // Verify: bounds exclude jobs without a salary, values match accent-insensitively
+        assertTrue(facetCube.isReady());
+        assertEquals("[Montr\u00e9al, QC, 1];[Toronto, ON, 1]", format(locations));
+        assertEquals("[Full-time, 1]", format(jobTypes));
+        assertEquals("[0, 49999, 1];[100000, 149999, 1];[50000, 99999, 2];[null, null, 1]", format(salaries));
+        assertNull(salaries.get(0)[0]);
+    }
+
+    @Test
+    public void testUnsupportedFiltersAreLeftToTheIndexes() {
+        // Prepare
+        buildCube();
+
+        // Execute and Verify
+        assertNull(facetCube.countBy(BitmapIndex.Facet.LOCATION,
+                JobFilter.builder().allKeywords(List.of("java")).build()));
+        assertNull(facetCube.countBy(BitmapIndex.Facet.CITY, JobFilter.builder().build()));
+        assertTrue(facetCube.countBy(BitmapIndex.Facet.LOCATION, JobFilter.of("Vancouver", null, null, null)).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalChangeAppliesDeltasOnly() {
+        // Prepare: job 1 moves, job 4 is deleted and job 6 is new
+        buildCube();
+        when(jobRepository.findBitmapRowsByIds(anyCollection())).thenReturn(Arrays.asList(
+                new Object[]{1L, "Calgary, AB", "Full-time", "Calgary", "AB", new BigDecimal(60000)},
+                new Object[]{6L, "Toronto, ON", "Full-time", "Toronto", "ON", null}));
+
+        // Execute
+        facetCube.onDataChanged(new DataChangedEvent(2, new long[]{4, 1, 6}));
+
+        // Verify
+        assertEquals("[Calgary, AB, 1];[Montr\u00e9al, QC, 1];[Toronto, ON, 1]",
+                format(facetCube.countBy(BitmapIndex.Facet.LOCATION, JobFilter.of(null, "Full-time", null, null))));
+        assertEquals("[Calgary, AB, 1];[Montr\u00e9al, QC, 1];[Toronto, ON, 1];[null, 1]",
+                format(facetCube.countBy(BitmapIndex.Facet.LOCATION, JobFilter.of(null, null, 1, null))));
+        verify(jobRepository, times(1)).findBitmapRowsAfter(any(), any(Pageable.class));
+    }
+
+    @Test
+    public void testAgreesWithBitmapIndexAfterRandomChanges() {
+        // Prepare
+        Random random = new Random(42);
+        String[] locations = {"Toronto, ON", "TORONTO, on", "Ottawa, ON", "Calgary, AB", null};
+        String[] jobTypes = {"Full-time", "Part-time", "Contract", null};
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            rows.add(randomRow(random, id, locations, jobTypes));
+        }
+        when(jobRepository.findBitmapRowsAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        facetCube.rebuild();
+        BitmapIndex bitmapIndex = new BitmapIndex(jobRepository);
+        bitmapIndex.rebuild();
+
+        // Execute: update, delete and add jobs
+        List<Object[]> changed = new ArrayList<>();
+        long[] changedIds = new long[60];
+        for (int i = 0; i < changedIds.length; i++) {
+            changedIds[i] = i < 50 ? 1 + random.nextInt(300) : 301 + i;
+            if (random.nextInt(4) > 0) {
+                changed.add(randomRow(random, changedIds[i], locations, jobTypes));
+            }
+        }
+        changed.sort((a, b) -> Long.compare((Long) a[0], (Long) b[0]));
+        List<Object[]> reloaded = changed.stream().filter(row -> changed.stream()
+                .filter(other -> other[0].equals(row[0])).findFirst().get() == row).collect(Collectors.toList());
+        when(jobRepository.findBitmapRowsByIds(anyCollection())).thenReturn(reloaded);
+        DataChangedEvent event = new DataChangedEvent(2, changedIds);
+        facetCube.onDataChanged(event);
+        bitmapIndex.onDataChanged(event);
+
+        // Verify
+        for (JobFilter filter : Arrays.asList(JobFilter.builder().build(), JobFilter.of(null, "full-time", null, null),
+                JobFilter.of("toronto, on", null, 40000, 120000), JobFilter.of(null, null, null, 75000))) {
+            assertEquals(format(bitmapIndex.countBy(BitmapIndex.Facet.LOCATION, filter)),
+                    format(facetCube.countBy(BitmapIndex.Facet.LOCATION, filter)));
+            assertEquals(format(bitmapIndex.countBy(BitmapIndex.Facet.JOB_TYPE, filter)),
+                    format(facetCube.countBy(BitmapIndex.Facet.JOB_TYPE, filter)));
+            assertEquals(format(bitmapIndex.countBySalaryRange(filter, BitmapIndex.SALARY_BUCKET)),
+                    format(facetCube.countBySalaryRange(filter, BitmapIndex.SALARY_BUCKET)));
+        }
+    }
+
+    @Test
+    public void testSalaryHistogramWithAnyBucketWidth() {
+        // Prepare
+        buildCube();
+
+        // Execute
+        List<Object[]> salaries = facetCube.countBySalaryRange(JobFilter.of(null, "full-time", null, null), 25000);
+
+        // Verify
+        assertEquals("[100000, 124999, 1];[50000, 74999, 1];[null, null, 1]", format(salaries));
+    }
+
+    @Test
+    public void testPercentilesMatchSortedSalaries() {
+        // Prepare
+        Random random = new Random(7);
+        String[] locations = {"Toronto, ON", "Ottawa, ON", null};
+        String[] jobTypes = {"Full-time", "Contract", null};
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            rows.add(randomRow(random, id, locations, jobTypes));
+        }
+        when(jobRepository.findBitmapRowsAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        facetCube.rebuild();
+        double[] percentiles = {0, 10, 50, 90, 99.9, 100};
+
+        for (JobFilter filter : Arrays.asList(JobFilter.builder().build(), JobFilter.of("toronto, on", null, null, null),
+                JobFilter.of(null, "contract", 60000, 150000))) {
+            // Execute
+            Integer[] result = facetCube.salaryPercentiles(filter, percentiles);
+
+            // Verify: nearest rank over the salaries of the matching jobs
+            List<Integer> sorted = rows.stream()
+                    .filter(row -> row[5] != null)
+                    .filter(row -> filter.getLocation() == null || filter.getLocation().equalsIgnoreCase((String) row[1]))
+                    .filter(row -> filter.getJobType() == null || filter.getJobType().equalsIgnoreCase((String) row[2]))
+                    .map(row -> ((BigDecimal) row[5]).intValue())
+                    .filter(salary -> filter.getMinSalary() == null || salary >= filter.getMinSalary())
+                    .filter(salary -> filter.getMaxSalary() == null || salary <= filter.getMaxSalary())
+                    .sorted().collect(Collectors.toList());
+            for (int i = 0; i < percentiles.length; i++) {
+                int rank = Math.max(1, (int) Math.ceil(percentiles[i] / 100 * sorted.size()));
+                assertEquals(sorted.get(rank - 1), result[i], "percentile " + percentiles[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testPercentilesAreNullWithoutSalaries() {
+        // Prepare
+        buildCube();
+
+        // Execute
+        Integer[] result = facetCube.salaryPercentiles(JobFilter.of("calgary, ab", null, null, null), new double[]{50});
+
+        // Verify
+        assertNull(result[0]);
+        assertNull(facetCube.salaryPercentiles(JobFilter.builder().allKeywords(List.of("java")).build(),
+                new double[]{50}));
+    }
+
+    // Helper method to create a job row with random facet values
+    private static Object[] randomRow(Random random, long id, String[] locations, String[] jobTypes) {
+        BigDecimal salary = random.nextInt(5) == 0 ? null : new BigDecimal(20000 + random.nextInt(16) * 10000);
+        return new Object[]{id, locations[random.nextInt(locations.length)],
+                jobTypes[random.nextInt(jobTypes.length)], null, null, salary};
+    }
+}
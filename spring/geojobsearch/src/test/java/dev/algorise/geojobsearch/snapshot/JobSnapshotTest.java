@@ -0,0 +1,209 @@
+package dev.algorise.geojobsearch.snapshot;
+
+import dev.algorise.geojobsearch.repository.JobFilter;
+import dev.algorise.geojobsearch.repository.JobKeyset;
+import dev.algorise.geojobsearch.repository.JobRepository;
+import dev.algorise.geojobsearch.cache.DataChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobSnapshotTest {
+
+    @Mock
+    private JobRepository jobRepository;
+
+    @InjectMocks
+    private JobSnapshot jobSnapshot;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    // Helper method to load the snapshot with a small fixed set of jobs
+    private void buildSnapshot() {
+        List<Object[]> rows = Arrays.asList(
+                new Object[]{1L, "Toronto, ON", "Full-time", new BigDecimal(60000), Date.valueOf("2024-03-01"),
+                        new BigDecimal("43.65"), new BigDecimal("-79.38")},
+                new Object[]{2L, "Toronto, ON", "Part-time", new BigDecimal(40000), Date.valueOf("2024-03-05"),
+                        new BigDecimal("43.65"), new BigDecimal("-79.38")},
+                new Object[]{3L, "Montr\u00e9al, QC", "Full-time", new BigDecimal(120000), null,
+                        new BigDecimal("45.50"), new BigDecimal("-73.57")},
+                new Object[]{4L, "Calgary, AB", "Full-time", null, Date.valueOf("2024-03-09"), null, null},
+                new Object[]{5L, null, "Contract", new BigDecimal(60000), Date.valueOf("2024-02-01"),
+                        new BigDecimal("51.04"), new BigDecimal("-114.07")});
+        when(jobRepository.findSnapshotRowsAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        jobSnapshot.rebuild();
+    }
+
+    @Test
+    public void testNotReadyBeforeRebuild() {
+        assertFalse(jobSnapshot.isReady());
+        assertNull(jobSnapshot.matchIds(JobFilter.of("Toronto, ON", null, null, null), null));
+    }
+
+    @Test
+    public void testFiltersOnLocationJobTypeAndSalary() {
+        // Prepare
+        buildSnapshot();
+
+        // Execute and Verify
+        assertTrue(jobSnapshot.isReady());
+        assertEquals(5, jobSnapshot.size());
+        assertArrayEquals(new long[]{1, 2}, jobSnapshot.matchIds(JobFilter.of("Toronto, ON", null, null, null), null));
+        assertArrayEquals(new long[]{1, 3}, jobSnapshot.matchIds(JobFilter.of(null, "Full-time", 50000, null), null));
+        assertArrayEquals(new long[]{1, 2, 5}, jobSnapshot.matchIds(JobFilter.of(null, null, null, 60000), null));
+        assertArrayEquals(new long[0], jobSnapshot.matchIds(JobFilter.of("Nowhere", null, null, null), null));
+    }
+
+    @Test
+    public void testNoSalaryBoundKeepsJobsWithoutSalary() {
+        // Prepare
+        buildSnapshot();
+
+        // Execute and Verify: like SQL, only a salary bound excludes a NULL salary
+        assertArrayEquals(new long[]{1, 3, 4}, jobSnapshot.matchIds(JobFilter.of(null, "Full-time", null, null), null));
+        assertArrayEquals(new long[]{1, 3}, jobSnapshot.matchIds(JobFilter.of(null, "Full-time", null, 200000), null));
+    }
+
+    @Test
+    public void testComparesLikeCaseAndAccentInsensitiveCollation() {
+        // Prepare
+        buildSnapshot();
+
+        // Execute and Verify
+        assertArrayEquals(new long[]{3}, jobSnapshot.matchIds(JobFilter.of("montreal, qc", null, null, null), null));
+        assertArrayEquals(new long[]{1, 2}, jobSnapshot.matchIds(JobFilter.of("TORONTO, ON ", null, null, null), null));
+    }
+
+    @Test
+    public void testSortsDescendingWithMissingValuesLast() {
+        // Prepare
+        buildSnapshot();
+        JobFilter all = JobFilter.builder().build();
+
+        // Execute and Verify
+        assertArrayEquals(new long[]{3, 1, 5, 2, 4}, jobSnapshot.matchIds(all, "salary"));
+        assertArrayEquals(new long[]{4, 2, 1, 5, 3}, jobSnapshot.matchIds(all, "date"));
+    }
+
+    @Test
+    public void testJobIdsAndBoxRestrictMatches() {
+        // Prepare
+        buildSnapshot();
+        JobFilter ids = JobFilter.builder().jobIds(Arrays.asList(2L, 3L, 4L)).build();
+        JobFilter box = JobFilter.builder().within(new BigDecimal(43), new BigDecimal(-80),
+                new BigDecimal(46), new BigDecimal(-73)).build();
+
+        // Execute and Verify: the job without coordinates is outside every box
+        assertArrayEquals(new long[]{2, 3, 4}, jobSnapshot.matchIds(ids, null));
+        assertArrayEquals(new long[]{1, 2, 3}, jobSnapshot.matchIds(box, null));
+    }
+
+    @Test
+    public void testPageIdsFollowsSqlKeysetOrder() {
+        // Prepare
+        buildSnapshot();
+        JobFilter all = JobFilter.builder().build();
+
+        // Execute and Verify: salary descending, ties by JobID descending, missing salaries last
+        assertArrayEquals(new long[]{3, 5}, jobSnapshot.pageIds(all, new JobKeyset("salary", null, null), 2));
+        assertArrayEquals(new long[]{1, 2},
+                jobSnapshot.pageIds(all, new JobKeyset("salary", new BigDecimal(60000), 5L), 2));
+        assertArrayEquals(new long[]{4}, jobSnapshot.pageIds(all, new JobKeyset("salary", new BigDecimal(40000), 2L), 2));
+        assertArrayEquals(new long[]{3, 4}, jobSnapshot.pageIds(all, JobKeyset.byJobId(2L), 2));
+    }
+
+    @Test
+    public void testPageIdsIntersectsKeywordIds() {
+        // Prepare
+        buildSnapshot();
+        BitSet matches = new BitSet();
+        matches.set(1);
+        matches.set(3);
+        matches.set(4);
+        JobFilter filter = JobFilter.builder().allKeywords(Collections.singletonList("java"))
+                .keywordMatches(matches).jobType("Full-time").build();
+
+        // Execute and Verify
+        assertArrayEquals(new long[]{3, 1}, jobSnapshot.pageIds(filter, new JobKeyset("salary", null, null), 2));
+    }
+
+    @Test
+    public void testKeywordAndCompanyFiltersFallBackToSql() {
+        // Prepare
+        buildSnapshot();
+
+        // Execute and Verify
+        assertNull(jobSnapshot.matchIds(JobFilter.builder().allKeywords(Collections.singletonList("java")).build(), null));
+        assertNull(jobSnapshot.matchIds(JobFilter.builder().companies(Collections.singletonList("acme")).build(), null));
+    }
+
+    @Test
+    public void testFailedRebuildKeepsPreviousSnapshot() {
+        // Prepare
+        buildSnapshot();
+        when(jobRepository.findSnapshotRowsAfter(eq(0L), any(Pageable.class))).thenThrow(new RuntimeException("down"));
+
+        // Execute
+        jobSnapshot.rebuild();
+
+        // Verify
+        assertEquals(5, jobSnapshot.size());
+    }
+
+    @Test
+    public void testIncrementalChangePatchesChangedRowsOnly() {
+        // Prepare: job 2 becomes a full-time job, job 4 is gone and job 6 is new
+        buildSnapshot();
+        when(jobRepository.findSnapshotRowsByIds(anyCollection())).thenReturn(Arrays.asList(
+                new Object[]{2L, "Toronto, ON", "Full-time", new BigDecimal(70000), Date.valueOf("2024-03-05"),
+                        new BigDecimal("43.65"), new BigDecimal("-79.38")},
+                new Object[]{6L, "Halifax, NS", "Full-time", new BigDecimal(80000), null, null, null}));
+
+        // Execute
+        jobSnapshot.onDataChanged(new DataChangedEvent(2, new long[]{6, 2, 4}));
+
+        // Verify
+        assertEquals(5, jobSnapshot.size());
+        assertArrayEquals(new long[]{1, 2, 3, 6}, jobSnapshot.matchIds(JobFilter.of(null, "Full-time", null, null), null));
+        assertArrayEquals(new long[]{6}, jobSnapshot.matchIds(JobFilter.of("halifax, ns", null, null, null), null));
+        assertArrayEquals(new long[]{3, 6, 2, 1, 5}, jobSnapshot.matchIds(JobFilter.builder().build(), "salary"));
+        verify(jobRepository, times(1)).findSnapshotRowsAfter(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    public void testChangeWithoutJobIdsRebuilds() {
+        // Prepare
+        buildSnapshot();
+
+        // Execute
+        jobSnapshot.onDataChanged(new DataChangedEvent(2));
+
+        // Verify
+        verify(jobRepository, times(2)).findSnapshotRowsAfter(eq(0L), any(Pageable.class));
+    }
+}